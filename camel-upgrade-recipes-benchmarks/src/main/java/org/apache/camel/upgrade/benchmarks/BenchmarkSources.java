@@ -0,0 +1,125 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.upgrade.benchmarks;
+
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.InMemoryExecutionContext;
+import org.openrewrite.Parser;
+import org.openrewrite.SourceFile;
+import org.openrewrite.java.JavaParser;
+import org.openrewrite.properties.PropertiesParser;
+import org.openrewrite.tree.ParseError;
+import org.openrewrite.xml.XmlParser;
+import org.openrewrite.yaml.YamlParser;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Sample sources of the benchmarks, one per kind of file migrated by the Camel recipes.
+ * <p>
+ * Java samples are type-attributed against the Camel 3 jars of the benchmark classpath, so the java recipes see the
+ * same types as when migrating a real project.
+ * </p>
+ */
+public final class BenchmarkSources {
+
+    /**
+     * Number of files returned by {@link #parseAll()} (one per {@link Kind}), used for throughput per file.
+     */
+    public static final int FILES = 4;
+
+    public enum Kind {
+        JAVA("MyRoutes.java", () -> JavaParser.fromJavaVersion()
+                .classpath("camel-api", "camel-core-model", "camel-support", "camel-util")),
+        XML("routes.xml", XmlParser::builder),
+        YAML("routes.camel.yaml", YamlParser::builder),
+        PROPERTIES("application.properties", PropertiesParser::builder);
+
+        private final String sample;
+        private final Supplier<Parser.Builder> parser;
+
+        Kind(String sample, Supplier<Parser.Builder> parser) {
+            this.sample = sample;
+            this.parser = parser;
+        }
+
+        public String getSample() {
+            return sample;
+        }
+
+        public Parser newParser() {
+            return parser.get().build();
+        }
+
+        /**
+         * Reads the sample, the text is not part of the measured parse cost.
+         */
+        public Parser.Input input() {
+            String text = read("/samples/" + sample);
+            return Parser.Input.fromString(Paths.get("src", "main", "resources", sample), text);
+        }
+
+        /**
+         * Parses the sample, the parser is reset first so it can be reused.
+         */
+        public SourceFile parse(Parser parser, Parser.Input input, ExecutionContext ctx) {
+            SourceFile sourceFile = parser.reset().parseInputs(List.of(input), null, ctx)
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalStateException("Sample " + sample + " was not parsed."));
+            if (sourceFile instanceof ParseError) {
+                throw new IllegalStateException("Sample " + sample + " could not be parsed.");
+            }
+            return sourceFile;
+        }
+
+        public SourceFile parse() {
+            return parse(newParser(), input(), new InMemoryExecutionContext());
+        }
+    }
+
+    private BenchmarkSources() {
+    }
+
+    /**
+     * Parses all samples, one file per {@link Kind}.
+     */
+    public static List<SourceFile> parseAll() {
+        List<SourceFile> sourceFiles = new ArrayList<>();
+        for (Kind kind : Kind.values()) {
+            sourceFiles.add(kind.parse());
+        }
+        return sourceFiles;
+    }
+
+    private static String read(String resource) {
+        try (InputStream is = BenchmarkSources.class.getResourceAsStream(resource)) {
+            if (is == null) {
+                throw new IllegalStateException("Sample " + resource + " not found.");
+            }
+            return new String(is.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
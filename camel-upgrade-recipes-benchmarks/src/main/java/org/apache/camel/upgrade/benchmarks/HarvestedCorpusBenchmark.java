@@ -0,0 +1,74 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.upgrade.benchmarks;
+
+import org.apache.camel.upgrade.benchmarks.corpus.HarvestedCorpus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openrewrite.InMemoryExecutionContext;
+import org.openrewrite.Recipe;
+import org.openrewrite.SourceFile;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of running the recipes of all tests over copies of the sources harvested from the tests, see
+ * {@link HarvestedCorpus}. Every invocation runs each recipe over its own sources, as the tests do.
+ * <p>
+ * The project root is taken from the system property {@code camel.upgrade.root}, the parent of the working directory
+ * by default (the benchmark module when started by the exec plugin).
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class HarvestedCorpusBenchmark {
+
+    @Param({"1", "10"})
+    public int replicas;
+
+    private Map<Recipe, List<SourceFile>> sourceFiles;
+
+    @Setup
+    public void setup() throws IOException {
+        sourceFiles = HarvestedCorpus.harvest(Paths.get(System.getProperty("camel.upgrade.root", "..")))
+                .parse(replicas, new InMemoryExecutionContext());
+    }
+
+    @Benchmark
+    public void run(Blackhole blackhole) {
+        sourceFiles.forEach((recipe, files) -> blackhole.consume(
+                HarvestedCorpus.ExecutionMode.RECIPE_RUN.run(recipe, files, new InMemoryExecutionContext())));
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.upgrade.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openrewrite.InMemoryExecutionContext;
+import org.openrewrite.Recipe;
+import org.openrewrite.RecipeRun;
+import org.openrewrite.SourceFile;
+import org.openrewrite.config.Environment;
+import org.openrewrite.internal.InMemoryLargeSourceSet;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of a whole recipe run (including the recipe scheduler) over all pre-parsed sample files, reported per file.
+ * <p>
+ * Covers the composite recipes: each version migration, the full plan of <i>latest.yaml</i> and
+ * <i>ChangeComponentUriRecipe</i> (composite of the java, xml and yaml uri recipes), benchmarked through its 4.20
+ * configuration.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class RecipeRunBenchmark {
+
+    @Param({
+            "org.apache.camel.upgrade.camel420.migratePulsarUris",
+            "org.apache.camel.upgrade.camel40.CamelMigrationRecipe",
+            "org.apache.camel.upgrade.camel44.CamelMigrationRecipe",
+            "org.apache.camel.upgrade.camel45.CamelMigrationRecipe",
+            "org.apache.camel.upgrade.camel46.CamelMigrationRecipe",
+            "org.apache.camel.upgrade.camel47.CamelMigrationRecipe",
+            "org.apache.camel.upgrade.camel49.CamelMigrationRecipe",
+            "org.apache.camel.upgrade.camel410.CamelMigrationRecipe",
+            "org.apache.camel.upgrade.camel411.CamelMigrationRecipe",
+            "org.apache.camel.upgrade.camel412.CamelMigrationRecipe",
+            "org.apache.camel.upgrade.camel413.CamelMigrationRecipe",
+            "org.apache.camel.upgrade.camel414.CamelMigrationRecipe",
+            "org.apache.camel.upgrade.camel415.CamelMigrationRecipe",
+            "org.apache.camel.upgrade.camel416.CamelMigrationRecipe",
+            "org.apache.camel.upgrade.camel417.CamelMigrationRecipe",
+            "org.apache.camel.upgrade.camel418.CamelMigrationRecipe",
+            "org.apache.camel.upgrade.camel419.CamelMigrationRecipe",
+            "org.apache.camel.upgrade.camel420.CamelMigrationRecipe",
+            "org.apache.camel.upgrade.CamelMigrationRecipe"})
+    public String recipe;
+
+    private Recipe instance;
+    private List<SourceFile> sourceFiles;
+
+    @Setup
+    public void setup() {
+        instance = Environment.builder()
+                .scanRuntimeClasspath()
+                .build()
+                .activateRecipes(recipe);
+        sourceFiles = BenchmarkSources.parseAll();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BenchmarkSources.FILES)
+    public RecipeRun run() {
+        return instance.run(new InMemoryLargeSourceSet(sourceFiles), new InMemoryExecutionContext());
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.upgrade.benchmarks;
+
+import org.apache.camel.upgrade.camel40.java.CamelAPIsRecipe;
+import org.apache.camel.upgrade.camel40.java.CamelBeanRecipe;
+import org.apache.camel.upgrade.camel40.xml.CircuitBreakerXmlDslRecipe;
+import org.apache.camel.upgrade.camel413.YamlDsl413Recipe;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.InMemoryExecutionContext;
+import org.openrewrite.Recipe;
+import org.openrewrite.SourceFile;
+import org.openrewrite.Tree;
+import org.openrewrite.TreeVisitor;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one visitor over one pre-parsed sample file, without the recipe scheduler. Visitors scheduled by
+ * <i>doAfterVisit</i> are therefore not part of the measurement, {@link RecipeRunBenchmark} covers them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class VisitorBenchmark {
+
+    @Param({"CamelAPIsRecipe", "CamelBeanRecipe", "YamlDsl413Recipe", "CircuitBreakerXmlDslRecipe"})
+    public String recipe;
+
+    private Recipe instance;
+    private SourceFile sourceFile;
+
+    @Setup
+    public void setup() {
+        BenchmarkSources.Kind kind;
+        switch (recipe) {
+            case "CamelAPIsRecipe":
+                instance = new CamelAPIsRecipe();
+                kind = BenchmarkSources.Kind.JAVA;
+                break;
+            case "CamelBeanRecipe":
+                instance = new CamelBeanRecipe();
+                kind = BenchmarkSources.Kind.JAVA;
+                break;
+            case "YamlDsl413Recipe":
+                instance = new YamlDsl413Recipe();
+                kind = BenchmarkSources.Kind.YAML;
+                break;
+            case "CircuitBreakerXmlDslRecipe":
+                instance = new CircuitBreakerXmlDslRecipe();
+                kind = BenchmarkSources.Kind.XML;
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown recipe " + recipe);
+        }
+        sourceFile = kind.parse();
+    }
+
+    @Benchmark
+    public Tree visit() {
+        ExecutionContext ctx = new InMemoryExecutionContext();
+        TreeVisitor<?, ExecutionContext> visitor = instance.getVisitor();
+        return visitor.isAcceptable(sourceFile, ctx) ? visitor.visit(sourceFile, ctx) : sourceFile;
+    }
+}
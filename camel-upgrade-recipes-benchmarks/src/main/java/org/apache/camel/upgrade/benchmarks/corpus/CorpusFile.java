@@ -0,0 +1,52 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.upgrade.benchmarks.corpus;
+
+import org.openrewrite.Parser;
+
+import java.nio.file.Path;
+
+/**
+ * File of a generated corpus, the path is relative to the root of the corpus.
+ */
+public final class CorpusFile {
+
+    private final Path path;
+    private final String text;
+
+    CorpusFile(Path path, String text) {
+        this.path = path;
+        this.text = text;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public Parser.Input toInput() {
+        return Parser.Input.fromString(path, text);
+    }
+
+    @Override
+    public String toString() {
+        return path.toString();
+    }
+}
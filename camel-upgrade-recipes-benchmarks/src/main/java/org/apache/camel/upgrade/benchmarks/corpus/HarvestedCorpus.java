@@ -0,0 +1,318 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.upgrade.benchmarks.corpus;
+
+import org.apache.camel.upgrade.benchmarks.BenchmarkSources;
+import org.jspecify.annotations.Nullable;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.InMemoryExecutionContext;
+import org.openrewrite.Parser;
+import org.openrewrite.Recipe;
+import org.openrewrite.RecipeException;
+import org.openrewrite.Result;
+import org.openrewrite.SourceFile;
+import org.openrewrite.config.Environment;
+import org.openrewrite.internal.InMemoryLargeSourceSet;
+import org.openrewrite.java.JavaParser;
+import org.openrewrite.tree.ParseError;
+import org.yaml.snakeyaml.Yaml;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Corpus of the before/after sources of the recipe tests ({@code src/test/java/**}{@code /*Test.java}) and of the
+ * recipe examples ({@code src/main/resources/META-INF/rewrite/examples.yml}) of all modules.
+ * <p>
+ * The corpus can be written to disk with any number of copies of every source, see {@link #writeTo(Path, int)}, used
+ * as the input of throughput benchmarks, see {@link #parse(int, ExecutionContext)}, and used to check that an
+ * execution mode of the recipes produces exactly the texts expected by the tests, see {@link #verify(ExecutionMode)}.
+ * </p>
+ * <p>
+ * Java sources are type-attributed with the jars of the tests of camel-upgrade-recipes
+ * ({@code target/test-classes/META-INF/rewrite/classpath}, created by the build of the module), without them the
+ * java recipes which depend on types do not change the sources.
+ * </p>
+ */
+public final class HarvestedCorpus {
+
+    private static final Path TEST_CLASSPATH = Paths.get("camel-upgrade-recipes", "target", "test-classes",
+            "META-INF", "rewrite", "classpath");
+
+    /**
+     * Way of running a recipe, e.g. a standard recipe run or an optimized execution which has to produce the same
+     * results.
+     */
+    @FunctionalInterface
+    public interface ExecutionMode {
+
+        ExecutionMode RECIPE_RUN = (recipe, sourceFiles, ctx) -> recipe.run(new InMemoryLargeSourceSet(sourceFiles), ctx)
+                .getChangeset()
+                .getAllResults()
+                .stream()
+                .filter(result -> result.getAfter() != null)
+                .map(Result::getAfter)
+                .collect(Collectors.toList());
+
+        /**
+         * Returns the changed source files, unchanged source files can be omitted.
+         */
+        List<SourceFile> run(Recipe recipe, List<SourceFile> sourceFiles, ExecutionContext ctx);
+    }
+
+    private final List<HarvestedSample> samples;
+    private final Map<String, Recipe> recipes = new HashMap<>();
+    private final Map<List<Path>, Parser> javaParsers = new HashMap<>();
+    private @Nullable Environment environment;
+
+    private HarvestedCorpus(List<HarvestedSample> samples) {
+        this.samples = samples;
+    }
+
+    /**
+     * Harvests the samples of all modules of the project.
+     */
+    public static HarvestedCorpus harvest(Path projectRoot) throws IOException {
+        List<HarvestedSample> samples = new ArrayList<>();
+        Path classpathDir = projectRoot.resolve(TEST_CLASSPATH);
+        TestSampleExtractor extractor = new TestSampleExtractor(Files.isDirectory(classpathDir) ? classpathDir : null,
+                samples);
+        JavaParser parser = JavaParser.fromJavaVersion().build();
+        ExecutionContext ctx = new InMemoryExecutionContext();
+
+        for (Path file : list(projectRoot, "glob:**/src/test/java/**/*Test.java")) {
+            parser.reset().parseInputs(List.of(Parser.Input.fromString(file, Files.readString(file))), null, ctx)
+                    .filter(cu -> !(cu instanceof ParseError))
+                    .forEach(cu -> extractor.visit(cu, ctx));
+        }
+        for (Path file : list(projectRoot, "glob:**/src/main/resources/META-INF/rewrite/examples.yml")) {
+            harvestExamples(projectRoot.relativize(file), file, samples);
+        }
+        return new HarvestedCorpus(samples);
+    }
+
+    public List<HarvestedSample> getSamples() {
+        return Collections.unmodifiableList(samples);
+    }
+
+    /**
+     * Writes {@code replicas} copies of every before source into {@code replica-<n>/<sample id>/}, the expected
+     * sources into {@code expected/<sample id>/} and the list of samples into {@code samples.tsv} (id, kind, recipe,
+     * path and whether a change is expected). Returns the number of written source files.
+     */
+    public int writeTo(Path directory, int replicas) throws IOException {
+        int count = 0;
+        StringBuilder index = new StringBuilder("id\tkind\trecipe\tpath\tchanged\n");
+        for (HarvestedSample sample : samples) {
+            for (int replica = 0; replica < replicas; replica++) {
+                write(directory.resolve(sample.sourcePath(replica)), sample.getBefore());
+                count++;
+            }
+            write(directory.resolve("expected").resolve(sample.getId()).resolve(sample.getPath()), sample.getExpected());
+            index.append(sample.getId()).append('\t')
+                    .append(sample.getKind()).append('\t')
+                    .append(sample.getRecipe() == null ? "" : sample.getRecipe()).append('\t')
+                    .append(sample.getPath()).append('\t')
+                    .append(sample.isChangeExpected()).append('\n');
+        }
+        write(directory.resolve("samples.tsv"), index.toString());
+        return count;
+    }
+
+    /**
+     * Parses {@code replicas} copies of every sample with a known recipe, grouped by the recipe.
+     */
+    public Map<Recipe, List<SourceFile>> parse(int replicas, ExecutionContext ctx) {
+        Map<Recipe, List<SourceFile>> sourceFiles = new LinkedHashMap<>();
+        for (Map.Entry<Recipe, List<HarvestedSample>> group : byRecipe().entrySet()) {
+            List<SourceFile> parsed = new ArrayList<>();
+            for (int replica = 0; replica < replicas; replica++) {
+                for (HarvestedSample sample : group.getValue()) {
+                    SourceFile sourceFile = parse(sample, replica, ctx);
+                    if (sourceFile != null) {
+                        parsed.add(sourceFile);
+                    }
+                }
+            }
+            sourceFiles.put(group.getKey(), parsed);
+        }
+        return sourceFiles;
+    }
+
+    /**
+     * Runs the recipe of every sample with the given execution mode and compares the results with the expected
+     * texts. Returns descriptions of the samples which differ, samples without a known recipe are not verified.
+     */
+    public List<String> verify(ExecutionMode mode) {
+        List<String> mismatches = new ArrayList<>();
+        ExecutionContext ctx = new InMemoryExecutionContext();
+        for (Map.Entry<Recipe, List<HarvestedSample>> group : byRecipe().entrySet()) {
+            Map<Path, HarvestedSample> byPath = new LinkedHashMap<>();
+            List<SourceFile> sourceFiles = new ArrayList<>();
+            for (HarvestedSample sample : group.getValue()) {
+                SourceFile sourceFile = parse(sample, 0, ctx);
+                if (sourceFile == null) {
+                    mismatches.add(sample.getId() + ": could not be parsed");
+                } else {
+                    sourceFiles.add(sourceFile);
+                    byPath.put(sourceFile.getSourcePath(), sample);
+                }
+            }
+
+            Map<Path, String> actual = new HashMap<>();
+            for (SourceFile sourceFile : mode.run(group.getKey(), sourceFiles, ctx)) {
+                actual.put(sourceFile.getSourcePath(), sourceFile.printAll());
+            }
+            for (Map.Entry<Path, HarvestedSample> entry : byPath.entrySet()) {
+                HarvestedSample sample = entry.getValue();
+                String text = actual.getOrDefault(entry.getKey(), sample.getBefore());
+                if (!text.equals(sample.getExpected())) {
+                    mismatches.add(sample.getId() + ": result of " + sample.getRecipe() + " differs from the expected text");
+                }
+            }
+        }
+        return mismatches;
+    }
+
+    /**
+     * Arguments are the project root, the target directory and optionally the number of copies of every source.
+     * Writes the corpus and verifies it with the standard recipe run.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            throw new IllegalArgumentException("Usage: HarvestedCorpus <project root> <directory> [replicas]");
+        }
+        HarvestedCorpus corpus = harvest(Paths.get(args[0]));
+        int count = corpus.writeTo(Paths.get(args[1]), args.length > 2 ? Integer.parseInt(args[2]) : 1);
+        System.out.println("Harvested " + corpus.getSamples().size() + " samples, written " + count + " files into " + args[1]);
+
+        List<String> mismatches = corpus.verify(ExecutionMode.RECIPE_RUN);
+        mismatches.forEach(System.out::println);
+        System.out.println(mismatches.size() + " samples differ from the expected text");
+    }
+
+    private Map<Recipe, List<HarvestedSample>> byRecipe() {
+        Map<Recipe, List<HarvestedSample>> groups = new LinkedHashMap<>();
+        for (HarvestedSample sample : samples) {
+            Recipe recipe = sample.getRecipe() == null ? null : recipe(sample.getRecipe());
+            if (recipe != null) {
+                groups.computeIfAbsent(recipe, r -> new ArrayList<>()).add(sample);
+            }
+        }
+        return groups;
+    }
+
+    /**
+     * Recipe of the samples, null if the recipe is not on the classpath (e.g. Spring Boot recipes).
+     */
+    private @Nullable Recipe recipe(String name) {
+        if (!recipes.containsKey(name)) {
+            if (environment == null) {
+                environment = Environment.builder().scanRuntimeClasspath().build();
+            }
+            Recipe recipe;
+            try {
+                recipe = environment.activateRecipes(name);
+            } catch (RecipeException e) {
+                recipe = null;
+            }
+            recipes.put(name, recipe);
+        }
+        return recipes.get(name);
+    }
+
+    private @Nullable SourceFile parse(HarvestedSample sample, int replica, ExecutionContext ctx) {
+        Parser parser = sample.getKind() == BenchmarkSources.Kind.JAVA
+                ? javaParsers.computeIfAbsent(sample.getClasspath(), cp -> JavaParser.fromJavaVersion().classpath(cp).build())
+                : sample.getKind().newParser();
+        return parser.reset().parseInputs(List.of(sample.toInput(replica)), null, ctx)
+                .filter(sourceFile -> !(sourceFile instanceof ParseError))
+                .findFirst()
+                .orElse(null);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void harvestExamples(Path relativePath, Path file, List<HarvestedSample> samples) throws IOException {
+        try (Reader reader = Files.newBufferedReader(file)) {
+            for (Object document : new Yaml().loadAll(reader)) {
+                if (!(document instanceof Map)) {
+                    continue;
+                }
+                Map<String, Object> example = (Map<String, Object>) document;
+                String recipe = (String) example.get("recipeName");
+                int index = 0;
+                for (Map<String, Object> item : (List<Map<String, Object>>) example.getOrDefault("examples", List.of())) {
+                    for (Map<String, Object> source : (List<Map<String, Object>>) item.getOrDefault("sources", List.of())) {
+                        BenchmarkSources.Kind kind = kind((String) source.get("language"));
+                        String before = (String) source.get("before");
+                        if (kind == null || before == null) {
+                            continue;
+                        }
+                        String after = (String) source.get("after");
+                        String path = (String) source.get("path");
+                        samples.add(new HarvestedSample(
+                                relativePath.getName(0) + "." + recipe.substring(recipe.lastIndexOf('.') + 1) + "-" + (++index),
+                                kind, recipe,
+                                path != null ? Paths.get(path) : Paths.get(kind == BenchmarkSources.Kind.JAVA
+                                        ? JavaParser.resolveSourcePathFromSourceText(Paths.get(""), before).toString()
+                                        : "file." + kind.name().toLowerCase(Locale.ROOT)),
+                                before, after == null || after.equals(before) ? null : after,
+                                Collections.emptyList()));
+                    }
+                }
+            }
+        }
+    }
+
+    private static BenchmarkSources.@Nullable Kind kind(@Nullable String language) {
+        if (language == null) {
+            return null;
+        }
+        try {
+            return BenchmarkSources.Kind.valueOf(language.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static List<Path> list(Path root, String pattern) throws IOException {
+        try (Stream<Path> files = Files.walk(root)) {
+            return files.filter(root.getFileSystem().getPathMatcher(pattern)::matches)
+                    .filter(p -> !p.toString().contains("/target/"))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private static void write(Path file, String text) throws IOException {
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, text, StandardCharsets.UTF_8);
+    }
+}
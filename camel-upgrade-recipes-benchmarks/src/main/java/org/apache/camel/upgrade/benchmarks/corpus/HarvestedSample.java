@@ -0,0 +1,114 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.upgrade.benchmarks.corpus;
+
+import org.apache.camel.upgrade.benchmarks.BenchmarkSources;
+import org.jspecify.annotations.Nullable;
+import org.openrewrite.Parser;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+/**
+ * Before (and expected after) source harvested from a recipe test or from {@code examples.yml}.
+ */
+public final class HarvestedSample {
+
+    private final String id;
+    private final BenchmarkSources.Kind kind;
+    private final @Nullable String recipe;
+    private final Path path;
+    private final String before;
+    private final @Nullable String after;
+    private final List<Path> classpath;
+
+    HarvestedSample(String id, BenchmarkSources.Kind kind, @Nullable String recipe, Path path, String before,
+                    @Nullable String after, List<Path> classpath) {
+        this.id = id;
+        this.kind = kind;
+        this.recipe = recipe;
+        this.path = path;
+        this.before = before;
+        this.after = after;
+        this.classpath = classpath;
+    }
+
+    /**
+     * Unique id, e.g. {@code CamelAPIsTest.exchangePattern} (with a suffix if the test contains more sources).
+     */
+    public String getId() {
+        return id;
+    }
+
+    public BenchmarkSources.Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * Name of the recipe applied by the test (declarative recipe or recipe class), null if it could not be
+     * determined from the test source.
+     */
+    public @Nullable String getRecipe() {
+        return recipe;
+    }
+
+    /**
+     * Path of the source relative to the sample directory.
+     */
+    public Path getPath() {
+        return path;
+    }
+
+    public String getBefore() {
+        return before;
+    }
+
+    /**
+     * Expected text after the recipe run, same as {@link #getBefore()} if no change is expected.
+     */
+    public String getExpected() {
+        return after == null ? before : after;
+    }
+
+    public boolean isChangeExpected() {
+        return after != null;
+    }
+
+    /**
+     * Jars used by the test to type-attribute java sources, empty for other kinds or if the jars are not built.
+     */
+    public List<Path> getClasspath() {
+        return classpath;
+    }
+
+    /**
+     * Input of the given copy of the sample, every copy has its own directory so the copies never collide.
+     */
+    public Parser.Input toInput(int replica) {
+        return Parser.Input.fromString(sourcePath(replica), before);
+    }
+
+    Path sourcePath(int replica) {
+        return Paths.get("replica-" + replica, id).resolve(path);
+    }
+
+    @Override
+    public String toString() {
+        return id;
+    }
+}
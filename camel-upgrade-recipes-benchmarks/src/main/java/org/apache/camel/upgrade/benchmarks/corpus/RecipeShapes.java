@@ -0,0 +1,120 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.upgrade.benchmarks.corpus;
+
+import org.openrewrite.config.Environment;
+import org.openrewrite.config.OptionDescriptor;
+import org.openrewrite.config.RecipeDescriptor;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+/**
+ * Options of the declarative recipes collected from the descriptor of a composite recipe.
+ * <p>
+ * Most of the migration is declarative (property key renames, removed dependencies, moved types ...), the synthetic
+ * corpus uses the options of those recipes as the code shapes to generate, so a recipe added to the yaml files is
+ * covered by the corpus without any change of the generator. Values are sorted, the corpus does not depend on the
+ * order of the descriptors.
+ * </p>
+ */
+final class RecipeShapes {
+
+    private final Map<String, SortedSet<String>> options = new HashMap<>();
+
+    private RecipeShapes() {
+    }
+
+    static RecipeShapes of(String recipeName) {
+        RecipeDescriptor descriptor = Environment.builder()
+                .scanRuntimeClasspath()
+                .build()
+                .activateRecipes(recipeName)
+                .getDescriptor();
+        RecipeShapes shapes = new RecipeShapes();
+        shapes.collect(descriptor);
+        return shapes;
+    }
+
+    /**
+     * Values of the option of all recipes with the given simple name, e.g. {@code ChangeType.oldFullyQualifiedTypeName}.
+     */
+    SortedSet<String> values(String recipe, String option) {
+        return options.getOrDefault(recipe + "." + option, new TreeSet<>());
+    }
+
+    /**
+     * Pairs of options of the same recipe instance joined with {@code |}, e.g. component and property of
+     * {@code ReplacePropertyInDataFormatXml}.
+     */
+    SortedSet<String> pairs(String recipe, String first, String second) {
+        return options.getOrDefault(recipe + "." + first + "|" + second, new TreeSet<>());
+    }
+
+    /**
+     * Property keys renamed or removed by the recipes, regular expressions are turned into one matching key.
+     */
+    List<String> propertyKeys() {
+        SortedSet<String> keys = new TreeSet<>();
+        keys.addAll(values("PropertiesAndYamlKeyUpdate", "oldPropertyKey"));
+        keys.addAll(values("ChangePropertyKey", "oldPropertyKey"));
+        keys.addAll(values("ChangePropertyKeyWithCaseChange", "oldPropertyKey"));
+        keys.addAll(values("DeleteProperty", "propertyKey"));
+        keys.addAll(values("ChangePropertyValue", "propertyKey"));
+
+        List<String> result = new ArrayList<>();
+        for (String key : keys) {
+            //leading group stands for an optional prefix
+            String sample = (key.startsWith("(.*)") ? key.substring(4) : key)
+                    .replace("(.*)", "Synthetic")
+                    .replace(".*", ".synthetic")
+                    .replace("\\.", ".");
+            //other regular expressions can't be turned into a key reliably
+            if (sample.matches("[A-Za-z0-9.\\-\\[\\]]+")) {
+                result.add(sample);
+            }
+        }
+        return result;
+    }
+
+    private void collect(RecipeDescriptor descriptor) {
+        String recipe = descriptor.getName().substring(descriptor.getName().lastIndexOf('.') + 1);
+        Map<String, String> values = new HashMap<>();
+        for (OptionDescriptor option : descriptor.getOptions()) {
+            if (option.getValue() instanceof String) {
+                String value = (String) option.getValue();
+                values.put(option.getName(), value);
+                options.computeIfAbsent(recipe + "." + option.getName(), k -> new TreeSet<>()).add(value);
+            }
+        }
+        for (Map.Entry<String, String> first : values.entrySet()) {
+            for (Map.Entry<String, String> second : values.entrySet()) {
+                if (!first.getKey().equals(second.getKey())) {
+                    options.computeIfAbsent(recipe + "." + first.getKey() + "|" + second.getKey(), k -> new TreeSet<>())
+                            .add(first.getValue() + "|" + second.getValue());
+                }
+            }
+        }
+        for (RecipeDescriptor child : descriptor.getRecipeList()) {
+            collect(child);
+        }
+    }
+}
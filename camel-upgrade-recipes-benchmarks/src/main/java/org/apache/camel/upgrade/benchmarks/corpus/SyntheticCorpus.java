@@ -0,0 +1,894 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.upgrade.benchmarks.corpus;
+
+import org.apache.camel.upgrade.benchmarks.BenchmarkSources;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.Parser;
+import org.openrewrite.SourceFile;
+import org.openrewrite.maven.MavenParser;
+import org.openrewrite.tree.ParseError;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.SortedSet;
+
+/**
+ * Generator of synthetic multi-module Camel projects for scale testing of the recipes.
+ * <p>
+ * Every module contains Java DSL route builders with long fluent chains, XML DSL files, multi-document YAML DSL files,
+ * {@code application.properties}, {@code application.yml} and a pom, all written against the chosen old Camel version.
+ * The first file of each kind in every module contains every code shape once, so even the smallest corpus triggers all
+ * recipes, the remaining content is a random mix of the shapes. Declarative shapes (property keys, dependencies, moved
+ * types and methods ...) are taken from the options of the recipes, see {@link RecipeShapes}, the shapes of the
+ * imperative recipes are listed below. Java recipes recognize removed or moved APIs only if the jars declaring them are
+ * on the classpath of the parser.
+ * </p>
+ * <p>
+ * The corpus depends only on the configuration, the same seed always gives the same files. Run
+ * {@code java -cp <benchmarks classpath> org.apache.camel.upgrade.benchmarks.corpus.SyntheticCorpus target/corpus seed=1 modules=20}
+ * to write a corpus to disk.
+ * </p>
+ */
+public final class SyntheticCorpus {
+
+    private static final String DEFAULT_RECIPE = "org.apache.camel.upgrade.CamelMigrationRecipe";
+
+    /**
+     * Steps of the Java DSL chains, %1$d is an unique number.
+     */
+    private static final String[] JAVA_STEPS = {
+            ".to(\"bean:orderService%1$d?method=process(com.example.Order, int)\")",
+            ".to(\"pulsar:persistent://public/cluster%1$d/default/topic%1$d?numberOfConsumers=2\")",
+            ".throttle(%1$d).timePeriodMillis(1000)",
+            ".choice().when().tokenize(\"token\", \"header%1$d\").to(\"mock:tokenize%1$d\").end()",
+            ".choice().when().jsonpath(\"$.order\", true, Object.class, \"header%1$d\").to(\"mock:jsonpath%1$d\").end()",
+            ".choice().when().xpath(\"/order/item\", String.class, \"header%1$d\").to(\"mock:xpath%1$d\").end()",
+            ".choice().when(simple(\"${header.count} > %1$d\")).to(\"mock:when%1$d\").endChoice().otherwise().to(\"mock:otherwise%1$d\").end()",
+            ".inOut(\"direct:inOut%1$d\")",
+            ".inOnly(\"direct:inOnly%1$d\")",
+            ".setExchangePattern(ExchangePattern.InOptionalOut)",
+            ".to(\"aws2-sns://topic%1$d?subject=subject&subscribeSNStoSQS=true&queueUrl=https://sqs.eu-west-1.amazonaws.com/%1$d/queue\")",
+            ".setHeader(\"aws%1$d\", constant(\"{{aws:secret%1$d/field}}\"))",
+            ".setHeader(\"azure%1$d\", constant(\"{{azure:secret%1$d/field}}\"))",
+            ".setHeader(\"gcp%1$d\", constant(\"{{gcp:secret%1$d/field}}\"))",
+            ".setHeader(\"hashicorp%1$d\", constant(\"{{hashicorp:secret:secret%1$d/field}}\"))",
+            ".process(exchange -> exchange.getIn().getHeader(Exchange.HTTP_SERVLET_REQUEST, Object.class))",
+            ".process(exchange -> exchange.setProperty(ExchangePropertyKey.CHARSET_NAME, exchange.getProperty(ExchangePropertyKey.TO_ENDPOINT)))",
+            ".process(exchange -> exchange.removeProperty(ExchangePropertyKey.FAILURE_ENDPOINT))",
+            ".process(exchange -> exchange.getIn().setHeader(\"created%1$d\", exchange.getCreated()))",
+            ".to(\"netty:tcp://localhost:%1$d?keyStoreFile=keystore.jks&trustStoreFile=truststore.jks\")",
+            ".log(\"step %1$d ${body}\")",
+            ".to(\"direct:step%1$d\")",
+    };
+
+    /**
+     * Steps of the XML DSL routes, %1$d is an unique number.
+     */
+    private static final String[] XML_STEPS = {
+            """
+            <circuitBreaker>
+                <resilience4jConfiguration>
+                    <failureRateThreshold>50</failureRateThreshold>
+                    <timeoutEnabled>true</timeoutEnabled>
+                    <timeoutDuration>%1$d</timeoutDuration>
+                    <bulkheadEnabled>true</bulkheadEnabled>
+                </resilience4jConfiguration>
+                <to uri="http://localhost:%1$d/service"/>
+                <onFallback>
+                    <transform><constant>fallback</constant></transform>
+                </onFallback>
+            </circuitBreaker>
+            """,
+            """
+            <resequence>
+                <simple>${header.seq}</simple>
+                <stream-config capacity="%1$d" timeout="1000"/>
+                <to uri="mock:stream%1$d"/>
+            </resequence>
+            """,
+            """
+            <resequence>
+                <simple>${header.seq}</simple>
+                <batch-config batchSize="%1$d" batchTimeout="1000"/>
+                <to uri="mock:batch%1$d"/>
+            </resequence>
+            """,
+            """
+            <loadBalance>
+                <failover roundRobin="true" maximumFailoverAttempts="%1$d"/>
+                <to uri="direct:primary%1$d"/>
+                <to uri="direct:secondary%1$d"/>
+            </loadBalance>
+            """,
+            """
+            <saga sagaService="sagaService%1$d">
+                <compensation uri="direct:compensation%1$d"/>
+                <completion uri="direct:completion%1$d"/>
+                <to uri="direct:action%1$d"/>
+            </saga>
+            """,
+            """
+            <marshal>
+                <fury/>
+            </marshal>
+            """,
+            """
+            <to uri="pulsar:persistent://public/cluster%1$d/default/topic%1$d"/>
+            """,
+            """
+            <to uri="netty:tcp://localhost:%1$d?keyStoreFile=keystore.jks&amp;trustStoreFile=truststore.jks"/>
+            """,
+            """
+            <setHeader name="header%1$d">
+                <simple>${body} %1$d</simple>
+            </setHeader>
+            """,
+            """
+            <to uri="direct:step%1$d"/>
+            """,
+    };
+
+    /**
+     * Top level XML elements next to the routes, %1$d is an unique number.
+     */
+    private static final String[] XML_ELEMENTS = {
+            """
+            <bean name="scripted%1$d" type="groovy" beanType="com.example.Service">
+                <script>new com.example.Service(%1$d)</script>
+            </bean>
+            """,
+            """
+            <bean name="configured%1$d" type="com.example.Service">
+                <property key="timeout" value="%1$d"/>
+            </bean>
+            """,
+            """
+            <intercept>
+                <when>
+                    <simple>${body} contains '%1$d'</simple>
+                </when>
+                <to uri="log:intercept%1$d"/>
+            </intercept>
+            """,
+            """
+            <interceptSendToEndpoint uri="mock:*">
+                <when>
+                    <simple>${header.id} == %1$d</simple>
+                </when>
+                <to uri="log:interceptSend%1$d"/>
+            </interceptSendToEndpoint>
+            """,
+            """
+            <rest path="/api%1$d">
+                <securityDefinitions>
+                    <bearer key="bearer%1$d" description="token"/>
+                </securityDefinitions>
+                <get path="/orders" to="direct:orders%1$d"/>
+            </rest>
+            """,
+            """
+            <dataFormats>
+                <fury id="fury%1$d"/>
+            </dataFormats>
+            """,
+    };
+
+    /**
+     * Steps of the YAML DSL routes, %1$d is an unique number.
+     */
+    private static final String[] YAML_STEPS = {
+            """
+            - set-header:
+                name: header%1$d
+                simple: "${body} %1$d"
+            """,
+            """
+            - transform:
+                toType: json
+            """,
+            """
+            - load-balance:
+                failover:
+                  round-robin: true
+                  maximum-failover-attempts: %1$d
+                steps:
+                  - to:
+                      uri: direct:primary%1$d
+            """,
+            """
+            - saga:
+                compensation:
+                  uri: direct:compensation%1$d
+                completion:
+                  uri: direct:completion%1$d
+                steps:
+                  - to:
+                      uri: direct:action%1$d
+            """,
+            """
+            - marshal:
+                fury: {}
+            """,
+            """
+            - to:
+                uri: pulsar:persistent://public/cluster%1$d/default/topic%1$d
+            """,
+            """
+            - to:
+                uri: netty:tcp://localhost:%1$d
+                parameters:
+                  keyStoreFile: keystore.jks
+                  trustStoreFile: truststore.jks
+            """,
+            """
+            - circuitBreaker:
+                resilience4jConfiguration:
+                  failureRateThreshold: 50
+                  waitDurationInOpenState: %1$d
+                steps:
+                  - to:
+                      uri: http://localhost:%1$d/service
+            """,
+            """
+            - to:
+                uri: direct:step%1$d
+            """,
+    };
+
+    /**
+     * Top level YAML DSL items, %1$d is an unique number.
+     */
+    private static final String[] YAML_ITEMS = {
+            """
+            - beans:
+                - name: scripted%1$d
+                  type: groovy
+                  beanType: com.example.Service
+                  script: new com.example.Service(%1$d)
+                - name: configured%1$d
+                  type: com.example.Service
+                  property:
+                    - key: timeout
+                      value: %1$d
+            """,
+            """
+            - route-configuration:
+                - id: configuration%1$d
+                - on-exception:
+                    handled:
+                      constant: "true"
+                    exception:
+                      - java.lang.Exception
+                    steps:
+                      - log:
+                          message: failed %1$d
+            """,
+            """
+            - rest:
+                path: /api%1$d
+                securityDefinitions:
+                  bearer:
+                    key: bearer%1$d
+                get:
+                  - path: /orders
+                    to: direct:orders%1$d
+            """,
+            """
+            - route:
+                id: stepsOutsideFrom%1$d
+                from:
+                  uri: timer:tick%1$d
+                steps:
+                  - to:
+                      uri: direct:step%1$d
+            """,
+    };
+
+    private final long seed;
+    private int modules = 4;
+    private int routeBuildersPerModule = 8;
+    private int routesPerFile = 4;
+    private int chainLength = 30;
+    private int xmlFilesPerModule = 4;
+    private int yamlFilesPerModule = 4;
+    private int yamlDocuments = 3;
+    private int propertiesPerModule = 100;
+    private String camelVersion = "3.18.6";
+    private String recipe = DEFAULT_RECIPE;
+
+    public SyntheticCorpus(long seed) {
+        this.seed = seed;
+    }
+
+    public SyntheticCorpus modules(int modules) {
+        this.modules = modules;
+        return this;
+    }
+
+    public SyntheticCorpus routeBuildersPerModule(int routeBuildersPerModule) {
+        this.routeBuildersPerModule = routeBuildersPerModule;
+        return this;
+    }
+
+    /**
+     * Number of routes in every route builder and in every XML or YAML document.
+     */
+    public SyntheticCorpus routesPerFile(int routesPerFile) {
+        this.routesPerFile = routesPerFile;
+        return this;
+    }
+
+    /**
+     * Number of steps of every route.
+     */
+    public SyntheticCorpus chainLength(int chainLength) {
+        this.chainLength = chainLength;
+        return this;
+    }
+
+    public SyntheticCorpus xmlFilesPerModule(int xmlFilesPerModule) {
+        this.xmlFilesPerModule = xmlFilesPerModule;
+        return this;
+    }
+
+    public SyntheticCorpus yamlFilesPerModule(int yamlFilesPerModule) {
+        this.yamlFilesPerModule = yamlFilesPerModule;
+        return this;
+    }
+
+    /**
+     * Number of documents separated by {@code ---} in every YAML DSL file.
+     */
+    public SyntheticCorpus yamlDocuments(int yamlDocuments) {
+        this.yamlDocuments = yamlDocuments;
+        return this;
+    }
+
+    /**
+     * Number of entries of {@code application.properties} (and of {@code application.yml}), at least all keys known to
+     * the recipes are generated.
+     */
+    public SyntheticCorpus propertiesPerModule(int propertiesPerModule) {
+        this.propertiesPerModule = propertiesPerModule;
+        return this;
+    }
+
+    /**
+     * Camel version of the generated poms, e.g. 3.18.6, 4.0.0 or 4.4.0.
+     */
+    public SyntheticCorpus camelVersion(String camelVersion) {
+        this.camelVersion = camelVersion;
+        return this;
+    }
+
+    /**
+     * Composite recipe whose declarative recipes provide the shapes, defaults to the whole migration.
+     */
+    public SyntheticCorpus recipe(String recipe) {
+        this.recipe = recipe;
+        return this;
+    }
+
+    public List<CorpusFile> generate() {
+        RecipeShapes shapes = RecipeShapes.of(recipe);
+        List<CorpusFile> files = new ArrayList<>();
+        files.add(new CorpusFile(Paths.get("pom.xml"), rootPom()));
+        for (int module = 0; module < modules; module++) {
+            new ModuleGenerator(module, shapes, new Random(seed * 31 + module)).generate(files);
+        }
+        return files;
+    }
+
+    /**
+     * Generates and parses the corpus, java sources are type-attributed with the Camel 3 jars of the benchmarks. Poms
+     * are parsed together (their dependencies are resolved from the remote repositories), files which can not be
+     * parsed are left out.
+     */
+    public List<SourceFile> parse(ExecutionContext ctx) {
+        Map<BenchmarkSources.Kind, Parser> parsers = new EnumMap<>(BenchmarkSources.Kind.class);
+        List<Parser.Input> poms = new ArrayList<>();
+        List<SourceFile> sourceFiles = new ArrayList<>();
+        for (CorpusFile file : generate()) {
+            String name = file.getPath().getFileName().toString();
+            if ("pom.xml".equals(name)) {
+                poms.add(file.toInput());
+                continue;
+            }
+            BenchmarkSources.Kind kind = name.endsWith(".java") ? BenchmarkSources.Kind.JAVA
+                    : name.endsWith(".xml") ? BenchmarkSources.Kind.XML
+                    : name.endsWith(".properties") ? BenchmarkSources.Kind.PROPERTIES
+                    : BenchmarkSources.Kind.YAML;
+            parsers.computeIfAbsent(kind, BenchmarkSources.Kind::newParser)
+                    .parseInputs(List.of(file.toInput()), null, ctx)
+                    .forEach(sourceFiles::add);
+        }
+        MavenParser.builder().build().parseInputs(poms, null, ctx).forEach(sourceFiles::add);
+        sourceFiles.removeIf(sourceFile -> sourceFile instanceof ParseError);
+        return sourceFiles;
+    }
+
+    /**
+     * Writes the corpus into the directory, returns the number of written files.
+     */
+    public int writeTo(Path directory) throws IOException {
+        List<CorpusFile> files = generate();
+        for (CorpusFile file : files) {
+            Path target = directory.resolve(file.getPath());
+            Files.createDirectories(target.getParent());
+            Files.writeString(target, file.getText(), StandardCharsets.UTF_8);
+        }
+        return files.size();
+    }
+
+    /**
+     * Arguments are the target directory followed by {@code key=value} pairs, e.g. {@code seed=1 modules=20}.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            throw new IllegalArgumentException("Usage: SyntheticCorpus <directory> [seed=42] [modules=4] [routeBuilders=8]"
+                    + " [routesPerFile=4] [chainLength=30] [xmlFiles=4] [yamlFiles=4] [yamlDocuments=3]"
+                    + " [properties=100] [camelVersion=3.18.6] [recipe=" + DEFAULT_RECIPE + "]");
+        }
+        SyntheticCorpus corpus = new SyntheticCorpus(Long.parseLong(argument(args, "seed", "42")))
+                .modules(Integer.parseInt(argument(args, "modules", "4")))
+                .routeBuildersPerModule(Integer.parseInt(argument(args, "routeBuilders", "8")))
+                .routesPerFile(Integer.parseInt(argument(args, "routesPerFile", "4")))
+                .chainLength(Integer.parseInt(argument(args, "chainLength", "30")))
+                .xmlFilesPerModule(Integer.parseInt(argument(args, "xmlFiles", "4")))
+                .yamlFilesPerModule(Integer.parseInt(argument(args, "yamlFiles", "4")))
+                .yamlDocuments(Integer.parseInt(argument(args, "yamlDocuments", "3")))
+                .propertiesPerModule(Integer.parseInt(argument(args, "properties", "100")))
+                .camelVersion(argument(args, "camelVersion", "3.18.6"))
+                .recipe(argument(args, "recipe", DEFAULT_RECIPE));
+        int count = corpus.writeTo(Paths.get(args[0]));
+        System.out.println("Generated " + count + " files into " + args[0]);
+    }
+
+    private static String argument(String[] args, String key, String defaultValue) {
+        for (int i = 1; i < args.length; i++) {
+            if (args[i].startsWith(key + "=")) {
+                return args[i].substring(key.length() + 1);
+            }
+        }
+        return defaultValue;
+    }
+
+    private String rootPom() {
+        StringBuilder modulesXml = new StringBuilder();
+        for (int module = 0; module < modules; module++) {
+            modulesXml.append("        <module>").append(moduleName(module)).append("</module>\n");
+        }
+        return """
+                <?xml version="1.0" encoding="UTF-8"?>
+                <project xmlns="http://maven.apache.org/POM/4.0.0">
+                    <modelVersion>4.0.0</modelVersion>
+                    <groupId>com.example.corpus</groupId>
+                    <artifactId>corpus-parent</artifactId>
+                    <version>1.0.0-SNAPSHOT</version>
+                    <packaging>pom</packaging>
+
+                    <properties>
+                        <camel.version>%s</camel.version>
+                        <maven.compiler.release>11</maven.compiler.release>
+                    </properties>
+
+                    <modules>
+                %s    </modules>
+
+                    <dependencyManagement>
+                        <dependencies>
+                            <dependency>
+                                <groupId>org.apache.camel</groupId>
+                                <artifactId>camel-bom</artifactId>
+                                <version>${camel.version}</version>
+                                <type>pom</type>
+                                <scope>import</scope>
+                            </dependency>
+                        </dependencies>
+                    </dependencyManagement>
+                </project>
+                """.formatted(camelVersion, modulesXml);
+    }
+
+    private static String moduleName(int module) {
+        return "module-" + module;
+    }
+
+    /**
+     * Picks the i-th shape, the first pass goes over all shapes in order so that every shape is used.
+     */
+    private static String pick(String[] shapes, int i, boolean full, Random random) {
+        return full && i < shapes.length ? shapes[i] : shapes[random.nextInt(shapes.length)];
+    }
+
+    private static String indent(String text, int spaces) {
+        return text.indent(spaces);
+    }
+
+    /**
+     * Generates the files of one module, every module has its own random generator so that the modules do not depend
+     * on each other.
+     */
+    private final class ModuleGenerator {
+        private final int module;
+        private final RecipeShapes shapes;
+        private final Random random;
+        private final Path root;
+        private final String javaPackage;
+        private int counter;
+
+        private ModuleGenerator(int module, RecipeShapes shapes, Random random) {
+            this.module = module;
+            this.shapes = shapes;
+            this.random = random;
+            this.root = Paths.get(moduleName(module));
+            this.javaPackage = "com.example.module" + module;
+        }
+
+        private void generate(List<CorpusFile> files) {
+            files.add(new CorpusFile(root.resolve("pom.xml"), pom()));
+            Path java = root.resolve(Paths.get("src", "main", "java")).resolve(javaPackage.replace('.', '/'));
+            Path resources = root.resolve(Paths.get("src", "main", "resources"));
+            for (int i = 0; i < routeBuildersPerModule; i++) {
+                files.add(new CorpusFile(java.resolve("Routes" + i + ".java"), routeBuilder(i)));
+            }
+            files.add(new CorpusFile(java.resolve("LegacyApis.java"), legacyApis()));
+            files.add(new CorpusFile(java.resolve("ContextStart.java"), contextStart()));
+            for (int i = 0; i < xmlFilesPerModule; i++) {
+                files.add(new CorpusFile(resources.resolve(Paths.get("camel", "routes" + i + ".xml")), xmlRoutes(i)));
+            }
+            for (int i = 0; i < yamlFilesPerModule; i++) {
+                files.add(new CorpusFile(resources.resolve(Paths.get("camel", "routes" + i + ".camel.yaml")), yamlRoutes(i)));
+            }
+            files.add(new CorpusFile(resources.resolve("application.properties"), properties()));
+            files.add(new CorpusFile(resources.resolve("application.yml"), applicationYaml()));
+        }
+
+        private int next() {
+            return ++counter;
+        }
+
+        private String pom() {
+            StringBuilder dependencies = new StringBuilder();
+            dependency(dependencies, "camel-core");
+            dependency(dependencies, "camel-main");
+            SortedSet<String> artifacts = shapes.values("RemoveDependency", "artifactId");
+            artifacts.addAll(shapes.values("ChangeDependencyGroupIdAndArtifactId", "oldArtifactId"));
+            for (String artifact : artifacts) {
+                //module 0 depends on every artifact known to the recipes
+                if (artifact.startsWith("camel-") && (module == 0 || random.nextInt(4) == 0)) {
+                    dependency(dependencies, artifact);
+                }
+            }
+            return """
+                    <?xml version="1.0" encoding="UTF-8"?>
+                    <project xmlns="http://maven.apache.org/POM/4.0.0">
+                        <modelVersion>4.0.0</modelVersion>
+                        <parent>
+                            <groupId>com.example.corpus</groupId>
+                            <artifactId>corpus-parent</artifactId>
+                            <version>1.0.0-SNAPSHOT</version>
+                        </parent>
+                        <artifactId>%s</artifactId>
+
+                        <dependencies>
+                    %s    </dependencies>
+                    </project>
+                    """.formatted(moduleName(module), dependencies);
+        }
+
+        private void dependency(StringBuilder dependencies, String artifactId) {
+            dependencies.append("""
+                    <dependency>
+                        <groupId>org.apache.camel</groupId>
+                        <artifactId>%s</artifactId>
+                    </dependency>
+                    """.formatted(artifactId).indent(8));
+        }
+
+        private String routeBuilder(int index) {
+            StringBuilder routes = new StringBuilder();
+            for (int route = 0; route < routesPerFile; route++) {
+                routes.append("        from(\"direct:module").append(module).append("-routes").append(index)
+                        .append('-').append(route).append("\")\n");
+                routes.append("                .routeId(\"module").append(module).append("-routes").append(index)
+                        .append('-').append(route).append("\")\n");
+                for (int step = 0; step < chainLength; step++) {
+                    routes.append("                ")
+                            .append(String.format(pick(JAVA_STEPS, step, index == 0 && route == 0, random), next()))
+                            .append('\n');
+                }
+                routes.append("                .to(\"mock:end\");\n");
+            }
+            return """
+                    package %s;
+
+                    import org.apache.camel.Exchange;
+                    import org.apache.camel.ExchangePattern;
+                    import org.apache.camel.ExchangePropertyKey;
+                    import org.apache.camel.builder.RouteBuilder;
+
+                    public class Routes%d extends RouteBuilder {
+
+                        @Override
+                        public void configure() throws Exception {
+                    %s    }
+                    }
+                    """.formatted(javaPackage, index, routes);
+        }
+
+        /**
+         * Usages of the APIs changed by the Java recipes, moved types, renamed methods and constants are taken from the
+         * recipe options.
+         */
+        private String legacyApis() {
+            StringBuilder fields = new StringBuilder();
+            int i = 0;
+            for (String type : shapes.values("ChangeType", "oldFullyQualifiedTypeName")) {
+                fields.append("    private ").append(type.replace('$', '.')).append(" type").append(i++).append(";\n");
+            }
+            for (String constant : shapes.values("ReplaceConstantWithAnotherConstant", "existingFullyQualifiedConstantName")) {
+                fields.append("    private Object constant").append(i++).append(" = ").append(constant).append(";\n");
+            }
+
+            StringBuilder methods = new StringBuilder();
+            for (String pattern : shapes.values("ChangeMethodName", "methodPattern")) {
+                String[] parts = pattern.split(" ");
+                if (parts.length == 2 && !parts[0].contains("*") && parts[1].indexOf('(') > 0) {
+                    methods.append("""
+                            public void call%d(%s target) {
+                                target.%s();
+                            }
+
+                            """.formatted(i++, parts[0], parts[1].substring(0, parts[1].indexOf('('))).indent(4));
+                }
+            }
+            StringBuilder getters = new StringBuilder();
+            for (String getter : shapes.values("MoveGetterToExtendedCamelContext", "oldMethodName")) {
+                getters.append("        context.").append(getter).append("();\n");
+            }
+            StringBuilder pluginGetters = new StringBuilder();
+            for (String getter : shapes.values("MoveGetterToPluginHelper", "oldMethodName")) {
+                pluginGetters.append("        extended.").append(getter).append("();\n");
+            }
+
+            return """
+                    package %s;
+
+                    import org.apache.camel.CamelContext;
+                    import org.apache.camel.Exchange;
+                    import org.apache.camel.ExtendedCamelContext;
+                    import org.apache.camel.ProducerTemplate;
+                    import org.apache.camel.ThreadPoolRejectedPolicy;
+                    import org.apache.camel.builder.SimpleBuilder;
+                    import org.apache.camel.saga.InMemorySagaService;
+                    import org.apache.camel.spi.PropertiesComponent;
+                    import org.apache.camel.spi.Synchronization;
+                    import org.apache.camel.util.StopWatch;
+                    import org.apache.http.impl.client.BasicCredentialsProvider;
+                    import org.eclipse.milo.opcua.sdk.client.subscriptions.OpcUaMonitoredItem;
+
+                    public class LegacyApis {
+
+                        private ThreadPoolRejectedPolicy policy = ThreadPoolRejectedPolicy.Discard;
+                        private SimpleBuilder simple = SimpleBuilder.simple("${body}");
+                        private BasicCredentialsProvider credentials = new BasicCredentialsProvider();
+                    %s
+                        public void context(CamelContext context) {
+                            ExtendedCamelContext extended = context.adapt(ExtendedCamelContext.class);
+                            context.getExtension(ExtendedCamelContext.class);
+                            context.setDumpRoutes(true);
+                            context.getPropertiesComponent().getLocalProperties();
+                        }
+
+                        public void abstractContext(org.apache.camel.impl.engine.AbstractCamelContext context) {
+                    %s    }
+
+                        public void extendedContext(ExtendedCamelContext extended) {
+                    %s    }
+
+                        public long stopWatch() {
+                            StopWatch watch = new StopWatch(System.currentTimeMillis());
+                            return watch.taken();
+                        }
+
+                        public void async(ProducerTemplate template, Exchange exchange) {
+                            template.asyncCallback("direct:async", exchange, (Synchronization) null);
+                        }
+
+                        public void saga(InMemorySagaService service) {
+                            service.newSaga();
+                        }
+
+                        public void lookup(PropertiesComponent properties) {
+                            properties.getPropertiesLookup().lookup("key");
+                        }
+
+                        public void milo(OpcUaMonitoredItem item) {
+                            item.setValueConsumer(value -> System.out.println(value));
+                        }
+
+                    %s}
+                    """.formatted(javaPackage, fields, getters, pluginGetters, methods);
+        }
+
+        private String contextStart() {
+            return """
+                    package %s;
+
+                    import org.apache.camel.CamelContext;
+                    import org.apache.camel.spi.OnCamelContextStart;
+
+                    public class ContextStart implements OnCamelContextStart {
+
+                        @Override
+                        public void onContextStart(CamelContext context) {
+                        }
+                    }
+                    """.formatted(javaPackage);
+        }
+
+        private String xmlRoutes(int index) {
+            boolean full = index == 0;
+            StringBuilder xml = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n")
+                    .append("<routes xmlns=\"http://camel.apache.org/schema/spring\">\n");
+            for (int i = 0; i < (full ? XML_ELEMENTS.length : 2); i++) {
+                xml.append(indent(String.format(pick(XML_ELEMENTS, i, full, random), next()), 4));
+            }
+            for (String dataFormat : shapes.pairs("ReplacePropertyInDataFormatXml", "component", "oldPropertyKey")) {
+                if (full || random.nextInt(4) == 0) {
+                    String[] parts = dataFormat.split("\\|");
+                    xml.append(indent("<marshal>\n    <%s %s=\"value%d\"/>\n</marshal>\n".formatted(parts[0], parts[1], next()), 4));
+                }
+            }
+            for (int route = 0; route < routesPerFile; route++) {
+                int id = next();
+                xml.append("    <route id=\"module").append(module).append("-xml").append(id).append("\">\n");
+                xml.append("        <description>Route ").append(id).append("</description>\n");
+                xml.append("        <from uri=\"direct:xml").append(id).append("\"/>\n");
+                for (int step = 0; step < chainLength; step++) {
+                    xml.append(indent(String.format(pick(XML_STEPS, step, full && route == 0, random), next()), 8));
+                }
+                xml.append("    </route>\n");
+            }
+            return xml.append("</routes>\n").toString();
+        }
+
+        private String yamlRoutes(int index) {
+            boolean full = index == 0;
+            StringBuilder yaml = new StringBuilder();
+            for (int document = 0; document < yamlDocuments; document++) {
+                if (document > 0) {
+                    yaml.append("---\n");
+                }
+                boolean fullDocument = full && document == 0;
+                for (int i = 0; i < (fullDocument ? YAML_ITEMS.length : 1); i++) {
+                    yaml.append(String.format(pick(YAML_ITEMS, i, fullDocument, random), next()));
+                }
+                for (String dataFormat : shapes.pairs("ReplacePropertyInDataFormatYaml", "component", "oldPropertyKey")) {
+                    if (fullDocument || random.nextInt(8) == 0) {
+                        String[] parts = dataFormat.split("\\|");
+                        yaml.append("- route:\n    from:\n      uri: direct:dataFormat%d\n      steps:\n".formatted(next()))
+                                .append("        - marshal:\n            %s:\n              %s: value\n".formatted(parts[0], parts[1]));
+                    }
+                }
+                for (int route = 0; route < routesPerFile; route++) {
+                    int id = next();
+                    yaml.append("- route:\n");
+                    yaml.append("    id: module").append(module).append("-yaml").append(id).append('\n');
+                    yaml.append("    streamCaching: true\n");
+                    yaml.append("    routePolicy: policy").append(id).append('\n');
+                    yaml.append("    from:\n");
+                    yaml.append("      uri: direct:yaml").append(id).append('\n');
+                    yaml.append("      steps:\n");
+                    for (int step = 0; step < chainLength; step++) {
+                        yaml.append(indent(String.format(pick(YAML_STEPS, step, fullDocument && route == 0, random), next()), 8));
+                    }
+                }
+            }
+            return yaml.toString();
+        }
+
+        private String properties() {
+            StringBuilder properties = new StringBuilder("# synthetic configuration of ").append(moduleName(module)).append('\n');
+            List<String> keys = shapes.propertyKeys();
+            int count = 0;
+            for (String key : keys) {
+                if (module == 0 || random.nextInt(2) == 0) {
+                    properties.append(key).append('=').append(value(key)).append('\n');
+                    count++;
+                }
+            }
+            while (count < propertiesPerModule) {
+                properties.append("app.module").append(module).append(".setting").append(next()).append('=')
+                        .append(random.nextInt(1000)).append('\n');
+                count++;
+            }
+            return properties.toString();
+        }
+
+        /**
+         * Same keys as the properties file, nested as Spring Boot would configure them.
+         */
+        private String applicationYaml() {
+            StringBuilder yaml = new StringBuilder();
+            List<String> path = new ArrayList<>();
+            List<String> keys = new ArrayList<>();
+            for (String key : shapes.propertyKeys()) {
+                if (!key.contains("[") && (module == 0 || random.nextInt(2) == 0)) {
+                    keys.add(key);
+                }
+            }
+            while (keys.size() < propertiesPerModule) {
+                keys.add("app.module" + module + ".setting" + next());
+            }
+            keys.sort(null);
+
+            Set<String> leaves = new HashSet<>();
+            for (String key : keys) {
+                String[] segments = key.split("\\.");
+                //keys which are a prefix of other keys can't be nested
+                if (hasLeafPrefix(leaves, segments)) {
+                    continue;
+                }
+                leaves.add(key);
+                int common = 0;
+                while (common < path.size() && common < segments.length - 1 && path.get(common).equals(segments[common])) {
+                    common++;
+                }
+                path.subList(common, path.size()).clear();
+                for (int i = common; i < segments.length; i++) {
+                    yaml.append("  ".repeat(i)).append(segments[i]).append(':');
+                    if (i == segments.length - 1) {
+                        yaml.append(' ').append(value(key));
+                    } else {
+                        path.add(segments[i]);
+                    }
+                    yaml.append('\n');
+                }
+            }
+            return yaml.toString();
+        }
+
+        private boolean hasLeafPrefix(Set<String> leaves, String[] segments) {
+            StringBuilder prefix = new StringBuilder();
+            for (String segment : segments) {
+                prefix.append(segment);
+                if (leaves.contains(prefix.toString())) {
+                    return true;
+                }
+                prefix.append('.');
+            }
+            return false;
+        }
+
+        private String value(String key) {
+            return key.endsWith("rejectedPolicy") ? (random.nextBoolean() ? "Discard" : "DiscardOldest") : "true";
+        }
+    }
+}
@@ -0,0 +1,298 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.upgrade.benchmarks.corpus;
+
+import org.apache.camel.upgrade.benchmarks.BenchmarkSources;
+import org.jspecify.annotations.Nullable;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.internal.StringUtils;
+import org.openrewrite.java.JavaIsoVisitor;
+import org.openrewrite.java.JavaParser;
+import org.openrewrite.java.tree.Expression;
+import org.openrewrite.java.tree.J;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Extracts the sources of {@code rewriteRun(...)} calls of a recipe test class.
+ * <p>
+ * Only sources given as string literals (usually text blocks) are harvested. The recipe and the classpath of the java
+ * parser are read from the {@code defaults} method of the test class and from the spec lambda of {@code rewriteRun},
+ * in the shapes used by the tests of this repository ({@code CamelTestUtil.recipe(spec, CamelVersion.v4_4)},
+ * {@code CamelTestUtil.parserFromClasspath(CamelVersion.v4_0, "camel-api")}, {@code activateRecipes("name")} or
+ * {@code spec.recipe(new MyRecipe())}). Disabled tests are skipped.
+ * </p>
+ */
+final class TestSampleExtractor extends JavaIsoVisitor<ExecutionContext> {
+
+    private static final Map<String, BenchmarkSources.Kind> SOURCE_METHODS = Map.of(
+            "java", BenchmarkSources.Kind.JAVA,
+            "xml", BenchmarkSources.Kind.XML,
+            "yaml", BenchmarkSources.Kind.YAML,
+            "properties", BenchmarkSources.Kind.PROPERTIES);
+
+    private final @Nullable Path classpathDir;
+    private final List<HarvestedSample> samples;
+
+    private String packageName = "";
+    private List<String> imports = Collections.emptyList();
+    private String className = "";
+    private Spec defaults = new Spec();
+
+    /**
+     * @param classpathDir directory with the jars used by the tests (see CamelTestUtil.parserFromClasspath)
+     */
+    TestSampleExtractor(@Nullable Path classpathDir, List<HarvestedSample> samples) {
+        this.classpathDir = classpathDir;
+        this.samples = samples;
+    }
+
+    @Override
+    public J.CompilationUnit visitCompilationUnit(J.CompilationUnit cu, ExecutionContext ctx) {
+        packageName = cu.getPackageDeclaration() == null ? "" : cu.getPackageDeclaration().getPackageName();
+        imports = cu.getImports().stream().map(J.Import::getTypeName).toList();
+        return super.visitCompilationUnit(cu, ctx);
+    }
+
+    @Override
+    public J.ClassDeclaration visitClassDeclaration(J.ClassDeclaration classDecl, ExecutionContext ctx) {
+        className = classDecl.getSimpleName();
+        defaults = new Spec();
+        classDecl.getBody().getStatements().stream()
+                .filter(s -> s instanceof J.MethodDeclaration && "defaults".equals(((J.MethodDeclaration) s).getSimpleName()))
+                .findFirst()
+                .ifPresent(defaultsMethod -> defaults.read(defaultsMethod));
+        return super.visitClassDeclaration(classDecl, ctx);
+    }
+
+    @Override
+    public J.MethodDeclaration visitMethodDeclaration(J.MethodDeclaration method, ExecutionContext ctx) {
+        if ("defaults".equals(method.getSimpleName()) || method.getLeadingAnnotations().stream()
+                .anyMatch(a -> "Disabled".equals(a.getSimpleName()))) {
+            return method;
+        }
+        String id = className + "." + method.getSimpleName();
+        List<HarvestedSample> methodSamples = new ArrayList<>();
+        new JavaIsoVisitor<List<HarvestedSample>>() {
+            @Override
+            public J.MethodInvocation visitMethodInvocation(J.MethodInvocation mi, List<HarvestedSample> found) {
+                if ("rewriteRun".equals(mi.getSimpleName())) {
+                    Spec spec = defaults.copy();
+                    if (!mi.getArguments().isEmpty() && mi.getArguments().get(0) instanceof J.Lambda) {
+                        spec.read(mi.getArguments().get(0));
+                    }
+                    collectSources(mi, spec, id, found);
+                    return mi;
+                }
+                return super.visitMethodInvocation(mi, found);
+            }
+        }.visit(method.getBody(), methodSamples, getCursor());
+
+        if (methodSamples.size() == 1) {
+            HarvestedSample sample = methodSamples.get(0);
+            methodSamples.set(0, new HarvestedSample(id, sample.getKind(), sample.getRecipe(), sample.getPath(),
+                    sample.getBefore(), sample.isChangeExpected() ? sample.getExpected() : null, sample.getClasspath()));
+        }
+        samples.addAll(methodSamples);
+        return method;
+    }
+
+    private void collectSources(J.MethodInvocation rewriteRun, Spec spec, String id, List<HarvestedSample> found) {
+        new JavaIsoVisitor<List<HarvestedSample>>() {
+            @Override
+            public J.MethodInvocation visitMethodInvocation(J.MethodInvocation mi, List<HarvestedSample> samples) {
+                BenchmarkSources.Kind kind = SOURCE_METHODS.get(mi.getSimpleName());
+                String before = kind == null || mi.getSelect() != null ? null : literal(mi.getArguments().get(0));
+                if (before == null) {
+                    return super.visitMethodInvocation(mi, samples);
+                }
+                String after = mi.getArguments().size() > 1 ? literal(mi.getArguments().get(1)) : null;
+                //the source spec (last lambda argument) can set the path of the source
+                Spec sourceSpec = new Spec();
+                sourceSpec.read(mi.getArguments().get(mi.getArguments().size() - 1));
+
+                before = StringUtils.trimIndentPreserveCRLF(before);
+                after = after == null ? null : StringUtils.trimIndentPreserveCRLF(after);
+                Path path = sourceSpec.path != null ? Paths.get(sourceSpec.path) : defaultPath(kind, before);
+                samples.add(new HarvestedSample(id + "-" + (samples.size() + 1), kind, spec.recipe(), path, before,
+                        Objects.equals(before, after) ? null : after,
+                        kind == BenchmarkSources.Kind.JAVA ? spec.classpath() : Collections.emptyList()));
+                return mi;
+            }
+        }.visit(rewriteRun, found, getCursor());
+    }
+
+    /**
+     * Path given to the source by the test framework, java sources are placed according to their package.
+     */
+    private static Path defaultPath(BenchmarkSources.Kind kind, String source) {
+        switch (kind) {
+            case JAVA:
+                return JavaParser.resolveSourcePathFromSourceText(Paths.get(""), source);
+            case XML:
+                return Paths.get("file.xml");
+            case YAML:
+                return Paths.get("file.yaml");
+            default:
+                return Paths.get("file.properties");
+        }
+    }
+
+    private static @Nullable String literal(Expression expression) {
+        return expression instanceof J.Literal && ((J.Literal) expression).getValue() instanceof String
+                ? (String) ((J.Literal) expression).getValue()
+                : null;
+    }
+
+    /**
+     * Recipe, classpath and path configured by a recipe spec.
+     */
+    private final class Spec {
+        private List<String> recipes = new ArrayList<>();
+        private @Nullable String recipeClass;
+        private @Nullable String classpathVersion;
+        private List<String> classpath = new ArrayList<>();
+        private @Nullable String path;
+
+        private Spec copy() {
+            Spec copy = new Spec();
+            copy.recipes = new ArrayList<>(recipes);
+            copy.recipeClass = recipeClass;
+            copy.classpathVersion = classpathVersion;
+            copy.classpath = new ArrayList<>(classpath);
+            return copy;
+        }
+
+        private void read(J tree) {
+            new JavaIsoVisitor<Spec>() {
+                @Override
+                public J.MethodInvocation visitMethodInvocation(J.MethodInvocation mi, Spec spec) {
+                    List<Expression> args = mi.getArguments();
+                    switch (mi.getSimpleName()) {
+                        case "recipe":
+                            if (args.size() > 1 && args.get(1) instanceof J.FieldAccess) {
+                                //CamelTestUtil.recipe(spec, CamelVersion.v4_4, "optional.active.Recipe")
+                                List<String> active = literals(args.subList(2, args.size()));
+                                spec.recipes = active.isEmpty()
+                                        ? List.of(recipeOf(((J.FieldAccess) args.get(1)).getSimpleName()))
+                                        : active;
+                                spec.recipeClass = null;
+                            } else if (args.size() == 1 && args.get(0) instanceof J.NewClass
+                                    && ((J.NewClass) args.get(0)).getClazz() != null) {
+                                spec.recipeClass = resolve(((J.NewClass) args.get(0)).getClazz().toString());
+                                spec.recipes = new ArrayList<>();
+                            }
+                            break;
+                        case "activateRecipes":
+                        case "recipeFromResources":
+                            spec.recipes = literals(args);
+                            spec.recipeClass = null;
+                            break;
+                        case "recipeFromResource":
+                            spec.recipes = literals(args.subList(1, args.size()));
+                            spec.recipeClass = null;
+                            break;
+                        case "parserFromClasspath":
+                            if (!args.isEmpty() && args.get(0) instanceof J.FieldAccess) {
+                                spec.classpathVersion = ((J.FieldAccess) args.get(0)).getSimpleName();
+                                spec.classpath = literals(args.subList(1, args.size()));
+                            }
+                            break;
+                        case "path":
+                            if (args.size() == 1 && literal(args.get(0)) != null) {
+                                spec.path = literal(args.get(0));
+                            }
+                            break;
+                        default:
+                    }
+                    return super.visitMethodInvocation(mi, spec);
+                }
+            }.visit(tree, this);
+        }
+
+        /**
+         * Single recipe applied by the spec, null if the spec activates more recipes or if it is not known.
+         */
+        private @Nullable String recipe() {
+            if (recipeClass != null) {
+                return recipeClass;
+            }
+            return recipes.size() == 1 ? recipes.get(0) : null;
+        }
+
+        /**
+         * Jars of the classpath, the highest version lesser or equal to the version of the test is used for the
+         * Camel artifacts, the same way as CamelTestUtil.parserFromClasspath does.
+         */
+        private List<Path> classpath() {
+            File[] jars = classpathDir == null ? null : classpathDir.toFile().listFiles();
+            if (jars == null || classpathVersion == null) {
+                return Collections.emptyList();
+            }
+            List<Path> result = new ArrayList<>();
+            for (String artifact : classpath) {
+                String maxVersion = artifact + "-" + version(classpathVersion);
+                Optional<File> jar = Arrays.stream(jars)
+                        .filter(f -> f.getName().startsWith(artifact) && f.getName().endsWith(".jar"))
+                        .filter(f -> !artifact.startsWith("camel-")
+                                || f.getName().substring(0, f.getName().lastIndexOf('.')).compareTo(maxVersion) <= 0)
+                        .max(Comparator.comparing(File::getName));
+                jar.ifPresent(f -> result.add(f.toPath()));
+            }
+            return result;
+        }
+
+        private String resolve(String simpleName) {
+            return imports.stream()
+                    .filter(i -> i.endsWith("." + simpleName))
+                    .findFirst()
+                    .orElse(packageName.isEmpty() ? simpleName : packageName + "." + simpleName);
+        }
+    }
+
+    private static List<String> literals(List<Expression> expressions) {
+        return expressions.stream().map(TestSampleExtractor::literal).filter(Objects::nonNull).toList();
+    }
+
+    /**
+     * Recipe of CamelTestUtil.CamelVersion constant, e.g. v4_4 -> camel44, v4_10_4 -> camel410_4 (lts).
+     */
+    private static String recipeOf(String versionConstant) {
+        String[] parts = versionConstant.substring(1).split("_");
+        return "org.apache.camel.upgrade.camel" + parts[0] + parts[1] + (parts.length > 2 ? "_" + parts[2] : "")
+                + ".CamelMigrationRecipe";
+    }
+
+    /**
+     * Version of CamelTestUtil.CamelVersion constant for the comparison with jar names, the patch version of non lts
+     * constants is unknown here, so any patch version is accepted.
+     */
+    private static String version(String versionConstant) {
+        String[] parts = versionConstant.substring(1).split("_");
+        return parts[0] + "." + parts[1] + "." + (parts.length > 2 ? parts[2] : "\uffff");
+    }
+}
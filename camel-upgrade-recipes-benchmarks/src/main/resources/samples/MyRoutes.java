@@ -0,0 +1,46 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.Exchange;
+import org.apache.camel.ExchangePattern;
+import org.apache.camel.ExchangePropertyKey;
+import org.apache.camel.ExtendedCamelContext;
+import org.apache.camel.builder.RouteBuilder;
+
+public class MyRoutes extends RouteBuilder {
+
+    @Override
+    public void configure() throws Exception {
+        CamelContext context = getContext();
+        ExtendedCamelContext ecc = context.adapt(ExtendedCamelContext.class);
+        context.setDumpRoutes(true);
+
+        from("direct:start")
+                .setExchangePattern(ExchangePattern.InOptionalOut)
+                .to("bean:myBean?method=process(com.example.MyOrder, int)")
+                .to("pulsar:persistent://public/cluster1/default/my-topic?param=value")
+                .process(this::process);
+    }
+
+    private void process(Exchange exchange) {
+        Object charset = exchange.getProperty(ExchangePropertyKey.CHARSET_NAME);
+        exchange.setProperty(ExchangePropertyKey.TO_ENDPOINT, charset);
+        exchange.removeProperty(ExchangePropertyKey.FAILURE_ENDPOINT);
+    }
+}
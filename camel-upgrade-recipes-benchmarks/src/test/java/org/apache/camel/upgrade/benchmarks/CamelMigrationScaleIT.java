@@ -0,0 +1,206 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.upgrade.benchmarks;
+
+import org.apache.camel.upgrade.benchmarks.corpus.SyntheticCorpus;
+import org.junit.jupiter.api.Test;
+import org.openrewrite.InMemoryExecutionContext;
+import org.openrewrite.Recipe;
+import org.openrewrite.RecipeRun;
+import org.openrewrite.SourceFile;
+import org.openrewrite.config.Environment;
+import org.openrewrite.internal.InMemoryLargeSourceSet;
+import org.openrewrite.table.RecipeRunStats;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Runs the whole migrations over a large synthetic corpus (see {@link SyntheticCorpus}) and checks time and heap
+ * budgets, so a performance regression of a recipe is caught before the release.
+ * <p>
+ * Budgets are checked for the slowest file of every recipe (taken from {@link RecipeRunStats}), the wall-clock time
+ * of the whole run, the heap retained after the run (JMX heap pools after a full GC) and the bytes allocated per file
+ * by the running thread. If a heap budget is broken, the leaf recipes are run one by one to name the recipe with the
+ * highest cost. Run with {@code mvn -Pbenchmarks,scale -pl camel-upgrade-recipes-benchmarks verify}, the size of the
+ * corpus and the budgets can be changed by the system properties below.
+ * </p>
+ */
+class CamelMigrationScaleIT {
+
+    private static final int MODULES = Integer.getInteger("scale.modules", 10);
+    private static final long FILE_MILLIS = Long.getLong("scale.budget.fileMillis", 2000);
+    private static final long TOTAL_SECONDS = Long.getLong("scale.budget.totalSeconds", 900);
+    private static final long RETAINED_HEAP_MB = Long.getLong("scale.budget.retainedHeapMb", 1024);
+    private static final long ALLOCATED_MB_PER_FILE = Long.getLong("scale.budget.allocatedMbPerFile", 128);
+
+    private static final long MB = 1024 * 1024;
+
+    @Test
+    void camelMigration() {
+        assertWithinBudgets("org.apache.camel.upgrade.CamelMigrationRecipe");
+    }
+
+    @Test
+    void camelSpringBootMigration() {
+        assertWithinBudgets("org.apache.camel.upgrade.CamelSpringBootMigrationRecipe");
+    }
+
+    private static void assertWithinBudgets(String recipeName) {
+        Recipe recipe = Environment.builder()
+                .scanRuntimeClasspath()
+                .build()
+                .activateRecipes(recipeName);
+        // the first run over a small corpus warms up the JIT, otherwise the first files would break the file budget
+        recipe.run(new InMemoryLargeSourceSet(new SyntheticCorpus(0).modules(1).recipe(recipeName)
+                .parse(new InMemoryExecutionContext())), new InMemoryExecutionContext());
+        List<SourceFile> sourceFiles = new SyntheticCorpus(1)
+                .modules(MODULES)
+                .recipe(recipeName)
+                .parse(new InMemoryExecutionContext());
+
+        Measurement measurement = Measurement.of(recipe, sourceFiles);
+        List<String> violations = new ArrayList<>();
+
+        for (RecipeRunStats.Row row : measurement.run.<RecipeRunStats.Row>getDataTableRows(RecipeRunStats.class.getName())) {
+            long fileMillis = TimeUnit.NANOSECONDS.toMillis(row.getScanMaxNs() + row.getEditMaxNs());
+            if (fileMillis > FILE_MILLIS) {
+                violations.add(String.format("%s took %d ms for a single file (budget %d ms)",
+                        row.getRecipe(), fileMillis, FILE_MILLIS));
+            }
+        }
+        if (measurement.wallMillis > TimeUnit.SECONDS.toMillis(TOTAL_SECONDS)) {
+            violations.add(String.format("%s took %d s for %d files (budget %d s), slowest recipe: %s",
+                    recipeName, TimeUnit.MILLISECONDS.toSeconds(measurement.wallMillis), sourceFiles.size(),
+                    TOTAL_SECONDS, slowest(measurement.run)));
+        }
+
+        boolean retainedBroken = measurement.retainedBytes > RETAINED_HEAP_MB * MB;
+        boolean allocatedBroken = measurement.allocatedBytes / sourceFiles.size() > ALLOCATED_MB_PER_FILE * MB;
+        if (retainedBroken || allocatedBroken) {
+            List<Measurement> leaves = new ArrayList<>();
+            for (Recipe leaf : leaves(recipe, new ArrayList<>())) {
+                Measurement leafMeasurement = Measurement.of(leaf, sourceFiles);
+                // only the numbers are kept, the results of the runs would add up in the retained heap
+                leafMeasurement.run = null;
+                leaves.add(leafMeasurement);
+            }
+            if (retainedBroken) {
+                violations.add(String.format("%s retained %d MB of heap, peak %d MB (budget %d MB), highest: %s",
+                        recipeName, measurement.retainedBytes / MB, measurement.peakBytes / MB, RETAINED_HEAP_MB,
+                        leaves.stream().max(Comparator.comparingLong(m -> m.retainedBytes)).orElseThrow()));
+            }
+            if (allocatedBroken) {
+                violations.add(String.format("%s allocated %d MB per file (budget %d MB), highest: %s",
+                        recipeName, measurement.allocatedBytes / sourceFiles.size() / MB, ALLOCATED_MB_PER_FILE,
+                        leaves.stream().max(Comparator.comparingLong(m -> m.allocatedBytes)).orElseThrow()));
+            }
+        }
+
+        System.out.printf("%s over %d files: %s%n", recipeName, sourceFiles.size(), measurement);
+        if (!violations.isEmpty()) {
+            fail(String.join(System.lineSeparator(), violations));
+        }
+    }
+
+    private static String slowest(RecipeRun run) {
+        return run.<RecipeRunStats.Row>getDataTableRows(RecipeRunStats.class.getName()).stream()
+                .max(Comparator.comparingLong(row -> row.getScanTotalTimeNs() + row.getEditTotalTimeNs()))
+                .map(row -> String.format("%s (%d ms)", row.getRecipe(),
+                        TimeUnit.NANOSECONDS.toMillis(row.getScanTotalTimeNs() + row.getEditTotalTimeNs())))
+                .orElse("unknown");
+    }
+
+    private static List<Recipe> leaves(Recipe recipe, List<Recipe> leaves) {
+        if (recipe.getRecipeList().isEmpty()) {
+            leaves.add(recipe);
+        }
+        for (Recipe child : recipe.getRecipeList()) {
+            leaves(child, leaves);
+        }
+        return leaves;
+    }
+
+    /**
+     * Cost of one recipe run, the run is kept reachable until the retained heap is measured.
+     */
+    private static final class Measurement {
+
+        private final String recipe;
+        private RecipeRun run;
+        private long wallMillis;
+        private long allocatedBytes;
+        private long peakBytes;
+        private long retainedBytes;
+
+        private Measurement(String recipe) {
+            this.recipe = recipe;
+        }
+
+        static Measurement of(Recipe recipe, List<SourceFile> sourceFiles) {
+            Measurement measurement = new Measurement(recipe.getName());
+            com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+            long baseline = heap(MemoryPoolMXBean::getCollectionUsage);
+            heapPools().forEach(MemoryPoolMXBean::resetPeakUsage);
+            long allocated = threads.getCurrentThreadAllocatedBytes();
+            long start = System.nanoTime();
+
+            measurement.run = recipe.run(new InMemoryLargeSourceSet(sourceFiles), new InMemoryExecutionContext());
+
+            measurement.wallMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            measurement.allocatedBytes = threads.getCurrentThreadAllocatedBytes() - allocated;
+            measurement.peakBytes = heap(MemoryPoolMXBean::getPeakUsage);
+            measurement.retainedBytes = Math.max(0, heap(MemoryPoolMXBean::getCollectionUsage) - baseline);
+            return measurement;
+        }
+
+        /**
+         * Used heap summed over the heap pools, a full GC is requested first so the collection usage is the heap
+         * retained by reachable objects.
+         */
+        private static long heap(Function<MemoryPoolMXBean, MemoryUsage> usage) {
+            System.gc();
+            return heapPools().stream()
+                    .map(usage)
+                    .filter(Objects::nonNull)
+                    .mapToLong(MemoryUsage::getUsed)
+                    .sum();
+        }
+
+        private static List<MemoryPoolMXBean> heapPools() {
+            return ManagementFactory.getMemoryPoolMXBeans().stream()
+                    .filter(pool -> pool.getType() == MemoryType.HEAP)
+                    .toList();
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: %d ms, allocated %d MB, peak heap %d MB, retained heap %d MB", recipe,
+                    wallMillis, allocatedBytes / MB, peakBytes / MB, retainedBytes / MB);
+        }
+    }
+}
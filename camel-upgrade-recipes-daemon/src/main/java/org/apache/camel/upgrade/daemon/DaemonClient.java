@@ -0,0 +1,77 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.upgrade.daemon;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sends one request to the {@link MigrationDaemon} and prints the response, exits with 1 if the request failed.
+ * <p>
+ * Usage: {@code DaemonClient [socket=<path>] <command> [key=value]...}, e.g.
+ * {@code DaemonClient run project=/path/to/project classpath=target/classes:/path/to/camel-api.jar}.
+ * </p>
+ */
+public final class DaemonClient {
+
+    private DaemonClient() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path socket = null;
+        List<String> request = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.startsWith("socket=")) {
+                socket = Paths.get(arg.substring("socket=".length()));
+            } else {
+                request.add(arg);
+            }
+        }
+        if (request.isEmpty()) {
+            throw new IllegalArgumentException("Usage: DaemonClient [socket=<path>] <command> [key=value]...");
+        }
+
+        boolean failed = true;
+        try (SocketChannel channel = SocketChannel.open(StandardProtocolFamily.UNIX)) {
+            channel.connect(UnixDomainSocketAddress.of(socket != null ? socket : MigrationDaemon.defaultSocket()));
+            PrintWriter out = new PrintWriter(Channels.newWriter(channel, StandardCharsets.UTF_8));
+            request.forEach(out::println);
+            out.println();
+            out.flush();
+
+            BufferedReader in = new BufferedReader(Channels.newReader(channel, StandardCharsets.UTF_8));
+            String line;
+            while ((line = in.readLine()) != null) {
+                System.out.println(line);
+                failed = !line.startsWith("OK");
+            }
+        }
+        if (failed) {
+            System.exit(1);
+        }
+    }
+}
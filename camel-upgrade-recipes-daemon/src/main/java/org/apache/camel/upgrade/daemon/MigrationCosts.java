@@ -0,0 +1,140 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.upgrade.daemon;
+
+import org.apache.camel.upgrade.CamelRecipePlan;
+import org.openrewrite.Recipe;
+import org.openrewrite.SourceFile;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collectors;
+
+/**
+ * Time the recipes spent on each file in the previous run, the cost model of {@link MigrationScheduler}.
+ * <p>
+ * Costs are kept per plan (hash of the leaf recipes of the compiled {@link CamelRecipePlan}, so a changed migration
+ * starts over) and hash of the source path, and stored in a properties file per project in the {@code costs}
+ * directory of the daemon (see {@link MigrationDaemon#directory()}), accessible only to its owner. Files without a
+ * known cost are estimated from their size, with the average time per byte of the files with a known cost.
+ * </p>
+ */
+final class MigrationCosts {
+
+    private final Path file;
+    private final Map<String, Long> nanos = new ConcurrentHashMap<>();
+
+    private MigrationCosts(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Costs stored for the project, empty if the project was not migrated yet.
+     */
+    static MigrationCosts load(Path root) throws IOException {
+        return load(MigrationDaemon.directory().resolve("costs"), root);
+    }
+
+    static MigrationCosts load(Path directory, Path root) throws IOException {
+        Path file = directory.resolve(hash(root.toString()) + ".properties");
+        MigrationCosts costs = new MigrationCosts(file);
+        if (Files.isRegularFile(file)) {
+            Properties properties = new Properties();
+            try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                properties.load(reader);
+            }
+            for (String key : properties.stringPropertyNames()) {
+                try {
+                    costs.nanos.put(key, Long.parseLong(properties.getProperty(key)));
+                } catch (NumberFormatException e) {
+                    //ignored, the file is estimated from its size
+                }
+            }
+        }
+        return costs;
+    }
+
+    /**
+     * Key of the costs of the compiled plan, the same for every migration compiled to the same leaf recipes.
+     */
+    static String planKey(Recipe plan) {
+        return hash(plan.getRecipeList().stream().map(CamelRecipePlan::key).collect(Collectors.joining("\n")));
+    }
+
+    /**
+     * Estimated nanoseconds of the plan (see {@link #planKey(Recipe)}) for each of the sources (in the same order).
+     */
+    long[] estimate(String plan, List<SourceFile> sources, ToLongFunction<SourceFile> size) {
+        long[] estimates = new long[sources.size()];
+        long knownNanos = 0;
+        long knownBytes = 0;
+        for (int i = 0; i < sources.size(); i++) {
+            Long known = nanos.get(key(plan, sources.get(i).getSourcePath()));
+            estimates[i] = known == null ? -1 : known;
+            if (known != null) {
+                knownNanos += known;
+                knownBytes += size.applyAsLong(sources.get(i));
+            }
+        }
+
+        double nanosPerByte = knownNanos == 0 || knownBytes == 0 ? 1 : (double) knownNanos / knownBytes;
+        for (int i = 0; i < sources.size(); i++) {
+            if (estimates[i] < 0) {
+                estimates[i] = (long) (size.applyAsLong(sources.get(i)) * nanosPerByte);
+            }
+        }
+        return estimates;
+    }
+
+    void record(String plan, Path sourcePath, long elapsed) {
+        nanos.put(key(plan, sourcePath), elapsed);
+    }
+
+    void save() throws IOException {
+        Properties properties = new Properties();
+        nanos.forEach((key, value) -> properties.setProperty(key, Long.toString(value)));
+        MigrationDaemon.createPrivateDirectory(file.getParent());
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            properties.store(writer, "Nanoseconds spent by the Camel recipes per file");
+        }
+    }
+
+    private static String key(String plan, Path sourcePath) {
+        return plan + "/" + hash(sourcePath.toString());
+    }
+
+    private static String hash(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 12);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,290 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.upgrade.daemon;
+
+import org.apache.camel.upgrade.CamelRecipePlan;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.InMemoryExecutionContext;
+import org.openrewrite.Recipe;
+import org.openrewrite.Result;
+import org.openrewrite.config.Environment;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.nio.file.attribute.UserPrincipal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Long-running runner of the migrations, for developers migrating a project many times while fixing it up.
+ * <p>
+ * The recipes are loaded from the classpath once and every activated migration is compiled into a
+ * {@link CamelRecipePlan} once. The parsers, the Java type cache and the pom cache stay warm (see {@link WarmParsers})
+ * and the parsed sources of every project are kept (see {@link WarmProject}), so a re-run parses only the files
+ * changed since the previous one.
+ * </p>
+ * <p>
+ * The migration itself runs in parallel (see {@link MigrationScheduler}), the files expected to take longest (from the
+ * times of the previous run kept in {@link MigrationCosts}, or from their size) are scheduled first.
+ * </p>
+ * <p>
+ * Requests are accepted on a Unix domain socket, one request per connection, served one at a time. The socket is
+ * accessible only to its owner and by default lives in the per-user directory of the daemon (see
+ * {@link #directory()}). A request is a command on the first line, followed by {@code key=value} lines and an empty
+ * line (see {@link DaemonClient}):
+ * </p>
+ * <ul>
+ * <li>{@code run} - migrates the project ({@code project=<directory>}, optional {@code recipe=<name>} defaulting to
+ * {@code org.apache.camel.upgrade.CamelMigrationRecipe} and {@code classpath=<jars and directories>} used for the type
+ * attribution of the java sources)</li>
+ * <li>{@code dryRun} - as {@code run}, only lists the files which would change</li>
+ * <li>{@code evict} - forgets the parsed sources of the project</li>
+ * <li>{@code stop} - stops the daemon</li>
+ * </ul>
+ * <p>
+ * The response lists the changed files, one per line, and ends with a line starting with {@code OK} or {@code ERROR}.
+ * </p>
+ */
+public final class MigrationDaemon {
+
+    static final String DEFAULT_RECIPE = "org.apache.camel.upgrade.CamelMigrationRecipe";
+
+    private final Environment environment;
+    private final WarmParsers parsers = new WarmParsers();
+    private final Map<String, Recipe> plans = new HashMap<>();
+    private final Map<Path, WarmProject> projects = new HashMap<>();
+    private final Map<Path, MigrationCosts> costs = new HashMap<>();
+    private final MigrationScheduler scheduler = new MigrationScheduler(Runtime.getRuntime().availableProcessors());
+    private boolean stopped;
+
+    public MigrationDaemon() {
+        this(Environment.builder().scanRuntimeClasspath().build());
+    }
+
+    MigrationDaemon(Environment environment) {
+        this.environment = environment;
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path socket = args.length > 0 && !args[0].isBlank() ? Paths.get(args[0]) : defaultSocket();
+        long start = System.nanoTime();
+        MigrationDaemon daemon = new MigrationDaemon();
+        System.out.printf("Recipes loaded in %d ms%n", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        daemon.serve(socket);
+    }
+
+    /**
+     * Accepts the requests until the {@code stop} command.
+     */
+    public void serve(Path socket) throws IOException {
+        Path parent = socket.toAbsolutePath().getParent();
+        if (!Files.isDirectory(parent)) {
+            createPrivateDirectory(parent);
+        }
+        deleteStaleSocket(socket);
+        try (ServerSocketChannel server = ServerSocketChannel.open(StandardProtocolFamily.UNIX)) {
+            server.bind(UnixDomainSocketAddress.of(socket));
+            if (isPosix()) {
+                Files.setPosixFilePermissions(socket, PosixFilePermissions.fromString("rw-------"));
+            }
+            System.out.println("Camel migration daemon listening on " + socket);
+            while (!stopped) {
+                try (SocketChannel channel = server.accept()) {
+                    BufferedReader in = new BufferedReader(Channels.newReader(channel, StandardCharsets.UTF_8));
+                    PrintWriter out = new PrintWriter(Channels.newWriter(channel, StandardCharsets.UTF_8));
+                    handle(readRequest(in)).forEach(out::println);
+                    out.flush();
+                } catch (IOException e) {
+                    System.err.println("Request failed: " + e.getMessage());
+                }
+            }
+        } finally {
+            Files.deleteIfExists(socket);
+        }
+    }
+
+    /**
+     * Per-user directory of the daemon, {@code $XDG_RUNTIME_DIR/camel-upgrade} or {@code ~/.camel-upgrade}.
+     */
+    static Path directory() {
+        String runtime = System.getenv("XDG_RUNTIME_DIR");
+        return runtime != null && !runtime.isBlank()
+                ? Paths.get(runtime, "camel-upgrade")
+                : Paths.get(System.getProperty("user.home"), ".camel-upgrade");
+    }
+
+    static Path defaultSocket() throws IOException {
+        return createPrivateDirectory(directory()).resolve("daemon.sock");
+    }
+
+    /**
+     * Creates the directory accessible only to the current user, or restricts the existing one. Fails if the directory
+     * belongs to another user.
+     */
+    static Path createPrivateDirectory(Path directory) throws IOException {
+        if (!isPosix()) {
+            return Files.createDirectories(directory);
+        }
+        Set<PosixFilePermission> ownerOnly = PosixFilePermissions.fromString("rwx------");
+        if (!Files.isDirectory(directory, LinkOption.NOFOLLOW_LINKS)) {
+            Files.createDirectories(directory, PosixFilePermissions.asFileAttribute(ownerOnly));
+        }
+        checkOwner(directory);
+        if (!Files.getPosixFilePermissions(directory, LinkOption.NOFOLLOW_LINKS).equals(ownerOnly)) {
+            Files.setPosixFilePermissions(directory, ownerOnly);
+        }
+        return directory;
+    }
+
+    // a socket left by a crashed daemon of the same user is replaced, a socket of another user is never deleted
+    private static void deleteStaleSocket(Path socket) throws IOException {
+        if (Files.exists(socket, LinkOption.NOFOLLOW_LINKS)) {
+            if (isPosix()) {
+                checkOwner(socket);
+            }
+            Files.delete(socket);
+        }
+    }
+
+    private static void checkOwner(Path path) throws IOException {
+        UserPrincipal owner = Files.getOwner(path, LinkOption.NOFOLLOW_LINKS);
+        UserPrincipal user = path.getFileSystem().getUserPrincipalLookupService()
+                .lookupPrincipalByName(System.getProperty("user.name"));
+        if (!owner.equals(user)) {
+            throw new IOException(path + " is owned by " + owner.getName() + ", not by " + user.getName());
+        }
+    }
+
+    private static boolean isPosix() {
+        return FileSystems.getDefault().supportedFileAttributeViews().contains("posix");
+    }
+
+    /**
+     * Executes one request, returns the lines of the response.
+     */
+    List<String> handle(Map<String, String> request) {
+        String command = request.getOrDefault("", "");
+        try {
+            switch (command) {
+                case "run":
+                    return migrate(request, true);
+                case "dryRun":
+                    return migrate(request, false);
+                case "evict":
+                    projects.remove(project(request));
+                    return List.of("OK evicted");
+                case "stop":
+                    stopped = true;
+                    return List.of("OK stopped");
+                default:
+                    return List.of("ERROR unknown command '" + command + "'");
+            }
+        } catch (Exception e) {
+            return List.of("ERROR " + e);
+        }
+    }
+
+    private List<String> migrate(Map<String, String> request, boolean write) throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        Path root = project(request);
+        String recipeName = request.getOrDefault("recipe", DEFAULT_RECIPE);
+        Recipe plan = plans.computeIfAbsent(recipeName,
+                name -> CamelRecipePlan.compile(environment.activateRecipes(name)).getRecipe());
+        List<Path> classpath = WarmParsers.classpath(request.get("classpath"));
+
+        List<Throwable> errors = Collections.synchronizedList(new ArrayList<>());
+        ExecutionContext ctx = context(errors);
+        WarmProject project = projects.computeIfAbsent(root, WarmProject::new);
+        int parsed = project.refresh(parsers, classpath, ctx);
+
+        MigrationCosts projectCosts = costs.get(root);
+        if (projectCosts == null) {
+            projectCosts = MigrationCosts.load(root);
+            costs.put(root, projectCosts);
+        }
+        List<Result> results = scheduler.run(plan, project.getSourceFiles(), project::size, projectCosts,
+                () -> context(errors));
+        try {
+            projectCosts.save();
+        } catch (IOException e) {
+            System.err.println("Costs of " + root + " not saved: " + e.getMessage());
+        }
+        List<String> response = new ArrayList<>();
+        if (write) {
+            project.write(results).forEach(path -> response.add(path.toString()));
+        } else {
+            for (Result result : results) {
+                response.add((result.getAfter() != null ? result.getAfter() : result.getBefore())
+                        .getSourcePath().toString());
+            }
+        }
+        errors.forEach(error -> System.err.println("Error during migration of " + root + ": " + error));
+        response.add(String.format("OK %d files changed, %d files parsed, %d errors in %d ms", results.size(),
+                parsed, errors.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)));
+        return response;
+    }
+
+    private ExecutionContext context(List<Throwable> errors) {
+        ExecutionContext ctx = new InMemoryExecutionContext(errors::add);
+        parsers.install(ctx);
+        return ctx;
+    }
+
+    private static Path project(Map<String, String> request) throws IOException {
+        String project = request.get("project");
+        if (project == null) {
+            throw new IllegalArgumentException("Missing project=<directory>");
+        }
+        return Paths.get(project).toRealPath();
+    }
+
+    /**
+     * Reads the command (key {@code ""}) and the {@code key=value} lines up to an empty line.
+     */
+    static Map<String, String> readRequest(BufferedReader in) throws IOException {
+        Map<String, String> request = new LinkedHashMap<>();
+        String line = in.readLine();
+        request.put("", line == null ? "" : line.trim());
+        while ((line = in.readLine()) != null && !line.isEmpty()) {
+            int separator = line.indexOf('=');
+            if (separator > 0) {
+                request.put(line.substring(0, separator).trim(), line.substring(separator + 1).trim());
+            }
+        }
+        return request;
+    }
+}
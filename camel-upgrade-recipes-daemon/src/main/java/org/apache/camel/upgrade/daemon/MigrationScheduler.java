@@ -0,0 +1,175 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.upgrade.daemon;
+
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.LargeSourceSet;
+import org.openrewrite.Recipe;
+import org.openrewrite.Result;
+import org.openrewrite.SourceFile;
+import org.openrewrite.internal.InMemoryLargeSourceSet;
+import org.openrewrite.maven.tree.MavenResolutionResult;
+import org.openrewrite.properties.tree.Properties;
+import org.openrewrite.xml.tree.Xml;
+import org.openrewrite.yaml.tree.Yaml;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.ObjLongConsumer;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+import java.util.function.UnaryOperator;
+
+/**
+ * Parallel run of a migration on a work-stealing pool.
+ * <p>
+ * Java sources and build files are migrated by one run, the recipes look at them together (e.g. a dependency is added
+ * to the pom only if the Java sources use its types). Xml, yaml and properties files are migrated by the recipes one
+ * by one, they are spread over the parallel runs by longest processing time first: ordered by their estimated cost
+ * (see {@link MigrationCosts}), each file goes to the run with the lowest cost so far. Runs are submitted in the order
+ * of their costs and the time spent on every file is recorded for the next run.
+ * </p>
+ */
+final class MigrationScheduler {
+
+    private final ForkJoinPool pool;
+
+    MigrationScheduler(int parallelism) {
+        this.pool = new ForkJoinPool(parallelism);
+    }
+
+    /**
+     * Migrates the sources, returns the results of all the runs.
+     */
+    List<Result> run(Recipe plan, List<SourceFile> sources, ToLongFunction<SourceFile> size, MigrationCosts costs,
+                     Supplier<ExecutionContext> contexts) throws InterruptedException {
+        String planKey = MigrationCosts.planKey(plan);
+        long[] estimates = costs.estimate(planKey, sources, size);
+        Bin shared = new Bin();
+        List<Integer> spread = new ArrayList<>();
+        for (int i = 0; i < sources.size(); i++) {
+            if (isSpread(sources.get(i))) {
+                spread.add(i);
+            } else {
+                shared.add(sources.get(i), estimates[i]);
+            }
+        }
+        spread.sort(Comparator.comparingLong((Integer i) -> estimates[i]).reversed());
+
+        PriorityQueue<Bin> bins = new PriorityQueue<>(Comparator.comparingLong(Bin::cost));
+        bins.add(shared);
+        for (int i = 1; i < pool.getParallelism(); i++) {
+            bins.add(new Bin());
+        }
+        for (int i : spread) {
+            Bin bin = bins.poll();
+            bin.add(sources.get(i), estimates[i]);
+            bins.add(bin);
+        }
+
+        Map<Path, Long> timings = new ConcurrentHashMap<>();
+        List<Callable<List<Result>>> runs = bins.stream()
+                .filter(bin -> !bin.sources.isEmpty())
+                .sorted(Comparator.comparingLong(Bin::cost).reversed())
+                .<Callable<List<Result>>>map(bin -> () -> plan.run(
+                        new TimedSourceSet(bin.sources, (sourceFile, nanos) -> timings.merge(
+                                sourceFile.getSourcePath(), nanos, Long::sum)),
+                        contexts.get()).getChangeset().getAllResults())
+                .toList();
+
+        List<Result> results = new ArrayList<>();
+        for (Future<List<Result>> run : pool.invokeAll(runs)) {
+            try {
+                results.addAll(run.get());
+            } catch (ExecutionException e) {
+                throw e.getCause() instanceof RuntimeException re ? re : new IllegalStateException(e.getCause());
+            }
+        }
+        timings.forEach((path, nanos) -> costs.record(planKey, path, nanos));
+        return results;
+    }
+
+    /**
+     * Whether the file can be migrated by any of the runs (it does not need the other files).
+     */
+    static boolean isSpread(SourceFile sourceFile) {
+        if (sourceFile instanceof Xml.Document) {
+            return sourceFile.getMarkers().findFirst(MavenResolutionResult.class).isEmpty();
+        }
+        return sourceFile instanceof Yaml.Documents || sourceFile instanceof Properties.File;
+    }
+
+    private static final class Bin {
+        private final List<SourceFile> sources = new ArrayList<>();
+        private long cost;
+
+        void add(SourceFile sourceFile, long estimate) {
+            sources.add(sourceFile);
+            cost += estimate;
+        }
+
+        long cost() {
+            return cost;
+        }
+    }
+
+    /**
+     * Source set recording the time spent on every file by the recipes of the run (scanning and editing, in all the
+     * cycles).
+     */
+    private static final class TimedSourceSet extends InMemoryLargeSourceSet {
+
+        private final ObjLongConsumer<SourceFile> timer;
+
+        TimedSourceSet(List<SourceFile> sources, ObjLongConsumer<SourceFile> timer) {
+            super(sources);
+            this.timer = timer;
+        }
+
+        private TimedSourceSet(InMemoryLargeSourceSet initialState, Map<SourceFile, List<Recipe>> deletions,
+                               List<SourceFile> sources, ObjLongConsumer<SourceFile> timer) {
+            super(initialState, deletions, sources, null);
+            this.timer = timer;
+        }
+
+        @Override
+        public LargeSourceSet edit(UnaryOperator<SourceFile> map) {
+            return super.edit(sourceFile -> {
+                long start = System.nanoTime();
+                try {
+                    return map.apply(sourceFile);
+                } finally {
+                    timer.accept(sourceFile, System.nanoTime() - start);
+                }
+            });
+        }
+
+        @Override
+        protected InMemoryLargeSourceSet withChanges(Map<SourceFile, List<Recipe>> deletions, List<SourceFile> sources) {
+            return new TimedSourceSet(getInitialState(), deletions, sources, timer);
+        }
+    }
+}
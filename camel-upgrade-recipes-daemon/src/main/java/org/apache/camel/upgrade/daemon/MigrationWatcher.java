@@ -0,0 +1,220 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.upgrade.daemon;
+
+import org.apache.camel.upgrade.CamelRecipePlan;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.InMemoryExecutionContext;
+import org.openrewrite.Recipe;
+import org.openrewrite.Result;
+import org.openrewrite.SourceFile;
+import org.openrewrite.config.Environment;
+import org.openrewrite.internal.InMemoryLargeSourceSet;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Watch mode, migrates the files of a project as they are saved.
+ * <p>
+ * The project is parsed once on start (see {@link WarmProject}), then a {@link WatchService} reports the changed
+ * files. Events are debounced, a batch is migrated once no event came for the debounce period. Only the changed files
+ * are parsed again and only they are migrated, the results are written back (or printed as a patch preview). Files
+ * written by the watcher are not parsed again, they are kept as the trees produced by the recipes.
+ * </p>
+ * <p>
+ * Recipes which need the whole project (e.g. scanning all poms before changing them) see only the files of the batch.
+ * </p>
+ */
+public final class MigrationWatcher implements Closeable {
+
+    private final Path root;
+    private final Recipe plan;
+    private final List<Path> classpath;
+    private final boolean preview;
+    private final long debounceMillis;
+    private final WarmParsers parsers = new WarmParsers();
+    private final WarmProject project;
+    private final WatchService watchService;
+    private final Map<WatchKey, Path> directories = new HashMap<>();
+
+    public MigrationWatcher(Path root, Recipe plan, List<Path> classpath, boolean preview, long debounceMillis)
+            throws IOException {
+        this.root = root.toRealPath();
+        this.plan = plan;
+        this.classpath = classpath;
+        this.preview = preview;
+        this.debounceMillis = debounceMillis;
+        this.project = new WarmProject(this.root);
+        this.watchService = FileSystems.getDefault().newWatchService();
+    }
+
+    /**
+     * Usage: {@code MigrationWatcher <project> [recipe=<name>] [classpath=<entries>] [preview=true]
+     * [debounceMillis=300]}.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            throw new IllegalArgumentException("Usage: MigrationWatcher <project> [recipe=<name>] "
+                    + "[classpath=<entries>] [preview=true] [debounceMillis=300]");
+        }
+        Map<String, String> options = new HashMap<>();
+        for (int i = 1; i < args.length; i++) {
+            int separator = args[i].indexOf('=');
+            if (separator > 0) {
+                options.put(args[i].substring(0, separator), args[i].substring(separator + 1));
+            }
+        }
+        Recipe plan = CamelRecipePlan.compile(Environment.builder()
+                        .scanRuntimeClasspath()
+                        .build()
+                        .activateRecipes(options.getOrDefault("recipe", MigrationDaemon.DEFAULT_RECIPE)))
+                .getRecipe();
+
+        try (MigrationWatcher watcher = new MigrationWatcher(Paths.get(args[0]), plan,
+                WarmParsers.classpath(options.get("classpath")), Boolean.parseBoolean(options.get("preview")),
+                Long.parseLong(options.getOrDefault("debounceMillis", "300")))) {
+            watcher.start();
+            System.out.println("Watching " + watcher.root);
+            watcher.watch(System.out::println);
+        }
+    }
+
+    /**
+     * Parses the project and registers the directories, nothing is migrated.
+     */
+    public void start() throws IOException {
+        ExecutionContext ctx = new InMemoryExecutionContext(Throwable::printStackTrace);
+        parsers.install(ctx);
+        project.refresh(parsers, classpath, ctx);
+        register(root, new LinkedHashSet<>());
+    }
+
+    /**
+     * Migrates the batches of changed files until the watcher is closed, the output is passed to the consumer.
+     */
+    public void watch(Consumer<String> output) throws IOException {
+        try {
+            while (true) {
+                Set<Path> batch = new LinkedHashSet<>();
+                collect(watchService.take(), batch);
+                WatchKey key;
+                while ((key = watchService.poll(debounceMillis, TimeUnit.MILLISECONDS)) != null) {
+                    collect(key, batch);
+                }
+                migrate(batch).forEach(output);
+            }
+        } catch (ClosedWatchServiceException e) {
+            //closed, the watch is finished
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Parses and migrates the given files, returns the written files or the patch preview.
+     */
+    List<String> migrate(Set<Path> changed) throws IOException {
+        List<Throwable> errors = new ArrayList<>();
+        ExecutionContext ctx = new InMemoryExecutionContext(errors::add);
+        parsers.install(ctx);
+        project.refresh(changed, parsers, classpath, ctx);
+        List<SourceFile> sourceFiles = project.getSourceFiles(changed);
+        if (sourceFiles.isEmpty()) {
+            return List.of();
+        }
+
+        List<Result> results = plan.run(new InMemoryLargeSourceSet(sourceFiles), ctx).getChangeset().getAllResults();
+        List<String> output = new ArrayList<>();
+        if (preview) {
+            results.forEach(result -> output.add(result.diff()));
+        } else {
+            project.write(results).forEach(path -> output.add("Migrated " + path));
+        }
+        errors.forEach(error -> output.add("Error: " + error));
+        return output;
+    }
+
+    @Override
+    public void close() throws IOException {
+        watchService.close();
+    }
+
+    private void collect(WatchKey key, Set<Path> batch) throws IOException {
+        Path directory = directories.get(key);
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (directory == null) {
+                continue;
+            }
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                //events were lost, all files of the directory are refreshed (unchanged ones are not parsed again)
+                register(directory, batch);
+                continue;
+            }
+            Path path = directory.resolve((Path) event.context());
+            if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE && Files.isDirectory(path)) {
+                //files created together with the directory may precede its registration
+                register(path, batch);
+            } else {
+                batch.add(path);
+            }
+        }
+        if (!key.reset()) {
+            directories.remove(key);
+        }
+    }
+
+    private void register(Path start, Set<Path> files) throws IOException {
+        Files.walkFileTree(start, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                if (!dir.equals(root) && WarmProject.isSkipped(dir)) {
+                    return FileVisitResult.SKIP_SUBTREE;
+                }
+                directories.put(dir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE), dir);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                files.add(file);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.upgrade.daemon;
+
+import org.jspecify.annotations.Nullable;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.Parser;
+import org.openrewrite.SourceFile;
+import org.openrewrite.java.JavaParser;
+import org.openrewrite.java.internal.JavaTypeCache;
+import org.openrewrite.maven.MavenExecutionContextView;
+import org.openrewrite.maven.MavenParser;
+import org.openrewrite.maven.cache.InMemoryMavenPomCache;
+import org.openrewrite.maven.cache.MavenPomCache;
+import org.openrewrite.properties.PropertiesParser;
+import org.openrewrite.xml.XmlParser;
+import org.openrewrite.yaml.YamlParser;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Parsers of the daemon, created once and reset before every parse.
+ * <p>
+ * Java parsers share one type cache, so the types of the classpath are attributed once for all the projects and runs
+ * (there is one parser per classpath). Resolved poms are kept in one pom cache, installed into the context of every
+ * request.
+ * </p>
+ */
+final class WarmParsers {
+
+    enum Kind {
+        JAVA, MAVEN, XML, YAML, PROPERTIES;
+
+        /**
+         * Kind of the file, null if the file is not migrated by the Camel recipes.
+         */
+        static @Nullable Kind of(Path path) {
+            String name = path.getFileName().toString().toLowerCase(Locale.ROOT);
+            if (name.equals("pom.xml")) {
+                return MAVEN;
+            } else if (name.endsWith(".java")) {
+                return JAVA;
+            } else if (name.endsWith(".xml")) {
+                return XML;
+            } else if (name.endsWith(".yaml") || name.endsWith(".yml")) {
+                return YAML;
+            } else if (name.endsWith(".properties")) {
+                return PROPERTIES;
+            }
+            return null;
+        }
+    }
+
+    private final JavaTypeCache typeCache = new JavaTypeCache();
+    private final Map<List<Path>, JavaParser> javaParsers = new HashMap<>();
+    private final MavenPomCache pomCache = new InMemoryMavenPomCache();
+    private final MavenParser mavenParser = MavenParser.builder().build();
+    private final XmlParser xmlParser = XmlParser.builder().build();
+    private final YamlParser yamlParser = YamlParser.builder().build();
+    private final PropertiesParser propertiesParser = PropertiesParser.builder().build();
+
+    /**
+     * Entries of a classpath separated by the platform path separator, empty if there is no classpath.
+     */
+    static List<Path> classpath(@Nullable String classpath) {
+        return classpath == null
+                ? List.of()
+                : Arrays.stream(classpath.split(File.pathSeparator))
+                        .filter(entry -> !entry.isBlank())
+                        .map(Paths::get)
+                        .toList();
+    }
+
+    /**
+     * Makes the warm caches available to the recipes and parsers using the context.
+     */
+    void install(ExecutionContext ctx) {
+        MavenExecutionContextView.view(ctx).setPomCache(pomCache);
+    }
+
+    /**
+     * Parses the inputs of one kind, source paths are relative to the project root.
+     */
+    List<SourceFile> parse(Kind kind, List<Parser.Input> inputs, Path root, List<Path> classpath,
+                           ExecutionContext ctx) {
+        Parser parser = switch (kind) {
+            case JAVA -> javaParsers.computeIfAbsent(List.copyOf(classpath), cp -> JavaParser.fromJavaVersion()
+                    .classpath(cp)
+                    .typeCache(typeCache)
+                    .build());
+            case MAVEN -> mavenParser;
+            case XML -> xmlParser;
+            case YAML -> yamlParser;
+            case PROPERTIES -> propertiesParser;
+        };
+        return parser.reset().parseInputs(inputs, root, ctx).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,258 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.upgrade.daemon;
+
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.Parser;
+import org.openrewrite.PrintOutputCapture;
+import org.openrewrite.Result;
+import org.openrewrite.SourceFile;
+import org.openrewrite.marker.RecipesThatMadeChanges;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Parsed sources of one project, kept by the daemon between the runs.
+ * <p>
+ * A file is parsed again only if its size or modification time changed and the hash of its content differs from the
+ * parsed one. Poms are parsed together (the model of a module depends on its parent), so a change of any pom parses
+ * all of them again. Files changed by a run are kept as the trees produced by the recipes.
+ * </p>
+ */
+final class WarmProject {
+
+    private static final Set<String> SKIPPED_DIRECTORIES = Set.of("target", "build", "node_modules");
+
+    private final Path root;
+    private final Map<Path, Entry> entries = new LinkedHashMap<>();
+
+    WarmProject(Path root) {
+        this.root = root;
+    }
+
+    /**
+     * Brings the parsed sources up to date with the files of the project, returns the number of parsed files.
+     */
+    int refresh(WarmParsers parsers, List<Path> classpath, ExecutionContext ctx) throws IOException {
+        Map<Path, BasicFileAttributes> files = scan();
+        List<Path> removed = entries.keySet().stream().filter(path -> !files.containsKey(path)).toList();
+        return update(files, removed, parsers, classpath, ctx);
+    }
+
+    /**
+     * Brings the parsed sources of the given files (e.g. changed, created or deleted since the last refresh) up to
+     * date, returns the number of parsed files.
+     */
+    int refresh(Collection<Path> paths, WarmParsers parsers, List<Path> classpath, ExecutionContext ctx)
+            throws IOException {
+        Map<Path, BasicFileAttributes> files = new LinkedHashMap<>();
+        List<Path> removed = new ArrayList<>();
+        for (Path path : paths) {
+            if (WarmParsers.Kind.of(path) == null) {
+                continue;
+            }
+            if (Files.isRegularFile(path)) {
+                files.put(path, Files.readAttributes(path, BasicFileAttributes.class));
+            } else if (entries.containsKey(path)) {
+                removed.add(path);
+            }
+        }
+        return update(files, removed, parsers, classpath, ctx);
+    }
+
+    private int update(Map<Path, BasicFileAttributes> files, List<Path> removed, WarmParsers parsers,
+                       List<Path> classpath, ExecutionContext ctx) throws IOException {
+        boolean pomsChanged = false;
+        for (Path path : removed) {
+            entries.remove(path);
+            pomsChanged |= WarmParsers.Kind.of(path) == WarmParsers.Kind.MAVEN;
+        }
+
+        Map<Path, Content> changed = new HashMap<>();
+        for (Map.Entry<Path, BasicFileAttributes> file : files.entrySet()) {
+            Path path = file.getKey();
+            Entry entry = entries.get(path);
+            FileTime modified = file.getValue().lastModifiedTime();
+            long size = file.getValue().size();
+            if (entry != null && entry.modified.equals(modified) && entry.size == size) {
+                continue;
+            }
+            Content content = Content.read(path, modified, size);
+            if (entry != null && entry.hash.equals(content.hash)) {
+                entries.put(path, new Entry(modified, size, entry.hash, entry.sourceFile));
+                continue;
+            }
+            changed.put(path, content);
+            pomsChanged |= WarmParsers.Kind.of(path) == WarmParsers.Kind.MAVEN;
+        }
+        if (pomsChanged) {
+            Set<Path> poms = new LinkedHashSet<>(entries.keySet());
+            poms.addAll(files.keySet());
+            for (Path pom : poms) {
+                if (WarmParsers.Kind.of(pom) == WarmParsers.Kind.MAVEN && !changed.containsKey(pom)) {
+                    BasicFileAttributes attributes = files.containsKey(pom)
+                            ? files.get(pom)
+                            : Files.readAttributes(pom, BasicFileAttributes.class);
+                    changed.put(pom, Content.read(pom, attributes.lastModifiedTime(), attributes.size()));
+                }
+            }
+        }
+
+        Map<WarmParsers.Kind, List<Parser.Input>> inputs = new EnumMap<>(WarmParsers.Kind.class);
+        for (Map.Entry<Path, Content> file : changed.entrySet()) {
+            byte[] bytes = file.getValue().bytes;
+            inputs.computeIfAbsent(WarmParsers.Kind.of(file.getKey()), kind -> new ArrayList<>())
+                    .add(new Parser.Input(file.getKey(), () -> new ByteArrayInputStream(bytes)));
+        }
+        for (Map.Entry<WarmParsers.Kind, List<Parser.Input>> kind : inputs.entrySet()) {
+            for (SourceFile sourceFile : parsers.parse(kind.getKey(), kind.getValue(), root, classpath, ctx)) {
+                Path path = root.resolve(sourceFile.getSourcePath());
+                Content content = changed.get(path);
+                if (content != null) {
+                    entries.put(path, new Entry(content.modified, content.size, content.hash, sourceFile));
+                }
+            }
+        }
+        return changed.size();
+    }
+
+    List<SourceFile> getSourceFiles() {
+        return entries.values().stream().map(Entry::sourceFile).toList();
+    }
+
+    /**
+     * Parsed sources of the given files, files which are not parsed are ignored.
+     */
+    List<SourceFile> getSourceFiles(Collection<Path> paths) {
+        return paths.stream().map(entries::get).filter(Objects::nonNull).map(Entry::sourceFile).toList();
+    }
+
+    /**
+     * Size of the file of the parsed source in bytes, 0 if the source is not known.
+     */
+    long size(SourceFile sourceFile) {
+        Entry entry = entries.get(root.resolve(sourceFile.getSourcePath()));
+        return entry == null ? 0 : entry.size;
+    }
+
+    /**
+     * Writes the results of a run into the project and keeps the changed trees, returns the changed paths.
+     */
+    List<Path> write(List<Result> results) throws IOException {
+        List<Path> written = new ArrayList<>();
+        for (Result result : results) {
+            SourceFile before = result.getBefore();
+            SourceFile after = result.getAfter();
+            if (before != null && (after == null || !before.getSourcePath().equals(after.getSourcePath()))) {
+                Path path = root.resolve(before.getSourcePath());
+                Files.deleteIfExists(path);
+                entries.remove(path);
+                written.add(before.getSourcePath());
+            }
+            if (after != null) {
+                after = after.withMarkers(after.getMarkers().removeByType(RecipesThatMadeChanges.class));
+                Path path = root.resolve(after.getSourcePath());
+                Charset charset = after.getCharset() == null ? StandardCharsets.UTF_8 : after.getCharset();
+                byte[] bytes = after.printAll(new PrintOutputCapture<>(0, PrintOutputCapture.MarkerPrinter.SANITIZED))
+                        .getBytes(charset);
+                Files.createDirectories(path.getParent());
+                Files.write(path, bytes);
+                BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+                entries.put(path, new Entry(attributes.lastModifiedTime(), attributes.size(), hash(bytes), after));
+                if (!written.contains(after.getSourcePath())) {
+                    written.add(after.getSourcePath());
+                }
+            }
+        }
+        return written;
+    }
+
+    private Map<Path, BasicFileAttributes> scan() throws IOException {
+        Map<Path, BasicFileAttributes> files = new LinkedHashMap<>();
+        Files.walkFileTree(root, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                return !dir.equals(root) && isSkipped(dir)
+                        ? FileVisitResult.SKIP_SUBTREE
+                        : FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                if (attrs.isRegularFile() && WarmParsers.Kind.of(file) != null) {
+                    files.put(file, attrs);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        return files;
+    }
+
+    /**
+     * Directories which never contain sources to migrate (build output, hidden directories).
+     */
+    static boolean isSkipped(Path directory) {
+        String name = directory.getFileName() == null ? "" : directory.getFileName().toString();
+        return name.startsWith(".") || SKIPPED_DIRECTORIES.contains(name);
+    }
+
+    private static String hash(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record Entry(FileTime modified, long size, String hash, SourceFile sourceFile) {
+    }
+
+    private record Content(FileTime modified, long size, String hash, byte[] bytes) {
+
+        static Content read(Path path, FileTime modified, long size) {
+            try {
+                byte[] bytes = Files.readAllBytes(path);
+                return new Content(modified, size, WarmProject.hash(bytes), bytes);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
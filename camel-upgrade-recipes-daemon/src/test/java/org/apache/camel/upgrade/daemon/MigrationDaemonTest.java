@@ -0,0 +1,100 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.upgrade.daemon;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class MigrationDaemonTest {
+
+    private static MigrationDaemon daemon;
+
+    @TempDir
+    Path project;
+
+    @BeforeAll
+    static void start() {
+        daemon = new MigrationDaemon();
+    }
+
+    @Test
+    void rerunParsesOnlyChangedFiles() throws IOException {
+        Path properties = project.resolve("application.properties");
+        Path other = project.resolve("src/main/resources/other.properties");
+        Files.createDirectories(other.getParent());
+        Files.writeString(properties, "camel.main.backlogTracing=true\n");
+        Files.writeString(other, "name=value\n");
+        Map<String, String> request = Map.of("", "run", "project", project.toString(),
+                "recipe", "org.apache.camel.upgrade.UpdatePropertiesAndYamlKeys");
+
+        List<String> response = daemon.handle(request);
+        assertEquals("application.properties", response.get(0));
+        assertTrue(response.get(1).startsWith("OK 1 files changed, 2 files parsed"), response.toString());
+        assertEquals("camel.trace.enabled=true\n", Files.readString(properties));
+
+        response = daemon.handle(request);
+        assertTrue(response.get(0).startsWith("OK 0 files changed, 0 files parsed"), response.toString());
+
+        Files.writeString(other, "camel.main.backlogTracing=false\n");
+        response = daemon.handle(Map.of("", "dryRun", "project", project.toString(),
+                "recipe", "org.apache.camel.upgrade.UpdatePropertiesAndYamlKeys"));
+        assertEquals(List.of("src/main/resources/other.properties"), response.subList(0, 1));
+        assertTrue(response.get(1).startsWith("OK 1 files changed, 1 files parsed"), response.toString());
+        assertEquals("camel.main.backlogTracing=false\n", Files.readString(other));
+    }
+
+    @Test
+    void readRequest() throws IOException {
+        Map<String, String> request = MigrationDaemon.readRequest(new BufferedReader(new StringReader(
+                "run\nproject=/tmp/app\nrecipe = org.apache.camel.upgrade.CamelMigrationRecipe\n\nignored=true\n")));
+
+        assertEquals(Map.of("", "run", "project", "/tmp/app", "recipe",
+                "org.apache.camel.upgrade.CamelMigrationRecipe"), request);
+    }
+
+    @Test
+    void privateDirectory() throws IOException {
+        assumeTrue(project.getFileSystem().supportedFileAttributeViews().contains("posix"));
+        Path directory = project.resolve("daemon");
+        Files.createDirectories(directory, PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rwxr-xr-x")));
+
+        MigrationDaemon.createPrivateDirectory(directory);
+        assertEquals("rwx------", PosixFilePermissions.toString(Files.getPosixFilePermissions(directory)));
+
+        Path created = MigrationDaemon.createPrivateDirectory(project.resolve("created"));
+        assertEquals("rwx------", PosixFilePermissions.toString(Files.getPosixFilePermissions(created)));
+    }
+
+    @Test
+    void unknownCommand() {
+        assertEquals(List.of("ERROR unknown command 'migrate'"), daemon.handle(Map.of("", "migrate")));
+    }
+}
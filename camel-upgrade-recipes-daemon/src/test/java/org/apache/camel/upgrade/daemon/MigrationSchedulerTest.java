@@ -0,0 +1,97 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.upgrade.daemon;
+
+import org.apache.camel.upgrade.CamelRecipePlan;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.openrewrite.InMemoryExecutionContext;
+import org.openrewrite.Parser;
+import org.openrewrite.Recipe;
+import org.openrewrite.Result;
+import org.openrewrite.SourceFile;
+import org.openrewrite.properties.ChangePropertyKey;
+import org.openrewrite.properties.PropertiesParser;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MigrationSchedulerTest {
+
+    @TempDir
+    Path project;
+
+    @Test
+    void unseenFilesEstimatedFromSize() throws IOException {
+        List<SourceFile> sources = PropertiesParser.builder().build()
+                .parse("a=1\n", "b=2\n", "c=3\n").toList();
+        MigrationCosts costs = MigrationCosts.load(project.resolve("costs"), project);
+        assertArrayEquals(new long[] {100, 200, 300},
+                costs.estimate("recipe", sources, sourceFile -> sources.indexOf(sourceFile) * 100 + 100));
+
+        //10 ns per byte known from the first file
+        costs.record("recipe", sources.get(0).getSourcePath(), 1_000);
+        costs.save();
+        assertArrayEquals(new long[] {1_000, 2_000, 3_000}, MigrationCosts.load(project.resolve("costs"), project)
+                .estimate("recipe", sources, sourceFile -> sources.indexOf(sourceFile) * 100 + 100));
+    }
+
+    @Test
+    void costsKeptPerPlan() throws IOException {
+        List<SourceFile> sources = PropertiesParser.builder().build().parse("a=1\n").toList();
+        String plan = MigrationCosts.planKey(CamelRecipePlan.compile(
+                new ChangePropertyKey("a", "b", null, null)).getRecipe());
+        String other = MigrationCosts.planKey(CamelRecipePlan.compile(
+                new ChangePropertyKey("a", "c", null, null)).getRecipe());
+        assertEquals(plan, MigrationCosts.planKey(CamelRecipePlan.compile(
+                new ChangePropertyKey("a", "b", null, null)).getRecipe()));
+
+        MigrationCosts costs = MigrationCosts.load(project.resolve("costs"), project);
+        costs.record(plan, sources.get(0).getSourcePath(), 1_000);
+        assertArrayEquals(new long[] {1_000}, costs.estimate(plan, sources, sourceFile -> 4));
+        assertArrayEquals(new long[] {4}, costs.estimate(other, sources, sourceFile -> 4));
+    }
+
+    @Test
+    void parallelRunMigratesAllFiles() throws Exception {
+        List<Parser.Input> inputs = IntStream.range(0, 8)
+                .mapToObj(i -> new Parser.Input(Path.of("app" + i + ".properties"),
+                        () -> new ByteArrayInputStream("old.key=value\n".getBytes(StandardCharsets.UTF_8))))
+                .toList();
+        List<SourceFile> sources = PropertiesParser.builder().build()
+                .parseInputs(inputs, null, new InMemoryExecutionContext()).toList();
+        MigrationCosts costs = MigrationCosts.load(project.resolve("costs"), project);
+
+        Recipe plan = CamelRecipePlan.compile(new ChangePropertyKey("old.key", "new.key", null, null)).getRecipe();
+        List<Result> results = new MigrationScheduler(3).run(plan, sources, sourceFile -> 10, costs,
+                InMemoryExecutionContext::new);
+
+        assertEquals(8, results.size());
+        assertTrue(results.stream().allMatch(result -> result.getAfter().printAll().equals("new.key=value\n")));
+        //times of the run replace the estimates from the size
+        long[] estimates = costs.estimate(MigrationCosts.planKey(plan), sources, sourceFile -> 0);
+        assertTrue(IntStream.range(0, 8).allMatch(i -> estimates[i] > 0));
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.upgrade.daemon;
+
+import org.apache.camel.upgrade.CamelRecipePlan;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.openrewrite.Recipe;
+import org.openrewrite.config.Environment;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MigrationWatcherTest {
+
+    private static Recipe plan;
+
+    @TempDir
+    Path project;
+
+    @BeforeAll
+    static void compile() {
+        plan = CamelRecipePlan.compile(Environment.builder()
+                .scanRuntimeClasspath()
+                .build()
+                .activateRecipes("org.apache.camel.upgrade.UpdatePropertiesAndYamlKeys")).getRecipe();
+    }
+
+    @Test
+    void previewDoesNotWrite() throws IOException {
+        Path properties = project.resolve("application.properties");
+        Files.writeString(properties, "name=value\n");
+        try (MigrationWatcher watcher = new MigrationWatcher(project, plan, List.of(), true, 10)) {
+            watcher.start();
+            Files.writeString(properties, "camel.main.backlogTracing=true\n");
+
+            List<String> output = watcher.migrate(Set.of(properties.toRealPath()));
+            assertEquals(1, output.size());
+            assertTrue(output.get(0).contains("+camel.trace.enabled=true"), output.get(0));
+            assertEquals("camel.main.backlogTracing=true\n", Files.readString(properties));
+        }
+    }
+
+    @Test
+    void migratesSavedFiles() throws Exception {
+        Path properties = project.resolve("src/main/resources/application.properties");
+        Files.createDirectories(properties.getParent());
+        Files.writeString(properties, "name=value\n");
+        List<String> output = new CopyOnWriteArrayList<>();
+        try (MigrationWatcher watcher = new MigrationWatcher(project, plan, List.of(), false, 50)) {
+            watcher.start();
+            Thread thread = new Thread(() -> {
+                try {
+                    watcher.watch(output::add);
+                } catch (IOException e) {
+                    output.add(e.toString());
+                }
+            });
+            thread.start();
+
+            Files.writeString(properties, "camel.main.backlogTracing=true\n");
+            for (int i = 0; i < 200 && output.isEmpty(); i++) {
+                Thread.sleep(50);
+            }
+            assertEquals(List.of("Migrated src/main/resources/application.properties"), output);
+            assertEquals("camel.trace.enabled=true\n", Files.readString(properties));
+        }
+    }
+}
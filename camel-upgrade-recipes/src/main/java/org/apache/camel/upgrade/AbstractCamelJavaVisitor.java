@@ -16,15 +16,27 @@
  */
 package org.apache.camel.upgrade;
 
+import org.jspecify.annotations.Nullable;
+import org.openrewrite.Cursor;
 import org.openrewrite.ExecutionContext;
+import org.openrewrite.SourceFile;
+import org.openrewrite.Tree;
+import org.openrewrite.TreeVisitor;
 import org.openrewrite.java.JavaIsoVisitor;
 import org.openrewrite.java.MethodMatcher;
+import org.openrewrite.java.tree.Expression;
 import org.openrewrite.java.tree.J;
+import org.openrewrite.java.tree.JRightPadded;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.function.Supplier;
 import java.util.regex.Pattern;
 
@@ -37,6 +49,19 @@ import java.util.regex.Pattern;
  * Simple cache for methodMatchers is implemented here. Usage: call <i>MethodMatcher getMethodMatcher(String
  * signature)</i>.
  * </p>
+ * <p>
+ * Fluent chains of method invocations (e.g. Java DSL routes) are visited iteratively, from the innermost select to the
+ * outermost invocation, neither the stack depth nor the cursor depth grow with the length of the chain. Compared to
+ * the recursive visit of other visitors, <i>doVisitMethodInvocation</i> of an invocation in a chain:
+ * </p>
+ * <ul>
+ * <li>is called after its select was visited, so it sees the select already changed by this visitor,</li>
+ * <li>has the cursor of the outermost invocation of the chain as its parent tree cursor (with the right padded select
+ * in between), messages put by the other invocations of the chain are therefore not visible to it.</li>
+ * </ul>
+ * <p>
+ * The outermost invocation is visited with its usual cursor, after all its selects.
+ * </p>
  */
 public abstract class AbstractCamelJavaVisitor extends JavaIsoVisitor<ExecutionContext> {
     private static final Logger LOGGER = LoggerFactory.getLogger(AbstractCamelJavaVisitor.class);
@@ -48,6 +73,25 @@ public abstract class AbstractCamelJavaVisitor extends JavaIsoVisitor<ExecutionC
     //cache for patterns
     private static final Map<String, Pattern> patterns = new HashMap<>();
 
+    //selects of fluent chains, which were already visited and are skipped when the parent invocation is visited
+    private final Set<Tree> visitedSelects = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    private final CamelTimeBudget.Watch timeBudget = new CamelTimeBudget.Watch();
+
+    @Override
+    public @Nullable J visit(@Nullable Tree tree, ExecutionContext context) {
+        if (tree != null && !visitedSelects.isEmpty() && visitedSelects.remove(tree)) {
+            return (J) tree;
+        }
+        if (tree instanceof SourceFile sourceFile && CamelSkipPolicy.skips(sourceFile, context)) {
+            return (J) tree;
+        }
+        if (timeBudget.tick(tree, context)) {
+            return super.visit(tree, context);
+        }
+        return timeBudget.visitWithin(tree, getClass(), () -> super.visit(tree, context), context);
+    }
+
     @Override
     public final J.Import visitImport(J.Import _import, ExecutionContext context) {
 
@@ -71,6 +115,10 @@ public abstract class AbstractCamelJavaVisitor extends JavaIsoVisitor<ExecutionC
 
     @Override
     public final J.MethodInvocation visitMethodInvocation(J.MethodInvocation method, ExecutionContext context) {
+        if (method.getSelect() instanceof J.MethodInvocation && !visitedSelects.contains(method.getSelect())) {
+            J.MethodInvocation m = visitSelectChain(method, context);
+            return executeVisitWithCatch(() -> doVisitMethodInvocation(m, context), method, context);
+        }
         return executeVisitWithCatch(() -> doVisitMethodInvocation(method, context), method, context);
     }
 
@@ -129,11 +177,72 @@ public abstract class AbstractCamelJavaVisitor extends JavaIsoVisitor<ExecutionC
 
     // ------------------------------------------ helper methods -------------------------------------------
 
+    /**
+     * Visits the chain of selects of the invocation from the innermost one. Each visited select replaces the select of
+     * the following invocation, which is visited next. Returns the invocation with the visited select.
+     */
+    private J.MethodInvocation visitSelectChain(J.MethodInvocation method, ExecutionContext context) {
+        List<J.MethodInvocation> chain = new ArrayList<>();
+        for (Expression e = method; e instanceof J.MethodInvocation && !visitedSelects.contains(e);
+             e = ((J.MethodInvocation) e).getSelect()) {
+            chain.add((J.MethodInvocation) e);
+        }
+
+        //every select is visited with the cursor of the outermost invocation -> right padded select -> select, so
+        //walks over the cursor (e.g. firstEnclosing) do not depend on the length of the chain
+        Cursor current = getCursor();
+        Cursor[] selectCursors = new Cursor[chain.size()];
+        for (int i = 1; i < chain.size(); i++) {
+            selectCursors[i] = new Cursor(current, chain.get(i - 1).getPadding().getSelect());
+        }
+
+        try {
+            J visited = chain.get(chain.size() - 1);
+            for (int i = chain.size() - 1; i > 0; i--) {
+                J.MethodInvocation link = i == chain.size() - 1 ? chain.get(i) : withVisitedSelect(chain.get(i), visited);
+                visited = visit(link, context, selectCursors[i]);
+            }
+            return withVisitedSelect(method, visited);
+        } finally {
+            setCursor(current);
+        }
+    }
+
+    private J.MethodInvocation withVisitedSelect(J.MethodInvocation method, @Nullable J select) {
+        JRightPadded<Expression> padded = method.getPadding().getSelect();
+        if (select == null || padded == null) {
+            return method.getPadding().withSelect(null);
+        }
+        visitedSelects.add(select);
+        return method.getPadding().withSelect(padded.withElement((Expression) select));
+    }
+
+    // Reporting modes (see CamelVisitMode) do not change the files, formatting and follow-up visitors are skipped
+    @Override
+    public <J2 extends J> J2 autoFormat(J2 tree, @Nullable J stopAfter, ExecutionContext context, Cursor cursor) {
+        return CamelVisitMode.of(cursor) == null ? super.autoFormat(tree, stopAfter, context, cursor) : tree;
+    }
+
+    @Override
+    protected void doAfterVisit(TreeVisitor<?, ExecutionContext> visitor) {
+        if (CamelVisitMode.of(getCursor()) == null) {
+            super.doAfterVisit(visitor);
+        }
+    }
+
     // If the migration fails - do not fail whole migration process, only this one recipe
     protected <T extends J> T executeVisitWithCatch(Supplier<T> visitMethod, T origValue, ExecutionContext context) {
         try {
+            CamelVisitMode mode = CamelVisitMode.of(getCursor());
+            if (mode != null) {
+                return mode.visit(getCursor(), getClass(), visitMethod, origValue, context);
+            }
             return visitMethod.get();
         } catch (Exception e) {
+            if (CamelTimeBudget.isExceeded(e)) {
+                //the whole file is abandoned, see CamelTimeBudget
+                throw e;
+            }
             LOGGER.warn(String.format("Internal error detected in %s, recipe is skipped.", getClass().getName()), e);
             return origValue;
         }
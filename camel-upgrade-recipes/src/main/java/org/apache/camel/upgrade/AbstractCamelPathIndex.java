@@ -0,0 +1,205 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.upgrade;
+
+import org.jspecify.annotations.Nullable;
+import org.openrewrite.Cursor;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Set of path expressions compiled into one name keyed automaton (shared by {@link CamelXPathIndex} and
+ * {@link CamelJsonPathIndex}).
+ * <p>
+ * Every expression is a list of {@link Step}s, each step matches one name (or any name for <i>*</i>) and might be
+ * a descendant step (any number of levels can be skipped before it). The automaton is built lazily: states are
+ * interned and each transition is computed only once, so advancing a state costs a single map lookup.
+ * </p>
+ */
+public abstract class AbstractCamelPathIndex {
+
+    //key used for all names not referenced by any expression
+    private static final String OTHER = "\u0000";
+
+    private final Map<String, Integer> rules = new HashMap<>();
+    //step names indexed by the automaton position, null for accepting positions
+    private final List<String> steps = new ArrayList<>();
+    //positions which stay active for any name (descendant steps)
+    private final BitSet loops = new BitSet();
+    //rule matched by an accepting position
+    private final Map<Integer, Integer> accepting = new HashMap<>();
+    private final Set<String> alphabet = new HashSet<>();
+    private final Map<BitSet, State> states = new ConcurrentHashMap<>();
+    private final State root;
+
+    protected AbstractCamelPathIndex(List<String> expressions, Function<String, List<Step>> parser) {
+        BitSet initial = new BitSet();
+        for (String expression : expressions) {
+            if (rules.containsKey(expression)) {
+                continue;
+            }
+            List<Step> path = parser.apply(expression);
+            if (path.isEmpty()) {
+                throw new IllegalArgumentException("Unsupported expression: '" + expression + "'.");
+            }
+            rules.put(expression, rules.size());
+            initial.set(steps.size());
+            for (Step step : path) {
+                if (step.descendant) {
+                    loops.set(steps.size());
+                }
+                steps.add(step.name);
+                alphabet.add(step.name);
+            }
+            accepting.put(steps.size(), rules.get(expression));
+            steps.add(null);
+        }
+        root = intern(initial);
+    }
+
+    /**
+     * Name of the node represented by the cursor value, or null if the node is transparent for the paths.
+     */
+    protected abstract @Nullable String nameOf(Object cursorValue);
+
+    /**
+     * State before the first named node of the document.
+     */
+    public State root() {
+        return root;
+    }
+
+    /**
+     * Computes the state of the node represented by the cursor by walking its ancestors. Used only if a visitor
+     * starts below the document root, otherwise the state is advanced incrementally.
+     */
+    public State stateOf(Cursor cursor) {
+        LinkedList<String> names = new LinkedList<>();
+        for (Iterator<Object> it = cursor.getPath(); it.hasNext(); ) {
+            String name = nameOf(it.next());
+            if (name != null) {
+                names.addFirst(name);
+            }
+        }
+        State state = root;
+        for (String name : names) {
+            state = state.advance(name);
+        }
+        return state;
+    }
+
+    public boolean matches(State state, String expression) {
+        Integer rule = rules.get(expression);
+        if (rule == null) {
+            throw new IllegalArgumentException("Expression '" + expression + "' is not part of the index.");
+        }
+        return state.accepted.get(rule);
+    }
+
+    private State intern(BitSet positions) {
+        return states.computeIfAbsent(positions, State::new);
+    }
+
+    private State next(BitSet positions, String name) {
+        BitSet result = new BitSet();
+        for (int pos = positions.nextSetBit(0); pos >= 0; pos = positions.nextSetBit(pos + 1)) {
+            String step = steps.get(pos);
+            if (step == null) {
+                continue;
+            }
+            if ("*".equals(step) || step.equals(name)) {
+                result.set(pos + 1);
+            }
+            if (loops.get(pos)) {
+                result.set(pos);
+            }
+        }
+        return intern(result);
+    }
+
+    /**
+     * One step of a compiled expression.
+     */
+    protected static final class Step {
+        private final String name;
+        private final boolean descendant;
+
+        protected Step(String name, boolean descendant) {
+            this.name = name;
+            this.descendant = descendant;
+        }
+    }
+
+    /**
+     * Immutable state of the automaton for one open node.
+     */
+    public final class State {
+
+        private final BitSet positions;
+        private final BitSet accepted = new BitSet();
+        private final Map<String, State> transitions = new ConcurrentHashMap<>();
+
+        private State(BitSet positions) {
+            this.positions = positions;
+            for (int pos = positions.nextSetBit(0); pos >= 0; pos = positions.nextSetBit(pos + 1)) {
+                Integer rule = accepting.get(pos);
+                if (rule != null) {
+                    accepted.set(rule);
+                }
+            }
+        }
+
+        /**
+         * Returns the state of a child node with the given name.
+         */
+        public State advance(String name) {
+            String key = alphabet.contains(name) ? name : OTHER;
+            return transitions.computeIfAbsent(key, k -> next(positions, name));
+        }
+
+        /**
+         * True if no expression can match this node or any of its descendants.
+         */
+        public boolean isDead() {
+            return positions.isEmpty();
+        }
+
+        public Set<String> matchedExpressions() {
+            if (accepted.isEmpty()) {
+                return Collections.emptySet();
+            }
+            Set<String> result = new HashSet<>();
+            rules.forEach((expression, rule) -> {
+                if (accepted.get(rule)) {
+                    result.add(expression);
+                }
+            });
+            return result;
+        }
+    }
+}
@@ -16,23 +16,86 @@
  */
 package org.apache.camel.upgrade;
 
+import org.jspecify.annotations.Nullable;
+import org.openrewrite.Cursor;
 import org.openrewrite.ExecutionContext;
+import org.openrewrite.SourceFile;
+import org.openrewrite.Tree;
+import org.openrewrite.TreeVisitor;
 import org.openrewrite.xml.XmlIsoVisitor;
 import org.openrewrite.xml.tree.Xml;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.function.Supplier;
 
 /**
  * Parent of Camel xml visitors, catches any exception, logs it and then continues.
+ * <p>
+ * Visitors created with a {@link CamelXPathIndex} keep the automaton state of every open tag, so the expressions of
+ * the index can be evaluated for the current tag via <i>matchesXPath(String expression)</i> without walking the
+ * cursor.
+ * </p>
+ * <p>
+ * Visitors overriding <i>requiredTags()</i> skip documents which contain none of the tags (see
+ * {@link CamelDocumentNames}).
+ * </p>
  */
 public abstract class AbstractCamelXmlVisitor extends XmlIsoVisitor<ExecutionContext> {
     private static final Logger LOGGER = LoggerFactory.getLogger(AbstractCamelXmlVisitor.class);
 
+    private final @Nullable CamelXPathIndex xPathIndex;
+    private final Deque<CamelXPathIndex.State> xPathStates = new ArrayDeque<>();
+    private final CamelTimeBudget.Watch timeBudget = new CamelTimeBudget.Watch();
+
+    protected AbstractCamelXmlVisitor() {
+        this(null);
+    }
+
+    protected AbstractCamelXmlVisitor(@Nullable CamelXPathIndex xPathIndex) {
+        this.xPathIndex = xPathIndex;
+    }
+
+    @Override
+    public @Nullable Xml visit(@Nullable Tree tree, ExecutionContext executionContext) {
+        if (tree instanceof SourceFile sourceFile && CamelSkipPolicy.skips(sourceFile, executionContext)) {
+            return (Xml) tree;
+        }
+        if (timeBudget.tick(tree, executionContext)) {
+            return super.visit(tree, executionContext);
+        }
+        return timeBudget.visitWithin(tree, getClass(), () -> super.visit(tree, executionContext),
+                executionContext);
+    }
+
+    @Override
+    public boolean isAcceptable(SourceFile sourceFile, ExecutionContext executionContext) {
+        if (!super.isAcceptable(sourceFile, executionContext)) {
+            return false;
+        }
+        Collection<String> required = requiredTags();
+        return required.isEmpty() || CamelDocumentNames.of(sourceFile).mightContainAny(required);
+    }
+
     @Override
     public final Xml.Tag visitTag(Xml.Tag tag, ExecutionContext executionContext) {
-        return executeVisitWithCatch(() -> doVisitTag(tag, executionContext), tag, executionContext);
+        if (xPathIndex == null) {
+            return executeVisitWithCatch(() -> doVisitTag(tag, executionContext), tag, executionContext);
+        }
+
+        //visitor might be started below the document root, in that case the state is computed from the cursor
+        xPathStates.push(xPathStates.isEmpty()
+                ? xPathIndex.stateOf(getCursor())
+                : xPathStates.peek().advance(tag.getName()));
+        try {
+            return executeVisitWithCatch(() -> doVisitTag(tag, executionContext), tag, executionContext);
+        } finally {
+            xPathStates.pop();
+        }
     }
 
     //-------------------------------- internal methods used by children---------------------------------
@@ -41,11 +104,53 @@ public abstract class AbstractCamelXmlVisitor extends XmlIsoVisitor<ExecutionCon
         return super.visitTag(tag, executionContext);
     }
 
+    /**
+     * Names of tags the visitor is interested in, the document is visited only if it contains at least one of them.
+     * Empty collection (default) means that every document is visited.
+     */
+    protected Collection<String> requiredTags() {
+        return Collections.emptySet();
+    }
+
+    // ------------------------------------------ helper methods -------------------------------------------
+
+    /**
+     * Evaluates one of the expressions from the {@link CamelXPathIndex} given to the constructor against the current
+     * tag. Equivalent of <i>new XPathMatcher(expression).matches(getCursor())</i>.
+     */
+    protected boolean matchesXPath(String expression) {
+        if (xPathIndex == null || xPathStates.isEmpty()) {
+            throw new IllegalStateException("XPath index is not available for " + getClass().getName());
+        }
+        return xPathIndex.matches(xPathStates.peek(), expression);
+    }
+
+    // Reporting modes (see CamelVisitMode) do not change the files, formatting and follow-up visitors are skipped
+    @Override
+    public <X extends Xml> X autoFormat(X tree, @Nullable Xml stopAfter, ExecutionContext context, Cursor cursor) {
+        return CamelVisitMode.of(cursor) == null ? super.autoFormat(tree, stopAfter, context, cursor) : tree;
+    }
+
+    @Override
+    protected void doAfterVisit(TreeVisitor<?, ExecutionContext> visitor) {
+        if (CamelVisitMode.of(getCursor()) == null) {
+            super.doAfterVisit(visitor);
+        }
+    }
+
     // If the migration fails - do not fail whole migration process, only this one recipe
     protected <T extends Xml> T executeVisitWithCatch(Supplier<T> visitMethod, T origValue, ExecutionContext context) {
         try {
+            CamelVisitMode mode = CamelVisitMode.of(getCursor());
+            if (mode != null) {
+                return mode.visit(getCursor(), getClass(), visitMethod, origValue, context);
+            }
             return visitMethod.get();
         } catch (Exception e) {
+            if (CamelTimeBudget.isExceeded(e)) {
+                //the whole file is abandoned, see CamelTimeBudget
+                throw e;
+            }
             LOGGER.warn(String.format("Internal error detected in %s, recipe is skipped.", getClass().getName()), e);
             return origValue;
         }
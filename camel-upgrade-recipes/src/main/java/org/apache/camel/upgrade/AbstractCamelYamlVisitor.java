@@ -16,20 +16,70 @@
  */
 package org.apache.camel.upgrade;
 
+import org.jspecify.annotations.Nullable;
+import org.openrewrite.Cursor;
 import org.openrewrite.ExecutionContext;
+import org.openrewrite.SourceFile;
+import org.openrewrite.Tree;
+import org.openrewrite.TreeVisitor;
 import org.openrewrite.yaml.YamlIsoVisitor;
 import org.openrewrite.yaml.tree.Yaml;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.function.Supplier;
 
 /**
  * Parent of Camel yaml visitors, catches any exception, logs it and then continues.
+ * <p>
+ * Visitors created with a {@link CamelJsonPathIndex} keep the automaton state of every open mapping entry, so the
+ * expressions of the index can be evaluated via <i>matchesJsonPath(String expression)</i> without walking the cursor.
+ * </p>
+ * <p>
+ * Visitors overriding <i>requiredKeys()</i> skip documents which contain none of the keys (see
+ * {@link CamelDocumentNames}).
+ * </p>
  */
 public abstract class AbstractCamelYamlVisitor extends YamlIsoVisitor<ExecutionContext> {
     private static final Logger LOGGER = LoggerFactory.getLogger(AbstractCamelYamlVisitor.class);
 
+    private final @Nullable CamelJsonPathIndex jsonPathIndex;
+    private final Deque<CamelJsonPathIndex.State> jsonPathStates = new ArrayDeque<>();
+    private final CamelTimeBudget.Watch timeBudget = new CamelTimeBudget.Watch();
+
+    protected AbstractCamelYamlVisitor() {
+        this(null);
+    }
+
+    protected AbstractCamelYamlVisitor(@Nullable CamelJsonPathIndex jsonPathIndex) {
+        this.jsonPathIndex = jsonPathIndex;
+    }
+
+    @Override
+    public @Nullable Yaml visit(@Nullable Tree tree, ExecutionContext executionContext) {
+        if (tree instanceof SourceFile sourceFile && CamelSkipPolicy.skips(sourceFile, executionContext)) {
+            return (Yaml) tree;
+        }
+        if (timeBudget.tick(tree, executionContext)) {
+            return super.visit(tree, executionContext);
+        }
+        return timeBudget.visitWithin(tree, getClass(), () -> super.visit(tree, executionContext),
+                executionContext);
+    }
+
+    @Override
+    public boolean isAcceptable(SourceFile sourceFile, ExecutionContext executionContext) {
+        if (!super.isAcceptable(sourceFile, executionContext)) {
+            return false;
+        }
+        Collection<String> required = requiredKeys();
+        return required.isEmpty() || CamelDocumentNames.of(sourceFile).mightContainAny(required);
+    }
+
     /**
      * Method is called before start of visiting a new document. Implementations might need to clear all local state
      * from previous document.
@@ -39,12 +89,24 @@ public abstract class AbstractCamelYamlVisitor extends YamlIsoVisitor<ExecutionC
     @Override
     public final Yaml.Document visitDocument(Yaml.Document document, ExecutionContext o) {
         clearLocalCache();
+        jsonPathStates.clear();
         return super.visitDocument(document, o);
     }
 
     @Override
     public final Yaml.Mapping.Entry visitMappingEntry(Yaml.Mapping.Entry entry, ExecutionContext executionContext) {
-        return executeVisitWithCatch(() -> doVisitMappingEntry(entry, executionContext), entry, executionContext);
+        if (jsonPathIndex == null) {
+            return executeVisitWithCatch(() -> doVisitMappingEntry(entry, executionContext), entry, executionContext);
+        }
+
+        jsonPathStates.push(jsonPathStates.isEmpty()
+                ? jsonPathIndex.stateOf(getCursor())
+                : jsonPathStates.peek().advance(entry.getKey().getValue()));
+        try {
+            return executeVisitWithCatch(() -> doVisitMappingEntry(entry, executionContext), entry, executionContext);
+        } finally {
+            jsonPathStates.pop();
+        }
     }
 
     @Override
@@ -57,6 +119,14 @@ public abstract class AbstractCamelYamlVisitor extends YamlIsoVisitor<ExecutionC
         return executeVisitWithCatch(() -> doVisitMapping(mapping, executionContext), mapping, executionContext);
     }
 
+    /**
+     * Mapping keys the visitor is interested in, the document is visited only if it contains at least one of them.
+     * Empty collection (default) means that every document is visited.
+     */
+    protected Collection<String> requiredKeys() {
+        return Collections.emptySet();
+    }
+
     //-------------------------------- internal methods used by children---------------------------------
 
     public Yaml.Mapping.Entry doVisitMappingEntry(Yaml.Mapping.Entry entry, ExecutionContext executionContext) {
@@ -71,11 +141,45 @@ public abstract class AbstractCamelYamlVisitor extends YamlIsoVisitor<ExecutionC
         return super.visitMapping(mapping, executionContext);
     }
 
+    /**
+     * Evaluates one of the expressions from the {@link CamelJsonPathIndex} given to the constructor against the
+     * nearest mapping entry (the current one, or the one containing the current sequence or mapping). Equivalent of
+     * <i>new JsonPathMatcher(expression).matches(getCursor())</i> for mapping entries.
+     */
+    protected boolean matchesJsonPath(String expression) {
+        if (jsonPathIndex == null) {
+            throw new IllegalStateException("JsonPath index is not available for " + getClass().getName());
+        }
+        return jsonPathIndex.matches(jsonPathStates.isEmpty() ? jsonPathIndex.stateOf(getCursor()) : jsonPathStates.peek(),
+                expression);
+    }
+
+    // Reporting modes (see CamelVisitMode) do not change the files, formatting and follow-up visitors are skipped
+    @Override
+    public <Y2 extends Yaml> Y2 autoFormat(Y2 tree, @Nullable Yaml stopAfter, ExecutionContext context, Cursor cursor) {
+        return CamelVisitMode.of(cursor) == null ? super.autoFormat(tree, stopAfter, context, cursor) : tree;
+    }
+
+    @Override
+    protected void doAfterVisit(TreeVisitor<?, ExecutionContext> visitor) {
+        if (CamelVisitMode.of(getCursor()) == null) {
+            super.doAfterVisit(visitor);
+        }
+    }
+
     // If the migration fails - do not fail whole migration process, only this one recipe
     protected <T extends Yaml> T executeVisitWithCatch(Supplier<T> visitMethod, T origValue, ExecutionContext context) {
         try {
+            CamelVisitMode mode = CamelVisitMode.of(getCursor());
+            if (mode != null) {
+                return mode.visit(getCursor(), getClass(), visitMethod, origValue, context);
+            }
             return visitMethod.get();
         } catch (Exception e) {
+            if (CamelTimeBudget.isExceeded(e)) {
+                //the whole file is abandoned, see CamelTimeBudget
+                throw e;
+            }
             LOGGER.warn(String.format("Internal error detected in %s, recipe is skipped.", getClass().getName()), e);
             return origValue;
         }
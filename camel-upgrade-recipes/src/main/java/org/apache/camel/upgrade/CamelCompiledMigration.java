@@ -0,0 +1,92 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.upgrade;
+
+import org.jspecify.annotations.Nullable;
+import org.openrewrite.Option;
+import org.openrewrite.Recipe;
+import org.openrewrite.config.RecipeDescriptor;
+
+import java.util.List;
+
+/**
+ * Migration compiled by {@link CamelRecipePlan}, for the normal {@code rewrite:run}.
+ * <p>
+ * Activated instead of the migration (by default {@code org.apache.camel.upgrade.CamelMigrationRecipe}), it runs the
+ * flattened recipes of the plan, so the recipes the nested version migrations share run once and the Camel pom changes
+ * are aligned in one {@link CamelPomAlignment}. The changes are the same as the changes of the migration.
+ * </p>
+ */
+public class CamelCompiledMigration extends Recipe {
+
+    @Option(displayName = "Recipe",
+            description = "Name of the migration to run. Defaults to `org.apache.camel.upgrade.CamelMigrationRecipe`.",
+            example = "org.apache.camel.upgrade.Camel410LTSMigrationRecipe",
+            required = false)
+    @Nullable
+    String recipe;
+
+    private transient @Nullable List<Recipe> recipeList;
+
+    private transient boolean describing;
+
+    public CamelCompiledMigration() {
+    }
+
+    public CamelCompiledMigration(@Nullable String recipe) {
+        this.recipe = recipe;
+    }
+
+    public void setRecipe(@Nullable String recipe) {
+        this.recipe = recipe;
+        this.recipeList = null;
+    }
+
+    @Override
+    public String getDisplayName() {
+        return "Camel migration without duplicated recipes";
+    }
+
+    @Override
+    public String getDescription() {
+        return "Runs the Camel migration with each recipe shared by the nested version migrations run only once.";
+    }
+
+    //the descriptor is created during the classpath scanning, which would load this recipe again, so it does not list
+    //the recipes of the migration
+    @Override
+    protected RecipeDescriptor createRecipeDescriptor() {
+        describing = true;
+        try {
+            return super.createRecipeDescriptor();
+        } finally {
+            describing = false;
+        }
+    }
+
+    //compiled once, the migration is loaded from the classpath of the recipes when the recipe is run
+    @Override
+    public synchronized List<Recipe> getRecipeList() {
+        if (describing) {
+            return List.of();
+        }
+        if (recipeList == null) {
+            recipeList = CamelRecipePlan.compile(CamelRecipeDelegate.load(recipe)).getRecipe().getRecipeList();
+        }
+        return recipeList;
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.upgrade;
+
+import org.jspecify.annotations.Nullable;
+
+import java.io.Writer;
+import java.nio.CharBuffer;
+
+/**
+ * Writer of a rewritten text which keeps nothing in memory while the written characters are the same as the original
+ * text, the new text is only built from the first difference. Most files are not changed by a recipe, their rewrite
+ * then allocates no output at all.
+ */
+final class CamelCopyOnChangeWriter extends Writer {
+
+    private final String original;
+    //length of the original text written so far, while nothing is changed
+    private int position;
+    private @Nullable StringBuilder text;
+
+    CamelCopyOnChangeWriter(String original) {
+        this.original = original;
+    }
+
+    @Override
+    public void write(char[] buffer, int offset, int length) {
+        write(CharBuffer.wrap(buffer), offset, length);
+    }
+
+    @Override
+    public void write(String string, int offset, int length) {
+        write((CharSequence) string, offset, length);
+    }
+
+    private void write(CharSequence chars, int offset, int length) {
+        if (text != null) {
+            text.append(chars, offset, offset + length);
+            return;
+        }
+        int same = 0;
+        while (same < length && position + same < original.length()
+                && original.charAt(position + same) == chars.charAt(offset + same)) {
+            same++;
+        }
+        if (same == length) {
+            position += length;
+            return;
+        }
+        text = new StringBuilder(original.length() + 64).append(original, 0, position + same)
+                .append(chars, offset + same, offset + length);
+    }
+
+    @Override
+    public void flush() {
+    }
+
+    @Override
+    public void close() {
+    }
+
+    /**
+     * The written text, the original instance if it is the same.
+     */
+    @Override
+    public String toString() {
+        if (text != null) {
+            return text.toString();
+        }
+        return position == original.length() ? original : original.substring(0, position);
+    }
+}
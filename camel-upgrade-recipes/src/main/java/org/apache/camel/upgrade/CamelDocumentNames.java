@@ -0,0 +1,145 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.upgrade;
+
+import org.openrewrite.SourceFile;
+import org.openrewrite.xml.XmlIsoVisitor;
+import org.openrewrite.xml.tree.Xml;
+import org.openrewrite.yaml.YamlIsoVisitor;
+import org.openrewrite.yaml.tree.Yaml;
+
+import java.lang.ref.WeakReference;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Bloom filter of the names present in one document, tag names for xml and mapping keys for yaml.
+ * <p>
+ * The filter is built with a single scan of the document and cached as long as the document is referenced, so all
+ * Camel visitors share it. The cache entry is bound to the document instance, a document modified by a previous recipe
+ * is scanned again. Used by {@link AbstractCamelXmlVisitor} and {@link AbstractCamelYamlVisitor} to skip documents
+ * which do not contain any of the names required by the recipe.
+ * </p>
+ */
+public final class CamelDocumentNames {
+
+    //weak keys, entries go away with the documents (modified documents are equal to the original, same id)
+    private static final Map<SourceFile, CachedNames> CACHE = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private static final int BITS = 2048;
+    private static final int HASHES = 3;
+
+    private final long[] bits = new long[BITS / Long.SIZE];
+
+    private CamelDocumentNames() {
+    }
+
+    /**
+     * Returns names of the given document, the document is scanned only if it is not cached yet.
+     */
+    public static CamelDocumentNames of(SourceFile sourceFile) {
+        CachedNames cached = CACHE.get(sourceFile);
+        if (cached != null && cached.sourceFile.get() == sourceFile) {
+            return cached.names;
+        }
+        CamelDocumentNames names = scan(sourceFile);
+        synchronized (CACHE) {
+            //removed first, put keeps the key of an equal entry (the previous instance of the document)
+            CACHE.remove(sourceFile);
+            CACHE.put(sourceFile, new CachedNames(sourceFile, names));
+        }
+        return names;
+    }
+
+    static CamelDocumentNames scan(SourceFile sourceFile) {
+        CamelDocumentNames names = new CamelDocumentNames();
+        if (sourceFile instanceof Xml.Document) {
+            new XmlIsoVisitor<CamelDocumentNames>() {
+                @Override
+                public Xml.Tag visitTag(Xml.Tag tag, CamelDocumentNames n) {
+                    n.add(tag.getName());
+                    //namespaced tags are matched by the local name as well
+                    int colon = tag.getName().indexOf(':');
+                    if (colon >= 0) {
+                        n.add(tag.getName().substring(colon + 1));
+                    }
+                    return super.visitTag(tag, n);
+                }
+            }.visit(sourceFile, names);
+        } else if (sourceFile instanceof Yaml.Documents) {
+            new YamlIsoVisitor<CamelDocumentNames>() {
+                @Override
+                public Yaml.Mapping.Entry visitMappingEntry(Yaml.Mapping.Entry entry, CamelDocumentNames n) {
+                    n.add(entry.getKey().getValue());
+                    return super.visitMappingEntry(entry, n);
+                }
+            }.visit(sourceFile, names);
+        }
+        return names;
+    }
+
+    /**
+     * False if the name is definitely not present in the document.
+     */
+    public boolean mightContain(String name) {
+        int h1 = name.hashCode();
+        int h2 = Integer.rotateLeft(h1 * 0x9E3779B9, 16);
+        for (int i = 0; i < HASHES; i++) {
+            int bit = Math.floorMod(h1 + i * h2, BITS);
+            if ((bits[bit / Long.SIZE] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * False if none of the names is present in the document. An empty collection means no requirement.
+     */
+    public boolean mightContainAny(Collection<String> names) {
+        if (names.isEmpty()) {
+            return true;
+        }
+        for (String name : names) {
+            if (mightContain(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void add(String name) {
+        int h1 = name.hashCode();
+        int h2 = Integer.rotateLeft(h1 * 0x9E3779B9, 16);
+        for (int i = 0; i < HASHES; i++) {
+            int bit = Math.floorMod(h1 + i * h2, BITS);
+            bits[bit / Long.SIZE] |= 1L << bit;
+        }
+    }
+
+    private static final class CachedNames {
+        private final WeakReference<SourceFile> sourceFile;
+        private final CamelDocumentNames names;
+
+        private CachedNames(SourceFile sourceFile, CamelDocumentNames names) {
+            this.sourceFile = new WeakReference<>(sourceFile);
+            this.names = names;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.upgrade;
+
+import org.jspecify.annotations.Nullable;
+import org.openrewrite.yaml.tree.Yaml;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Set of JsonPath expressions compiled into one mapping-key keyed automaton.
+ * <p>
+ * Only the subset of JsonPath used by the Camel YAML recipes is supported: the root <i>$</i>, child properties
+ * (<i>$.route.steps</i>) and recursive descent (<i>$..route..steps.transform</i>). As in
+ * {@link org.openrewrite.yaml.JsonPathMatcher}, sequences are transparent, so the path of a mapping entry is made of
+ * the keys of all its enclosing mapping entries.
+ * </p>
+ * <p>
+ * {@link AbstractCamelYamlVisitor} advances the state when descending into a mapping entry, so each entry resolves
+ * all matching expressions in constant time.
+ * </p>
+ */
+public final class CamelJsonPathIndex extends AbstractCamelPathIndex {
+
+    private static final Pattern STEP_PATTERN = Pattern.compile("(\\.\\.?)([\\w\\-]+)");
+
+    private CamelJsonPathIndex(List<String> expressions) {
+        super(expressions, CamelJsonPathIndex::parse);
+    }
+
+    public static CamelJsonPathIndex of(String... expressions) {
+        return of(List.of(expressions));
+    }
+
+    public static CamelJsonPathIndex of(List<String> expressions) {
+        return new CamelJsonPathIndex(expressions);
+    }
+
+    @Override
+    protected @Nullable String nameOf(Object cursorValue) {
+        return cursorValue instanceof Yaml.Mapping.Entry ? ((Yaml.Mapping.Entry) cursorValue).getKey().getValue() : null;
+    }
+
+    private static List<Step> parse(String expression) {
+        String path = expression.trim();
+        if (!path.startsWith("$")) {
+            throw new IllegalArgumentException("Unsupported JsonPath expression: '" + expression + "'.");
+        }
+
+        List<Step> steps = new ArrayList<>();
+        Matcher m = STEP_PATTERN.matcher(path);
+        int position = 1;
+        while (position < path.length()) {
+            if (!m.find(position) || m.start() != position) {
+                throw new IllegalArgumentException("Unsupported JsonPath expression: '" + expression + "'.");
+            }
+            steps.add(new Step(m.group(2), m.group(1).length() == 2));
+            position = m.end();
+        }
+        return steps;
+    }
+}
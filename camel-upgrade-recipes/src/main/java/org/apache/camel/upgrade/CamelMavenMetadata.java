@@ -0,0 +1,198 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.upgrade;
+
+import org.jspecify.annotations.Nullable;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.maven.MavenDownloadingException;
+import org.openrewrite.maven.MavenExecutionContextView;
+import org.openrewrite.maven.cache.MavenPomCache;
+import org.openrewrite.maven.tree.GroupArtifact;
+import org.openrewrite.maven.tree.GroupArtifactVersion;
+import org.openrewrite.maven.tree.MavenMetadata;
+import org.openrewrite.maven.tree.MavenRepository;
+import org.openrewrite.maven.tree.Pom;
+import org.openrewrite.maven.tree.ResolvedGroupArtifactVersion;
+import org.openrewrite.maven.tree.ResolvedPom;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Maven cache answering the version metadata lookups of the dependency upgrades ({@code UpgradeDependencyVersion},
+ * {@code UpgradePluginVersion}, {@code UpgradeParentVersion}) from a local {@link Source}, without any remote request.
+ * <p>
+ * The recipes artifacts carry a snapshot of the versions they upgrade to ({@value #SNAPSHOT}), see
+ * {@link #bundled()}; a directory with {@code maven-metadata.xml} files laid out as a Maven repository can be used
+ * instead, see {@link #directory(Path)}. Artifacts unknown to the source are looked up as usual, every metadata (local
+ * or downloaded) is kept per group and artifact for the whole run, whichever repository asks for it. Everything else
+ * is delegated to the cache of the run.
+ * </p>
+ */
+public final class CamelMavenMetadata implements MavenPomCache {
+
+    /**
+     * Bundled snapshot, {@code groupId:artifactId=version,version...}, artifact {@code *} stands for all the artifacts
+     * of a group always released together (e.g. all Spring Framework modules), groups with discontinued artifacts
+     * (e.g. Camel components) list their artifacts one by one.
+     */
+    public static final String SNAPSHOT = "META-INF/camel-upgrade/maven-metadata.properties";
+
+    /**
+     * Local source of the versions of an artifact.
+     */
+    @FunctionalInterface
+    public interface Source {
+
+        /**
+         * Versions of the artifact, null if the source does not know the artifact.
+         */
+        @Nullable
+        List<String> versions(String groupId, String artifactId);
+    }
+
+    private final MavenPomCache delegate;
+    private final Source source;
+    private final Map<GroupArtifact, Optional<MavenMetadata>> metadata = new ConcurrentHashMap<>();
+
+    public CamelMavenMetadata(MavenPomCache delegate, Source source) {
+        this.delegate = delegate;
+        this.source = source;
+    }
+
+    /**
+     * Installs the cache into the execution context, unless already installed.
+     */
+    public static void install(ExecutionContext ctx, Source source) {
+        MavenExecutionContextView view = MavenExecutionContextView.view(ctx);
+        if (!(view.getPomCache() instanceof CamelMavenMetadata)) {
+            view.setPomCache(new CamelMavenMetadata(view.getPomCache(), source));
+        }
+    }
+
+    /**
+     * Snapshot of the versions bundled in the recipes artifacts (all {@value #SNAPSHOT} resources of the classpath).
+     */
+    public static Source bundled() {
+        Properties snapshot = new Properties();
+        try {
+            Enumeration<URL> resources = CamelMavenMetadata.class.getClassLoader().getResources(SNAPSHOT);
+            while (resources.hasMoreElements()) {
+                try (InputStream is = resources.nextElement().openStream()) {
+                    Properties properties = new Properties();
+                    properties.load(is);
+                    //several artifacts may provide versions of the same group
+                    properties.forEach((key, value) -> snapshot.merge(key, value, (a, b) -> a + "," + b));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read " + SNAPSHOT, e);
+        }
+        return (groupId, artifactId) -> {
+            String versions = snapshot.getProperty(groupId + ":" + artifactId, snapshot.getProperty(groupId + ":*"));
+            return versions == null ? null : List.copyOf(new LinkedHashSet<>(Arrays.asList(versions.split("\\s*,\\s*"))));
+        };
+    }
+
+    /**
+     * Directory laid out as a Maven repository, {@code group/path/artifactId/maven-metadata.xml}.
+     */
+    public static Source directory(Path root) {
+        return (groupId, artifactId) -> {
+            Path file = root.resolve(groupId.replace('.', '/')).resolve(artifactId).resolve("maven-metadata.xml");
+            if (!Files.isRegularFile(file)) {
+                return null;
+            }
+            try {
+                return MavenMetadata.parse(Files.readAllBytes(file)).getVersioning().getVersions();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not read " + file, e);
+            }
+        };
+    }
+
+    @Override
+    public @Nullable Optional<MavenMetadata> getMavenMetadata(URI repo, GroupArtifactVersion gav) {
+        if (gav.getVersion() != null) {
+            //metadata of a snapshot version
+            return delegate.getMavenMetadata(repo, gav);
+        }
+        GroupArtifact ga = new GroupArtifact(gav.getGroupId(), gav.getArtifactId());
+        Optional<MavenMetadata> known = metadata.get(ga);
+        if (known != null) {
+            return known;
+        }
+        List<String> versions = source.versions(gav.getGroupId(), gav.getArtifactId());
+        if (versions == null) {
+            return delegate.getMavenMetadata(repo, gav);
+        }
+        return metadata.computeIfAbsent(ga, k -> Optional.of(new MavenMetadata(
+                new MavenMetadata.Versioning(versions, Collections.emptyList(), null, null, null, null))));
+    }
+
+    @Override
+    public void putMavenMetadata(URI repo, GroupArtifactVersion gav, @Nullable MavenMetadata downloaded) {
+        delegate.putMavenMetadata(repo, gav, downloaded);
+        if (gav.getVersion() == null && downloaded != null) {
+            metadata.putIfAbsent(new GroupArtifact(gav.getGroupId(), gav.getArtifactId()), Optional.of(downloaded));
+        }
+    }
+
+    @Override
+    public @Nullable ResolvedPom getResolvedDependencyPom(ResolvedGroupArtifactVersion dependency) {
+        return delegate.getResolvedDependencyPom(dependency);
+    }
+
+    @Override
+    public void putResolvedDependencyPom(ResolvedGroupArtifactVersion dependency, ResolvedPom resolved) {
+        delegate.putResolvedDependencyPom(dependency, resolved);
+    }
+
+    @Override
+    public @Nullable Optional<Pom> getPom(ResolvedGroupArtifactVersion gav) throws MavenDownloadingException {
+        return delegate.getPom(gav);
+    }
+
+    @Override
+    public void putPom(ResolvedGroupArtifactVersion gav, @Nullable Pom pom) {
+        delegate.putPom(gav, pom);
+    }
+
+    @Override
+    public @Nullable Optional<MavenRepository> getNormalizedRepository(MavenRepository repository) {
+        return delegate.getNormalizedRepository(repository);
+    }
+
+    @Override
+    public void putNormalizedRepository(MavenRepository repository, @Nullable MavenRepository normalized) {
+        delegate.putNormalizedRepository(repository, normalized);
+    }
+}
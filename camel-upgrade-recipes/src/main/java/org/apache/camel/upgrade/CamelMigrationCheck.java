@@ -0,0 +1,238 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.upgrade;
+
+import org.jspecify.annotations.Nullable;
+import org.openrewrite.Column;
+import org.openrewrite.Cursor;
+import org.openrewrite.DataTable;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.Option;
+import org.openrewrite.Recipe;
+import org.openrewrite.ScanningRecipe;
+import org.openrewrite.SourceFile;
+import org.openrewrite.Tree;
+import org.openrewrite.TreeVisitor;
+import org.openrewrite.marker.SearchResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Check mode of the migrations, for CI gates which only need to know whether a project still needs migration.
+ * <p>
+ * Every recipe of the migration (by default {@code org.apache.camel.upgrade.CamelMigrationRecipe}, flattened by
+ * {@link CamelRecipePlan}) runs in the {@link CamelVisitMode} of this check, no file is changed. The first element a
+ * Camel visitor (child of {@link AbstractCamelJavaVisitor}, {@link AbstractCamelXmlVisitor} or
+ * {@link AbstractCamelYamlVisitor}) would change in a file is recorded as a hit and the visitor skips the rest of the
+ * file, a file the other recipes (dependency upgrades, type and property renames) would change is a hit as a whole.
+ * The hit gets a {@link SearchResult} marker with the name of the recipe, the recipes which follow skip the file.
+ * Once the maximum number of hits is reached, no recipe visits the remaining files. Hits are reported in the
+ * {@link Report} data table and logged.
+ * </p>
+ * <p>
+ * The markers are the only changes of the run, so a dry run with any result means the project needs migration.
+ * </p>
+ */
+public class CamelMigrationCheck extends ScanningRecipe<CamelMigrationCheck.Hits> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CamelMigrationCheck.class);
+
+    @Option(displayName = "Recipe",
+            description = "Name of the migration to check. Defaults to `org.apache.camel.upgrade.CamelMigrationRecipe`.",
+            example = "org.apache.camel.upgrade.Camel410LTSMigrationRecipe",
+            required = false)
+    @Nullable
+    String recipe;
+
+    @Option(displayName = "Maximum hits",
+            description = "Number of files needing migration after which the recipes stop visiting files. Defaults to 1.",
+            example = "10",
+            required = false)
+    @Nullable
+    Integer maxHits;
+
+    private final transient Report report = new Report(this);
+
+    private transient @Nullable Recipe migration;
+
+    public CamelMigrationCheck() {
+    }
+
+    public CamelMigrationCheck(@Nullable String recipe, @Nullable Integer maxHits) {
+        this.recipe = recipe;
+        this.maxHits = maxHits;
+    }
+
+    CamelMigrationCheck(Recipe migration, @Nullable Integer maxHits) {
+        this.migration = migration;
+        this.maxHits = maxHits;
+    }
+
+    public void setRecipe(@Nullable String recipe) {
+        this.recipe = recipe;
+    }
+
+    public void setMaxHits(@Nullable Integer maxHits) {
+        this.maxHits = maxHits;
+    }
+
+    @Override
+    public String getDisplayName() {
+        return "Check whether Camel migration is needed";
+    }
+
+    @Override
+    public String getDescription() {
+        return "Marks the first change of the Camel migration in each file and stops after the given number of files, without changing them.";
+    }
+
+    //the migration is not a recipe list of this recipe, recipe descriptors are created during the classpath scanning
+    //and the migration is loaded from the classpath only when the check is run
+    @Override
+    public Hits getInitialValue(ExecutionContext ctx) {
+        return new Hits(maxHits == null ? 1 : maxHits,
+                CamelRecipeDelegate.of(migration != null ? migration : CamelRecipeDelegate.load(recipe), ctx), report);
+    }
+
+    @Override
+    public TreeVisitor<?, ExecutionContext> getScanner(Hits acc) {
+        return new TreeVisitor<>() {
+            @Override
+            public @Nullable Tree visit(@Nullable Tree tree, ExecutionContext ctx) {
+                if (!acc.isFull()) {
+                    for (CamelRecipeDelegate delegate : acc.delegates) {
+                        delegate.scan(tree, ctx);
+                    }
+                }
+                return tree;
+            }
+        };
+    }
+
+    @Override
+    public TreeVisitor<?, ExecutionContext> getVisitor(Hits acc) {
+        return new TreeVisitor<>() {
+            @Override
+            public @Nullable Tree visit(@Nullable Tree tree, ExecutionContext ctx) {
+                return tree instanceof SourceFile sourceFile ? acc.check(sourceFile, ctx) : tree;
+            }
+        };
+    }
+
+    /**
+     * Files needing migration, with the first recipe which would change them.
+     */
+    public static final class Hits {
+
+        private final int max;
+        private final List<CamelRecipeDelegate> delegates;
+        private final Report report;
+        private final Map<Path, String> files = new ConcurrentHashMap<>();
+        private final Set<Path> checked = ConcurrentHashMap.newKeySet();
+
+        private Hits(int max, List<CamelRecipeDelegate> delegates, Report report) {
+            this.max = max;
+            this.delegates = delegates;
+            this.report = report;
+        }
+
+        private boolean isFull() {
+            return files.size() >= max;
+        }
+
+        private SourceFile check(SourceFile sourceFile, ExecutionContext ctx) {
+            //every file is checked once, the markers of the previous cycle are not changes of the migration
+            if (isFull() || !checked.add(sourceFile.getSourcePath())) {
+                return sourceFile;
+            }
+            for (CamelRecipeDelegate delegate : delegates) {
+                if (isFull()) {
+                    break;
+                }
+                FirstHit hit = new FirstHit();
+                SourceFile after = delegate.visit(sourceFile, hit, ctx);
+                if (hit.id != null) {
+                    add(sourceFile.getSourcePath(), delegate.getName(), ctx);
+                    UUID id = hit.id;
+                    return CamelRecipeDelegate.mark(sourceFile, tree -> id.equals(tree.getId()), delegate.getName(), ctx);
+                }
+                if (after != sourceFile) {
+                    add(sourceFile.getSourcePath(), delegate.getName(), ctx);
+                    return SearchResult.found(sourceFile, delegate.getName());
+                }
+            }
+            return sourceFile;
+        }
+
+        private void add(Path sourcePath, String recipe, ExecutionContext ctx) {
+            if (files.putIfAbsent(sourcePath, recipe) == null) {
+                report.insertRow(ctx, new Report.Row(sourcePath.toString(), recipe));
+                LOGGER.info("Migration needed: {} ({})", sourcePath, recipe);
+                if (isFull()) {
+                    LOGGER.info("Check stopped after {} files needing migration", files.size());
+                }
+            }
+        }
+    }
+
+    /**
+     * First element a Camel visitor would change in a file, the visits which follow are skipped.
+     */
+    private static final class FirstHit implements CamelVisitMode {
+
+        private @Nullable UUID id;
+
+        @Override
+        public <T> T visit(Cursor cursor, Class<?> visitor, Supplier<T> visitMethod, T origValue,
+                           ExecutionContext ctx) {
+            if (id != null) {
+                return origValue;
+            }
+            T result = visitMethod.get();
+            //the innermost changed element completes its visit first, the enclosing ones are not hits
+            if (id == null && result != origValue && origValue instanceof Tree tree) {
+                id = tree.getId();
+            }
+            return origValue;
+        }
+    }
+
+    /**
+     * Files needing migration found by the check.
+     */
+    public static class Report extends DataTable<Report.Row> {
+
+        public Report(Recipe recipe) {
+            super(recipe, "Camel migration check", "Files needing migration and the first recipe which would change them.");
+        }
+
+        public record Row(
+                @Column(displayName = "Source path", description = "The file needing migration.")
+                String sourcePath,
+                @Column(displayName = "Recipe", description = "The first recipe which would change the file.")
+                String recipe) {
+        }
+    }
+}
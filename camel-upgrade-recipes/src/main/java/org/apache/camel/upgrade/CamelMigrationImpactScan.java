@@ -0,0 +1,290 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.upgrade;
+
+import org.jspecify.annotations.Nullable;
+import org.openrewrite.Column;
+import org.openrewrite.Cursor;
+import org.openrewrite.DataTable;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.Option;
+import org.openrewrite.PrintOutputCapture;
+import org.openrewrite.Recipe;
+import org.openrewrite.ScanningRecipe;
+import org.openrewrite.SourceFile;
+import org.openrewrite.Tree;
+import org.openrewrite.TreeVisitor;
+import org.openrewrite.marker.Marker;
+import org.openrewrite.marker.SearchResult;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Search-only variant of a migration, estimates its impact without changing the files.
+ * <p>
+ * Every recipe of the migration (by default {@code org.apache.camel.upgrade.CamelMigrationRecipe}, flattened by
+ * {@link CamelRecipePlan}) runs in the {@link CamelVisitMode} of this scan, on the files it accepts. The Camel visitors
+ * (children of {@link AbstractCamelJavaVisitor}, {@link AbstractCamelXmlVisitor} or {@link AbstractCamelYamlVisitor})
+ * decide and change an element in the same visit method, so the method still runs, but the changes of the children are
+ * discarded before the parent is visited (only the element itself would be rebuilt). The element they would change is
+ * recorded and left unchanged, and gets a {@link SearchResult} marker with the name of the recipe. Only the formatting of the changed trees and the follow-up
+ * visitors (e.g. type changes and imports scheduled after the visit) are skipped. Of the files changed by the other
+ * recipes (dependency upgrades, type and property renames), the first changed element gets the marker, generated
+ * files are not created. Each marker is reported in the {@link Impacts} data table with its line, taken from a single
+ * print of the marked file.
+ * </p>
+ */
+public class CamelMigrationImpactScan extends ScanningRecipe<List<CamelMigrationImpactScan.Impact>> {
+
+    @Option(displayName = "Recipe",
+            description = "Name of the migration to estimate. Defaults to `org.apache.camel.upgrade.CamelMigrationRecipe`.",
+            example = "org.apache.camel.upgrade.Camel410LTSMigrationRecipe",
+            required = false)
+    @Nullable
+    String recipe;
+
+    private final transient Impacts report = new Impacts(this);
+
+    private transient @Nullable Recipe migration;
+
+    public CamelMigrationImpactScan() {
+    }
+
+    public CamelMigrationImpactScan(@Nullable String recipe) {
+        this.recipe = recipe;
+    }
+
+    CamelMigrationImpactScan(Recipe migration) {
+        this.migration = migration;
+    }
+
+    public void setRecipe(@Nullable String recipe) {
+        this.recipe = recipe;
+    }
+
+    @Override
+    public String getDisplayName() {
+        return "Estimate impact of Camel migration";
+    }
+
+    @Override
+    public String getDescription() {
+        return "Marks the elements and files the Camel migration would change and reports them in a data table, without changing them.";
+    }
+
+    //the migration is not a recipe list of this recipe, recipe descriptors are created during the classpath scanning
+    //and the migration is loaded from the classpath only when the scan is run
+    @Override
+    public List<Impact> getInitialValue(ExecutionContext ctx) {
+        List<Impact> impacts = new ArrayList<>();
+        for (CamelRecipeDelegate delegate : CamelRecipeDelegate.of(
+                migration != null ? migration : CamelRecipeDelegate.load(recipe), ctx)) {
+            impacts.add(new Impact(delegate, report));
+        }
+        return impacts;
+    }
+
+    @Override
+    public TreeVisitor<?, ExecutionContext> getScanner(List<Impact> acc) {
+        return new TreeVisitor<>() {
+            @Override
+            public @Nullable Tree visit(@Nullable Tree tree, ExecutionContext ctx) {
+                for (Impact impact : acc) {
+                    impact.delegate.scan(tree, ctx);
+                }
+                return tree;
+            }
+        };
+    }
+
+    @Override
+    public TreeVisitor<?, ExecutionContext> getVisitor(List<Impact> acc) {
+        return new TreeVisitor<>() {
+            @Override
+            public @Nullable Tree visit(@Nullable Tree tree, ExecutionContext ctx) {
+                if (!(tree instanceof SourceFile sourceFile)) {
+                    return tree;
+                }
+                SourceFile marked = sourceFile;
+                Map<Impact, Map<UUID, String>> marks = new LinkedHashMap<>();
+                for (Impact impact : acc) {
+                    Map<UUID, String> kinds = new LinkedHashMap<>();
+                    marked = impact.visit(marked, kinds, ctx);
+                    if (!kinds.isEmpty()) {
+                        marks.put(impact, kinds);
+                    }
+                }
+                if (!marks.isEmpty()) {
+                    Map<UUID, Integer> lines = lines(marked);
+                    marks.forEach((impact, kinds) -> impact.report(sourceFile, kinds, lines, ctx));
+                }
+                return marked;
+            }
+        };
+    }
+
+    /**
+     * Lines of the marked elements, recorded by the marker printer during one print of the marked file (the markers of
+     * recipes with the same name are told apart by their elements).
+     */
+    private static Map<UUID, Integer> lines(SourceFile marked) {
+        MarkerLines markerLines = new MarkerLines();
+        marked.printAll(markerLines.capture);
+        return markerLines.lines;
+    }
+
+    private static final class MarkerLines implements PrintOutputCapture.MarkerPrinter {
+
+        private final Map<UUID, Integer> lines = new HashMap<>();
+        private final PrintOutputCapture<Integer> capture = new PrintOutputCapture<>(0, this);
+        //lines are counted incrementally, the output only grows
+        private int position;
+        private int line = 1;
+
+        @Override
+        public String beforeSyntax(Marker marker, Cursor cursor, UnaryOperator<String> commentWrapper) {
+            Tree tree = cursor.firstEnclosing(Tree.class);
+            if (marker instanceof SearchResult && tree != null) {
+                StringBuilder out = capture.out;
+                for (; position < out.length(); position++) {
+                    if (out.charAt(position) == '\n') {
+                        line++;
+                    }
+                }
+                lines.putIfAbsent(tree.getId(), line);
+            }
+            //only the lines are needed, the markers are not printed
+            return "";
+        }
+    }
+
+    /**
+     * Elements changed by the Camel visitors during the visit of one file by one recipe.
+     */
+    static final class Hits implements CamelVisitMode {
+
+        private final Map<UUID, String> kinds = new LinkedHashMap<>();
+
+        //every change is recorded, so the visit is not cut short
+        @Override
+        public <T> T visit(Cursor cursor, Class<?> visitor, Supplier<T> visitMethod, T origValue,
+                           ExecutionContext ctx) {
+            T result = visitMethod.get();
+            if (result != origValue && origValue instanceof Tree tree) {
+                kinds.putIfAbsent(tree.getId(), tree.getClass().getSimpleName());
+            }
+            return origValue;
+        }
+
+        private boolean isEmpty() {
+            return kinds.isEmpty();
+        }
+
+        /**
+         * Adds the markers to the changed elements, returns the marked file and adds the kinds of the elements in the
+         * order of their markers.
+         */
+        private SourceFile mark(SourceFile sourceFile, String recipe, Map<UUID, String> marked, ExecutionContext ctx) {
+            return CamelRecipeDelegate.mark(sourceFile, tree -> {
+                String kind = kinds.get(tree.getId());
+                if (kind == null) {
+                    return false;
+                }
+                marked.put(tree.getId(), kind);
+                return true;
+            }, recipe, ctx);
+        }
+    }
+
+    /**
+     * One recipe of the migration run in the search-only mode.
+     */
+    static final class Impact {
+
+        private final CamelRecipeDelegate delegate;
+        private final Impacts report;
+        private final Set<Path> visited = ConcurrentHashMap.newKeySet();
+
+        private Impact(CamelRecipeDelegate delegate, Impacts report) {
+            this.delegate = delegate;
+            this.report = report;
+        }
+
+        private String getName() {
+            return delegate.getName();
+        }
+
+        /**
+         * Marks the elements the recipe would change and adds their kinds by their ids, in the order of the markers.
+         */
+        private SourceFile visit(SourceFile sourceFile, Map<UUID, String> kinds, ExecutionContext ctx) {
+            //every file is estimated once, the markers of the previous cycle are not changes of the migration
+            if (!visited.add(sourceFile.getSourcePath())) {
+                return sourceFile;
+            }
+            Hits hits = new Hits();
+            SourceFile after = delegate.visit(sourceFile, hits, ctx);
+
+            if (!hits.isEmpty()) {
+                return hits.mark(sourceFile, getName(), kinds, ctx);
+            }
+            if (after != sourceFile) {
+                Tree changed = CamelRecipeDelegate.firstChange(sourceFile, after);
+                kinds.put(changed.getId(), changed instanceof SourceFile ? "File" : changed.getClass().getSimpleName());
+                return CamelRecipeDelegate.mark(sourceFile, tree -> tree == changed, getName(), ctx);
+            }
+            return sourceFile;
+        }
+
+        private void report(SourceFile sourceFile, Map<UUID, String> kinds, Map<UUID, Integer> lines,
+                            ExecutionContext ctx) {
+            kinds.forEach((id, kind) -> report.insertRow(ctx, new Impacts.Row(sourceFile.getSourcePath().toString(),
+                    getName(), lines.getOrDefault(id, 0), kind)));
+        }
+    }
+
+    /**
+     * Elements and files the migration would change.
+     */
+    public static class Impacts extends DataTable<Impacts.Row> {
+
+        public Impacts(Recipe recipe) {
+            super(recipe, "Camel migration impact", "Elements and files the migration would change.");
+        }
+
+        public record Row(
+                @Column(displayName = "Source path", description = "The file which would be changed.")
+                String sourcePath,
+                @Column(displayName = "Recipe", description = "The recipe which would change it.")
+                String recipe,
+                @Column(displayName = "Line", description = "Line of the changed element, 0 if unknown.")
+                int line,
+                @Column(displayName = "Kind", description = "Type of the changed element, `File` if the file itself is changed.")
+                String kind) {
+        }
+    }
+}
@@ -0,0 +1,490 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.upgrade;
+
+import org.apache.camel.upgrade.camel419.Pom419TestInfraRecipe;
+import org.jspecify.annotations.Nullable;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.Option;
+import org.openrewrite.Recipe;
+import org.openrewrite.TreeVisitor;
+import org.openrewrite.internal.ListUtils;
+import org.openrewrite.maven.ChangeDependencyGroupIdAndArtifactId;
+import org.openrewrite.maven.ChangePropertyValue;
+import org.openrewrite.maven.MavenIsoVisitor;
+import org.openrewrite.maven.RemoveDependency;
+import org.openrewrite.maven.UpgradeDependencyVersion;
+import org.openrewrite.maven.UpgradeParentVersion;
+import org.openrewrite.maven.UpgradePluginVersion;
+import org.openrewrite.maven.tree.GroupArtifact;
+import org.openrewrite.semver.LatestRelease;
+import org.openrewrite.xml.XmlVisitor;
+import org.openrewrite.xml.tree.Xml;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Camel dependency changes of a migration applied to each pom in one traversal.
+ * <p>
+ * Every {@code RemoveDependency}, {@code ChangeDependencyGroupIdAndArtifactId}, version upgrade and property change
+ * of a composite migration visits all poms and re-resolves the Maven model after each change. This recipe indexes
+ * the dependency, plugin and parent tags of a pom by group and artifact once, applies the whole table (moves,
+ * removals, version upgrades, property values and the {@code test-jar} type of the test infra dependencies) and
+ * re-resolves the model once. {@link CamelRecipePlan} folds the steps of a migration into it, see
+ * {@link #absorb(Recipe)}.
+ * </p>
+ * <p>
+ * Versions are only upgraded when they are written in the pom, literally or in a property of the same pom. Unlike
+ * the upgrade recipes, the new versions are not checked against the repository metadata.
+ * </p>
+ */
+public class CamelPomAlignment extends Recipe {
+
+    private static final Pattern EXACT_VERSION = Pattern.compile("\\d+(\\.\\d+)*");
+    private static final Pattern PROPERTY = Pattern.compile("\\$\\{([^}]+)}");
+    private static final LatestRelease RELEASES = new LatestRelease(null);
+
+    @Option(displayName = "Removed dependencies",
+            description = "Dependencies to remove, `groupId:artifactId`.",
+            example = "org.apache.camel:camel-test",
+            required = false)
+    @Nullable
+    List<String> removedDependencies;
+
+    @Option(displayName = "Moved dependencies",
+            description = "Dependencies (also managed) with new coordinates, `groupId:artifactId=groupId:artifactId[:version]`.",
+            example = "org.apache.camel:camel-fury=org.apache.camel:camel-fory",
+            required = false)
+    @Nullable
+    List<String> movedDependencies;
+
+    @Option(displayName = "Upgraded groups",
+            description = "Minimal version of the dependencies and managed dependencies of a group, `groupId=version`.",
+            example = "org.apache.camel=4.20.0",
+            required = false)
+    @Nullable
+    List<String> upgradedGroups;
+
+    @Option(displayName = "Upgraded plugin groups",
+            description = "Minimal version of the plugins of a group, `groupId=version`.",
+            example = "org.apache.camel=4.20.0",
+            required = false)
+    @Nullable
+    List<String> upgradedPluginGroups;
+
+    @Option(displayName = "Upgraded parent groups",
+            description = "Minimal version of the parent of a group, `groupId=version`.",
+            example = "org.apache.camel=4.20.0",
+            required = false)
+    @Nullable
+    List<String> upgradedParentGroups;
+
+    @Option(displayName = "Properties",
+            description = "Values of existing properties, `key=value`.",
+            example = "camel.version=4.20.0",
+            required = false)
+    @Nullable
+    List<String> properties;
+
+    @Option(displayName = "Remove test-jar type of test infra",
+            description = "Removes `<type>test-jar</type>` from the camel-test-infra-* dependencies, also managed ones.",
+            required = false)
+    @Nullable
+    Boolean testInfraType;
+
+    public CamelPomAlignment() {
+    }
+
+    public CamelPomAlignment(@Nullable List<String> removedDependencies, @Nullable List<String> movedDependencies,
+                             @Nullable List<String> upgradedGroups, @Nullable List<String> upgradedPluginGroups,
+                             @Nullable List<String> upgradedParentGroups, @Nullable List<String> properties,
+                             @Nullable Boolean testInfraType) {
+        this.removedDependencies = removedDependencies;
+        this.movedDependencies = movedDependencies;
+        this.upgradedGroups = upgradedGroups;
+        this.upgradedPluginGroups = upgradedPluginGroups;
+        this.upgradedParentGroups = upgradedParentGroups;
+        this.properties = properties;
+        this.testInfraType = testInfraType;
+    }
+
+    public void setRemovedDependencies(@Nullable List<String> removedDependencies) {
+        this.removedDependencies = removedDependencies;
+    }
+
+    public void setMovedDependencies(@Nullable List<String> movedDependencies) {
+        this.movedDependencies = movedDependencies;
+    }
+
+    public void setUpgradedGroups(@Nullable List<String> upgradedGroups) {
+        this.upgradedGroups = upgradedGroups;
+    }
+
+    public void setUpgradedPluginGroups(@Nullable List<String> upgradedPluginGroups) {
+        this.upgradedPluginGroups = upgradedPluginGroups;
+    }
+
+    public void setUpgradedParentGroups(@Nullable List<String> upgradedParentGroups) {
+        this.upgradedParentGroups = upgradedParentGroups;
+    }
+
+    public void setProperties(@Nullable List<String> properties) {
+        this.properties = properties;
+    }
+
+    public void setTestInfraType(@Nullable Boolean testInfraType) {
+        this.testInfraType = testInfraType;
+    }
+
+    @Override
+    public String getDisplayName() {
+        return "Align Camel dependencies";
+    }
+
+    @Override
+    public String getDescription() {
+        return "Removes, moves and upgrades the Camel dependencies of a pom in one pass.";
+    }
+
+    /**
+     * Adds the change of the given recipe to the table, if it is one of the supported Maven recipes with options this
+     * recipe applies the same way (no wildcard coordinates, exact versions, no scope or version pattern).
+     * <p>
+     * Moves are followed transitively and removals are checked before and after each move, so a dependency moved and
+     * then removed or moved again is changed like by the recipes one after the other. Changes which would apply in a
+     * different order are not absorbed: removal or move of a dependency already moved away, move to a dependency
+     * which is removed or moved away.
+     * </p>
+     *
+     * @return false if the recipe is not absorbed and has to run by itself
+     */
+    public boolean absorb(Recipe recipe) {
+        if (recipe instanceof RemoveDependency r) {
+            if (r.getScope() == null && isLiteral(r.getGroupId()) && isLiteral(r.getArtifactId())
+                    && !isMovedAway(r.getGroupId() + ":" + r.getArtifactId())) {
+                removedDependencies = ListUtils.concat(removedDependencies, r.getGroupId() + ":" + r.getArtifactId());
+                return true;
+            }
+        } else if (recipe instanceof ChangeDependencyGroupIdAndArtifactId r) {
+            if (r.getVersionPattern() == null && !Boolean.TRUE.equals(r.getOverrideManagedVersion())
+                    && !Boolean.FALSE.equals(r.getChangeManagedDependency())
+                    && isLiteral(r.getOldGroupId()) && isLiteral(r.getOldArtifactId())
+                    && r.getNewGroupId() != null && isLiteral(r.getNewGroupId())
+                    && r.getNewArtifactId() != null && isLiteral(r.getNewArtifactId())
+                    && (r.getNewVersion() == null || EXACT_VERSION.matcher(r.getNewVersion()).matches())
+                    && !isMovedAway(r.getOldGroupId() + ":" + r.getOldArtifactId())
+                    && !isMovedAway(r.getNewGroupId() + ":" + r.getNewArtifactId())
+                    && !nonNull(removedDependencies).contains(r.getNewGroupId() + ":" + r.getNewArtifactId())) {
+                movedDependencies = ListUtils.concat(movedDependencies, r.getOldGroupId() + ":" + r.getOldArtifactId()
+                        + "=" + r.getNewGroupId() + ":" + r.getNewArtifactId()
+                        + (r.getNewVersion() == null ? "" : ":" + r.getNewVersion()));
+                return true;
+            }
+        } else if (recipe instanceof UpgradeDependencyVersion r) {
+            if (r.getVersionPattern() == null && !Boolean.TRUE.equals(r.getOverrideManagedVersion())
+                    && isGroupUpgrade(r.getGroupId(), r.getArtifactId(), r.getNewVersion())) {
+                upgradedGroups = ListUtils.concat(upgradedGroups, r.getGroupId() + "=" + r.getNewVersion());
+                return true;
+            }
+        } else if (recipe instanceof UpgradePluginVersion r) {
+            if (r.getVersionPattern() == null && r.getTrustParent() == null && r.getAddVersionIfMissing() == null
+                    && isGroupUpgrade(r.getGroupId(), r.getArtifactId(), r.getNewVersion())) {
+                upgradedPluginGroups = ListUtils.concat(upgradedPluginGroups, r.getGroupId() + "=" + r.getNewVersion());
+                return true;
+            }
+        } else if (recipe instanceof UpgradeParentVersion r) {
+            if (r.getVersionPattern() == null && r.getOnlyExternal() == null
+                    && isGroupUpgrade(r.getGroupId(), r.getArtifactId(), r.getNewVersion())) {
+                upgradedParentGroups = ListUtils.concat(upgradedParentGroups, r.getGroupId() + "=" + r.getNewVersion());
+                return true;
+            }
+        } else if (recipe instanceof ChangePropertyValue r) {
+            if (!Boolean.TRUE.equals(r.getAddIfMissing()) && r.getTrustParent() == null && isLiteral(r.getKey())) {
+                properties = ListUtils.concat(properties, r.getKey() + "=" + r.getNewValue());
+                return true;
+            }
+        } else if (recipe instanceof Pom419TestInfraRecipe) {
+            testInfraType = true;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Upgrades are absorbed only for a whole group (of dependencies, plugins or parent, each kind in its own table).
+     */
+    private static boolean isGroupUpgrade(String groupId, String artifactId, String newVersion) {
+        return "*".equals(artifactId) && isLiteral(groupId) && EXACT_VERSION.matcher(newVersion).matches();
+    }
+
+    private boolean isMovedAway(String groupArtifact) {
+        return nonNull(movedDependencies).stream().anyMatch(move -> move.startsWith(groupArtifact + "="));
+    }
+
+    private static boolean isLiteral(String coordinate) {
+        return !coordinate.contains("*") && !coordinate.contains("$");
+    }
+
+    @Override
+    public TreeVisitor<?, ExecutionContext> getVisitor() {
+        Set<GroupArtifact> removed = new HashSet<>();
+        for (String dependency : nonNull(removedDependencies)) {
+            removed.add(groupArtifact(dependency));
+        }
+        Map<GroupArtifact, String[]> moved = new HashMap<>();
+        for (String move : nonNull(movedDependencies)) {
+            String[] entry = move.split("=", 2);
+            moved.put(groupArtifact(entry[0]), entry[1].split(":"));
+        }
+        Map<String, String> dependencyVersions = versions(upgradedGroups);
+        Map<String, String> pluginVersions = versions(upgradedPluginGroups);
+        Map<String, String> parentVersions = versions(upgradedParentGroups);
+        Map<String, String> values = new LinkedHashMap<>();
+        for (String property : nonNull(properties)) {
+            String[] entry = property.split("=", 2);
+            values.put(entry[0], entry[1]);
+        }
+        boolean testInfra = Boolean.TRUE.equals(testInfraType);
+
+        return new MavenIsoVisitor<>() {
+
+            @Override
+            public Xml.Document visitDocument(Xml.Document document, ExecutionContext ctx) {
+                PomIndex pom = new PomIndex();
+                pom.index(document.getRoot(), "");
+
+                //changes of the indexed tags, null removes the tag
+                Map<Xml.Tag, Xml.@Nullable Tag> changes = new IdentityHashMap<>();
+                Map<String, String> propertyValues = new HashMap<>(values);
+                pom.dependencies.forEach((ga, tags) -> tags.forEach(tag -> {
+                    //like RemoveDependency, managed dependencies are kept
+                    boolean removable = !pom.managed.contains(tag);
+                    if (removable && removed.contains(ga)) {
+                        changes.put(tag, null);
+                        return;
+                    }
+                    Xml.Tag t = tag;
+                    GroupArtifact target = ga;
+                    Set<GroupArtifact> visited = new HashSet<>();
+                    String[] move;
+                    //moves are followed one after the other, the dependency may be removed after each of them
+                    while ((move = moved.get(target)) != null && visited.add(target)) {
+                        target = new GroupArtifact(move[0], move[1]);
+                        if (removable && removed.contains(target)) {
+                            changes.put(tag, null);
+                            return;
+                        }
+                        t = t.withChildValue("groupId", move[0]).withChildValue("artifactId", move[1]);
+                        if (move.length > 2 && t.getChildValue("version").isPresent()) {
+                            t = t.withChildValue("version", move[2]);
+                        }
+                    }
+                    t = upgrade(t, dependencyVersions.get(target.getGroupId()), pom, propertyValues);
+                    if (testInfra) {
+                        t = withoutTestJarType(t, target);
+                    }
+                    if (t != tag) {
+                        changes.put(tag, t);
+                    }
+                }));
+                pom.plugins.forEach((ga, tags) -> tags.forEach(tag -> {
+                    Xml.Tag t = upgrade(tag, pluginVersions.get(ga.getGroupId()), pom, propertyValues);
+                    if (t != tag) {
+                        changes.put(tag, t);
+                    }
+                }));
+                if (pom.parent != null) {
+                    Xml.Tag t = upgrade(pom.parent, parentVersions.get(pom.parent.getChildValue("groupId").orElse("")),
+                            null, propertyValues);
+                    if (t != pom.parent) {
+                        changes.put(pom.parent, t);
+                    }
+                }
+                propertyValues.forEach((key, value) -> {
+                    Xml.Tag tag = pom.properties.get(key);
+                    if (tag != null && !value.equals(tag.getValue().orElse(null))) {
+                        changes.put(tag, tag.withValue(value));
+                    }
+                });
+                if (changes.isEmpty()) {
+                    return document;
+                }
+
+                Xml.Document d = (Xml.Document) new XmlVisitor<Integer>() {
+                    @Override
+                    public Xml visitTag(Xml.Tag tag, Integer p) {
+                        if (changes.containsKey(tag)) {
+                            return changes.get(tag);
+                        }
+                        Xml.Tag t = (Xml.Tag) super.visitTag(tag, p);
+                        //like RemoveDependency, containers left empty by the removals are removed too
+                        if (t != tag && t.getContent() != null && t.getContent().isEmpty()
+                                && tag.getContent() != null && !tag.getContent().isEmpty()) {
+                            return null;
+                        }
+                        return t;
+                    }
+                }.visitNonNull(document, 0);
+                //the model is re-resolved once, after all the changes
+                maybeUpdateModel();
+                return d;
+            }
+
+            /**
+             * Upgrades the literal version of the tag, or its property if defined in this pom.
+             */
+            private Xml.Tag upgrade(Xml.Tag tag, @Nullable String newVersion, @Nullable PomIndex pom,
+                                    Map<String, String> propertyValues) {
+                Optional<String> version = tag.getChildValue("version");
+                if (newVersion == null || version.isEmpty()) {
+                    return tag;
+                }
+                Matcher property = PROPERTY.matcher(version.get().trim());
+                if (property.matches()) {
+                    String key = property.group(1);
+                    if (pom != null && pom.properties.containsKey(key)) {
+                        String current = propertyValues.getOrDefault(key,
+                                pom.properties.get(key).getValue().orElse(""));
+                        if (isLower(current, newVersion)) {
+                            propertyValues.put(key, newVersion);
+                        }
+                    }
+                    return tag;
+                }
+                return isLower(version.get().trim(), newVersion) ? tag.withChildValue("version", newVersion) : tag;
+            }
+
+            private boolean isLower(String current, String newVersion) {
+                return !PROPERTY.matcher(current).find() && RELEASES.compare(null, current, newVersion) < 0;
+            }
+
+            private Xml.Tag withoutTestJarType(Xml.Tag tag, GroupArtifact ga) {
+                if (!"org.apache.camel".equals(ga.getGroupId()) || !ga.getArtifactId().startsWith("camel-test-infra-")) {
+                    return tag;
+                }
+                Optional<Xml.Tag> type = tag.getChild("type");
+                if (type.isEmpty() || !"test-jar".equals(type.get().getValue().orElse(""))) {
+                    return tag;
+                }
+                return tag.withContent(ListUtils.map(tag.getContent(), content -> content == type.get() ? null : content));
+            }
+
+            /**
+             * Dependency, plugin, parent and property tags of a pom, indexed by group and artifact.
+             */
+            class PomIndex {
+                final Map<GroupArtifact, List<Xml.Tag>> dependencies = new LinkedHashMap<>();
+                final Map<GroupArtifact, List<Xml.Tag>> plugins = new LinkedHashMap<>();
+                final Set<Xml.Tag> managed = Collections.newSetFromMap(new IdentityHashMap<>());
+                final Map<String, Xml.Tag> properties = new HashMap<>();
+                Xml.@Nullable Tag parent;
+
+                void index(Xml.Tag tag, String path) {
+                    String tagPath = path + "/" + tag.getName();
+                    switch (tag.getName()) {
+                        case "dependency" -> {
+                            if (path.endsWith("/dependencies")) {
+                                GroupArtifact ga = groupArtifact(tag);
+                                if (ga != null) {
+                                    dependencies.computeIfAbsent(ga, k -> new ArrayList<>()).add(tag);
+                                    if (path.contains("/dependencyManagement/")) {
+                                        managed.add(tag);
+                                    }
+                                }
+                                //exclusions are not dependencies
+                                return;
+                            }
+                        }
+                        case "plugin" -> {
+                            if (path.endsWith("/plugins")) {
+                                Optional<String> artifactId = tag.getChildValue("artifactId");
+                                if (artifactId.isPresent()) {
+                                    String groupId = tag.getChildValue("groupId").orElse("org.apache.maven.plugins");
+                                    plugins.computeIfAbsent(new GroupArtifact(resolve(groupId), resolve(artifactId.get())),
+                                            k -> new ArrayList<>()).add(tag);
+                                }
+                            }
+                        }
+                        case "parent" -> {
+                            if ("/project".equals(path)) {
+                                parent = tag;
+                                return;
+                            }
+                        }
+                        case "properties" -> {
+                            if ("/project".equals(path)) {
+                                for (Xml.Tag property : tag.getChildren()) {
+                                    properties.put(property.getName(), property);
+                                }
+                                return;
+                            }
+                        }
+                        default -> {
+                        }
+                    }
+                    for (Xml.Tag child : tag.getChildren()) {
+                        index(child, tagPath);
+                    }
+                }
+
+                private @Nullable GroupArtifact groupArtifact(Xml.Tag dependency) {
+                    Optional<String> groupId = dependency.getChildValue("groupId");
+                    Optional<String> artifactId = dependency.getChildValue("artifactId");
+                    if (groupId.isEmpty() || artifactId.isEmpty()) {
+                        return null;
+                    }
+                    return new GroupArtifact(resolve(groupId.get()), resolve(artifactId.get()));
+                }
+
+                private String resolve(String value) {
+                    String resolved = getResolutionResult().getPom().getValue(value.trim());
+                    return resolved == null ? value.trim() : resolved;
+                }
+            }
+        };
+    }
+
+    private static GroupArtifact groupArtifact(String coordinates) {
+        String[] parts = coordinates.split(":");
+        return new GroupArtifact(parts[0], parts[1]);
+    }
+
+    //the highest version of each group
+    private static Map<String, String> versions(@Nullable List<String> upgrades) {
+        Map<String, String> versions = new HashMap<>();
+        for (String upgrade : nonNull(upgrades)) {
+            String[] entry = upgrade.split("=", 2);
+            versions.merge(entry[0], entry[1], (a, b) -> RELEASES.compare(null, a, b) >= 0 ? a : b);
+        }
+        return versions;
+    }
+
+    private static List<String> nonNull(@Nullable List<String> list) {
+        return list == null ? List.of() : list;
+    }
+}
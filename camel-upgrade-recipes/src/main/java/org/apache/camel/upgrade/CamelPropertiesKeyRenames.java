@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.upgrade;
+
+import org.apache.camel.upgrade.customRecipes.PropertiesAndYamlKeyUpdate;
+import org.jspecify.annotations.Nullable;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.Option;
+import org.openrewrite.Recipe;
+import org.openrewrite.TreeVisitor;
+import org.openrewrite.internal.NameCaseConvention;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Key renames of a migration applied to the plain text properties files in one pass.
+ * <p>
+ * Each {@link PropertiesAndYamlKeyUpdate} rewrites the properties files excluded from parsing (see
+ * {@link CamelPropertiesStreamRewriter}) by itself. {@link CamelRecipePlan} folds their renames into this table, the
+ * keys are looked up with the same relaxed binding in constant time and the renames are applied in the order of the
+ * table, so a key renamed by an earlier entry is renamed again by the later ones. Parsed properties and yaml files are
+ * still migrated by the recipes of the key updates.
+ * </p>
+ */
+public class CamelPropertiesKeyRenames extends Recipe {
+
+    @Option(displayName = "Renames",
+            description = "Renamed keys, `oldKey=newKey`, in the order of the migration.",
+            example = "camel.springboot.main-run-controller=camel.main.main-run-controller")
+    List<String> renames;
+
+    public CamelPropertiesKeyRenames() {
+    }
+
+    public CamelPropertiesKeyRenames(List<String> renames) {
+        this.renames = renames;
+    }
+
+    public void setRenames(List<String> renames) {
+        this.renames = renames;
+    }
+
+    @Override
+    public String getDisplayName() {
+        return "Rename Camel properties keys";
+    }
+
+    @Override
+    public String getDescription() {
+        return "Renames the keys of the plain text properties files in one pass.";
+    }
+
+    @Override
+    public TreeVisitor<?, ExecutionContext> getVisitor() {
+        //renames of a key in the order of the table, by the key formatted for the relaxed binding
+        Map<String, List<Rename>> table = new HashMap<>();
+        for (int i = 0; i < renames.size(); i++) {
+            String[] entry = renames.get(i).split("=", 2);
+            table.computeIfAbsent(NameCaseConvention.LOWER_CAMEL.format(entry[0]), k -> new ArrayList<>())
+                    .add(new Rename(i, entry[1]));
+        }
+        return new CamelPropertiesStreamRewriter()
+                .onKey(key -> rename(table, key))
+                .withLstVisitor(TreeVisitor.noop());
+    }
+
+    private static String rename(Map<String, List<Rename>> table, String key) {
+        String result = key;
+        int index = -1;
+        Rename next;
+        while ((next = next(table.getOrDefault(NameCaseConvention.LOWER_CAMEL.format(result), Collections.emptyList()),
+                index)) != null) {
+            result = next.newKey();
+            index = next.index();
+        }
+        return result;
+    }
+
+    private static @Nullable Rename next(List<Rename> renames, int index) {
+        for (Rename rename : renames) {
+            if (rename.index() > index) {
+                return rename;
+            }
+        }
+        return null;
+    }
+
+    private record Rename(int index, String newKey) {
+    }
+}
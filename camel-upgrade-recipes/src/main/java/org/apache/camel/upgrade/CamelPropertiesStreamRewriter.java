@@ -0,0 +1,261 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.upgrade;
+
+import org.jspecify.annotations.Nullable;
+import org.openrewrite.Cursor;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.SourceFile;
+import org.openrewrite.Tree;
+import org.openrewrite.TreeVisitor;
+import org.openrewrite.text.PlainText;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.UnaryOperator;
+
+/**
+ * Streaming rewriter of properties files for migrations which only rename keys.
+ * <p>
+ * The file is read one logical line at a time (a line ending with an odd number of backslashes continues on the next
+ * one, as in {@link java.util.Properties}) and every line is written back exactly as it was read, only the key is
+ * replaced. Comments, blank lines, separators (<i>=</i>, <i>:</i> or whitespace), values and line endings are
+ * therefore preserved. All registered rules are applied to every key in one pass, in the order of registration, and
+ * only the current logical line is kept in memory.
+ * </p>
+ * <p>
+ * Properties files excluded from properties parsing by the build tooling (typically huge generated configurations)
+ * reach the recipes as {@link PlainText}, {@link #withLstVisitor(TreeVisitor)} rewrites those with this rewriter.
+ * </p>
+ */
+public final class CamelPropertiesStreamRewriter {
+    private static final Logger LOGGER = LoggerFactory.getLogger(CamelPropertiesStreamRewriter.class);
+
+    private final List<UnaryOperator<String>> rules = new ArrayList<>();
+
+    /**
+     * Registers rule computing the new key, the rule returns the key itself if the key is not affected.
+     */
+    public CamelPropertiesStreamRewriter onKey(UnaryOperator<String> rule) {
+        rules.add(rule);
+        return this;
+    }
+
+    /**
+     * Rewrites the properties, returns the same instance if nothing was changed.
+     */
+    public String rewrite(String properties) {
+        return rewrite(properties, () -> { });
+    }
+
+    private String rewrite(String properties, Runnable tick) {
+        CamelCopyOnChangeWriter out = new CamelCopyOnChangeWriter(properties);
+        try {
+            return rewrite(new StringReader(properties), out, tick) ? out.toString() : properties;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Rewrites the properties from the reader into the writer (e.g. directly into the target file), returns true if
+     * anything was changed.
+     */
+    public boolean rewrite(Reader in, Writer out) throws IOException {
+        return rewrite(in, out, () -> { });
+    }
+
+    private boolean rewrite(Reader in, Writer out, Runnable tick) throws IOException {
+        Reader reader = in instanceof BufferedReader ? in : new BufferedReader(in);
+        StringBuilder line = new StringBuilder();
+        boolean changed = false;
+
+        while (readLogicalLine(reader, line)) {
+            tick.run();
+            changed |= rewriteLine(line, out);
+            line.setLength(0);
+        }
+        out.flush();
+        return changed;
+    }
+
+    /**
+     * Visitor migrating properties files available only as {@link PlainText} with this rewriter, any other source
+     * file is handled by the given LST visitor. Like the Camel visitors, it skips the files of the
+     * {@link CamelSkipPolicy} and abandons the file when it exceeds the {@link CamelTimeBudget}.
+     */
+    public TreeVisitor<?, ExecutionContext> withLstVisitor(TreeVisitor<?, ExecutionContext> lstVisitor) {
+        return new TreeVisitor<Tree, ExecutionContext>() {
+
+            private final CamelTimeBudget.Watch timeBudget = new CamelTimeBudget.Watch();
+
+            @Override
+            public boolean isAcceptable(SourceFile sourceFile, ExecutionContext ctx) {
+                return sourceFile instanceof PlainText
+                        ? isProperties(sourceFile)
+                        : lstVisitor.isAcceptable(sourceFile, ctx);
+            }
+
+            //plain text files other than properties are left unchanged, even if the visitor is called without isAcceptable
+            @Override
+            public @Nullable Tree visit(@Nullable Tree tree, ExecutionContext ctx) {
+                if (tree instanceof PlainText plainText) {
+                    return isProperties(plainText) ? rewritePlainText(plainText, ctx) : plainText;
+                }
+                return lstVisitor.visit(tree, ctx);
+            }
+
+            @Override
+            public @Nullable Tree visit(@Nullable Tree tree, ExecutionContext ctx, Cursor parent) {
+                if (tree instanceof PlainText plainText) {
+                    return isProperties(plainText) ? rewritePlainText(plainText, ctx) : plainText;
+                }
+                return lstVisitor.visit(tree, ctx, parent);
+            }
+
+            private PlainText rewritePlainText(PlainText plainText, ExecutionContext ctx) {
+                if (CamelSkipPolicy.skips(plainText, ctx)) {
+                    return plainText;
+                }
+                if (timeBudget.tick(plainText, ctx)) {
+                    return CamelPropertiesStreamRewriter.this.rewritePlainText(plainText, () -> { });
+                }
+                //every logical line counts as a visited node, the budget is reported for the recipe of the first rule
+                //(the LST visitor is often a no-op)
+                Class<?> recipe = rules.isEmpty() ? lstVisitor.getClass() : rules.get(0).getClass();
+                return timeBudget.visitWithin(plainText, recipe, () -> CamelPropertiesStreamRewriter.this
+                        .rewritePlainText(plainText, () -> timeBudget.tick(null, ctx)), ctx);
+            }
+        };
+    }
+
+    private static boolean isProperties(SourceFile sourceFile) {
+        return sourceFile.getSourcePath().toString().endsWith(".properties");
+    }
+
+    // If the migration fails - do not fail whole migration process, only this one file
+    private PlainText rewritePlainText(PlainText plainText, Runnable tick) {
+        try {
+            return plainText.withText(rewrite(plainText.getText(), tick));
+        } catch (RuntimeException e) {
+            if (CamelTimeBudget.isExceeded(e)) {
+                throw e;
+            }
+            LOGGER.warn(String.format("Internal error detected while rewriting %s, file is skipped.", plainText.getSourcePath()), e);
+            return plainText;
+        }
+    }
+
+    /**
+     * Reads one logical line including its line terminators into the buffer, returns false at the end of the input.
+     */
+    private static boolean readLogicalLine(Reader reader, StringBuilder line) throws IOException {
+        boolean comment = false;
+        boolean content = false;
+        int backslashes = 0;
+        int c;
+        while ((c = reader.read()) != -1) {
+            line.append((char) c);
+            if (c == '\r' || c == '\n') {
+                if (c == '\r') {
+                    reader.mark(1);
+                    if (reader.read() == '\n') {
+                        line.append('\n');
+                    } else {
+                        reader.reset();
+                    }
+                }
+                //comments and blank lines are never continued
+                if (!content || comment || backslashes % 2 == 0) {
+                    return true;
+                }
+                backslashes = 0;
+            } else if (c == '\\') {
+                backslashes++;
+                content = true;
+            } else {
+                backslashes = 0;
+                if (!content && !isWhitespace((char) c)) {
+                    content = true;
+                    comment = c == '#' || c == '!';
+                }
+            }
+        }
+        return line.length() > 0;
+    }
+
+    private boolean rewriteLine(StringBuilder line, Writer out) throws IOException {
+        int start = 0;
+        while (start < line.length() && isWhitespace(line.charAt(start))) {
+            start++;
+        }
+        int end = keyEnd(line, start);
+        if (end <= start) {
+            out.append(line);
+            return false;
+        }
+
+        String key = line.substring(start, end);
+        String newKey = key;
+        for (UnaryOperator<String> rule : rules) {
+            newKey = rule.apply(newKey);
+        }
+        if (newKey.equals(key)) {
+            out.append(line);
+            return false;
+        }
+        out.append(line, 0, start).append(newKey).append(line, end, line.length());
+        return true;
+    }
+
+    /**
+     * End of the key starting at the given position, -1 if the line is a comment, a blank line or if the key is split
+     * by a line continuation (such keys are left untouched).
+     */
+    private static int keyEnd(StringBuilder line, int start) {
+        if (start == line.length() || line.charAt(start) == '#' || line.charAt(start) == '!') {
+            return -1;
+        }
+        int i = start;
+        while (i < line.length()) {
+            char c = line.charAt(i);
+            if (c == '\r' || c == '\n' || c == '=' || c == ':' || isWhitespace(c)) {
+                return i;
+            }
+            if (c == '\\') {
+                if (i + 1 == line.length() || line.charAt(i + 1) == '\r' || line.charAt(i + 1) == '\n') {
+                    return -1;
+                }
+                i++;
+            }
+            i++;
+        }
+        return i;
+    }
+
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\f';
+    }
+}
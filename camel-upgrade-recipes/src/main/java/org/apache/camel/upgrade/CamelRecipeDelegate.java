@@ -0,0 +1,173 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.upgrade;
+
+import org.jspecify.annotations.Nullable;
+import org.openrewrite.Cursor;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.Recipe;
+import org.openrewrite.ScanningRecipe;
+import org.openrewrite.SourceFile;
+import org.openrewrite.Tree;
+import org.openrewrite.TreeVisitor;
+import org.openrewrite.config.Environment;
+import org.openrewrite.marker.SearchResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Predicate;
+
+/**
+ * One recipe of a migration run by a reporting recipe ({@link CamelMigrationCheck}, {@link CamelMigrationImpactScan})
+ * in a {@link CamelVisitMode}, instead of the run of the migration itself.
+ */
+final class CamelRecipeDelegate {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CamelRecipeDelegate.class);
+
+    private static final String DEFAULT_RECIPE = "org.apache.camel.upgrade.CamelMigrationRecipe";
+
+    private final Recipe delegate;
+    private final @Nullable Object acc;
+
+    private CamelRecipeDelegate(Recipe delegate, @Nullable Object acc) {
+        this.delegate = delegate;
+        this.acc = acc;
+    }
+
+    /**
+     * Migration of the given name (defaults to {@code org.apache.camel.upgrade.CamelMigrationRecipe}), loaded from the
+     * classpath of the recipes.
+     */
+    static Recipe load(@Nullable String recipe) {
+        return Environment.builder()
+                .scanClassLoader(CamelRecipeDelegate.class.getClassLoader())
+                .build()
+                .activateRecipes(recipe == null ? DEFAULT_RECIPE : recipe);
+    }
+
+    /**
+     * Recipes of the migration flattened by {@link CamelRecipePlan}, with their initial accumulators.
+     */
+    static List<CamelRecipeDelegate> of(Recipe migration, ExecutionContext ctx) {
+        List<CamelRecipeDelegate> delegates = new ArrayList<>();
+        wrap(CamelRecipePlan.compile(migration).getRecipe(), delegates, ctx);
+        return delegates;
+    }
+
+    //declarative recipes with preconditions are kept whole by the plan, their children are wrapped one by one
+    //(preconditions are evaluated by the first child of such a recipe)
+    private static void wrap(Recipe parent, List<CamelRecipeDelegate> delegates, ExecutionContext ctx) {
+        for (Recipe child : parent.getRecipeList()) {
+            delegates.add(new CamelRecipeDelegate(child, child instanceof ScanningRecipe<?> scanning
+                    ? scanning.getInitialValue(ctx) : null));
+            wrap(child, delegates, ctx);
+        }
+    }
+
+    String getName() {
+        return delegate.getName();
+    }
+
+    @SuppressWarnings("unchecked")
+    void scan(@Nullable Tree tree, ExecutionContext ctx) {
+        if (delegate instanceof ScanningRecipe<?> scanning) {
+            ((ScanningRecipe<Object>) scanning).getScanner(acc).visit(tree, ctx);
+        }
+    }
+
+    /**
+     * Visit of the source file by the recipe in the given mode (the Camel visitors report to the mode and leave the
+     * file unchanged). Returns the file changed by the other visitors, the original file if the recipe does not accept
+     * it or fails.
+     */
+    @SuppressWarnings("unchecked")
+    SourceFile visit(SourceFile sourceFile, CamelVisitMode mode, ExecutionContext ctx) {
+        TreeVisitor<?, ExecutionContext> visitor = delegate instanceof ScanningRecipe<?> scanning
+                ? ((ScanningRecipe<Object>) scanning).getVisitor(acc)
+                : delegate.getVisitor();
+        Cursor root = new Cursor(null, Cursor.ROOT_VALUE);
+        root.putMessage(CamelVisitMode.KEY, mode);
+        try {
+            //the same way as the recipe run, files of other languages are not given to the visitor
+            if (!visitor.isAcceptable(sourceFile, ctx)) {
+                return sourceFile;
+            }
+            return visitor.visit(sourceFile, ctx, root) instanceof SourceFile after ? after : sourceFile;
+        } catch (Exception e) {
+            LOGGER.warn(String.format("Internal error detected in %s, recipe is skipped.", getName()), e);
+            return sourceFile;
+        }
+    }
+
+    /**
+     * Adds a {@link SearchResult} with the description to the elements of the file matching the predicate, in any
+     * language.
+     */
+    static SourceFile mark(SourceFile sourceFile, Predicate<Tree> matches, String description, ExecutionContext ctx) {
+        return (SourceFile) new TreeVisitor<Tree, ExecutionContext>() {
+            @Override
+            public Tree preVisit(Tree tree, ExecutionContext executionContext) {
+                return matches.test(tree) ? SearchResult.found(tree, description) : tree;
+            }
+        }.visitNonNull(sourceFile, ctx);
+    }
+
+    /**
+     * First element of the file (in the order of the print) the recipe changed, found by comparing the trees instead
+     * of their prints: the innermost element of the first changed branch, the file itself if nothing else changed.
+     */
+    static Tree firstChange(SourceFile before, SourceFile after) {
+        Map<UUID, Tree> changed = new HashMap<>();
+        new TreeVisitor<Tree, Map<UUID, Tree>>() {
+            @Override
+            public Tree preVisit(Tree tree, Map<UUID, Tree> trees) {
+                trees.put(tree.getId(), tree);
+                return tree;
+            }
+        }.visitNonNull(after, changed);
+
+        Tree[] first = {before};
+        new TreeVisitor<Tree, Integer>() {
+            private boolean found;
+
+            //unchanged elements are the same instances, their subtrees are not visited
+            @Override
+            public Tree preVisit(Tree tree, Integer p) {
+                if (found || changed.get(tree.getId()) == tree) {
+                    stopAfterPreVisit();
+                } else {
+                    first[0] = tree;
+                }
+                return tree;
+            }
+
+            //the innermost changed element is left without finding a changed child
+            @Override
+            public Tree postVisit(Tree tree, Integer p) {
+                found |= tree == first[0];
+                return tree;
+            }
+        }.visitNonNull(before, 0);
+        return first[0];
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.upgrade;
+
+import org.apache.camel.upgrade.customRecipes.ChangePropertyKeyWithCaseChange;
+import org.apache.camel.upgrade.customRecipes.PropertiesAndYamlKeyUpdate;
+import org.openrewrite.Recipe;
+import org.openrewrite.config.DeclarativeRecipe;
+import org.openrewrite.config.OptionDescriptor;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Flattened recipe tree of a composite migration without repeated recipes.
+ * <p>
+ * The version migrations nest (e.g. each Spring Boot migration includes the previous one and the core migration of
+ * its version), so the same recipe with the same options (typically the dependency upgrades and the property key
+ * updates) is often reached several times. The plan lists the leaf recipes of the tree in the order of the run and
+ * keeps only the first occurrence of each recipe name and options. The Camel pom changes (removed, moved and
+ * upgraded dependencies) are folded into one {@link CamelPomAlignment}, the key renames of the plain text properties
+ * files into one {@link CamelPropertiesKeyRenames}. Declarative recipes with preconditions or which
+ * cause another cycle are kept whole, their children are not flattened.
+ * </p>
+ */
+public final class CamelRecipePlan {
+
+    private final DeclarativeRecipe recipe;
+    private final List<String> removed;
+
+    private CamelRecipePlan(DeclarativeRecipe recipe, List<String> removed) {
+        this.recipe = recipe;
+        this.removed = Collections.unmodifiableList(removed);
+    }
+
+    public static CamelRecipePlan compile(Recipe recipe) {
+        Map<String, Recipe> leaves = new LinkedHashMap<>();
+        List<String> removed = new ArrayList<>();
+        collect(recipe, recipe.getName(), leaves, new LinkedHashMap<>(), removed);
+
+        DeclarativeRecipe plan = new DeclarativeRecipe(recipe.getName(), recipe.getDisplayName(),
+                recipe.getDescription(), recipe.getTags(), null, URI.create("plan:" + recipe.getName()), false,
+                recipe.getMaintainers());
+        plan.setRecipeList(align(foldKeyUpdates(new ArrayList<>(leaves.values()))));
+        return new CamelRecipePlan(plan, removed);
+    }
+
+    /**
+     * The flattened recipe, it has the name of the compiled recipe.
+     */
+    public Recipe getRecipe() {
+        return recipe;
+    }
+
+    /**
+     * Removed duplicates, with the path of the removed and of the kept occurrence.
+     */
+    public List<String> getRemoved() {
+        return removed;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder report = new StringBuilder();
+        report.append(recipe.getName()).append(": ").append(recipe.getRecipeList().size()).append(" recipes, ")
+                .append(removed.size()).append(" duplicates removed");
+        removed.forEach(r -> report.append(System.lineSeparator()).append("  ").append(r));
+        return report.toString();
+    }
+
+    private static void collect(Recipe recipe, String path, Map<String, Recipe> leaves, Map<String, String> paths,
+            List<String> removed) {
+        if (isFlattened(recipe)) {
+            for (Recipe child : recipe.getRecipeList()) {
+                collect(child, path + " > " + child.getName(), leaves, paths, removed);
+            }
+            return;
+        }
+        String key = key(recipe);
+        if (leaves.containsKey(key)) {
+            removed.add(key + " at " + path + " (kept at " + paths.get(key) + ")");
+        } else {
+            leaves.put(key, recipe);
+            paths.put(key, path);
+        }
+    }
+
+    /**
+     * Replaces the {@link PropertiesAndYamlKeyUpdate} recipes with their recipes for the parsed files and one
+     * {@link CamelPropertiesKeyRenames} for the plain text files, after the last of them. Key updates after the first
+     * {@link ChangePropertyKeyWithCaseChange} (which rewrites the plain text files as well) are not folded, so that the
+     * plain text files are renamed in the order of the migration.
+     */
+    private static List<Recipe> foldKeyUpdates(List<Recipe> recipes) {
+        List<String> renames = new ArrayList<>();
+        List<Recipe> result = new ArrayList<>();
+        //the recipes of a key update may be in the migration by themselves as well
+        Set<String> keys = new HashSet<>();
+        int position = -1;
+        boolean folding = true;
+        for (Recipe recipe : recipes) {
+            if (folding && recipe instanceof PropertiesAndYamlKeyUpdate update) {
+                renames.add(update.getOldPropertyKey() + "=" + update.getNewPropertyKey());
+                for (Recipe child : update.getRecipeList()) {
+                    if (keys.add(key(child))) {
+                        result.add(child);
+                    }
+                }
+                position = result.size();
+            } else {
+                folding &= !(recipe instanceof ChangePropertyKeyWithCaseChange);
+                if (keys.add(key(recipe))) {
+                    result.add(recipe);
+                }
+            }
+        }
+        if (renames.size() < 2) {
+            return recipes;
+        }
+        result.add(position, new CamelPropertiesKeyRenames(renames));
+        return result;
+    }
+
+    /**
+     * Replaces the pom changes supported by {@link CamelPomAlignment} with one alignment, at the position of the last
+     * of them, so that the removals and moves of the older versions are still done before the final upgrade.
+     * Changes from the first one the alignment does not absorb because of the order (see
+     * {@link CamelPomAlignment#absorb(Recipe)}) run by themselves, after the alignment.
+     */
+    private static List<Recipe> align(List<Recipe> recipes) {
+        CamelPomAlignment alignment = new CamelPomAlignment();
+        Set<Integer> absorbed = new HashSet<>();
+        int last = -1;
+        for (int i = 0; i < recipes.size(); i++) {
+            if (alignment.absorb(recipes.get(i))) {
+                absorbed.add(i);
+                last = i;
+            } else if (new CamelPomAlignment().absorb(recipes.get(i))) {
+                //supported, but conflicting with the table (e.g. removal of a moved dependency), the alignment has to
+                //run before it
+                break;
+            }
+        }
+        if (absorbed.size() < 2) {
+            return recipes;
+        }
+        List<Recipe> result = new ArrayList<>();
+        for (int i = 0; i < recipes.size(); i++) {
+            if (i == last) {
+                result.add(alignment);
+            } else if (!absorbed.contains(i)) {
+                result.add(recipes.get(i));
+            }
+        }
+        return result;
+    }
+
+    private static boolean isFlattened(Recipe recipe) {
+        return recipe instanceof DeclarativeRecipe declarative
+                && declarative.getPreconditions().isEmpty()
+                && !declarative.causesAnotherCycle();
+    }
+
+    /**
+     * Name and options of the recipe, e.g. {@code org.openrewrite.maven.ChangePropertyValue{key=camel.version, ...}}.
+     */
+    public static String key(Recipe recipe) {
+        List<OptionDescriptor> options = recipe.getDescriptor().getOptions();
+        if (options.isEmpty()) {
+            return recipe.getName();
+        }
+        return options.stream()
+                .map(option -> option.getName() + "=" + option.getValue())
+                .collect(Collectors.joining(", ", recipe.getName() + "{", "}"));
+    }
+}
@@ -0,0 +1,289 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.upgrade;
+
+import org.jspecify.annotations.Nullable;
+import org.openrewrite.Column;
+import org.openrewrite.Cursor;
+import org.openrewrite.DataTable;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.FileAttributes;
+import org.openrewrite.Option;
+import org.openrewrite.PathUtils;
+import org.openrewrite.Recipe;
+import org.openrewrite.ScanningRecipe;
+import org.openrewrite.SourceFile;
+import org.openrewrite.Tree;
+import org.openrewrite.TreeVisitor;
+import org.openrewrite.java.tree.Comment;
+import org.openrewrite.java.tree.J;
+import org.openrewrite.java.tree.Space;
+import org.openrewrite.xml.tree.Xml;
+import org.openrewrite.yaml.tree.Yaml;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Files the Camel recipes never touch: generated sources, vendored or oversized files.
+ * <p>
+ * Activated together with the migration, in any order (e.g.
+ * {@code -Drewrite.activeRecipes=org.apache.camel.upgrade.CamelSkipPolicy,org.apache.camel.upgrade.CamelMigrationRecipe}),
+ * the Camel visitors (children of {@link AbstractCamelJavaVisitor}, {@link AbstractCamelXmlVisitor} and
+ * {@link AbstractCamelYamlVisitor}) and the {@link RecipesUtil#camelYamlDslPrecondition()} skip files matching one of
+ * the globs, files larger than the limits and generated files. The decision is made once per file, when the file is
+ * scanned, skipped files are reported in the {@link Report} data table and logged.
+ * </p>
+ * <p>
+ * Generated files are Java classes annotated with {@code @Generated} and files whose header comment says they are
+ * generated (e.g. JAXB or OpenAPI generator output).
+ * </p>
+ */
+public class CamelSkipPolicy extends ScanningRecipe<CamelSkipPolicy.Policy> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CamelSkipPolicy.class);
+
+    static final String KEY = CamelSkipPolicy.class.getName();
+
+    private static final List<String> DEFAULT_GLOBS = List.of("**/target/generated-sources/**",
+            "**/target/generated-test-sources/**", "**/build/generated/**");
+
+    private static final Pattern GENERATED_COMMENT = Pattern.compile(
+            "(?i)\\b(generated by|auto-?generated|code generated|do not edit)\\b|@generated\\b");
+
+    @Option(displayName = "Globs",
+            description = "Globs of source paths the Camel recipes skip. Defaults to `**/target/generated-sources/**`, `**/target/generated-test-sources/**` and `**/build/generated/**`.",
+            example = "**/vendor/**",
+            required = false)
+    @Nullable
+    List<String> globs;
+
+    @Option(displayName = "Maximum size",
+            description = "Files larger than the given number of bytes are skipped. No limit by default.",
+            example = "1000000",
+            required = false)
+    @Nullable
+    Long maxBytes;
+
+    @Option(displayName = "Maximum lines",
+            description = "Files with more than the given number of lines are skipped. No limit by default.",
+            example = "20000",
+            required = false)
+    @Nullable
+    Integer maxLines;
+
+    @Option(displayName = "Skip generated files",
+            description = "Whether classes annotated with `@Generated` and files with a header comment saying they are generated are skipped. Defaults to true.",
+            required = false)
+    @Nullable
+    Boolean skipGenerated;
+
+    private final transient Report report = new Report(this);
+
+    public CamelSkipPolicy() {
+    }
+
+    public CamelSkipPolicy(@Nullable List<String> globs, @Nullable Long maxBytes, @Nullable Integer maxLines,
+                           @Nullable Boolean skipGenerated) {
+        this.globs = globs;
+        this.maxBytes = maxBytes;
+        this.maxLines = maxLines;
+        this.skipGenerated = skipGenerated;
+    }
+
+    public void setGlobs(@Nullable List<String> globs) {
+        this.globs = globs;
+    }
+
+    public void setMaxBytes(@Nullable Long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    public void setMaxLines(@Nullable Integer maxLines) {
+        this.maxLines = maxLines;
+    }
+
+    public void setSkipGenerated(@Nullable Boolean skipGenerated) {
+        this.skipGenerated = skipGenerated;
+    }
+
+    @Override
+    public String getDisplayName() {
+        return "Skip generated and oversized files in Camel recipes";
+    }
+
+    @Override
+    public String getDescription() {
+        return "Camel recipes which follow skip generated files, files matching the globs and files over the size limits.";
+    }
+
+    @Override
+    public Policy getInitialValue(ExecutionContext ctx) {
+        return new Policy(globs == null ? DEFAULT_GLOBS : globs, maxBytes, maxLines,
+                skipGenerated == null || skipGenerated, report);
+    }
+
+    @Override
+    public TreeVisitor<?, ExecutionContext> getScanner(Policy acc) {
+        return new TreeVisitor<>() {
+            @Override
+            public @Nullable Tree visit(@Nullable Tree tree, ExecutionContext ctx) {
+                //shared through the execution context, the same way as CamelTimeBudget
+                ctx.computeMessageIfAbsent(KEY, k -> acc);
+                if (tree instanceof SourceFile sourceFile) {
+                    //decided (and reported) here, preconditions of the recipes can not write data tables
+                    acc.decide(sourceFile, ctx);
+                }
+                return tree;
+            }
+        };
+    }
+
+    /**
+     * Whether the Camel visitors skip the source file, called before the file is visited.
+     */
+    static boolean skips(SourceFile sourceFile, ExecutionContext ctx) {
+        Policy policy = ctx.getMessage(KEY);
+        return policy != null && policy.skips(sourceFile);
+    }
+
+    /**
+     * Skip policy with the decisions made for the scanned files.
+     */
+    public static final class Policy {
+
+        private final List<String> globs;
+        private final @Nullable Long maxBytes;
+        private final @Nullable Integer maxLines;
+        private final boolean skipGenerated;
+        private final Report report;
+        //reason of the skip by source path, empty for files which are not skipped
+        private final Map<Path, String> reasons = new ConcurrentHashMap<>();
+
+        private Policy(List<String> globs, @Nullable Long maxBytes, @Nullable Integer maxLines, boolean skipGenerated,
+                       Report report) {
+            this.globs = globs;
+            this.maxBytes = maxBytes;
+            this.maxLines = maxLines;
+            this.skipGenerated = skipGenerated;
+            this.report = report;
+        }
+
+        private void decide(SourceFile sourceFile, ExecutionContext ctx) {
+            String reason = reasonOf(sourceFile);
+            if (reasons.putIfAbsent(sourceFile.getSourcePath(), reason) == null && !reason.isEmpty()) {
+                report.insertRow(ctx, new Report.Row(sourceFile.getSourcePath().toString(), reason));
+                LOGGER.info("Skipped by Camel recipes: {} ({})", sourceFile.getSourcePath(), reason);
+            }
+        }
+
+        private boolean skips(SourceFile sourceFile) {
+            //files created during the run were not scanned, they are decided (without a report) on the first visit
+            return !reasons.computeIfAbsent(sourceFile.getSourcePath(), p -> reasonOf(sourceFile)).isEmpty();
+        }
+
+        private String reasonOf(SourceFile sourceFile) {
+            for (String glob : globs) {
+                if (PathUtils.matchesGlob(sourceFile.getSourcePath(), glob)) {
+                    return "matches " + glob;
+                }
+            }
+
+            if (maxBytes != null || maxLines != null) {
+                FileAttributes attributes = sourceFile.getFileAttributes();
+                //printed only if the size is not known from the file attributes
+                String text = attributes == null ? sourceFile.printAll() : null;
+                long bytes = attributes != null ? attributes.getSize()
+                        : text.getBytes(sourceFile.getCharset() == null ? StandardCharsets.UTF_8 : sourceFile.getCharset()).length;
+                if (maxBytes != null && bytes > maxBytes) {
+                    return bytes + " bytes";
+                }
+                //every line takes at least a byte, lines are counted only if the size does not rule out the limit
+                if (maxLines != null && Math.max(bytes, 1) > maxLines) {
+                    if (text == null) {
+                        text = sourceFile.printAll();
+                    }
+                    long lines = text.chars().filter(c -> c == '\n').count() + (text.endsWith("\n") ? 0 : 1);
+                    if (lines > maxLines) {
+                        return lines + " lines";
+                    }
+                }
+            }
+
+            if (skipGenerated && isGenerated(sourceFile)) {
+                return "generated";
+            }
+            return "";
+        }
+    }
+
+    /**
+     * Generated-code detector, looks only at the header comments and the annotations of the top level classes, so it
+     * does not walk the whole file.
+     */
+    static boolean isGenerated(SourceFile sourceFile) {
+        if (sourceFile instanceof J.CompilationUnit cu) {
+            if (hasGeneratedComment(cu.getPrefix())
+                    || cu.getPackageDeclaration() != null && hasGeneratedComment(cu.getPackageDeclaration().getPrefix())) {
+                return true;
+            }
+            return cu.getClasses().stream().anyMatch(c -> hasGeneratedComment(c.getPrefix())
+                    || c.getLeadingAnnotations().stream().anyMatch(a -> "Generated".equals(a.getSimpleName())));
+        }
+        if (sourceFile instanceof Xml.Document document) {
+            return document.getProlog() != null && document.getProlog().getMisc().stream()
+                    .anyMatch(m -> m instanceof Xml.Comment c && GENERATED_COMMENT.matcher(c.getText()).find());
+        }
+        if (sourceFile instanceof Yaml.Documents documents) {
+            return !documents.getDocuments().isEmpty()
+                    && GENERATED_COMMENT.matcher(documents.getDocuments().get(0).getPrefix()).find();
+        }
+        return false;
+    }
+
+    private static boolean hasGeneratedComment(Space space) {
+        for (Comment comment : space.getComments()) {
+            if (GENERATED_COMMENT.matcher(comment.printComment(new Cursor(null, Cursor.ROOT_VALUE))).find()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Files skipped by the Camel recipes.
+     */
+    public static class Report extends DataTable<Report.Row> {
+
+        public Report(Recipe recipe) {
+            super(recipe, "Camel skipped files", "Files the Camel recipes skip, with the reason.");
+        }
+
+        public record Row(
+                @Column(displayName = "Source path", description = "The skipped file.")
+                String sourcePath,
+                @Column(displayName = "Reason", description = "The matching glob, the size over the limit or `generated`.")
+                String reason) {
+        }
+    }
+}
@@ -0,0 +1,205 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.upgrade;
+
+import org.jspecify.annotations.Nullable;
+import org.openrewrite.Column;
+import org.openrewrite.DataTable;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.Option;
+import org.openrewrite.Recipe;
+import org.openrewrite.ScanningRecipe;
+import org.openrewrite.SourceFile;
+import org.openrewrite.Tree;
+import org.openrewrite.TreeVisitor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Time budget of the Camel visitors per file, so a single pathological file (e.g. a huge generated one) does not stall
+ * the whole migration.
+ * <p>
+ * Activated together with the migration, in any order (e.g.
+ * {@code -Drewrite.activeRecipes=org.apache.camel.upgrade.CamelTimeBudget,org.apache.camel.upgrade.CamelMigrationRecipe}),
+ * the Camel visitors (children of {@link AbstractCamelJavaVisitor}, {@link AbstractCamelXmlVisitor} and
+ * {@link AbstractCamelYamlVisitor}) check their deadline every {@value #CHECK_INTERVAL} visited nodes. A visitor which
+ * exceeds the budget on a file abandons it and leaves the file unchanged, the file is reported in the {@link Report}
+ * data table and logged. Other visitors and files are not affected.
+ * </p>
+ */
+public class CamelTimeBudget extends ScanningRecipe<CamelTimeBudget.Budget> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CamelTimeBudget.class);
+
+    static final String KEY = CamelTimeBudget.class.getName();
+
+    //number of visited nodes between two checks of the deadline
+    static final int CHECK_INTERVAL = 1024;
+
+    @Option(displayName = "Maximum time",
+            description = "Maximum time in milliseconds a Camel recipe may spend on a single file. Defaults to 60000.",
+            example = "10000",
+            required = false)
+    @Nullable
+    Long maxMillis;
+
+    private final transient Report report = new Report(this);
+
+    public CamelTimeBudget() {
+    }
+
+    public CamelTimeBudget(@Nullable Long maxMillis) {
+        this.maxMillis = maxMillis;
+    }
+
+    public void setMaxMillis(@Nullable Long maxMillis) {
+        this.maxMillis = maxMillis;
+    }
+
+    @Override
+    public String getDisplayName() {
+        return "Limit the time of Camel recipes per file";
+    }
+
+    @Override
+    public String getDescription() {
+        return "Camel recipes which follow abandon a file, once they spend more than the given time on it.";
+    }
+
+    @Override
+    public Budget getInitialValue(ExecutionContext ctx) {
+        return new Budget(maxMillis == null ? 60_000 : maxMillis, report);
+    }
+
+    @Override
+    public TreeVisitor<?, ExecutionContext> getScanner(Budget acc) {
+        return new TreeVisitor<>() {
+            @Override
+            public @Nullable Tree visit(@Nullable Tree tree, ExecutionContext ctx) {
+                //shared through the execution context (once per execution), all the files are scanned before any of
+                //them is visited, so the other recipes of the run see it regardless of the order of activation
+                ctx.computeMessageIfAbsent(KEY, k -> acc);
+                return tree;
+            }
+        };
+    }
+
+    /**
+     * Whether the exception (possibly wrapped by the visit of a parent tree) means that the budget is exceeded. The
+     * Camel visitors rethrow such exceptions instead of skipping only the current tree.
+     */
+    static boolean isExceeded(Throwable e) {
+        return e instanceof Exceeded || e.getCause() instanceof Exceeded;
+    }
+
+    /**
+     * Time budget of a Camel visitor for a single file.
+     */
+    public static final class Budget {
+
+        private final long maxMillis;
+        private final Report report;
+
+        private Budget(long maxMillis, Report report) {
+            this.maxMillis = maxMillis;
+            this.report = report;
+        }
+
+        private void exceeded(SourceFile sourceFile, Class<?> visitor, ExecutionContext ctx) {
+            //visitors are mostly anonymous classes of the recipes
+            String recipe = visitor.getName().replaceAll("\\$.*", "");
+            String file = sourceFile.getSourcePath().toString();
+            report.insertRow(ctx, new Report.Row(file, recipe, maxMillis));
+            LOGGER.warn("Time budget of {} ms exceeded by {}, {} is skipped by the recipe", maxMillis, recipe, file);
+        }
+    }
+
+    /**
+     * Deadline of a single Camel visitor, started by the visit of the source file.
+     */
+    static final class Watch {
+
+        private boolean active;
+        private long deadline;
+        private int nodes;
+
+        /**
+         * Counts the tree visited by the Camel visitor towards the next check of the deadline. Returns false for a
+         * source file which is to be visited within the budget, see <i>visitWithin</i>.
+         */
+        boolean tick(@Nullable Tree tree, ExecutionContext ctx) {
+            if (active) {
+                if (++nodes % CHECK_INTERVAL == 0 && System.nanoTime() - deadline > 0) {
+                    throw new Exceeded();
+                }
+                return true;
+            }
+            return !(tree instanceof SourceFile) || ctx.getMessage(KEY) == null;
+        }
+
+        /**
+         * Visit of the source file within the budget, the original source file is returned if the budget is exceeded.
+         */
+        @SuppressWarnings("unchecked")
+        <T> T visitWithin(Tree sourceFile, Class<?> visitor, Supplier<T> visit, ExecutionContext ctx) {
+            Budget budget = ctx.getMessage(KEY);
+            active = true;
+            nodes = 0;
+            deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(budget.maxMillis);
+            try {
+                return visit.get();
+            } catch (RuntimeException e) {
+                if (!isExceeded(e)) {
+                    throw e;
+                }
+                budget.exceeded((SourceFile) sourceFile, visitor, ctx);
+                return (T) sourceFile;
+            } finally {
+                active = false;
+            }
+        }
+    }
+
+    // Stack trace is not needed, the exception only unwinds the visit of the file
+    private static final class Exceeded extends RuntimeException {
+        private Exceeded() {
+            super(null, null, false, false);
+        }
+    }
+
+    /**
+     * Files abandoned by the Camel recipes because of the time budget.
+     */
+    public static class Report extends DataTable<Report.Row> {
+
+        public Report(Recipe recipe) {
+            super(recipe, "Camel time budget exceeded", "Files abandoned by a Camel recipe which exceeded the time budget.");
+        }
+
+        public record Row(
+                @Column(displayName = "Source path", description = "The file left unchanged by the recipe.")
+                String sourcePath,
+                @Column(displayName = "Recipe", description = "The recipe which exceeded the time budget.")
+                String recipe,
+                @Column(displayName = "Budget", description = "The time budget in milliseconds.")
+                long budgetMillis) {
+        }
+    }
+}
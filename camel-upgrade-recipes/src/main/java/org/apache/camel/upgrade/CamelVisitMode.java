@@ -0,0 +1,47 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.upgrade;
+
+import org.jspecify.annotations.Nullable;
+import org.openrewrite.Cursor;
+import org.openrewrite.ExecutionContext;
+
+import java.util.function.Supplier;
+
+/**
+ * Mode of the Camel visitors which do not change the files, only report what would be changed
+ * ({@link CamelMigrationCheck}, {@link CamelMigrationImpactScan}).
+ * <p>
+ * The mode is a message of the root cursor. When it is present, the Camel visitors (children of
+ * {@link AbstractCamelJavaVisitor}, {@link AbstractCamelXmlVisitor} and {@link AbstractCamelYamlVisitor}) pass their
+ * visits to the mode and neither format the changed trees nor schedule follow-up visitors.
+ * </p>
+ */
+interface CamelVisitMode {
+
+    String KEY = CamelVisitMode.class.getName();
+
+    static @Nullable CamelVisitMode of(Cursor cursor) {
+        return cursor.getRoot().getMessage(KEY);
+    }
+
+    /**
+     * Visit of a Camel visitor, see {@code executeVisitWithCatch} of the Camel visitors. Returns the tree which
+     * replaces the original one, the original itself if nothing is to be changed.
+     */
+    <T> T visit(Cursor cursor, Class<?> visitor, Supplier<T> visitMethod, T origValue, ExecutionContext ctx);
+}
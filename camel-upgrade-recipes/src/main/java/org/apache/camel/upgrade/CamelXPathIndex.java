@@ -0,0 +1,96 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.upgrade;
+
+import org.jspecify.annotations.Nullable;
+import org.openrewrite.xml.tree.Xml;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Set of XPath expressions compiled into one tag-name keyed automaton.
+ * <p>
+ * Only the subset of XPath used by the Camel XML recipes is supported: absolute paths (<i>/routes/route</i>),
+ * descendant paths (<i>//intercept/when</i>, <i>a//b</i>), relative paths (<i>bean/property</i>), the wildcard
+ * <i>*</i> and plain tag names. Semantics are the same as {@link org.openrewrite.xml.XPathMatcher}.
+ * </p>
+ * <p>
+ * Instead of walking the cursor for every expression and every tag, the visitor keeps one {@link State} per
+ * open tag and advances it with {@link State#advance(String)} when descending. Transitions are computed lazily and
+ * cached, so each tag resolves all matching expressions in constant time. See {@link AbstractCamelXmlVisitor}.
+ * </p>
+ */
+public final class CamelXPathIndex extends AbstractCamelPathIndex {
+
+    private static final Pattern NAME_PATTERN = Pattern.compile("\\*|[A-Za-z_][\\w.\\-:]*");
+
+    private CamelXPathIndex(List<String> expressions) {
+        super(expressions, CamelXPathIndex::parse);
+    }
+
+    public static CamelXPathIndex of(String... expressions) {
+        return of(List.of(expressions));
+    }
+
+    public static CamelXPathIndex of(List<String> expressions) {
+        return new CamelXPathIndex(expressions);
+    }
+
+    @Override
+    protected @Nullable String nameOf(Object cursorValue) {
+        return cursorValue instanceof Xml.Tag ? ((Xml.Tag) cursorValue).getName() : null;
+    }
+
+    private static List<Step> parse(String expression) {
+        String path = expression.trim();
+        //relative paths are not anchored to the root, same as in XPathMatcher
+        boolean descendant = true;
+        if (path.startsWith("//")) {
+            path = path.substring(2);
+        } else if (path.startsWith("/")) {
+            path = path.substring(1);
+            descendant = false;
+        }
+        if (path.isEmpty()) {
+            throw new IllegalArgumentException("Unsupported XPath expression: '" + expression + "'.");
+        }
+
+        List<Step> steps = new ArrayList<>();
+        for (String name : path.split("/", -1)) {
+            if (name.isEmpty()) {
+                //empty name comes from '//' in the middle of the expression
+                if (descendant) {
+                    throw new IllegalArgumentException("Unsupported XPath expression: '" + expression + "'.");
+                }
+                descendant = true;
+                continue;
+            }
+            if (!NAME_PATTERN.matcher(name).matches()) {
+                throw new IllegalArgumentException(
+                        "Unsupported step '" + name + "' in XPath expression: '" + expression + "'.");
+            }
+            steps.add(new Step(name, descendant));
+            descendant = false;
+        }
+        if (descendant) {
+            throw new IllegalArgumentException("Unsupported XPath expression: '" + expression + "'.");
+        }
+        return steps;
+    }
+}
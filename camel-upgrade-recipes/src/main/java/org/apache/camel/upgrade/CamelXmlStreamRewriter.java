@@ -0,0 +1,644 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.upgrade;
+
+import org.jspecify.annotations.Nullable;
+import org.openrewrite.Cursor;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.SourceFile;
+import org.openrewrite.Tree;
+import org.openrewrite.TreeVisitor;
+import org.openrewrite.text.PlainText;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Streaming rewriter of xml documents for migrations which only touch a tag and its direct children (tag renames,
+ * attribute renames, attribute value rewrites, child elements moved into attributes).
+ * <p>
+ * The document is read token by token and every token is written back exactly as it was read, unless a rule modifies
+ * it. Whitespace, comments, quotes and the order of attributes are therefore preserved. Only the stack of open tags is
+ * kept in memory, plus the elements handed to element rules, so the memory does not depend on the size of the
+ * document. Tags are matched by the expressions of a {@link CamelXPathIndex} with the same semantics as in
+ * {@link AbstractCamelXmlVisitor}, always against the original tag names.
+ * </p>
+ * <p>
+ * Xml files excluded from xml parsing by the build tooling (typically huge route files) reach the recipes as
+ * {@link PlainText}. {@link #withLstVisitor(TreeVisitor)} rewrites those with this rewriter, parsed xml documents are
+ * still migrated by the LST visitor. Recipes which need the whole tree simply do not provide a rewriter.
+ * </p>
+ */
+public final class CamelXmlStreamRewriter {
+    private static final Logger LOGGER = LoggerFactory.getLogger(CamelXmlStreamRewriter.class);
+
+    private final CamelXPathIndex xPathIndex;
+    private final Map<String, List<Consumer<StartTag>>> tagRules = new LinkedHashMap<>();
+    private final Map<String, List<Consumer<Element>>> elementRules = new LinkedHashMap<>();
+
+    public CamelXmlStreamRewriter(CamelXPathIndex xPathIndex) {
+        this.xPathIndex = xPathIndex;
+    }
+
+    /**
+     * Registers rule modifying the start tag of every tag matching the expression (for example renaming the tag or its
+     * attributes). Renamed tags are renamed in the end tag as well.
+     */
+    public CamelXmlStreamRewriter onTag(String xPath, Consumer<StartTag> rule) {
+        xPathIndex.matches(xPathIndex.root(), xPath);
+        tagRules.computeIfAbsent(xPath, k -> new ArrayList<>()).add(rule);
+        return this;
+    }
+
+    /**
+     * Registers rule for every element matching the expression. The element is kept in memory until its end tag is
+     * read, the rule is then called with all its children (already rewritten).
+     */
+    public CamelXmlStreamRewriter onElement(String xPath, Consumer<Element> rule) {
+        xPathIndex.matches(xPathIndex.root(), xPath);
+        elementRules.computeIfAbsent(xPath, k -> new ArrayList<>()).add(rule);
+        return this;
+    }
+
+    /**
+     * Rewrites the document, returns the same instance if nothing was changed.
+     */
+    public String rewrite(String xml) {
+        return rewrite(xml, () -> { });
+    }
+
+    private String rewrite(String xml, Runnable tick) {
+        CamelCopyOnChangeWriter out = new CamelCopyOnChangeWriter(xml);
+        try {
+            return rewrite(new StringReader(xml), out, tick) ? out.toString() : xml;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Rewrites the document from the reader into the writer (e.g. directly into the target file), returns true if
+     * anything was changed.
+     */
+    public boolean rewrite(Reader in, Writer out) throws IOException {
+        return rewrite(in, out, () -> { });
+    }
+
+    private boolean rewrite(Reader in, Writer out, Runnable tick) throws IOException {
+        Tokenizer tokenizer = new Tokenizer(in instanceof BufferedReader ? in : new BufferedReader(in));
+        Deque<Frame> frames = new ArrayDeque<>();
+        boolean changed = false;
+
+        for (String token = tokenizer.next(); token != null; token = tokenizer.next()) {
+            tick.run();
+            Frame parent = frames.peek();
+            Element buffer = parent == null ? null : parent.buffer;
+
+            if (isStartTag(token)) {
+                StartTag tag = StartTag.parse(token);
+                CamelXPathIndex.State state = (parent == null ? xPathIndex.root() : parent.state).advance(tag.getName());
+                String originalName = tag.getName();
+                for (Map.Entry<String, List<Consumer<StartTag>>> entry : tagRules.entrySet()) {
+                    if (xPathIndex.matches(state, entry.getKey())) {
+                        entry.getValue().forEach(rule -> rule.accept(tag));
+                    }
+                }
+
+                Element element = null;
+                if (buffer != null || elementRules.keySet().stream().anyMatch(xPath -> xPathIndex.matches(state, xPath))) {
+                    element = new Element(tag);
+                    if (buffer != null) {
+                        buffer.content.add(element);
+                    }
+                }
+                if (tag.isSelfClosing()) {
+                    if (element != null) {
+                        changed |= closeElement(out, frames.peek(), element, state, null);
+                    } else {
+                        out.write(tag.toString());
+                    }
+                    changed |= tag.modified;
+                } else {
+                    if (element == null) {
+                        out.write(tag.toString());
+                    }
+                    changed |= tag.modified;
+                    frames.push(new Frame(state, originalName, tag.getName(), element));
+                }
+            } else if (token.startsWith("</") && parent != null) {
+                frames.pop();
+                String end = token;
+                if (!parent.name.equals(parent.originalName) && token.startsWith(parent.originalName, 2)) {
+                    end = "</" + parent.name + token.substring(2 + parent.originalName.length());
+                }
+                if (parent.buffer != null) {
+                    changed |= closeElement(out, frames.peek(), parent.buffer, parent.state, end);
+                } else {
+                    out.write(end);
+                }
+            } else {
+                emit(out, buffer, token);
+            }
+        }
+        out.flush();
+        return changed;
+    }
+
+    /**
+     * Visitor migrating xml files available only as {@link PlainText} with this rewriter, any other source file is
+     * handled by the given LST visitor. Like the Camel visitors, it skips the files of the {@link CamelSkipPolicy} and
+     * abandons the file when it exceeds the {@link CamelTimeBudget}.
+     */
+    public TreeVisitor<?, ExecutionContext> withLstVisitor(TreeVisitor<?, ExecutionContext> lstVisitor) {
+        return new TreeVisitor<Tree, ExecutionContext>() {
+
+            private final CamelTimeBudget.Watch timeBudget = new CamelTimeBudget.Watch();
+
+            @Override
+            public boolean isAcceptable(SourceFile sourceFile, ExecutionContext ctx) {
+                return sourceFile instanceof PlainText
+                        ? isXml(sourceFile)
+                        : lstVisitor.isAcceptable(sourceFile, ctx);
+            }
+
+            //plain text files other than xml are left unchanged, even if the visitor is called without isAcceptable
+            @Override
+            public @Nullable Tree visit(@Nullable Tree tree, ExecutionContext ctx) {
+                if (tree instanceof PlainText plainText) {
+                    return isXml(plainText) ? rewritePlainText(plainText, ctx) : plainText;
+                }
+                return lstVisitor.visit(tree, ctx);
+            }
+
+            @Override
+            public @Nullable Tree visit(@Nullable Tree tree, ExecutionContext ctx, Cursor parent) {
+                if (tree instanceof PlainText plainText) {
+                    return isXml(plainText) ? rewritePlainText(plainText, ctx) : plainText;
+                }
+                return lstVisitor.visit(tree, ctx, parent);
+            }
+
+            private PlainText rewritePlainText(PlainText plainText, ExecutionContext ctx) {
+                if (CamelSkipPolicy.skips(plainText, ctx)) {
+                    return plainText;
+                }
+                if (timeBudget.tick(plainText, ctx)) {
+                    return CamelXmlStreamRewriter.this.rewritePlainText(plainText, () -> { });
+                }
+                //every token counts as a visited node, the budget is reported for the recipe of the LST visitor
+                return timeBudget.visitWithin(plainText, lstVisitor.getClass(),
+                        () -> CamelXmlStreamRewriter.this.rewritePlainText(plainText, () -> timeBudget.tick(null, ctx)),
+                        ctx);
+            }
+        };
+    }
+
+    private static boolean isXml(SourceFile sourceFile) {
+        return sourceFile.getSourcePath().toString().endsWith(".xml");
+    }
+
+    // If the migration fails - do not fail whole migration process, only this one file
+    private PlainText rewritePlainText(PlainText plainText, Runnable tick) {
+        try {
+            return plainText.withText(rewrite(plainText.getText(), tick));
+        } catch (RuntimeException e) {
+            if (CamelTimeBudget.isExceeded(e)) {
+                throw e;
+            }
+            LOGGER.warn(String.format("Internal error detected while rewriting %s, file is skipped.", plainText.getSourcePath()), e);
+            return plainText;
+        }
+    }
+
+    private boolean closeElement(Writer out, @Nullable Frame parent, Element element, CamelXPathIndex.State state,
+            @Nullable String end) throws IOException {
+        element.end = end;
+        for (Map.Entry<String, List<Consumer<Element>>> entry : elementRules.entrySet()) {
+            if (xPathIndex.matches(state, entry.getKey())) {
+                entry.getValue().forEach(rule -> rule.accept(element));
+            }
+        }
+        //parent element is serialized together with its children
+        if (parent == null || parent.buffer == null) {
+            out.write(element.toString());
+        }
+        return element.modified || element.startTag.modified;
+    }
+
+    private static void emit(Writer out, @Nullable Element buffer, String token) throws IOException {
+        if (buffer != null) {
+            buffer.content.add(token);
+        } else {
+            out.write(token);
+        }
+    }
+
+    private static boolean isStartTag(String token) {
+        return token.length() > 2 && token.charAt(0) == '<' && token.endsWith(">")
+                && token.charAt(1) != '!' && token.charAt(1) != '?' && StartTag.nameEnd(token, 1) > 1;
+    }
+
+    private static final class Frame {
+        private final CamelXPathIndex.State state;
+        private final String originalName;
+        private final String name;
+        private final @Nullable Element buffer;
+
+        private Frame(CamelXPathIndex.State state, String originalName, String name, @Nullable Element buffer) {
+            this.state = state;
+            this.originalName = originalName;
+            this.name = name;
+            this.buffer = buffer;
+        }
+    }
+
+    /**
+     * Start tag of an element, keeps the original formatting of the name and all attributes.
+     */
+    public static final class StartTag {
+        private String name;
+        private final List<Attribute> attributes;
+        //everything after the last attribute, e.g. " />"
+        private final String tail;
+        private boolean modified;
+
+        private StartTag(String name, List<Attribute> attributes, String tail) {
+            this.name = name;
+            this.attributes = attributes;
+            this.tail = tail;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            if (!this.name.equals(name)) {
+                this.name = name;
+                modified = true;
+            }
+        }
+
+        public boolean isSelfClosing() {
+            return tail.endsWith("/>");
+        }
+
+        /**
+         * Raw value of the attribute (without quotes) or null if the tag does not have such attribute.
+         */
+        public @Nullable String getAttribute(String key) {
+            for (Attribute attribute : attributes) {
+                if (attribute.key.equals(key)) {
+                    return attribute.value;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Changes the value of the attribute, attribute is appended (with double quotes) if it does not exist.
+         */
+        public void setAttribute(String key, String value) {
+            for (Attribute attribute : attributes) {
+                if (attribute.key.equals(key)) {
+                    if (!attribute.value.equals(value)) {
+                        attribute.value = value;
+                        modified = true;
+                    }
+                    return;
+                }
+            }
+            attributes.add(new Attribute(" ", key, "", "", '"', value));
+            modified = true;
+        }
+
+        public void renameAttribute(String key, String newKey) {
+            for (Attribute attribute : attributes) {
+                if (attribute.key.equals(key) && !key.equals(newKey)) {
+                    attribute.key = newKey;
+                    modified = true;
+                }
+            }
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder("<").append(name);
+            for (Attribute attribute : attributes) {
+                sb.append(attribute.prefix).append(attribute.key).append(attribute.afterKey).append('=')
+                        .append(attribute.beforeValue)
+                        .append(attribute.quote).append(attribute.value).append(attribute.quote);
+            }
+            return sb.append(tail).toString();
+        }
+
+        private static StartTag parse(String token) {
+            //token is a complete start tag, it always ends with '>'
+            int pos = nameEnd(token, 1);
+            String name = token.substring(1, pos);
+            List<Attribute> attributes = new ArrayList<>();
+            while (true) {
+                int keyStart = skipWhitespace(token, pos);
+                int keyEnd = nameEnd(token, keyStart);
+                int eq = skipWhitespace(token, keyEnd);
+                int quoteStart = keyEnd > keyStart && token.charAt(eq) == '=' ? skipWhitespace(token, eq + 1) : -1;
+                char quote = quoteStart < 0 ? 0 : token.charAt(quoteStart);
+                int quoteEnd = quote == '"' || quote == '\'' ? token.indexOf(quote, quoteStart + 1) : -1;
+                if (quoteEnd < 0) {
+                    //end of attributes (or an unsupported syntax), the rest is kept as it is
+                    return new StartTag(name, attributes, token.substring(pos));
+                }
+                attributes.add(new Attribute(token.substring(pos, keyStart), token.substring(keyStart, keyEnd),
+                        token.substring(keyEnd, eq), token.substring(eq + 1, quoteStart), quote,
+                        token.substring(quoteStart + 1, quoteEnd)));
+                pos = quoteEnd + 1;
+            }
+        }
+
+        private static int nameEnd(String token, int from) {
+            int pos = from;
+            while (pos < token.length()) {
+                char c = token.charAt(pos);
+                if (Character.isWhitespace(c) || c == '=' || c == '/' || c == '>') {
+                    break;
+                }
+                pos++;
+            }
+            return pos;
+        }
+
+        private static int skipWhitespace(String token, int from) {
+            int pos = from;
+            while (pos < token.length() - 1 && Character.isWhitespace(token.charAt(pos))) {
+                pos++;
+            }
+            return pos;
+        }
+    }
+
+    private static final class Attribute {
+        private final String prefix;
+        private String key;
+        //whitespace around '='
+        private final String afterKey;
+        private final String beforeValue;
+        private final char quote;
+        private String value;
+
+        private Attribute(String prefix, String key, String afterKey, String beforeValue, char quote, String value) {
+            this.prefix = prefix;
+            this.key = key;
+            this.afterKey = afterKey;
+            this.beforeValue = beforeValue;
+            this.quote = quote;
+            this.value = value;
+        }
+    }
+
+    /**
+     * Element kept in memory for an element rule, contains all its content (already rewritten).
+     */
+    public static final class Element {
+        private final StartTag startTag;
+        //nested elements or raw tokens (text, comments, cdata)
+        private final List<Object> content = new ArrayList<>();
+        private @Nullable String end;
+        private boolean modified;
+
+        private Element(StartTag startTag) {
+            this.startTag = startTag;
+        }
+
+        public String getName() {
+            return startTag.getName();
+        }
+
+        public StartTag getStartTag() {
+            return startTag;
+        }
+
+        public List<Element> getChildren() {
+            List<Element> children = new ArrayList<>();
+            for (Object o : content) {
+                if (o instanceof Element) {
+                    children.add((Element) o);
+                }
+            }
+            return children;
+        }
+
+        /**
+         * Text of the element, if it contains only text or cdata.
+         */
+        public Optional<String> getValue() {
+            if (content.isEmpty()) {
+                return Optional.empty();
+            }
+            StringBuilder sb = new StringBuilder();
+            for (Object o : content) {
+                if (!(o instanceof String)) {
+                    return Optional.empty();
+                }
+                String token = (String) o;
+                if (token.startsWith("<![CDATA[")) {
+                    sb.append(token, 9, token.length() - 3);
+                } else if (token.startsWith("<")) {
+                    return Optional.empty();
+                } else {
+                    sb.append(token);
+                }
+            }
+            return Optional.of(sb.toString());
+        }
+
+        /**
+         * Removes the child element together with the whitespace in front of it.
+         */
+        public void removeChild(Element child) {
+            int index = content.indexOf(child);
+            if (index < 0) {
+                return;
+            }
+            content.remove(index);
+            if (index > 0 && content.get(index - 1) instanceof String && ((String) content.get(index - 1)).isBlank()) {
+                content.remove(index - 1);
+            }
+            modified = true;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder(startTag.toString());
+            content.forEach(sb::append);
+            if (end != null) {
+                sb.append(end);
+            }
+            return sb.toString();
+        }
+    }
+
+    /**
+     * Splits the document into tokens: text, start tag, end tag, comment, cdata, processing instruction or declaration.
+     * Concatenation of all tokens is exactly the original document.
+     */
+    private static final class Tokenizer {
+        private final Reader reader;
+        private int pushedBack = -1;
+        private final StringBuilder sb = new StringBuilder();
+
+        private Tokenizer(Reader reader) {
+            this.reader = reader;
+        }
+
+        private @Nullable String next() throws IOException {
+            sb.setLength(0);
+            int c = read();
+            if (c < 0) {
+                return null;
+            }
+            sb.append((char) c);
+            if (c != '<') {
+                //text up to the next tag
+                while ((c = read()) >= 0) {
+                    if (c == '<') {
+                        pushedBack = c;
+                        break;
+                    }
+                    sb.append((char) c);
+                }
+                return sb.toString();
+            }
+
+            if (!appendNext()) {
+                return sb.toString();
+            }
+            char second = sb.charAt(1);
+            if (second == '?') {
+                readUntil("?>");
+            } else if (second == '!') {
+                if (appendNext() && sb.charAt(2) == '-' && appendNext() && sb.charAt(3) == '-') {
+                    readUntil("-->");
+                } else if (sb.length() == 3 && sb.charAt(2) == '[') {
+                    readUntil("]]>");
+                } else {
+                    readDeclaration();
+                }
+            } else {
+                readTag();
+            }
+            return sb.toString();
+        }
+
+        private void readTag() throws IOException {
+            char quote = 0;
+            int c;
+            while ((c = read()) >= 0) {
+                sb.append((char) c);
+                if (quote != 0) {
+                    if (c == quote) {
+                        quote = 0;
+                    }
+                } else if (c == '"' || c == '\'') {
+                    quote = (char) c;
+                } else if (c == '>') {
+                    return;
+                }
+            }
+        }
+
+        private void readDeclaration() throws IOException {
+            //the tag ends with '>' outside of the internal subset '[...]' and outside of quotes
+            int depth = sb.charAt(sb.length() - 1) == '[' ? 1 : 0;
+            char quote = 0;
+            int c;
+            while ((c = read()) >= 0) {
+                sb.append((char) c);
+                if (quote != 0) {
+                    if (c == quote) {
+                        quote = 0;
+                    }
+                } else if (c == '"' || c == '\'') {
+                    quote = (char) c;
+                } else if (c == '[') {
+                    depth++;
+                } else if (c == ']') {
+                    depth--;
+                } else if (c == '>' && depth <= 0) {
+                    return;
+                }
+            }
+        }
+
+        private void readUntil(String terminator) throws IOException {
+            //the opening ('<?', '<!--' or '<![') is already read
+            int opening = sb.length();
+            int c;
+            while ((c = read()) >= 0) {
+                sb.append((char) c);
+                if (c == terminator.charAt(terminator.length() - 1) && endsWith(terminator, opening)) {
+                    return;
+                }
+            }
+        }
+
+        private boolean endsWith(String terminator, int opening) {
+            //terminator can not overlap with the opening, e.g. '<!-->' is not a complete comment
+            int start = sb.length() - terminator.length();
+            if (start < opening) {
+                return false;
+            }
+            for (int i = 0; i < terminator.length(); i++) {
+                if (sb.charAt(start + i) != terminator.charAt(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private boolean appendNext() throws IOException {
+            int c = read();
+            if (c < 0) {
+                return false;
+            }
+            sb.append((char) c);
+            return true;
+        }
+
+        private int read() throws IOException {
+            if (pushedBack >= 0) {
+                int c = pushedBack;
+                pushedBack = -1;
+                return c;
+            }
+            return reader.read();
+        }
+    }
+}
@@ -18,8 +18,10 @@ package org.apache.camel.upgrade;
 
 import org.jspecify.annotations.Nullable;
 import org.openrewrite.*;
+import org.openrewrite.internal.ListUtils;
 import org.openrewrite.java.search.UsesType;
 import org.openrewrite.java.tree.*;
+import org.openrewrite.marker.Marker;
 import org.openrewrite.marker.Markers;
 import org.openrewrite.marker.SearchResult;
 import org.openrewrite.xml.tree.Xml;
@@ -61,6 +63,15 @@ public class RecipesUtil {
 
     public static TreeVisitor<?, ExecutionContext> camelYamlDslPrecondition() {
         return new YamlIsoVisitor<ExecutionContext>() {
+            @Override
+            public @Nullable Yaml visit(@Nullable Tree tree, ExecutionContext ctx) {
+                //files skipped by CamelSkipPolicy do not pass the precondition
+                if (tree instanceof SourceFile sourceFile && CamelSkipPolicy.skips(sourceFile, ctx)) {
+                    return (Yaml) tree;
+                }
+                return super.visit(tree, ctx);
+            }
+
             @Override
             public Yaml.Document visitDocument(Yaml.Document document, ExecutionContext ctx) {
                 if (hasCamelRootKey(document.getBlock())) {
@@ -162,6 +173,216 @@ public class RecipesUtil {
                         .findAny().isPresent();
     }
 
+    //-------------- methods helping with migration markers ----
+
+    /**
+     * Records that the rule already transformed the element. Markers survive the following cycles of the same run, so
+     * rules checking {@link #isMigrated(Tree, String)} do not transform the element again and the run converges in
+     * a single cycle.
+     */
+    public static <T extends Tree> T markMigrated(T tree, String rule) {
+        return tree.withMarkers(tree.getMarkers().computeByType(new CamelMigrated(randomId(), Set.of(rule)),
+                (existing, added) -> existing.withRule(rule)));
+    }
+
+    public static boolean isMigrated(@Nullable Tree tree, String rule) {
+        return tree != null && tree.getMarkers().findFirst(CamelMigrated.class)
+                .filter(migrated -> migrated.rules().contains(rule))
+                .isPresent();
+    }
+
+    /**
+     * Marker with the rules which already transformed the element (see {@link #markMigrated(Tree, String)}).
+     */
+    public record CamelMigrated(UUID id, Set<String> rules) implements Marker {
+
+        @Override
+        public UUID getId() {
+            return id;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public CamelMigrated withId(UUID id) {
+            return new CamelMigrated(id, rules);
+        }
+
+        CamelMigrated withRule(String rule) {
+            if (rules.contains(rule)) {
+                return this;
+            }
+            Set<String> newRules = new HashSet<>(rules);
+            newRules.add(rule);
+            return new CamelMigrated(id, Collections.unmodifiableSet(newRules));
+        }
+    }
+
+    //--------------- formatting scoped to the changed subtree ------------
+
+    /**
+     * Appends the attribute to the tag. Its prefix is taken from the nearest sibling attribute (a single space if the
+     * tag has none), so neither the tag nor the rest of the document has to be formatted.
+     */
+    public static Xml.Tag addXmlAttribute(Xml.Tag tag, String name, String value) {
+        List<Xml.Attribute> attributes = tag.getAttributes();
+        String prefix = attributes.isEmpty() ? " " : attributes.get(attributes.size() - 1).getPrefix();
+        return tag.withAttributes(ListUtils.concat(attributes, new Xml.Attribute(
+                randomId(), prefix, Markers.EMPTY,
+                new Xml.Ident(randomId(), "", Markers.EMPTY, name),
+                "",
+                new Xml.Attribute.Value(randomId(), "", Markers.EMPTY, Xml.Attribute.Value.Quote.Double, value))));
+    }
+
+    /**
+     * Column of the entries of the yaml block, taken from the first entry starting on a new line. Returns -1 if there
+     * is no such entry.
+     */
+    public static int yamlIndent(Yaml.Block block) {
+        List<? extends Yaml> entries = block instanceof Yaml.Mapping
+                ? ((Yaml.Mapping) block).getEntries()
+                : block instanceof Yaml.Sequence ? ((Yaml.Sequence) block).getEntries() : Collections.emptyList();
+        for (Yaml entry : entries) {
+            int newLine = entry.getPrefix().lastIndexOf('\n');
+            if (newLine >= 0) {
+                return entry.getPrefix().length() - newLine - 1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Moves the yaml subtree, which started at column <i>from</i>, to a new line at column <i>to</i>. Nested lines of
+     * the subtree are shifted by the same number of columns, lines outside the subtree are untouched.
+     */
+    @SuppressWarnings("unchecked")
+    public static <Y extends Yaml> Y moveYaml(Y subtree, int from, int to) {
+        Y shifted = shiftYaml(subtree, to - from);
+        //keep comments preceding the subtree
+        String prefix = shifted.getPrefix();
+        int newLine = prefix.lastIndexOf('\n');
+        return (Y) shifted.withPrefix((newLine < 0 ? "" : prefix.substring(0, newLine)) + "\n" + " ".repeat(to));
+    }
+
+    /**
+     * Shifts every line of the yaml subtree by the given number of columns (negative number shifts to the left).
+     */
+    @SuppressWarnings("unchecked")
+    public static <Y extends Yaml> Y shiftYaml(Y subtree, int columns) {
+        if (columns == 0) {
+            return subtree;
+        }
+        return (Y) new YamlIsoVisitor<Integer>() {
+            //block scalars contain their own line breaks, including the one before the prefix of the following element
+            private boolean lineStart;
+
+            @Override
+            public Yaml preVisit(Yaml tree, Integer p) {
+                Yaml y = tree.withPrefix(shiftLines(tree.getPrefix(), columns, lineStart, true));
+                lineStart = false;
+                if (y instanceof Yaml.Scalar scalar && (scalar.getStyle() == Yaml.Scalar.Style.LITERAL ||
+                        scalar.getStyle() == Yaml.Scalar.Style.FOLDED)) {
+                    y = scalar.withValue(shiftLines(scalar.getValue(), columns, false, false));
+                    lineStart = scalar.getValue().endsWith("\n");
+                }
+                return y;
+            }
+        }.visitNonNull(subtree, 0);
+    }
+
+    //--------------- yaml mutations reusing the unchanged nodes ------------
+    // Only the nodes on the path of the change are allocated, other nodes (and ids) are shared with the original tree.
+
+    /**
+     * Renames the key of the entry, the value is kept. Entries with non-scalar keys are returned unchanged.
+     */
+    public static Yaml.Mapping.Entry renameKey(Yaml.Mapping.Entry entry, String key) {
+        if (entry.getKey() instanceof Yaml.Scalar scalar) {
+            return entry.withKey(scalar.withValue(key));
+        }
+        return entry;
+    }
+
+    /**
+     * Appends the entry (removed from its original mapping, where it started at column <i>from</i>) to the target
+     * mapping, indented as the entries of the target (or 2 columns deeper than the original place if the target has
+     * no entry on a new line).
+     */
+    public static Yaml.Mapping moveEntry(Yaml.Mapping target, Yaml.Mapping.Entry entry, int from) {
+        int targetIndent = yamlIndent(target);
+        return target.withEntries(ListUtils.concat(target.getEntries(),
+                moveYaml(entry, from, targetIndent < 0 ? from + 2 : targetIndent)));
+    }
+
+    /**
+     * Merges entries of all the mappings of the sequence into a single mapping, with entries moved to the given column.
+     */
+    public static Yaml.Mapping sequenceToMapping(Yaml.Sequence sequence, int indent) {
+        int dashIndent = Math.max(yamlIndent(sequence), 0);
+        List<Yaml.Mapping.Entry> entries = new ArrayList<>();
+        for (Yaml.Sequence.Entry sequenceEntry : sequence.getEntries()) {
+            if (sequenceEntry.getBlock() instanceof Yaml.Mapping mapping && !mapping.getEntries().isEmpty()) {
+                int mappingIndent = yamlIndent(mapping);
+                if (mappingIndent < 0) {
+                    //the first entry follows the dash
+                    mappingIndent = dashIndent + 1 + mapping.getEntries().get(0).getPrefix().length();
+                }
+                for (Yaml.Mapping.Entry entry : mapping.getEntries()) {
+                    entries.add(moveYaml(entry, mappingIndent, indent));
+                }
+            }
+        }
+        return new Yaml.Mapping(randomId(), sequence.getMarkers(), null, entries, null, null, null);
+    }
+
+    /**
+     * Replaces the mapping value of the entry with the value of its child (e.g. {@code completion: {uri: x}} becomes
+     * {@code completion: x}). Block values are shifted to the column of the replaced mapping. Returns the entry
+     * unchanged if the value is not a mapping or there is no such child.
+     */
+    public static Yaml.Mapping.Entry hoistChild(Yaml.Mapping.Entry entry, String childKey) {
+        if (!(entry.getValue() instanceof Yaml.Mapping mapping)) {
+            return entry;
+        }
+        for (Yaml.Mapping.Entry child : mapping.getEntries()) {
+            if (childKey.equals(child.getKey().getValue())) {
+                Yaml.Block value = child.getValue();
+                int mappingIndent = yamlIndent(mapping);
+                int valueIndent = yamlIndent(value);
+                if (mappingIndent >= 0 && valueIndent >= 0) {
+                    value = shiftYaml(value, mappingIndent - valueIndent);
+                }
+                return entry.withValue(value);
+            }
+        }
+        return entry;
+    }
+
+    private static String shiftLines(String text, int columns, boolean lineStart, boolean shiftLastLine) {
+        String[] lines = text.split("\n", -1);
+        StringBuilder sb = new StringBuilder(text.length());
+        for (int i = 0; i < lines.length; i++) {
+            String line = lines[i];
+            boolean last = i == lines.length - 1;
+            if (i > 0) {
+                sb.append('\n');
+            }
+            //empty lines are kept empty, the last line of a prefix is the indentation of the element itself
+            if ((i > 0 || lineStart) && (!line.isEmpty() || last && shiftLastLine)) {
+                if (columns > 0) {
+                    sb.append(" ".repeat(columns));
+                } else {
+                    int spaces = 0;
+                    while (spaces < -columns && spaces < line.length() && line.charAt(spaces) == ' ') {
+                        spaces++;
+                    }
+                    line = line.substring(spaces);
+                }
+            }
+            sb.append(line);
+        }
+        return sb.toString();
+    }
+
     //--------------- typeCast helper --------------------------------
 
     public static J createTypeCast(Object type, Expression arg) {
@@ -52,6 +52,8 @@ public class CamelAPIsRecipe extends Recipe {
             = "org.apache.camel.Exchange removeProperty(org.apache.camel.ExchangePropertyKey)";
     private static final String M_EXCHANGE_SET_PROPERTY = "org.apache.camel.Exchange setProperty(..)";
     private static final String M_CATALOG_ARCHETYPE_AS_XML = "org.apache.camel.catalog.CamelCatalog archetypeCatalogAsXml()";
+    //comments do not change types of the elements, matchers still match the commented elements in the next cycle
+    private static final String RULE_REMOVED_API = "camel40.removed-api-comment";
 
     @Override
     public String getDisplayName() {
@@ -73,6 +75,9 @@ public class CamelAPIsRecipe extends Recipe {
             @Override
             protected J.Import doVisitImport(J.Import _import, ExecutionContext ctx) {
                 J.Import im = super.doVisitImport(_import, ctx);
+                if (RecipesUtil.isMigrated(im, RULE_REMOVED_API)) {
+                    return im;
+                }
 
                 //Removed Discard and DiscardOldest from org.apache.camel.util.concurrent.ThreadPoolRejectedPolicy.
                 if (im.isStatic() && im.getTypeName().equals("org.apache.camel.util.concurrent.ThreadPoolRejectedPolicy") &&
@@ -82,7 +87,7 @@ public class CamelAPIsRecipe extends Recipe {
                     Comment comment = RecipesUtil.createMultinlineComment(String.format(
                             "'ThreadPoolRejectedPolicy.%s' has been removed, consider using 'ThreadPoolRejectedPolicy.Abort'.",
                             im.getQualid().getSimpleName()));
-                    im = im.withComments(Collections.singletonList(comment));
+                    im = RecipesUtil.markMigrated(im.withComments(Collections.singletonList(comment)), RULE_REMOVED_API);
 
                 }
                 //Removed org.apache.camel.builder.SimpleBuilder.
@@ -90,7 +95,7 @@ public class CamelAPIsRecipe extends Recipe {
                 else if ("org.apache.camel.builder.SimpleBuilder".equals(im.getTypeName())) {
                     Comment comment = RecipesUtil.createMultinlineComment(String.format(
                             "'%s' has been removed, (class was used internally).", SimpleBeanInfo.class.getCanonicalName()));
-                    im = im.withComments(Collections.singletonList(comment));
+                    im = RecipesUtil.markMigrated(im.withComments(Collections.singletonList(comment)), RULE_REMOVED_API);
 
                 }
 
@@ -131,6 +136,9 @@ public class CamelAPIsRecipe extends Recipe {
             @Override
             protected J.FieldAccess doVisitFieldAccess(J.FieldAccess fieldAccess, ExecutionContext ctx) {
                 J.FieldAccess fa = super.doVisitFieldAccess(fieldAccess, ctx);
+                if (RecipesUtil.isMigrated(fa, RULE_REMOVED_API)) {
+                    return fa;
+                }
                 //The org.apache.camel.ExchangePattern has removed InOptionalOut.
                 if ("InOptionalOut".equals(fieldAccess.getSimpleName()) && fa.getType() != null &&
                         fa.getType().isAssignableFrom(Pattern.compile("org.apache.camel.ExchangePattern"))) {
@@ -145,7 +153,7 @@ public class CamelAPIsRecipe extends Recipe {
                     Comment comment = RecipesUtil.createMultinlineComment(String.format(
                             "'ThreadPoolRejectedPolicy.%s' has been removed, consider using 'ThreadPoolRejectedPolicy.Abort'.",
                             fa.getSimpleName()));
-                    fa = fa.withComments(Collections.singletonList(comment));
+                    fa = RecipesUtil.markMigrated(fa.withComments(Collections.singletonList(comment)), RULE_REMOVED_API);
 
                 }
 
@@ -155,6 +163,9 @@ public class CamelAPIsRecipe extends Recipe {
             @Override
             protected J.MethodDeclaration doVisitMethodDeclaration(J.MethodDeclaration method, ExecutionContext ctx) {
                 J.MethodDeclaration md = super.doVisitMethodDeclaration(method, ctx);
+                if (RecipesUtil.isMigrated(md, RULE_REMOVED_API)) {
+                    return md;
+                }
 
                 //Method 'configure' was removed from `org.apache.camel.main.MainListener`, consider using 'beforeConfigure' or 'afterConfigure'.
                 if ("configure".equals(md.getSimpleName()) &&
@@ -169,7 +180,7 @@ public class CamelAPIsRecipe extends Recipe {
                     Comment comment = RecipesUtil.createMultinlineComment(String.format(
                             " Method '%s' was removed from `%s`, consider using 'beforeConfigure' or 'afterConfigure'. ",
                             md.getSimpleName(), "org.apache.camel.main.MainListener"));
-                    md = md.withComments(Collections.singletonList(comment));
+                    md = RecipesUtil.markMigrated(md.withComments(Collections.singletonList(comment)), RULE_REMOVED_API);
                 }
 
                 return md;
@@ -239,6 +250,9 @@ public class CamelAPIsRecipe extends Recipe {
             @Override
             protected J.MethodInvocation doVisitMethodInvocation(J.MethodInvocation method, ExecutionContext ctx) {
                 J.MethodInvocation mi = super.doVisitMethodInvocation(method, ctx);
+                if (RecipesUtil.isMigrated(mi, RULE_REMOVED_API)) {
+                    return mi;
+                }
 
                 //if adapt method invocation is used as a select for another method invocation, it is replaced
                 if (mi.getSelect() != null && adaptCache.containsKey(mi.getSelect().getId())) {
@@ -250,12 +264,13 @@ public class CamelAPIsRecipe extends Recipe {
                             Tree.randomId(), mi.getPrefix(), Markers.EMPTY, Collections.emptyList(),
                             "/* " + mi.getSimpleName() + " has been removed, consider getEndpointRegistry() instead */",
                             mi.getType(), null));
+                    mi = RecipesUtil.markMigrated(mi, RULE_REMOVED_API);
                 }
                 // ProducerTemplate.asyncCallback() has been replaced by 'asyncSend(') or 'asyncRequest()'
                 else if (getMethodMatcher(M_PRODUCER_TEMPLATE_ASYNC_CALLBACK).matches(mi, false)) {
                     Comment comment = RecipesUtil.createMultinlineComment(String.format(
                             " Method '%s()' has been replaced by 'asyncSend()' or 'asyncRequest()'.", mi.getSimpleName()));
-                    mi = mi.withComments(Collections.singletonList(comment));
+                    mi = RecipesUtil.markMigrated(mi.withComments(Collections.singletonList(comment)), RULE_REMOVED_API);
                 }
                 //context.adapt(ModelCamelContext.class) -> ((ModelCamelContext) context)
                 else if (getMethodMatcher(M_CONTEXT_ADAPT).matches(mi, false)) {
@@ -265,8 +280,9 @@ public class CamelAPIsRecipe extends Recipe {
                         J.ControlParentheses<?> cp
                                 = RecipesUtil.createParentheses(RecipesUtil.createTypeCast(type, mi.getSelect()));
                         //put the type cast into cache in case it is replaced lately
-                        mi = mi.withComments(
-                                Collections.singletonList(RecipesUtil.createMultinlineComment("Method 'adapt' was removed.")));
+                        mi = RecipesUtil.markMigrated(mi.withComments(
+                                Collections.singletonList(RecipesUtil.createMultinlineComment("Method 'adapt' was removed."))),
+                                RULE_REMOVED_API);
                         adaptCache.put(method.getId(), cp);
                     } else if (mi.getType().isAssignableFrom(Pattern.compile("org.apache.camel.ExtendedCamelContext"))) {
                         mi = mi.withName(mi.getName().withSimpleName("getCamelContextExtension"))
@@ -305,19 +321,22 @@ public class CamelAPIsRecipe extends Recipe {
                 }
                 //'org.apache.camel.catalogCamelCatalog.archetypeCatalogAsXml()` has been removed
                 else if (getMethodMatcher(M_CATALOG_ARCHETYPE_AS_XML).matches(mi, false)) {
-                    mi = mi.withComments(Collections.singletonList(
-                            RecipesUtil.createMultinlineComment(" Method '" + mi.getSimpleName() + "' has been removed. ")));
+                    mi = RecipesUtil.markMigrated(mi.withComments(Collections.singletonList(
+                            RecipesUtil.createMultinlineComment(" Method '" + mi.getSimpleName() + "' has been removed. "))),
+                            RULE_REMOVED_API);
                 }
                 //context().setDumpRoutes(true); -> context().setDumpRoutes("xml");(or "yaml")
                 else if (getMethodMatcher(M_CONTEXT_SET_DUMP_ROUTES).matches(mi, false)) {
-                    mi = mi.withComments(Collections.singletonList(RecipesUtil.createMultinlineComment(
-                            " Method '" + mi.getSimpleName() + "' accepts String parameter ('xml' or 'yaml' or 'false'). ")));
+                    mi = RecipesUtil.markMigrated(mi.withComments(Collections.singletonList(RecipesUtil.createMultinlineComment(
+                            " Method '" + mi.getSimpleName() + "' accepts String parameter ('xml' or 'yaml' or 'false'). "))),
+                            RULE_REMOVED_API);
                 }
                 //Boolean isDumpRoutes(); -> getDumpRoutes(); with returned type String
                 else if (getMethodMatcher(M_CONTEXT_IS_DUMP_ROUTES).matches(mi, false)) {
                     mi = mi.withName(mi.getName().withSimpleName("getDumpRoutes"))
                             .withComments(Collections.singletonList(RecipesUtil.createMultinlineComment(
                                     " Method 'getDumpRoutes' returns String value ('xml' or 'yaml' or 'false'). ")));
+                    mi = RecipesUtil.markMigrated(mi, RULE_REMOVED_API);
                 }
                 // (CamelRuntimeCatalog) context.getExtension(RuntimeCamelCatalog.class) -> context.getCamelContextExtension().getContextPlugin(RuntimeCamelCatalog.class);
                 else if (getMethodMatcher(MATCHER_CONTEXT_GET_EXT).matches(mi, false)) {
@@ -17,16 +17,15 @@
 package org.apache.camel.upgrade.camel40.xml;
 
 import org.apache.camel.upgrade.AbstractCamelXmlVisitor;
+import org.apache.camel.upgrade.CamelXPathIndex;
+import org.apache.camel.upgrade.RecipesUtil;
 import org.jspecify.annotations.Nullable;
 import org.openrewrite.ExecutionContext;
 import org.openrewrite.Recipe;
-import org.openrewrite.Tree;
 import org.openrewrite.TreeVisitor;
-import org.openrewrite.internal.ListUtils;
-import org.openrewrite.marker.Markers;
-import org.openrewrite.xml.XPathMatcher;
 import org.openrewrite.xml.tree.Xml;
 
+import java.util.Collection;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -73,9 +72,9 @@ import java.util.stream.Stream;
 public class CircuitBreakerXmlDslRecipe extends Recipe {
 
     private final static String RESILIENCE4J_XPATH = "*/circuitBreaker/resilience4jConfiguration";
-    private static final XPathMatcher RESILIENCE4J_MATCHER = new XPathMatcher(RESILIENCE4J_XPATH);
 
-    private static final Map<String, XPathMatcher> ATTRIBUTE_MATCHERS = Stream.of(
+    //attribute name -> xpath of the child tag holding its value
+    private static final Map<String, String> ATTRIBUTE_XPATHS = Stream.of(
             "bulkheadEnabled",
             "bulkheadMaxConcurrentCalls",
             "bulkheadMaxWaitDuration",
@@ -85,10 +84,13 @@ public class CircuitBreakerXmlDslRecipe extends Recipe {
             "timeoutCancelRunningFuture")
             .collect(Collectors.toMap(
                     k -> k,
-                    k -> new XPathMatcher(RESILIENCE4J_XPATH + "/" + k),
+                    k -> RESILIENCE4J_XPATH + "/" + k,
                     (v1, v2) -> v1 //conflict can not happen
             ));
 
+    private static final CamelXPathIndex XPATH_INDEX = CamelXPathIndex.of(Stream.concat(
+            Stream.of(RESILIENCE4J_XPATH), ATTRIBUTE_XPATHS.values().stream()).collect(Collectors.toList()));
+
     @Override
     public String getDisplayName() {
         return "Camel XMl DSL Circuit Breaker changes";
@@ -101,43 +103,37 @@ public class CircuitBreakerXmlDslRecipe extends Recipe {
 
     @Override
     public TreeVisitor<?, ExecutionContext> getVisitor() {
-        return new AbstractCamelXmlVisitor() {
+        return new AbstractCamelXmlVisitor(XPATH_INDEX) {
+
+            @Override
+            protected Collection<String> requiredTags() {
+                return List.of("circuitBreaker");
+            }
 
             @Override
             public  Xml.@Nullable Tag doVisitTag(final Xml.Tag tag, final ExecutionContext ctx) {
                 Xml.Tag t = super.doVisitTag(tag, ctx);
 
-                if (RESILIENCE4J_MATCHER.matches(getCursor())) {
+                if (matchesXPath(RESILIENCE4J_XPATH)) {
                     Map<String, String> values = ctx.pollMessage(RESILIENCE4J_XPATH);
 
                     if (values != null && !values.isEmpty()) {
-                        //create list of values
-                        List<Xml.Attribute> toAdd = values.entrySet().stream()
-                                .map(e -> autoFormat(new Xml.Attribute(
-                                        Tree.randomId(), "", Markers.EMPTY,
-                                        new Xml.Ident(Tree.randomId(), "", Markers.EMPTY, e.getKey()),
-                                        "",
-                                        autoFormat(new Xml.Attribute.Value(
-                                                Tree.randomId(), "", Markers.EMPTY,
-                                                Xml.Attribute.Value.Quote.Double,
-                                                e.getValue()), ctx)),
-                                        ctx))
-                                .collect(Collectors.toList());
-
-                        return t.withAttributes(ListUtils.concatAll(t.getAttributes(), toAdd));
+                        for (Map.Entry<String, String> e : values.entrySet()) {
+                            t = RecipesUtil.addXmlAttribute(t, e.getKey(), e.getValue());
+                        }
+                        return t;
                     }
                 }
 
-                for (Map.Entry<String, XPathMatcher> entry : ATTRIBUTE_MATCHERS.entrySet()) {
-                    if (entry.getValue().matches(getCursor())) {
-                        if (t.getValue().isPresent() && !t.getValue().get().isEmpty()) {
-                            Map<String, String> values = ctx.getMessage(RESILIENCE4J_XPATH, new LinkedHashMap<>());
-                            values.put(entry.getKey(), t.getValue().get());
-                            ctx.putMessage(RESILIENCE4J_XPATH, values);
-                        }
-                        //skip tag
-                        return null;
+                String attributeXPath = ATTRIBUTE_XPATHS.get(t.getName());
+                if (attributeXPath != null && matchesXPath(attributeXPath)) {
+                    if (t.getValue().isPresent() && !t.getValue().get().isEmpty()) {
+                        Map<String, String> values = ctx.getMessage(RESILIENCE4J_XPATH, new LinkedHashMap<>());
+                        values.put(t.getName(), t.getValue().get());
+                        ctx.putMessage(RESILIENCE4J_XPATH, values);
                     }
+                    //skip tag
+                    return null;
                 }
 
                 return t;
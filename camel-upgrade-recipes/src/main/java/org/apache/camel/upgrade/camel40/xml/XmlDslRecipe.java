@@ -17,16 +17,17 @@
 package org.apache.camel.upgrade.camel40.xml;
 
 import org.apache.camel.upgrade.AbstractCamelXmlVisitor;
+import org.apache.camel.upgrade.CamelXPathIndex;
+import org.apache.camel.upgrade.RecipesUtil;
 import org.jspecify.annotations.Nullable;
 import org.openrewrite.ExecutionContext;
 import org.openrewrite.Recipe;
-import org.openrewrite.Tree;
 import org.openrewrite.TreeVisitor;
-import org.openrewrite.internal.ListUtils;
-import org.openrewrite.marker.Markers;
-import org.openrewrite.xml.XPathMatcher;
 import org.openrewrite.xml.tree.Xml;
 
+import java.util.Collection;
+import java.util.List;
+
 /**
  * <p>
  * <a href="https://camel.apache.org/manual/camel-4-migration-guide.html#_xml_dsl">Camel Migration guide</a>
@@ -54,8 +55,9 @@ import org.openrewrite.xml.tree.Xml;
  */
 public class XmlDslRecipe extends Recipe {
 
-    private static final XPathMatcher ROUTE_DESCRIPTION_XPATH_MATCHER = new XPathMatcher("/routes/route/description");
-    private static final XPathMatcher ROUTE_XPATH_MATCHER = new XPathMatcher("/routes/route");
+    private static final String ROUTE_DESCRIPTION_XPATH = "/routes/route/description";
+    private static final String ROUTE_XPATH = "/routes/route";
+    private static final CamelXPathIndex XPATH_INDEX = CamelXPathIndex.of(ROUTE_DESCRIPTION_XPATH, ROUTE_XPATH);
 
     @Override
     public String getDisplayName() {
@@ -69,28 +71,24 @@ public class XmlDslRecipe extends Recipe {
 
     @Override
     public TreeVisitor<?, ExecutionContext> getVisitor() {
-        return new AbstractCamelXmlVisitor() {
+        return new AbstractCamelXmlVisitor(XPATH_INDEX) {
+
+            @Override
+            protected Collection<String> requiredTags() {
+                return List.of("description");
+            }
 
             @Override
             public  Xml.@Nullable Tag doVisitTag(final Xml.Tag tag, final ExecutionContext ctx) {
                 Xml.Tag t = super.doVisitTag(tag, ctx);
 
-                if (ROUTE_XPATH_MATCHER.matches(getCursor())) {
+                if (matchesXPath(ROUTE_XPATH)) {
                     String d = ctx.pollMessage("description");
                     if (d != null) {
-                        return t.withAttributes(ListUtils.concat(t.getAttributes(),
-                                autoFormat(new Xml.Attribute(
-                                        Tree.randomId(), "", Markers.EMPTY,
-                                        new Xml.Ident(Tree.randomId(), "", Markers.EMPTY, "description"),
-                                        "",
-                                        autoFormat(new Xml.Attribute.Value(
-                                                Tree.randomId(), "", Markers.EMPTY,
-                                                Xml.Attribute.Value.Quote.Double,
-                                                d), ctx)),
-                                        ctx)));
+                        return RecipesUtil.addXmlAttribute(t, "description", d);
                     }
                 }
-                if (ROUTE_DESCRIPTION_XPATH_MATCHER.matches(getCursor())) {
+                if (matchesXPath(ROUTE_DESCRIPTION_XPATH)) {
                     //save description into context for parent
                     t.getValue().ifPresent(s -> ctx.putMessage("description", s));
                     //skip tag
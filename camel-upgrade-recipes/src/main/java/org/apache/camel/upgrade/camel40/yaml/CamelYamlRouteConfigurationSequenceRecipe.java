@@ -17,28 +17,28 @@
 package org.apache.camel.upgrade.camel40.yaml;
 
 import org.apache.camel.upgrade.AbstractCamelYamlVisitor;
+import org.apache.camel.upgrade.CamelJsonPathIndex;
 import org.apache.camel.upgrade.RecipesUtil;
 import org.openrewrite.ExecutionContext;
 import org.openrewrite.Preconditions;
 import org.openrewrite.Recipe;
 import org.openrewrite.TreeVisitor;
-import org.openrewrite.yaml.JsonPathMatcher;
-import org.openrewrite.yaml.format.IndentsVisitor;
-import org.openrewrite.yaml.style.IndentsStyle;
+import org.openrewrite.internal.ListUtils;
 import org.openrewrite.yaml.tree.Yaml;
 
-import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.stream.Collectors;
 
-import static org.openrewrite.Tree.randomId;
-
 /**
  * Camel API changes requires several changes in YAML route definition. Route-configuration children sequence is
  * replaced with mappingEntry (with special migration of "on-exception")
  */
 public class CamelYamlRouteConfigurationSequenceRecipe extends Recipe {
 
+    private static final String ROUTE_CONFIGURATION_PATH = "$.route-configuration";
+    private static final CamelJsonPathIndex JSON_PATH_INDEX = CamelJsonPathIndex.of(ROUTE_CONFIGURATION_PATH);
+
     @Override
     public String getDisplayName() {
         return "Camel Yaml changes regarding route-configuration children";
@@ -52,10 +52,14 @@ public class CamelYamlRouteConfigurationSequenceRecipe extends Recipe {
     @Override
     public TreeVisitor<?, ExecutionContext> getVisitor() {
 
-        return Preconditions.check(RecipesUtil.camelYamlDslPrecondition(), new AbstractCamelYamlVisitor() {
+        return Preconditions.check(RecipesUtil.camelYamlDslPrecondition(), new AbstractCamelYamlVisitor(JSON_PATH_INDEX) {
+
+            @Override
+            protected Collection<String> requiredKeys() {
+                return List.of("route-configuration");
+            }
 
             private Yaml.Sequence sequenceToReplace;
-            private boolean indentRegistered = false;
 
             @Override
             protected void clearLocalCache() {
@@ -67,7 +71,7 @@ public class CamelYamlRouteConfigurationSequenceRecipe extends Recipe {
                 Yaml.Sequence s = super.doVisitSequence(sequence, ctx);
 
                 //if there is a sequence in a route-configuration, it has to be replaced with mapping
-                if (new JsonPathMatcher("$.route-configuration").matches(getCursor().getParent())) {
+                if (matchesJsonPath(ROUTE_CONFIGURATION_PATH)) {
                     this.sequenceToReplace = s;
                 }
                 return s;
@@ -79,39 +83,20 @@ public class CamelYamlRouteConfigurationSequenceRecipe extends Recipe {
 
                 //if current mapping contains an entry with sequence belonging to route-configuration, remove the sequence
                 if (e.getValue() == sequenceToReplace) {
-                    List<Yaml.Mapping.Entry> entries = new ArrayList<>();
-                    for (Yaml.Sequence.Entry sEntry : sequenceToReplace.getEntries()) {
-
-                        if (sEntry.getBlock() instanceof Yaml.Mapping) {
-                            ((Yaml.Mapping) sEntry.getBlock()).getEntries().forEach(y -> {
-                                //if entry is on-exception from the route-configuration sequence, it has to be handled differently
-                                if ("on-exception".equals(y.getKey().getValue())) {
-                                    Yaml.Sequence newSequence = sequenceToReplace.copyPaste();
-                                    //keep only on-exception item
-                                    List<Yaml.Sequence.Entry> filteredEntries = newSequence.getEntries().stream()
-                                            .filter(se -> ((Yaml.Mapping) se.getBlock()).getEntries().stream()
-                                                    .filter(me -> "on-exception".equals(me.getKey().getValue())).findFirst()
-                                                    .isPresent())
-                                            .collect(Collectors.toList());
-
-                                    entries.add(y.withValue(newSequence.withEntries(filteredEntries)).withPrefix("\n"));
-                                } else {
-                                    entries.add(y.withPrefix("\n"));
-                                }
-                            });
-                        }
-                    }
-                    Yaml.Mapping.Entry resultr = e.withValue(new Yaml.Mapping(
-                            randomId(), sequenceToReplace.getMarkers(), sequenceToReplace.getOpeningBracketPrefix(), entries,
-                            null, null, null));
-
-                    if (!indentRegistered) {
-                        indentRegistered = true;
-                        //TODO might probably change indent in original file, may this happen?
-                        doAfterVisit(new IndentsVisitor(new IndentsStyle(2), null));
-                    }
-
-                    return resultr;
+                    //entries of the new mapping take the place of the dashes, only their lines are indented again
+                    int sequenceIndent = RecipesUtil.yamlIndent(sequenceToReplace);
+                    Yaml.Mapping mapping = RecipesUtil.sequenceToMapping(sequenceToReplace,
+                            sequenceIndent < 0 ? 2 : sequenceIndent);
+
+                    //on-exception keeps the sequence, with on-exception items only
+                    //sequence stays on its place, it is valid on the same column as its key
+                    Yaml.Sequence onExceptions = sequenceToReplace.withEntries(sequenceToReplace.getEntries().stream()
+                            .filter(se -> ((Yaml.Mapping) se.getBlock()).getEntries().stream()
+                                    .anyMatch(me -> "on-exception".equals(me.getKey().getValue())))
+                            .collect(Collectors.toList()));
+
+                    return e.withValue(mapping.withEntries(ListUtils.map(mapping.getEntries(),
+                            y -> "on-exception".equals(y.getKey().getValue()) ? y.withValue(onExceptions) : y)));
                 }
                 return e;
             }
@@ -17,19 +17,17 @@
 package org.apache.camel.upgrade.camel40.yaml;
 
 import org.apache.camel.upgrade.AbstractCamelYamlVisitor;
+import org.apache.camel.upgrade.CamelJsonPathIndex;
 import org.apache.camel.upgrade.RecipesUtil;
 import org.jspecify.annotations.Nullable;
 import org.openrewrite.ExecutionContext;
 import org.openrewrite.Preconditions;
 import org.openrewrite.Recipe;
 import org.openrewrite.TreeVisitor;
-import org.openrewrite.internal.ListUtils;
-import org.openrewrite.yaml.JsonPathMatcher;
 import org.openrewrite.yaml.YamlIsoVisitor;
-import org.openrewrite.yaml.format.IndentsVisitor;
-import org.openrewrite.yaml.style.IndentsStyle;
 import org.openrewrite.yaml.tree.Yaml;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -60,8 +58,9 @@ import java.util.List;
 public class CamelYamlStepsInFromRecipe extends Recipe {
 
     private static final String[] PATHS_TO_PRE_CHECK = new String[] { "route.from" };
-    private static final JsonPathMatcher MATCHER_WITHOUT_ROUTE = new JsonPathMatcher("$.steps");
-    private static final JsonPathMatcher MATCHER_WITH_ROUTE = new JsonPathMatcher("$.route.steps");
+    private static final String PATH_WITHOUT_ROUTE = "$.steps";
+    private static final String PATH_WITH_ROUTE = "$.route.steps";
+    private static final CamelJsonPathIndex JSON_PATH_INDEX = CamelJsonPathIndex.of(PATH_WITHOUT_ROUTE, PATH_WITH_ROUTE);
 
     @Override
     public String getDisplayName() {
@@ -76,10 +75,16 @@ public class CamelYamlStepsInFromRecipe extends Recipe {
     @Override
     public TreeVisitor<?, ExecutionContext> getVisitor() {
 
-        return Preconditions.check(RecipesUtil.camelYamlDslPrecondition(), new AbstractCamelYamlVisitor() {
+        return Preconditions.check(RecipesUtil.camelYamlDslPrecondition(), new AbstractCamelYamlVisitor(JSON_PATH_INDEX) {
+            @Override
+            protected Collection<String> requiredKeys() {
+                return List.of("steps");
+            }
+
             //both variables has to be set to null, to mark the migration done
             Yaml.Mapping from = null;
             Yaml.Mapping.Entry steps = null;
+            int stepsIndent = -1;
 
             @Override
             protected void clearLocalCache() {
@@ -90,8 +95,9 @@ public class CamelYamlStepsInFromRecipe extends Recipe {
             public  Yaml.Mapping.@Nullable Entry doVisitMappingEntry(Yaml.Mapping.Entry entry, ExecutionContext ctx) {
                 Yaml.Mapping.Entry e = super.doVisitMappingEntry(entry, ctx);
 
-                if (steps == null && (MATCHER_WITH_ROUTE.matches(getCursor()) || MATCHER_WITHOUT_ROUTE.matches(getCursor()))) {
+                if (steps == null && (matchesJsonPath(PATH_WITH_ROUTE) || matchesJsonPath(PATH_WITHOUT_ROUTE))) {
                     steps = e;
+                    stepsIndent = RecipesUtil.yamlIndent(getCursor().getParentTreeCursor().<Yaml.Mapping>getValue());
                     if (from != null) {
                         moveSteps();
                     }
@@ -124,15 +130,13 @@ public class CamelYamlStepsInFromRecipe extends Recipe {
                         Yaml.Mapping m = super.visitMapping(mapping, ctx);
 
                         if (m == from) {
-                            m = m.withEntries(ListUtils.concat(m.getEntries(), steps.copyPaste().withPrefix("\n")));
+                            //steps are indented as the entries of from, the rest of the document is untouched
+                            m = RecipesUtil.moveEntry(m, steps, stepsIndent < 0 ? 0 : stepsIndent);
                         }
 
                         return m;
                     }
                 });
-
-                //TODO might probably change indent in original file, may this happen?
-                doAfterVisit(new IndentsVisitor(new IndentsStyle(2), null));
             }
         });
     }
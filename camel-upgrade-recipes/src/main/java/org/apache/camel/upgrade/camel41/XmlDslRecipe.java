@@ -17,15 +17,16 @@
 package org.apache.camel.upgrade.camel41;
 
 import org.apache.camel.upgrade.AbstractCamelXmlVisitor;
+import org.apache.camel.upgrade.CamelXPathIndex;
 import org.openrewrite.ExecutionContext;
 import org.openrewrite.Recipe;
 import org.openrewrite.Tree;
 import org.openrewrite.TreeVisitor;
 import org.openrewrite.internal.ListUtils;
 import org.openrewrite.marker.Markers;
-import org.openrewrite.xml.XPathMatcher;
 import org.openrewrite.xml.tree.Xml;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -57,7 +58,8 @@ import java.util.Optional;
  */
 public class XmlDslRecipe extends Recipe {
 
-    private static final XPathMatcher XML_BEAN_MATCHER = new XPathMatcher("*/bean");
+    private static final String XML_BEAN_XPATH = "*/bean";
+    private static final CamelXPathIndex XPATH_INDEX = CamelXPathIndex.of(XML_BEAN_XPATH);
 
     @Override
     public String getDisplayName() {
@@ -71,13 +73,18 @@ public class XmlDslRecipe extends Recipe {
 
     @Override
     public TreeVisitor<?, ExecutionContext> getVisitor() {
-        return new AbstractCamelXmlVisitor() {
+        return new AbstractCamelXmlVisitor(XPATH_INDEX) {
+
+            @Override
+            protected Collection<String> requiredTags() {
+                return List.of("bean");
+            }
 
             @Override
             public Xml.Tag doVisitTag(final Xml.Tag tag, final ExecutionContext ctx) {
                 Xml.Tag t = super.doVisitTag(tag, ctx);
 
-                if (XML_BEAN_MATCHER.matches(getCursor()) && t.getChild("script").isPresent()) {
+                if (matchesXPath(XML_BEAN_XPATH) && t.getChild("script").isPresent()) {
                     //type ans beanType has to be present in the attributes
                     //and their values has to be gathered
                     Optional<Xml.Attribute> typeAttr
@@ -26,6 +26,7 @@ import org.openrewrite.TreeVisitor;
 import org.openrewrite.yaml.JsonPathMatcher;
 import org.openrewrite.yaml.tree.Yaml;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -76,6 +77,11 @@ public class YamlDslRecipe extends Recipe {
 
         return Preconditions.check(RecipesUtil.camelYamlDslPrecondition(), new AbstractCamelYamlVisitor() {
 
+            @Override
+            protected Collection<String> requiredKeys() {
+                return List.of("beans");
+            }
+
             @Override
             protected void clearLocalCache() {
                 //nothing to do
@@ -107,10 +113,10 @@ public class YamlDslRecipe extends Recipe {
 
                         //modify the current entry
                         if ("type".equals(e.getKey().getValue())) {
-                            return e.withKey(((Yaml.Scalar) entry.getKey().copyPaste()).withValue("scriptLanguage"));
+                            return RecipesUtil.renameKey(e, "scriptLanguage");
                         }
                         if ("beanType".equals(e.getKey().getValue())) {
-                            return e.withKey(((Yaml.Scalar) entry.getKey().copyPaste()).withValue("type"));
+                            return RecipesUtil.renameKey(e, "type");
                         }
                     }
                 }
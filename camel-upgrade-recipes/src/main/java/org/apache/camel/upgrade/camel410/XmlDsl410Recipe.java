@@ -17,12 +17,15 @@
 package org.apache.camel.upgrade.camel410;
 
 import org.apache.camel.upgrade.AbstractCamelXmlVisitor;
+import org.apache.camel.upgrade.CamelXPathIndex;
+import org.apache.camel.upgrade.CamelXmlStreamRewriter;
 import org.openrewrite.ExecutionContext;
 import org.openrewrite.Recipe;
 import org.openrewrite.TreeVisitor;
-import org.openrewrite.xml.XPathMatcher;
 import org.openrewrite.xml.tree.Xml;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -33,11 +36,13 @@ import java.util.Map;
  */
 public class XmlDsl410Recipe extends Recipe {
 
-    private static final Map<XPathMatcher, String> transformations = Map.of(
-            new XPathMatcher("//intercept/when"), "onWhen",
-            new XPathMatcher("//interceptSendToEndpoint/when"), "onWhen"
+    private static final Map<String, String> transformations = Map.of(
+            "//intercept/when", "onWhen",
+            "//interceptSendToEndpoint/when", "onWhen"
     );
 
+    private static final CamelXPathIndex XPATH_INDEX = CamelXPathIndex.of(List.copyOf(transformations.keySet()));
+
     @Override
     public String getDisplayName() {
         return "Camel XMl DSL changes";
@@ -50,7 +55,16 @@ public class XmlDsl410Recipe extends Recipe {
 
     @Override
     public TreeVisitor<?, ExecutionContext> getVisitor() {
-        return new AbstractCamelXmlVisitor() {
+        //files excluded from xml parsing (e.g. huge route files) are migrated by the streaming rewriter
+        CamelXmlStreamRewriter streamRewriter = new CamelXmlStreamRewriter(XPATH_INDEX);
+        transformations.forEach((xPath, name) -> streamRewriter.onTag(xPath, tag -> tag.setName(name)));
+
+        return streamRewriter.withLstVisitor(new AbstractCamelXmlVisitor(XPATH_INDEX) {
+
+            @Override
+            protected Collection<String> requiredTags() {
+                return List.of("intercept", "interceptSendToEndpoint");
+            }
 
             @Override
             public Xml.Tag doVisitTag(final Xml.Tag tag, final ExecutionContext ctx) {
@@ -58,12 +72,12 @@ public class XmlDsl410Recipe extends Recipe {
 
                 //rename tags
                 return transformations.entrySet().stream()
-                        .filter(e -> e.getKey().matches(getCursor()))
+                        .filter(e -> matchesXPath(e.getKey()))
                         //rename tag
                         .map(e -> t.withName(e.getValue()))
                         .findAny()
                         .orElse(t);
             }
-        };
+        });
     }
 }
@@ -61,14 +61,14 @@ public class YamlDsl413Recipe extends Recipe {
                     String origValue = e.getKey().getValue();
                     String camelCase = RecipesUtil.kebabCaseToCamelCase(origValue);
                     if(camelCase != null && !camelCase.equals(origValue)) {
-                        return e.withKey(((Yaml.Scalar) e.getKey().copyPaste()).withValue(camelCase));
+                        return RecipesUtil.renameKey(e, camelCase);
                     }
                 }
 
                 String path = RecipesUtil.getProperty(getCursor());
                 //yaml fury marshal
                 if(path.endsWith("unmarshal.fury") || path.endsWith("marshal.fury")) {
-                    return e.withKey(((Yaml.Scalar) e.getKey().copyPaste()).withValue("fory"));
+                    return RecipesUtil.renameKey(e, "fory");
                 }
 
                 return e;
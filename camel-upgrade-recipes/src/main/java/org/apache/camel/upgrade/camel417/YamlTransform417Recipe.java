@@ -17,14 +17,17 @@
 package org.apache.camel.upgrade.camel417;
 
 import org.apache.camel.upgrade.AbstractCamelYamlVisitor;
+import org.apache.camel.upgrade.CamelJsonPathIndex;
 import org.apache.camel.upgrade.RecipesUtil;
 import org.openrewrite.ExecutionContext;
 import org.openrewrite.Preconditions;
 import org.openrewrite.Recipe;
 import org.openrewrite.TreeVisitor;
-import org.openrewrite.yaml.JsonPathMatcher;
 import org.openrewrite.yaml.tree.Yaml;
 
+import java.util.Collection;
+import java.util.List;
+
 /**
  * <p>
  * <a href="https://camel.apache.org/manual/camel-4x-upgrade-guide-4_17.html#_camel_core">camel-core for yaml</a>
@@ -42,12 +45,18 @@ public class YamlTransform417Recipe extends Recipe {
         return "Apache Camel YML DSL migration from version 4.16 o 4.17.";
     }
 
-    private static final JsonPathMatcher pathMatcher = new JsonPathMatcher("$..route..steps.transform");
+    private static final String TRANSFORM_PATH = "$..route..steps.transform";
+    private static final CamelJsonPathIndex JSON_PATH_INDEX = CamelJsonPathIndex.of(TRANSFORM_PATH);
 
     @Override
     public TreeVisitor<?, ExecutionContext> getVisitor() {
 
-         return Preconditions.check(RecipesUtil.camelYamlDslPrecondition(), new AbstractCamelYamlVisitor() {
+         return Preconditions.check(RecipesUtil.camelYamlDslPrecondition(), new AbstractCamelYamlVisitor(JSON_PATH_INDEX) {
+
+            @Override
+            protected Collection<String> requiredKeys() {
+                return List.of("transform");
+            }
 
             @Override
             protected void clearLocalCache() {
@@ -59,8 +68,8 @@ public class YamlTransform417Recipe extends Recipe {
                 Yaml.Mapping.Entry e = super.doVisitMappingEntry(entry, ctx);
 
                 //rename entry only if there is a child entry 'toType'
-                if(pathMatcher.matches(getCursor()) && ((Yaml.Mapping)entry.getValue()).getEntries().stream().anyMatch(en -> en.getKey().getValue().equals("toType"))) {
-                    e = entry.withKey(((Yaml.Scalar) entry.getKey().copyPaste()).withValue("transformDataType"));
+                if(matchesJsonPath(TRANSFORM_PATH) && ((Yaml.Mapping)entry.getValue()).getEntries().stream().anyMatch(en -> en.getKey().getValue().equals("toType"))) {
+                    e = RecipesUtil.renameKey(entry, "transformDataType");
                 }
 
                 return e;
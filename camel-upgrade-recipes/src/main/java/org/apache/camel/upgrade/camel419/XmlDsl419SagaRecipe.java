@@ -17,13 +17,15 @@
 package org.apache.camel.upgrade.camel419;
 
 import org.apache.camel.upgrade.AbstractCamelXmlVisitor;
+import org.apache.camel.upgrade.CamelXPathIndex;
+import org.apache.camel.upgrade.CamelXmlStreamRewriter;
 import org.openrewrite.ExecutionContext;
 import org.openrewrite.Recipe;
 import org.openrewrite.TreeVisitor;
 import org.openrewrite.internal.ListUtils;
-import org.openrewrite.xml.XPathMatcher;
 import org.openrewrite.xml.tree.Xml;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -36,7 +38,8 @@ import java.util.Optional;
  */
 public class XmlDsl419SagaRecipe extends Recipe {
 
-    private static final XPathMatcher SAGA_MATCHER = new XPathMatcher("//saga");
+    private static final String SAGA_XPATH = "//saga";
+    private static final CamelXPathIndex XPATH_INDEX = CamelXPathIndex.of(SAGA_XPATH);
 
     @Override
     public String getDisplayName() {
@@ -50,13 +53,25 @@ public class XmlDsl419SagaRecipe extends Recipe {
 
     @Override
     public TreeVisitor<?, ExecutionContext> getVisitor() {
-        return new AbstractCamelXmlVisitor() {
+        //files excluded from xml parsing (e.g. huge route files) are migrated by the streaming rewriter
+        CamelXmlStreamRewriter streamRewriter = new CamelXmlStreamRewriter(XPATH_INDEX)
+                .onElement(SAGA_XPATH, saga -> {
+                    convertStreamedChildElementToAttribute(saga, "compensation");
+                    convertStreamedChildElementToAttribute(saga, "completion");
+                });
+
+        return streamRewriter.withLstVisitor(new AbstractCamelXmlVisitor(XPATH_INDEX) {
+
+            @Override
+            protected Collection<String> requiredTags() {
+                return List.of("saga");
+            }
 
             @Override
             public Xml.Tag doVisitTag(final Xml.Tag tag, final ExecutionContext ctx) {
                 Xml.Tag t = super.doVisitTag(tag, ctx);
 
-                if (SAGA_MATCHER.matches(getCursor())) {
+                if (matchesXPath(SAGA_XPATH)) {
                     t = convertChildElementToAttribute(t, "compensation");
                     t = convertChildElementToAttribute(t, "completion");
                 }
@@ -114,6 +129,31 @@ public class XmlDsl419SagaRecipe extends Recipe {
 
                 return t;
             }
-        };
+        });
+    }
+
+    private static void convertStreamedChildElementToAttribute(CamelXmlStreamRewriter.Element saga, String elementName) {
+        Optional<CamelXmlStreamRewriter.Element> childElement = saga.getChildren().stream()
+                .filter(child -> elementName.equals(child.getName()))
+                .findFirst();
+
+        if (childElement.isEmpty()) {
+            return;
+        }
+
+        CamelXmlStreamRewriter.Element found = childElement.get();
+        String uri = found.getStartTag().getAttribute("uri");
+        if (uri == null && found.getValue().isPresent()) {
+            uri = found.getValue().get().trim();
+        }
+
+        if (uri == null || uri.isEmpty() || saga.getStartTag().getAttribute(elementName) != null) {
+            return;
+        }
+
+        saga.getChildren().stream()
+                .filter(child -> elementName.equals(child.getName()))
+                .forEach(saga::removeChild);
+        saga.getStartTag().setAttribute(elementName, uri);
     }
 }
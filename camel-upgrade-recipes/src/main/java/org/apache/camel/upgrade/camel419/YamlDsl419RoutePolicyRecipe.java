@@ -17,14 +17,17 @@
 package org.apache.camel.upgrade.camel419;
 
 import org.apache.camel.upgrade.AbstractCamelYamlVisitor;
+import org.apache.camel.upgrade.CamelJsonPathIndex;
 import org.apache.camel.upgrade.RecipesUtil;
 import org.openrewrite.ExecutionContext;
 import org.openrewrite.Preconditions;
 import org.openrewrite.Recipe;
 import org.openrewrite.TreeVisitor;
-import org.openrewrite.yaml.JsonPathMatcher;
 import org.openrewrite.yaml.tree.Yaml;
 
+import java.util.Collection;
+import java.util.List;
+
 /**
  * <p>
  * <a href="https://camel.apache.org/manual/camel-4x-upgrade-guide-4_19.html#_camel_yaml_io_camel_xml_io">YAML DSL</a>
@@ -33,7 +36,8 @@ import org.openrewrite.yaml.tree.Yaml;
  */
 public class YamlDsl419RoutePolicyRecipe extends Recipe {
 
-    private static final JsonPathMatcher ROUTE_POLICY_MATCHER = new JsonPathMatcher("$..route.routePolicy");
+    private static final String ROUTE_POLICY_PATH = "$..route.routePolicy";
+    private static final CamelJsonPathIndex JSON_PATH_INDEX = CamelJsonPathIndex.of(ROUTE_POLICY_PATH);
 
     @Override
     public String getDisplayName() {
@@ -48,7 +52,12 @@ public class YamlDsl419RoutePolicyRecipe extends Recipe {
     @Override
     public TreeVisitor<?, ExecutionContext> getVisitor() {
 
-        return Preconditions.check(RecipesUtil.camelYamlDslPrecondition(), new AbstractCamelYamlVisitor() {
+        return Preconditions.check(RecipesUtil.camelYamlDslPrecondition(), new AbstractCamelYamlVisitor(JSON_PATH_INDEX) {
+
+            @Override
+            protected Collection<String> requiredKeys() {
+                return List.of("routePolicy");
+            }
 
             @Override
             protected void clearLocalCache() {
@@ -60,12 +69,12 @@ public class YamlDsl419RoutePolicyRecipe extends Recipe {
                 Yaml.Mapping.Entry e = super.doVisitMappingEntry(entry, ctx);
 
                 // Check if this is routePolicy within a route definition
-                if (ROUTE_POLICY_MATCHER.matches(getCursor()) &&
+                if (matchesJsonPath(ROUTE_POLICY_PATH) &&
                     entry.getKey() instanceof Yaml.Scalar &&
                     "routePolicy".equals((entry.getKey()).getValue())) {
 
                     // Rename to routePolicyRef
-                    e = entry.withKey(((Yaml.Scalar) entry.getKey()).withValue("routePolicyRef"));
+                    e = RecipesUtil.renameKey(entry, "routePolicyRef");
                 }
 
                 return e;
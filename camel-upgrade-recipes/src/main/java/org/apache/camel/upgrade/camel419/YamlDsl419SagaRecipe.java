@@ -17,14 +17,17 @@
 package org.apache.camel.upgrade.camel419;
 
 import org.apache.camel.upgrade.AbstractCamelYamlVisitor;
+import org.apache.camel.upgrade.CamelJsonPathIndex;
 import org.apache.camel.upgrade.RecipesUtil;
 import org.openrewrite.ExecutionContext;
 import org.openrewrite.Preconditions;
 import org.openrewrite.Recipe;
 import org.openrewrite.TreeVisitor;
-import org.openrewrite.yaml.JsonPathMatcher;
 import org.openrewrite.yaml.tree.Yaml;
 
+import java.util.Collection;
+import java.util.List;
+
 /**
  * <p>
  * <a href="https://camel.apache.org/manual/camel-4x-upgrade-guide-4_19.html#_saga_eip">Saga EIP</a>
@@ -34,8 +37,9 @@ import org.openrewrite.yaml.tree.Yaml;
  */
 public class YamlDsl419SagaRecipe extends Recipe {
 
-    private static final JsonPathMatcher COMPENSATION_MATCHER = new JsonPathMatcher("$..saga.compensation");
-    private static final JsonPathMatcher COMPLETION_MATCHER = new JsonPathMatcher("$..saga.completion");
+    private static final String COMPENSATION_PATH = "$..saga.compensation";
+    private static final String COMPLETION_PATH = "$..saga.completion";
+    private static final CamelJsonPathIndex JSON_PATH_INDEX = CamelJsonPathIndex.of(COMPENSATION_PATH, COMPLETION_PATH);
 
     @Override
     public String getDisplayName() {
@@ -50,7 +54,12 @@ public class YamlDsl419SagaRecipe extends Recipe {
     @Override
     public TreeVisitor<?, ExecutionContext> getVisitor() {
 
-        return Preconditions.check(RecipesUtil.camelYamlDslPrecondition(), new AbstractCamelYamlVisitor() {
+        return Preconditions.check(RecipesUtil.camelYamlDslPrecondition(), new AbstractCamelYamlVisitor(JSON_PATH_INDEX) {
+
+            @Override
+            protected Collection<String> requiredKeys() {
+                return List.of("saga");
+            }
 
             @Override
             protected void clearLocalCache() {
@@ -62,19 +71,13 @@ public class YamlDsl419SagaRecipe extends Recipe {
                 Yaml.Mapping.Entry e = super.doVisitMappingEntry(entry, ctx);
 
                 // Check if this is compensation or completion with nested uri
-                if ((COMPENSATION_MATCHER.matches(getCursor()) || COMPLETION_MATCHER.matches(getCursor())) &&
+                if ((matchesJsonPath(COMPENSATION_PATH) || matchesJsonPath(COMPLETION_PATH)) &&
                     entry.getValue() instanceof Yaml.Mapping) {
 
-                    Yaml.Mapping nestedMapping = (Yaml.Mapping) entry.getValue();
-                    // Look for uri field in nested mapping
-                    for (Yaml.Mapping.Entry nestedEntry : nestedMapping.getEntries()) {
-                        if (nestedEntry.getKey() instanceof Yaml.Scalar &&
-                            "uri".equals(((Yaml.Scalar) nestedEntry.getKey()).getValue()) &&
-                            nestedEntry.getValue() instanceof Yaml.Scalar) {
-
-                            // Replace the nested mapping with just the uri scalar value
-                            return entry.withValue(nestedEntry.getValue());
-                        }
+                    // Replace the nested mapping with just the uri scalar value
+                    Yaml.Mapping.Entry hoisted = RecipesUtil.hoistChild(entry, "uri");
+                    if (hoisted != entry && hoisted.getValue() instanceof Yaml.Scalar) {
+                        return hoisted;
                     }
                 }
 
@@ -16,13 +16,17 @@
  */
 package org.apache.camel.upgrade.camel43;
 
+import org.apache.camel.upgrade.AbstractCamelXmlVisitor;
+import org.apache.camel.upgrade.CamelXPathIndex;
+import org.apache.camel.upgrade.CamelXmlStreamRewriter;
 import org.openrewrite.ExecutionContext;
 import org.openrewrite.Recipe;
 import org.openrewrite.TreeVisitor;
-import org.openrewrite.xml.XPathMatcher;
-import org.openrewrite.xml.XmlIsoVisitor;
 import org.openrewrite.xml.tree.Xml;
 
+import java.util.Collection;
+import java.util.List;
+
 /**
  * <p>
  * The configuration for batch and stream has been renamed from batch-config to batchConfig and stream-config to
@@ -59,9 +63,10 @@ import org.openrewrite.xml.tree.Xml;
  */
 public class CamelResequenceEIPXmlRecipe extends Recipe {
 
-    private static final XPathMatcher XML_RESEQUENCE_STREAM_CONFIG_MATCHER
-            = new XPathMatcher("*/route/resequence/stream-config");
-    private static final XPathMatcher XML_RESEQUENCE_BATCH_CONFIG_MATCHER = new XPathMatcher("*/route/resequence/batch-config");
+    private static final String XML_RESEQUENCE_STREAM_CONFIG_XPATH = "*/route/resequence/stream-config";
+    private static final String XML_RESEQUENCE_BATCH_CONFIG_XPATH = "*/route/resequence/batch-config";
+    private static final CamelXPathIndex XPATH_INDEX
+            = CamelXPathIndex.of(XML_RESEQUENCE_STREAM_CONFIG_XPATH, XML_RESEQUENCE_BATCH_CONFIG_XPATH);
 
     @Override
     public String getDisplayName() {
@@ -75,20 +80,30 @@ public class CamelResequenceEIPXmlRecipe extends Recipe {
 
     @Override
     public TreeVisitor<?, ExecutionContext> getVisitor() {
-        return new XmlIsoVisitor<>() {
+        //files excluded from xml parsing (e.g. huge route files) are migrated by the streaming rewriter
+        CamelXmlStreamRewriter streamRewriter = new CamelXmlStreamRewriter(XPATH_INDEX)
+                .onTag(XML_RESEQUENCE_STREAM_CONFIG_XPATH, tag -> tag.setName("streamConfig"))
+                .onTag(XML_RESEQUENCE_BATCH_CONFIG_XPATH, tag -> tag.setName("batchConfig"));
+
+        return streamRewriter.withLstVisitor(new AbstractCamelXmlVisitor(XPATH_INDEX) {
+
+            @Override
+            protected Collection<String> requiredTags() {
+                return List.of("resequence");
+            }
 
             @Override
-            public Xml.Tag visitTag(final Xml.Tag tag, final ExecutionContext ctx) {
-                Xml.Tag t = super.visitTag(tag, ctx);
+            public Xml.Tag doVisitTag(final Xml.Tag tag, final ExecutionContext ctx) {
+                Xml.Tag t = super.doVisitTag(tag, ctx);
 
-                if (XML_RESEQUENCE_STREAM_CONFIG_MATCHER.matches(getCursor())) {
+                if (matchesXPath(XML_RESEQUENCE_STREAM_CONFIG_XPATH)) {
                     t = t.withName("streamConfig");
-                } else if (XML_RESEQUENCE_BATCH_CONFIG_MATCHER.matches(getCursor())) {
+                } else if (matchesXPath(XML_RESEQUENCE_BATCH_CONFIG_XPATH)) {
                     t = t.withName("batchConfig");
                 }
 
                 return t;
             }
-        };
+        });
     }
 }
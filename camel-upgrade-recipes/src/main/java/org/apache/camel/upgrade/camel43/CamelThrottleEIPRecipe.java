@@ -34,6 +34,7 @@ public class CamelThrottleEIPRecipe extends Recipe {
     private static final String M_THROTTLE_PRIMITIVE = "org.apache.camel.model.ProcessorDefinition throttle(long)";
     private static final String M_THROTTLE_TIME_PERIOD_MILLIS_PRIMITIVE
             = "org.apache.camel.model.ThrottleDefinition timePeriodMillis(long)";
+    private static final String RULE_THROTTLE = "camel43.throttle-concurrent-requests";
     private static final String WARNING_COMMENT
             = " Throttle now uses the number of concurrent requests as the throttling measure instead of the number of requests per period.";
 
@@ -55,9 +56,13 @@ public class CamelThrottleEIPRecipe extends Recipe {
             protected J.MethodInvocation doVisitMethodInvocation(J.MethodInvocation method, ExecutionContext ctx) {
                 J.MethodInvocation mi = super.doVisitMethodInvocation(method, ctx);
 
+                //the comment check covers sources already migrated by a previous run
                 if (getMethodMatcher(M_THROTTLE_PRIMITIVE).matches(mi, false) &&
+                        !RecipesUtil.isMigrated(mi, RULE_THROTTLE) &&
                         !RecipesUtil.isCommentBeforeElement(mi, WARNING_COMMENT)) {
-                    mi = mi.withComments(Collections.singletonList(RecipesUtil.createMultinlineComment(WARNING_COMMENT)));
+                    mi = RecipesUtil.markMigrated(
+                            mi.withComments(Collections.singletonList(RecipesUtil.createMultinlineComment(WARNING_COMMENT))),
+                            RULE_THROTTLE);
                     getCursor().putMessage("throttle-migrated", true);
                 } else if (getMethodMatcher(M_THROTTLE_TIME_PERIOD_MILLIS_PRIMITIVE).matches(mi, false)) {
                     if (mi.getSelect() instanceof J.MethodInvocation) {
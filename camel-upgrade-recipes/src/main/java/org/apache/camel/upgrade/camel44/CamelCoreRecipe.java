@@ -63,6 +63,9 @@ public class CamelCoreRecipe extends Recipe {
     private static final String CONST_STOP_WATCH_LONG01 = "org.apache.camel.util.StopWatch <constructor>(long)";
     private static final String CONST_STOP_WATCH_LONG02 = "org.apache.camel.util.StopWatch <constructor>(java.lang.Long)";
 
+    private static final String RULE_PROPERTIES_LOOKUP = "camel44.properties-lookup-default-value";
+    private static final String RULE_STOP_WATCH = "camel44.stop-watch-constructor";
+
     @Override
     public String getDisplayName() {
         return "Camel Core changes";
@@ -86,11 +89,12 @@ public class CamelCoreRecipe extends Recipe {
                     //add call to getClock before call of getCreated
                     mi = mi.withName(mi.getName().withSimpleName("getClock().getCreated"));
                 } else if (getMethodMatcher(M_PROPERTIES_LOOKUP_LOOKUP).matches(mi, false) &&
-                        mi.getArguments().size() == 1) { //without the condition, the recipes is applied again
+                        mi.getArguments().size() == 1 && //without the condition, the recipes is applied again
+                        !RecipesUtil.isMigrated(mi, RULE_PROPERTIES_LOOKUP)) { //method type is not changed, the matcher still matches
                     //add default value null
                     List<Expression> arguments = new ArrayList<>(mi.getArguments());
                     arguments.add(RecipesUtil.createNullExpression());
-                    mi = mi.withArguments(arguments);
+                    mi = RecipesUtil.markMigrated(mi.withArguments(arguments), RULE_PROPERTIES_LOOKUP);
                 } else if (getMethodMatcher(M_EXPRESSION_CAUSE_JSONPATH1).matches(mi, false) ||
                         getMethodMatcher(M_EXPRESSION_CAUSE_JSONPATH2).matches(mi, false) ||
                         getMethodMatcher(M_EXPRESSION_CAUSE_TOKENIZE1).matches(mi, false) ||
@@ -119,11 +123,13 @@ public class CamelCoreRecipe extends Recipe {
                 //can not use org.openrewrite.java.DeleteMethodArgument, because it doesn't modify calls of constructors
                 if ((getMethodMatcher(CONST_STOP_WATCH_LONG01).matches(nc) ||
                         getMethodMatcher(CONST_STOP_WATCH_LONG02).matches(nc)) &&
-                        nc.getArguments().size() == 1) { //without the condition, the recipes is applied againorg.openrewrite.properties.ChangePropertyKey
+                        nc.getArguments().size() == 1 && //without the condition, the recipes is applied again
+                        !RecipesUtil.isMigrated(nc, RULE_STOP_WATCH)) { //constructor type is not changed, the matcher still matches
                     nc = nc.withArguments(Collections.emptyList()).withComments(Collections.singletonList(RecipesUtil
                             .createMultinlineComment(
                                     "Removed the deprecated constructor from the internal class org.apache.camel.util.StopWatch.\n" +
                                                      "Users of this class are advised to use the default constructor if necessary.Changed exception thrown from IOException to Exception.\n")));
+                    nc = RecipesUtil.markMigrated(nc, RULE_STOP_WATCH);
 
                 }
 
@@ -17,14 +17,15 @@
 package org.apache.camel.upgrade.camel46;
 
 import org.apache.camel.upgrade.AbstractCamelXmlVisitor;
+import org.apache.camel.upgrade.CamelXPathIndex;
 import org.jspecify.annotations.Nullable;
 import org.openrewrite.ExecutionContext;
 import org.openrewrite.Recipe;
 import org.openrewrite.TreeVisitor;
-import org.openrewrite.xml.XPathMatcher;
 import org.openrewrite.xml.tree.Content;
 import org.openrewrite.xml.tree.Xml;
 
+import java.util.Collection;
 import java.util.LinkedList;
 import java.util.List;
 
@@ -36,8 +37,9 @@ import java.util.List;
  */
 public class XmlDsl46Recipe extends Recipe {
 
-    private static final XPathMatcher BEAN_PROPERTY_XPATH_MATCHER = new XPathMatcher("bean/property");
-    private static final XPathMatcher BEAN_XPATH_MATCHER = new XPathMatcher("bean");
+    private static final String BEAN_PROPERTY_XPATH = "bean/property";
+    private static final String BEAN_XPATH = "bean";
+    private static final CamelXPathIndex XPATH_INDEX = CamelXPathIndex.of(BEAN_PROPERTY_XPATH, BEAN_XPATH);
 
     @Override
     public String getDisplayName() {
@@ -51,7 +53,12 @@ public class XmlDsl46Recipe extends Recipe {
 
     @Override
     public TreeVisitor<?, ExecutionContext> getVisitor() {
-        return new AbstractCamelXmlVisitor() {
+        return new AbstractCamelXmlVisitor(XPATH_INDEX) {
+
+            @Override
+            protected Collection<String> requiredTags() {
+                return List.of("bean");
+            }
 
             @Override
             public  Xml.@Nullable Tag doVisitTag(final Xml.Tag tag, final ExecutionContext ctx) {
@@ -59,7 +66,7 @@ public class XmlDsl46Recipe extends Recipe {
 
                 //save all properties into a list placed to the bean tag
                 //and the first property rename to properties and strip content
-                if (BEAN_PROPERTY_XPATH_MATCHER.matches(getCursor())) {
+                if (matchesXPath(BEAN_PROPERTY_XPATH)) {
 
                     List<Xml.Tag> sb = getCursor().getParent().getMessage("properties");
                     if(sb == null) {
@@ -72,7 +79,7 @@ public class XmlDsl46Recipe extends Recipe {
                     //skip property
                     return null;
                 }
-                if (BEAN_XPATH_MATCHER.matches(getCursor()) && getCursor().getMessage("properties") != null) {
+                if (matchesXPath(BEAN_XPATH) && getCursor().getMessage("properties") != null) {
                     //save description into context for parent
                     List<Xml.Tag> sb = getCursor().getMessage("properties");
                     String prefix = getCursor().getMessage("propertiesPrefix");
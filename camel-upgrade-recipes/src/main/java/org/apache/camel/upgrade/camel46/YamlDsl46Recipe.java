@@ -25,8 +25,8 @@ import org.openrewrite.Recipe;
 import org.openrewrite.TreeVisitor;
 import org.openrewrite.yaml.tree.Yaml;
 
+import java.util.Collection;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * Fixes following yaml change.
@@ -71,6 +71,11 @@ public class YamlDsl46Recipe extends Recipe {
 
         return Preconditions.check(RecipesUtil.camelYamlDslPrecondition(), new AbstractCamelYamlVisitor() {
 
+            @Override
+            protected Collection<String> requiredKeys() {
+                return List.of("beans");
+            }
+
             @Override
             protected void clearLocalCache() {
                 //nothing to do
@@ -86,18 +91,13 @@ public class YamlDsl46Recipe extends Recipe {
                 if(path.endsWith("beans.property")) {
                     //it is intentional to fail if the casting is wrong, in that case the Abstract*Visitor
                     //logs warning about failure and no migration is applied
-                    Yaml.Mapping m = (Yaml.Mapping) ((Yaml.Sequence)e.getValue()).getEntries().get(0).getBlock();
-                    //apply correct prefix for the new 'properties' values
-                    String prefix = e.getPrefix() + "  ";
-                    List<Yaml.Mapping.Entry> entries = ((Yaml.Sequence)e.getValue()).getEntries().stream()
-                            //iterate over all blocks
-                            .flatMap(entry1 -> ((Yaml.Mapping)entry1.getBlock()).getEntries().stream())
-                            //apply correct prefix
-                            .map(entry2 -> entry2.withPrefix(prefix))
-                            .collect(Collectors.toList());
-
-                    return e.withKey(((Yaml.Scalar) e.getKey().copyPaste()).withValue("properties"))
-                            .withValue(m.copyPaste().withEntries(entries));
+                    Yaml.Sequence sequence = (Yaml.Sequence) e.getValue();
+                    //the new 'properties' values are indented under the key
+                    int keyIndent = RecipesUtil.yamlIndent(getCursor().getParentTreeCursor().<Yaml.Mapping>getValue());
+                    int indent = keyIndent < 0 ? Math.max(RecipesUtil.yamlIndent(sequence), 2) : keyIndent + 2;
+
+                    return RecipesUtil.renameKey(e, "properties")
+                            .withValue(RecipesUtil.sequenceToMapping(sequence, indent));
                 }
 
 
@@ -112,7 +112,7 @@ public class YamlDsl46Recipe extends Recipe {
                 if(path.matches(".*beans.property.value")  && e.getValue() instanceof Yaml.Scalar && getCursor().getNearestMessage("key") != null) {
                     String key = getCursor().getNearestMessage("key");
                     if(key != null) {
-                        return e.withKey(((Yaml.Scalar) e.getKey().copyPaste()).withValue(key));
+                        return RecipesUtil.renameKey(e, key);
                     }
                 }
 
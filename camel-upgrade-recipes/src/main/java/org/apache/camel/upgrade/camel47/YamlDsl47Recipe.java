@@ -17,14 +17,16 @@
 package org.apache.camel.upgrade.camel47;
 
 import org.apache.camel.upgrade.AbstractCamelYamlVisitor;
+import org.apache.camel.upgrade.CamelJsonPathIndex;
 import org.apache.camel.upgrade.RecipesUtil;
 import org.openrewrite.ExecutionContext;
 import org.openrewrite.Preconditions;
 import org.openrewrite.Recipe;
 import org.openrewrite.TreeVisitor;
-import org.openrewrite.yaml.JsonPathMatcher;
 import org.openrewrite.yaml.tree.Yaml;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -36,14 +38,15 @@ import java.util.Map;
 public class YamlDsl47Recipe extends Recipe {
 
 
-    private static final Map<JsonPathMatcher, String> transformations = Map.of(
-            new JsonPathMatcher("$..loadBalance.failover"), "failoverLoadBalancer",
-            new JsonPathMatcher("$..loadBalance.random"), "randomLoadBalancer",
-            new JsonPathMatcher("$..loadBalance.roundRobin"), "roundRobinLoadBalancer",
-            new JsonPathMatcher("$..loadBalance.sticky"), "stickyLoadBalancer",
-            new JsonPathMatcher("$..loadBalance.topic"), "topicLoadBalancer",
-            new JsonPathMatcher("$..loadBalance.weighted"), "weightedLoadBalancer"
+    private static final Map<String, String> transformations = Map.of(
+            "$..loadBalance.failover", "failoverLoadBalancer",
+            "$..loadBalance.random", "randomLoadBalancer",
+            "$..loadBalance.roundRobin", "roundRobinLoadBalancer",
+            "$..loadBalance.sticky", "stickyLoadBalancer",
+            "$..loadBalance.topic", "topicLoadBalancer",
+            "$..loadBalance.weighted", "weightedLoadBalancer"
     );
+    private static final CamelJsonPathIndex JSON_PATH_INDEX = CamelJsonPathIndex.of(List.copyOf(transformations.keySet()));
 
     @Override
     public String getDisplayName() {
@@ -58,7 +61,12 @@ public class YamlDsl47Recipe extends Recipe {
     @Override
     public TreeVisitor<?, ExecutionContext> getVisitor() {
 
-        return Preconditions.check(RecipesUtil.camelYamlDslPrecondition(), new AbstractCamelYamlVisitor() {
+        return Preconditions.check(RecipesUtil.camelYamlDslPrecondition(), new AbstractCamelYamlVisitor(JSON_PATH_INDEX) {
+
+            @Override
+            protected Collection<String> requiredKeys() {
+                return List.of("loadBalance");
+            }
 
             @Override
             protected void clearLocalCache() {
@@ -71,9 +79,9 @@ public class YamlDsl47Recipe extends Recipe {
 
                 //rename entry
                 return transformations.entrySet().stream()
-                        .filter(en -> en.getKey().matches(getCursor()))
+                        .filter(en -> matchesJsonPath(en.getKey()))
                         //rename tag
-                        .map(en -> e.withKey(((Yaml.Scalar) e.getKey().copyPaste()).withValue(en.getValue())))
+                        .map(en -> RecipesUtil.renameKey(e, en.getValue()))
                         .findAny()
                         .orElse(e);
             }
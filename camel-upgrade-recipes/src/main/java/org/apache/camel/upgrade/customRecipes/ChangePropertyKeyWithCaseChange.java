@@ -16,9 +16,11 @@
  */
 package org.apache.camel.upgrade.customRecipes;
 
+import org.apache.camel.upgrade.CamelPropertiesStreamRewriter;
 import org.openrewrite.ExecutionContext;
 import org.openrewrite.Option;
 import org.openrewrite.Recipe;
+import org.openrewrite.TreeVisitor;
 import org.openrewrite.properties.PropertiesVisitor;
 import org.openrewrite.properties.tree.Properties;
 
@@ -75,29 +77,33 @@ public class ChangePropertyKeyWithCaseChange extends Recipe {
     }
 
     @Override
-    public PropertiesVisitor<ExecutionContext> getVisitor() {
-        return new PropertiesVisitor<>() {
+    public TreeVisitor<?, ExecutionContext> getVisitor() {
+        //files excluded from properties parsing (e.g. huge generated configurations) are migrated by the streaming rewriter
+        return new CamelPropertiesStreamRewriter().onKey(this::getKey).withLstVisitor(new PropertiesVisitor<>() {
             @Override
             public Properties visitEntry(Properties.Entry entry, ExecutionContext ctx) {
-                for (String exclusion : exclusions) {
-                    if (entry.getKey().equals(exclusion)) {
-                        return super.visitEntry(entry, ctx);
-                    }
-                }
-
-                if (entry.getKey().matches(oldPropertyKey)) {
-                    entry = entry.withKey(getKey(entry))
+                String key = getKey(entry.getKey());
+                if (!key.equals(entry.getKey())) {
+                    entry = entry.withKey(key)
                             .withPrefix(entry.getPrefix());
                 }
                 return super.visitEntry(entry, ctx);
             }
+        });
+    }
 
-            //replace key
-            private String getKey(Properties.Entry entry) {
-                return newPrefix + entry.getKey().replaceFirst(oldPropertyKey, "$1").substring(0, 1).toLowerCase() +
-                       entry.getKey().replaceFirst(oldPropertyKey, "$1").substring(1);
-
+    //replace key, returns the same key if it is excluded or does not match
+    private String getKey(String key) {
+        for (String exclusion : exclusions) {
+            if (key.equals(exclusion)) {
+                return key;
             }
-        };
+        }
+
+        if (!key.matches(oldPropertyKey)) {
+            return key;
+        }
+        return newPrefix + key.replaceFirst(oldPropertyKey, "$1").substring(0, 1).toLowerCase() +
+               key.replaceFirst(oldPropertyKey, "$1").substring(1);
     }
 }
@@ -1,7 +1,11 @@
 package org.apache.camel.upgrade.customRecipes;
 
+import org.apache.camel.upgrade.CamelPropertiesStreamRewriter;
+import org.openrewrite.ExecutionContext;
 import org.openrewrite.Option;
 import org.openrewrite.Recipe;
+import org.openrewrite.TreeVisitor;
+import org.openrewrite.internal.NameCaseConvention;
 import org.openrewrite.properties.ChangePropertyKey;
 
 import java.util.List;
@@ -24,6 +28,14 @@ public class PropertiesAndYamlKeyUpdate extends Recipe {
         this.newPropertyKey = newPropertyKey;
     }
 
+    public String getOldPropertyKey() {
+        return oldPropertyKey;
+    }
+
+    public String getNewPropertyKey() {
+        return newPropertyKey;
+    }
+
     public void setOldPropertyKey(String oldPropertyKey) {
         this.oldPropertyKey = oldPropertyKey;
     }
@@ -42,6 +54,16 @@ public class PropertiesAndYamlKeyUpdate extends Recipe {
         return "Update Apache Camel configurations keys";
     }
 
+    @Override
+    public TreeVisitor<?, ExecutionContext> getVisitor() {
+        //properties files excluded from parsing (e.g. huge generated configurations) are migrated by the streaming
+        //rewriter, with the same relaxed binding as the properties recipe below
+        NameCaseConvention.Compiled keyMatcher = NameCaseConvention.LOWER_CAMEL.compile(oldPropertyKey);
+        return new CamelPropertiesStreamRewriter()
+                .onKey(key -> keyMatcher.matches(key) ? newPropertyKey : key)
+                .withLstVisitor(TreeVisitor.noop());
+    }
+
     @Override
     public List<Recipe> getRecipeList() {
         return List.of(new ChangePropertyKey(oldPropertyKey, newPropertyKey,
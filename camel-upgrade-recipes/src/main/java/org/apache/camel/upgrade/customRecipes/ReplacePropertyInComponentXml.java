@@ -17,21 +17,25 @@
 package org.apache.camel.upgrade.customRecipes;
 
 import org.apache.camel.upgrade.AbstractCamelXmlVisitor;
+import org.apache.camel.upgrade.CamelXPathIndex;
+import org.apache.camel.upgrade.CamelXmlStreamRewriter;
 import org.apache.camel.upgrade.RecipesUtil;
 import org.openrewrite.ExecutionContext;
 import org.openrewrite.Option;
 import org.openrewrite.Recipe;
 import org.openrewrite.TreeVisitor;
 import org.openrewrite.internal.ListUtils;
-import org.openrewrite.xml.XPathMatcher;
 import org.openrewrite.xml.tree.Xml;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public class ReplacePropertyInComponentXml extends Recipe {
 
-    private static final XPathMatcher FROM_MATCHER = new XPathMatcher("//route/from");
-    private static final XPathMatcher TO_MATCHER = new XPathMatcher("//route/to");
+    private static final String FROM_XPATH = "//route/from";
+    private static final String TO_XPATH = "//route/to";
+    private static final CamelXPathIndex XPATH_INDEX = CamelXPathIndex.of(FROM_XPATH, TO_XPATH);
 
 
     @Option(example = "TODO Provide a usage example for the docs", displayName = "Component",
@@ -89,22 +93,32 @@ public class ReplacePropertyInComponentXml extends Recipe {
 
     @Override
     public TreeVisitor<?, ExecutionContext> getVisitor() {
-        return new AbstractCamelXmlVisitor() {
+        //files excluded from xml parsing (e.g. huge route files) are migrated by the streaming rewriter
+        CamelXmlStreamRewriter streamRewriter = new CamelXmlStreamRewriter(XPATH_INDEX)
+                .onTag(FROM_XPATH, this::replacePropertyIfPossible)
+                .onTag(TO_XPATH, this::replacePropertyIfPossible);
+
+        return streamRewriter.withLstVisitor(new AbstractCamelXmlVisitor(XPATH_INDEX) {
+
+            @Override
+            protected Collection<String> requiredTags() {
+                return List.of("route");
+            }
 
             @Override
             public Xml.Tag doVisitTag(final Xml.Tag tag, final ExecutionContext ctx) {
                 Xml.Tag t = super.doVisitTag(tag, ctx);
 
-                if(FROM_MATCHER.matches(getCursor())) {
+                if(matchesXPath(FROM_XPATH)) {
                     return replacePropertyIfPossible(t);
                 }
-                if(TO_MATCHER.matches(getCursor())) {
+                if(matchesXPath(TO_XPATH)) {
                     return replacePropertyIfPossible(t);
                 }
 
                 return t;
             }
-        };
+        });
     }
 
     private Xml.Tag replacePropertyIfPossible(final Xml.Tag tag) {
@@ -120,4 +134,14 @@ public class ReplacePropertyInComponentXml extends Recipe {
         }
         return tag;
     }
+
+    private void replacePropertyIfPossible(final CamelXmlStreamRewriter.StartTag tag) {
+        String uri = tag.getAttribute("uri");
+        if (uri != null && (component.equals(uri) || uri.startsWith(component + ":"))) {
+            String u = RecipesUtil.replacePropertyInUrl(uri, component, oldPropertyKey, newPropertyKey, valuePrefix);
+            if (u != null) {
+                tag.setAttribute("uri", u);
+            }
+        }
+    }
 }
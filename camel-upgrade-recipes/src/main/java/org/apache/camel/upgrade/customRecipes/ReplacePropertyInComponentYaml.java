@@ -26,6 +26,8 @@ import org.openrewrite.TreeVisitor;
 import org.openrewrite.yaml.search.FindKey;
 import org.openrewrite.yaml.tree.Yaml;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public class ReplacePropertyInComponentYaml extends Recipe {
@@ -88,6 +90,11 @@ public class ReplacePropertyInComponentYaml extends Recipe {
 
         return Preconditions.check(RecipesUtil.camelYamlDslPrecondition(), new AbstractCamelYamlVisitor() {
 
+            @Override
+            protected Collection<String> requiredKeys() {
+                return List.of(oldPropertyKey);
+            }
+
             @Override
             protected void clearLocalCache() {
                 //nothing to do
@@ -113,10 +120,10 @@ public class ReplacePropertyInComponentYaml extends Recipe {
 
                         if (compName != null && (component.equals(compName) || compName.startsWith(component + ":"))) {
 
-                            Yaml.Mapping.Entry newEntry = e.withKey(((Yaml.Scalar) entry.getKey().copyPaste()).withValue(newPropertyKey));
+                            Yaml.Mapping.Entry newEntry = RecipesUtil.renameKey(e, newPropertyKey);
 
                             if(valuePrefix != null && e.getValue() instanceof Yaml.Scalar && !((Yaml.Scalar)e.getValue()).getValue().startsWith(valuePrefix)) {
-                                newEntry = newEntry.withValue(((Yaml.Scalar)e.getValue()).copyPaste().withValue(valuePrefix + ((Yaml.Scalar) newEntry.getValue()).getValue()));
+                                newEntry = newEntry.withValue(((Yaml.Scalar) e.getValue()).withValue(valuePrefix + ((Yaml.Scalar) newEntry.getValue()).getValue()));
                             }
 
                             return newEntry;
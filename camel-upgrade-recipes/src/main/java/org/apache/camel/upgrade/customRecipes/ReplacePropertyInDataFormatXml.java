@@ -17,14 +17,18 @@
 package org.apache.camel.upgrade.customRecipes;
 
 import org.apache.camel.upgrade.AbstractCamelXmlVisitor;
+import org.apache.camel.upgrade.CamelXPathIndex;
+import org.apache.camel.upgrade.CamelXmlStreamRewriter;
 import org.openrewrite.ExecutionContext;
 import org.openrewrite.Option;
 import org.openrewrite.Recipe;
 import org.openrewrite.TreeVisitor;
 import org.openrewrite.internal.ListUtils;
-import org.openrewrite.xml.XPathMatcher;
 import org.openrewrite.xml.tree.Xml;
 
+import java.util.Collection;
+import java.util.List;
+
 public class ReplacePropertyInDataFormatXml extends Recipe {
 
 
@@ -73,18 +77,30 @@ public class ReplacePropertyInDataFormatXml extends Recipe {
 
     @Override
     public TreeVisitor<?, ExecutionContext> getVisitor() {
-        return new AbstractCamelXmlVisitor() {
+        String marshalXPath = "//marshal/" + component;
+        CamelXPathIndex xPathIndex = CamelXPathIndex.of(marshalXPath);
+
+        //files excluded from xml parsing (e.g. huge route files) are migrated by the streaming rewriter
+        CamelXmlStreamRewriter streamRewriter = new CamelXmlStreamRewriter(xPathIndex)
+                .onTag(marshalXPath, tag -> tag.renameAttribute(oldPropertyKey, newPropertyKey));
+
+        return streamRewriter.withLstVisitor(new AbstractCamelXmlVisitor(xPathIndex) {
+
+            @Override
+            protected Collection<String> requiredTags() {
+                return List.of(component);
+            }
 
             @Override
             public Xml.Tag doVisitTag(final Xml.Tag tag, final ExecutionContext ctx) {
                 Xml.Tag t = super.doVisitTag(tag, ctx);
 
-                if( new XPathMatcher("//marshal/" + component).matches(getCursor())) {
+                if (matchesXPath(marshalXPath)) {
                     return replacePropertyIfPossible(t);
                 }
                 return t;
             }
-        };
+        });
     }
 
     private Xml.Tag replacePropertyIfPossible(final Xml.Tag tag) {
@@ -25,6 +25,9 @@ import org.openrewrite.Recipe;
 import org.openrewrite.TreeVisitor;
 import org.openrewrite.yaml.tree.Yaml;
 
+import java.util.Collection;
+import java.util.List;
+
 public class ReplacePropertyInDataFormatYaml extends Recipe {
 
     @Option(example = "TODO Provide a usage example for the docs", displayName = "Component",
@@ -76,6 +79,11 @@ public class ReplacePropertyInDataFormatYaml extends Recipe {
 
         return Preconditions.check(RecipesUtil.camelYamlDslPrecondition(), new AbstractCamelYamlVisitor() {
 
+            @Override
+            protected Collection<String> requiredKeys() {
+                return List.of(oldPropertyKey);
+            }
+
             @Override
             protected void clearLocalCache() {
                 //nothing to do
@@ -89,13 +97,13 @@ public class ReplacePropertyInDataFormatYaml extends Recipe {
                 String path = RecipesUtil.getProperty(getCursor());
                 //yaml marshal
                 if(path.endsWith("dataFormats." + component + "." + oldPropertyKey)) {
-                    return e.withKey(((Yaml.Scalar) e.getKey().copyPaste()).withValue(newPropertyKey));
+                    return RecipesUtil.renameKey(e, newPropertyKey);
                 }                //yaml marshal
                 if(path.endsWith("marshal." + component + "." + oldPropertyKey)) {
-                    return e.withKey(((Yaml.Scalar) e.getKey().copyPaste()).withValue(newPropertyKey));
+                    return RecipesUtil.renameKey(e, newPropertyKey);
                 }                //yaml marshal
                 if(path.endsWith("unmarshal." + component + "." + oldPropertyKey)) {
-                    return e.withKey(((Yaml.Scalar) e.getKey().copyPaste()).withValue(newPropertyKey));
+                    return RecipesUtil.renameKey(e, newPropertyKey);
                 }
 
                 return e;
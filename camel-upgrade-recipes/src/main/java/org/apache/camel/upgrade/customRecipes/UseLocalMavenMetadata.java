@@ -0,0 +1,59 @@
+package org.apache.camel.upgrade.customRecipes;
+
+import org.apache.camel.upgrade.CamelMavenMetadata;
+import org.jspecify.annotations.Nullable;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.Option;
+import org.openrewrite.ScanningRecipe;
+import org.openrewrite.TreeVisitor;
+
+import java.nio.file.Paths;
+
+/**
+ * Answers the version lookups of the dependency upgrades which follow in the run from local metadata, see
+ * {@link CamelMavenMetadata}. It has to be activated before the migration, e.g.
+ * {@code -Drewrite.activeRecipes=org.apache.camel.upgrade.customRecipes.UseLocalMavenMetadata,org.apache.camel.upgrade.CamelMigrationRecipe}.
+ */
+public class UseLocalMavenMetadata extends ScanningRecipe<Boolean> {
+
+    @Option(displayName = "Metadata directory",
+            description = "Directory with `maven-metadata.xml` files laid out as a Maven repository. The versions bundled in the recipes are used if not set.",
+            example = "/opt/mirror/metadata",
+            required = false)
+    @Nullable
+    String directory;
+
+    public UseLocalMavenMetadata() {
+    }
+
+    public UseLocalMavenMetadata(@Nullable String directory) {
+        this.directory = directory;
+    }
+
+    public void setDirectory(@Nullable String directory) {
+        this.directory = directory;
+    }
+
+    @Override
+    public String getDisplayName() {
+        return "Use local Maven metadata";
+    }
+
+    @Override
+    public String getDescription() {
+        return "Resolve the versions of the dependency upgrades from the metadata bundled in the recipes or from a local directory, instead of the remote repositories.";
+    }
+
+    @Override
+    public Boolean getInitialValue(ExecutionContext ctx) {
+        CamelMavenMetadata.install(ctx, directory == null
+                ? CamelMavenMetadata.bundled()
+                : CamelMavenMetadata.directory(Paths.get(directory)));
+        return Boolean.TRUE;
+    }
+
+    @Override
+    public TreeVisitor<?, ExecutionContext> getScanner(Boolean acc) {
+        return TreeVisitor.noop();
+    }
+}
@@ -17,15 +17,19 @@
 package org.apache.camel.upgrade.customRecipes.internal;
 
 import org.apache.camel.upgrade.AbstractCamelXmlVisitor;
+import org.apache.camel.upgrade.CamelXPathIndex;
+import org.apache.camel.upgrade.CamelXmlStreamRewriter;
 import org.apache.camel.upgrade.RecipesUtil;
 import org.openrewrite.ExecutionContext;
 import org.openrewrite.Option;
 import org.openrewrite.Recipe;
 import org.openrewrite.TreeVisitor;
 import org.openrewrite.internal.ListUtils;
-import org.openrewrite.xml.XPathMatcher;
 import org.openrewrite.xml.tree.Xml;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
 import java.util.regex.Pattern;
 
 /**
@@ -33,8 +37,9 @@ import java.util.regex.Pattern;
  */
 public class ChangeXmlComponentUriRecipe extends Recipe {
 
-    private static final XPathMatcher FROM_MATCHER = new XPathMatcher("//route/from");
-    private static final XPathMatcher TO_MATCHER = new XPathMatcher("//route/to");
+    private static final String FROM_XPATH = "//route/from";
+    private static final String TO_XPATH = "//route/to";
+    private static final CamelXPathIndex XPATH_INDEX = CamelXPathIndex.of(FROM_XPATH, TO_XPATH);
 
     @Option(
         displayName = "URI pattern",
@@ -80,18 +85,35 @@ public class ChangeXmlComponentUriRecipe extends Recipe {
     public TreeVisitor<?, ExecutionContext> getVisitor() {
         Pattern pattern = Pattern.compile(uriPattern);
 
-        return new AbstractCamelXmlVisitor() {
+        //files excluded from xml parsing (e.g. huge route files) are migrated by the streaming rewriter
+        Consumer<CamelXmlStreamRewriter.StartTag> uriRule = tag -> {
+            String uri = tag.getAttribute("uri");
+            if (uri != null) {
+                RecipesUtil.transform(uri, pattern, replacement).ifPresent(newUri -> tag.setAttribute("uri", newUri));
+            }
+        };
+        CamelXmlStreamRewriter streamRewriter = new CamelXmlStreamRewriter(XPATH_INDEX)
+                .onTag(FROM_XPATH, uriRule)
+                .onTag(TO_XPATH, uriRule);
+
+        return streamRewriter.withLstVisitor(new AbstractCamelXmlVisitor(XPATH_INDEX) {
+
+            @Override
+            protected Collection<String> requiredTags() {
+                return List.of("route");
+            }
+
             @Override
             public Xml.Tag doVisitTag(Xml.Tag tag, ExecutionContext ctx) {
                 Xml.Tag t = super.doVisitTag(tag, ctx);
 
-                if (FROM_MATCHER.matches(getCursor()) || TO_MATCHER.matches(getCursor())) {
+                if (matchesXPath(FROM_XPATH) || matchesXPath(TO_XPATH)) {
                     return transformXmlUri(t, pattern, replacement);
                 }
 
                 return t;
             }
-        };
+        });
     }
 
     private static Xml.Tag transformXmlUri(Xml.Tag tag, Pattern pattern, String replacement) {
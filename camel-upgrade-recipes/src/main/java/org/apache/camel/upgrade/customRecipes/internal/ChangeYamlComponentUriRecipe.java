@@ -17,15 +17,17 @@
 package org.apache.camel.upgrade.customRecipes.internal;
 
 import org.apache.camel.upgrade.AbstractCamelYamlVisitor;
+import org.apache.camel.upgrade.CamelJsonPathIndex;
 import org.apache.camel.upgrade.RecipesUtil;
 import org.openrewrite.ExecutionContext;
 import org.openrewrite.Option;
 import org.openrewrite.Preconditions;
 import org.openrewrite.Recipe;
 import org.openrewrite.TreeVisitor;
-import org.openrewrite.yaml.JsonPathMatcher;
 import org.openrewrite.yaml.tree.Yaml;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.regex.Pattern;
 
 /**
@@ -33,7 +35,8 @@ import java.util.regex.Pattern;
  */
 public class ChangeYamlComponentUriRecipe extends Recipe {
 
-    private static final JsonPathMatcher YAML_URI_MATCHER = new JsonPathMatcher("$..uri");
+    private static final String URI_PATH = "$..uri";
+    private static final CamelJsonPathIndex JSON_PATH_INDEX = CamelJsonPathIndex.of(URI_PATH);
 
     @Option(
         displayName = "URI pattern",
@@ -79,7 +82,12 @@ public class ChangeYamlComponentUriRecipe extends Recipe {
     public TreeVisitor<?, ExecutionContext> getVisitor() {
         Pattern pattern = Pattern.compile(uriPattern);
 
-        return Preconditions.check(RecipesUtil.camelYamlDslPrecondition(), new AbstractCamelYamlVisitor() {
+        return Preconditions.check(RecipesUtil.camelYamlDslPrecondition(), new AbstractCamelYamlVisitor(JSON_PATH_INDEX) {
+            @Override
+            protected Collection<String> requiredKeys() {
+                return List.of("uri");
+            }
+
             @Override
             protected void clearLocalCache() {
                 // Nothing to clear
@@ -90,7 +98,7 @@ public class ChangeYamlComponentUriRecipe extends Recipe {
                 Yaml.Mapping.Entry e = super.doVisitMappingEntry(entry, ctx);
 
                 // Check if this is a uri field
-                if (YAML_URI_MATCHER.matches(getCursor()) && e.getValue() instanceof Yaml.Scalar) {
+                if (matchesJsonPath(URI_PATH) && e.getValue() instanceof Yaml.Scalar) {
                     Yaml.Scalar scalar = (Yaml.Scalar) e.getValue();
                     return RecipesUtil.transform(scalar.getValue(), pattern, replacement)
                             .map(newValue -> e.withValue(scalar.withValue(newValue)))
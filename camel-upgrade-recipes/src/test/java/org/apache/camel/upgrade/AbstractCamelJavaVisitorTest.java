@@ -0,0 +1,68 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.upgrade;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.InMemoryExecutionContext;
+import org.openrewrite.SourceFile;
+import org.openrewrite.java.JavaParser;
+import org.openrewrite.java.tree.J;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Verifies the order and the cursors of the iterative visit of fluent chains, see {@link AbstractCamelJavaVisitor}.
+ */
+public class AbstractCamelJavaVisitorTest {
+
+    @Test
+    void chainVisitedFromInnermostSelect() {
+        SourceFile cu = JavaParser.fromJavaVersion().build().parse("""
+                class A {
+                    void m() {
+                        a().b().c().d();
+                    }
+                }
+                """).findFirst().orElseThrow();
+        List<String> visits = new ArrayList<>();
+        ExecutionContext ctx = new InMemoryExecutionContext(t -> Assertions.fail(t));
+
+        SourceFile after = (SourceFile) new AbstractCamelJavaVisitor() {
+            @Override
+            protected J.MethodInvocation doVisitMethodInvocation(J.MethodInvocation method, ExecutionContext context) {
+                //select (already visited), parent tree and depth of the cursor
+                J parent = getCursor().getParentTreeCursor().getValue();
+                visits.add(method.getSimpleName()
+                        + " select=" + (method.getSelect() instanceof J.MethodInvocation s ? s.getSimpleName() : "")
+                        + " parent=" + (parent instanceof J.MethodInvocation p ? p.getSimpleName() : "statement")
+                        + " depth=" + getCursor().getPathAsStream().count());
+                J.MethodInvocation mi = super.doVisitMethodInvocation(method, context);
+                return mi.withName(mi.getName().withSimpleName(mi.getSimpleName().toUpperCase()));
+            }
+        }.visit(cu, ctx);
+
+        Assertions.assertTrue(after.printAll().contains("A().B().C().D();"), after.printAll());
+        Assertions.assertEquals(List.of(
+                "a select= parent=d depth=11",
+                "b select=A parent=d depth=11",
+                "c select=B parent=d depth=11",
+                "d select=C parent=statement depth=9"), visits);
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.upgrade;
+
+import org.openrewrite.InMemoryExecutionContext;
+import org.openrewrite.java.JavaParser;
+
+import java.io.File;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+
+/**
+ * Process-wide registry of the artifacts in {@code META-INF/rewrite/classpath} used by the tests.
+ * <p>
+ * The directory is indexed once into artifact id and its versions, ordered as versions (4.8.0 is lower than
+ * 4.11.0). Java parser builders are cached by their resolved classpath, so all tests with the same classpath share
+ * one builder and its type cache.
+ * </p>
+ */
+public final class CamelClasspath {
+
+    /**
+     * Orders versions by their numeric segments, non-numeric segments (qualifiers) are compared as text.
+     */
+    static final Comparator<String> VERSION_ORDER = (first, second) -> {
+        String[] a = first.split("[.\\-]");
+        String[] b = second.split("[.\\-]");
+        for (int i = 0; i < Math.max(a.length, b.length); i++) {
+            String x = i < a.length ? a[i] : "0";
+            String y = i < b.length ? b[i] : "0";
+            int result = isNumber(x) && isNumber(y)
+                    ? Long.compare(Long.parseLong(x), Long.parseLong(y))
+                    : x.compareTo(y);
+            if (result != 0) {
+                return result;
+            }
+        }
+        return 0;
+    };
+
+    private static Map<String, NavigableSet<String>> index;
+
+    private static final Map<List<String>, JavaParser.Builder<? extends JavaParser, ?>> PARSERS = new ConcurrentHashMap<>();
+
+    private CamelClasspath() {
+    }
+
+    /**
+     * Artifact ({@code artifactId-version}) with the highest version lesser or equal to the given one.
+     */
+    public static Optional<String> resolve(String artifactId, String maxVersion) {
+        NavigableSet<String> versions = index().get(artifactId);
+        if (versions == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(versions.floor(maxVersion)).map(version -> artifactId + "-" + version);
+    }
+
+    /**
+     * Java parser builder of the given resources (see {@code JavaParser.Builder#classpathFromResources}), shared by
+     * all callers with the same resources. Callers must not reconfigure the returned builder.
+     */
+    public static JavaParser.Builder<? extends JavaParser, ?> parser(List<String> resources) {
+        return PARSERS.computeIfAbsent(List.copyOf(resources), key -> JavaParser.fromJavaVersion()
+                .logCompilationWarningsAndErrors(true)
+                .classpathFromResources(new InMemoryExecutionContext(), key.toArray(new String[0])));
+    }
+
+    private static synchronized Map<String, NavigableSet<String>> index() {
+        if (index == null) {
+            //the jars copied by the build, parsers read their types from the type table written by CamelTypeTables
+            Map<String, NavigableSet<String>> artifacts = new HashMap<>();
+            File[] files = classpathDirectory().listFiles();
+            for (File file : files == null ? new File[0] : files) {
+                Matcher matcher = CamelTypeTables.JAR_NAME.matcher(file.getName());
+                if (matcher.matches()) {
+                    artifacts.computeIfAbsent(matcher.group(1), a -> new TreeSet<>(VERSION_ORDER)).add(matcher.group(2));
+                }
+            }
+            index = artifacts;
+        }
+        return index;
+    }
+
+    private static File classpathDirectory() {
+        URL directory = CamelClasspath.class.getClassLoader().getResource("META-INF/rewrite/classpath");
+        if (directory == null || !"file".equals(directory.getProtocol())) {
+            return new File("");
+        }
+        try {
+            return new File(directory.toURI());
+        } catch (URISyntaxException e) {
+            throw new IllegalStateException("Invalid classpath directory " + directory, e);
+        }
+    }
+
+    private static boolean isNumber(String segment) {
+        return !segment.isEmpty() && segment.chars().allMatch(Character::isDigit);
+    }
+}
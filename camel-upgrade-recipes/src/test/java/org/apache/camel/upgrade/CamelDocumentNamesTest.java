@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.upgrade;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.InMemoryExecutionContext;
+import org.openrewrite.SourceFile;
+import org.openrewrite.xml.XmlParser;
+import org.openrewrite.xml.tree.Xml;
+import org.openrewrite.yaml.YamlParser;
+
+import java.util.Collection;
+import java.util.List;
+
+public class CamelDocumentNamesTest {
+
+    //language=xml
+    private static final String XML = """
+            <camel:routes xmlns:camel="http://camel.apache.org/schema/spring">
+                <camel:route>
+                    <camel:from uri="direct:start"/>
+                    <camel:saga><camel:compensation uri="direct:compensation"/></camel:saga>
+                </camel:route>
+            </camel:routes>
+            """;
+
+    //language=yaml
+    private static final String YAML = """
+            - route:
+                from:
+                  uri: direct:start
+                  steps:
+                    - transform:
+                        toType: json
+            """;
+
+    @Test
+    void xmlTagNames() {
+        SourceFile document = XmlParser.builder().build().parse(XML).findFirst().orElseThrow();
+        CamelDocumentNames names = CamelDocumentNames.of(document);
+
+        Assertions.assertTrue(names.mightContain("camel:saga"));
+        Assertions.assertTrue(names.mightContain("saga"));
+        Assertions.assertTrue(names.mightContainAny(List.of("circuitBreaker", "compensation")));
+        Assertions.assertFalse(names.mightContain("circuitBreaker"));
+        Assertions.assertFalse(names.mightContainAny(List.of("loadBalance", "resequence")));
+        Assertions.assertTrue(names.mightContainAny(List.of()));
+    }
+
+    @Test
+    void yamlKeys() {
+        SourceFile documents = YamlParser.builder().build().parse(YAML).findFirst().orElseThrow();
+        CamelDocumentNames names = CamelDocumentNames.of(documents);
+
+        Assertions.assertTrue(names.mightContain("transform"));
+        Assertions.assertTrue(names.mightContain("uri"));
+        //values are not part of the names
+        Assertions.assertFalse(names.mightContain("json"));
+        Assertions.assertFalse(names.mightContain("routePolicy"));
+    }
+
+    @Test
+    void namesAreCachedPerDocumentInstance() {
+        Xml.Document document = (Xml.Document) XmlParser.builder().build().parse(XML).findFirst().orElseThrow();
+        CamelDocumentNames names = CamelDocumentNames.of(document);
+
+        Assertions.assertSame(names, CamelDocumentNames.of(document));
+        //modified document (same id) has to be scanned again
+        Xml.Document renamed = document.withRoot(document.getRoot().withName("camel:templates"));
+        Assertions.assertNotSame(names, CamelDocumentNames.of(renamed));
+        Assertions.assertTrue(CamelDocumentNames.of(renamed).mightContain("templates"));
+    }
+
+    @Test
+    void visitorSkipsDocumentWithoutRequiredNames() {
+        ExecutionContext ctx = new InMemoryExecutionContext();
+        SourceFile documents = YamlParser.builder().build().parse(YAML).findFirst().orElseThrow();
+
+        Assertions.assertTrue(yamlVisitor(List.of("saga", "transform")).isAcceptable(documents, ctx));
+        Assertions.assertFalse(yamlVisitor(List.of("saga", "routePolicy")).isAcceptable(documents, ctx));
+        Assertions.assertTrue(yamlVisitor(List.of()).isAcceptable(documents, ctx));
+    }
+
+    private static AbstractCamelYamlVisitor yamlVisitor(Collection<String> requiredKeys) {
+        return new AbstractCamelYamlVisitor() {
+            @Override
+            protected Collection<String> requiredKeys() {
+                return requiredKeys;
+            }
+
+            @Override
+            protected void clearLocalCache() {
+                //nothing to do
+            }
+        };
+    }
+}
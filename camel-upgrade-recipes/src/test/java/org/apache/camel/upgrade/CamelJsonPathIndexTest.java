@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.upgrade;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.InMemoryExecutionContext;
+import org.openrewrite.yaml.JsonPathMatcher;
+import org.openrewrite.yaml.YamlParser;
+import org.openrewrite.yaml.tree.Yaml;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Verifies that {@link CamelJsonPathIndex} gives the same results as {@link JsonPathMatcher} for the expressions used
+ * by the recipes.
+ */
+public class CamelJsonPathIndexTest {
+
+    private static final List<String> EXPRESSIONS = List.of(
+            "$.steps",
+            "$.route.steps",
+            "$.route-configuration",
+            "$..route..steps.transform",
+            "$..route.routePolicy",
+            "$..uri",
+            "$..loadBalance.roundRobin",
+            "$..saga.compensation",
+            "$..saga.completion");
+
+    //language=yaml
+    private static final String DOCUMENT = """
+            - route-configuration:
+                - on-exception:
+                    handled:
+                      constant: "true"
+            - route:
+                routePolicy: myPolicy
+                from:
+                  uri: direct:start
+                steps:
+                  - transform:
+                      toType: json
+                  - loadBalance:
+                      roundRobin: {}
+                      steps:
+                        - to:
+                            uri: mock:a
+                  - saga:
+                      compensation:
+                        uri: direct:compensation
+                      completion:
+                        uri: direct:completion
+                  - choice:
+                      when:
+                        - steps:
+                            - transform:
+                                expression: foo
+            - steps:
+                - log: message
+            """;
+
+    @Test
+    void sameResultsAsJsonPathMatcher() {
+        CamelJsonPathIndex index = CamelJsonPathIndex.of(EXPRESSIONS);
+        Yaml.Documents documents = YamlParser.builder().build()
+                .parse(DOCUMENT)
+                .findFirst()
+                .map(Yaml.Documents.class::cast)
+                .orElseThrow();
+
+        //failures are collected, because the visitor swallows exceptions thrown from the visit methods
+        List<String> mismatches = new ArrayList<>();
+        int[] matched = new int[1];
+        new AbstractCamelYamlVisitor(index) {
+            @Override
+            protected void clearLocalCache() {
+                //nothing to do
+            }
+
+            @Override
+            public Yaml.Mapping.Entry doVisitMappingEntry(Yaml.Mapping.Entry entry, ExecutionContext ctx) {
+                for (String expression : EXPRESSIONS) {
+                    boolean expected = new JsonPathMatcher(expression).matches(getCursor());
+                    if (expected != matchesJsonPath(expression)) {
+                        mismatches.add("Expression '" + expression + "' on entry '" + RecipesUtil.getProperty(getCursor()) + "'");
+                    }
+                    if (expected) {
+                        matched[0]++;
+                    }
+                }
+                return super.doVisitMappingEntry(entry, ctx);
+            }
+        }.visit(documents, new InMemoryExecutionContext(t -> Assertions.fail(t)));
+
+        Assertions.assertEquals(List.of(), mismatches);
+        //sanity check that the document exercises the expressions
+        Assertions.assertTrue(matched[0] >= EXPRESSIONS.size());
+    }
+
+    @Test
+    void unsupportedExpression() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> CamelJsonPathIndex.of("$.route[0].steps"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> CamelJsonPathIndex.of("$..[?(@.uri)]"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> CamelJsonPathIndex.of("route.steps"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> CamelJsonPathIndex.of("$.route.*"));
+    }
+}
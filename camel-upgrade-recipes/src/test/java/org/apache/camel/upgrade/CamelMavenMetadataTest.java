@@ -0,0 +1,112 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.upgrade;
+
+import org.apache.camel.upgrade.customRecipes.UseLocalMavenMetadata;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.openrewrite.config.CompositeRecipe;
+import org.openrewrite.maven.UpgradeDependencyVersion;
+import org.openrewrite.maven.cache.InMemoryMavenPomCache;
+import org.openrewrite.maven.tree.GroupArtifactVersion;
+import org.openrewrite.maven.tree.MavenMetadata;
+import org.openrewrite.test.RewriteTest;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.openrewrite.maven.Assertions.pomXml;
+
+public class CamelMavenMetadataTest implements RewriteTest {
+
+    private static final URI CENTRAL = URI.create("https://repo.maven.apache.org/maven2");
+
+    @Test
+    void lookupsMemoizedPerArtifact() {
+        AtomicInteger lookups = new AtomicInteger();
+        CamelMavenMetadata cache = new CamelMavenMetadata(new InMemoryMavenPomCache(), (groupId, artifactId) -> {
+            lookups.incrementAndGet();
+            return "org.apache.camel".equals(groupId) ? List.of("4.10.6", "4.20.0") : null;
+        });
+
+        GroupArtifactVersion core = new GroupArtifactVersion("org.apache.camel", "camel-core", null);
+        Optional<MavenMetadata> metadata = cache.getMavenMetadata(CENTRAL, core);
+        Assertions.assertEquals(List.of("4.10.6", "4.20.0"), metadata.orElseThrow().getVersioning().getVersions());
+        Assertions.assertSame(metadata, cache.getMavenMetadata(URI.create("https://maven.example.com"), core));
+        Assertions.assertEquals(1, lookups.get());
+
+        //unknown artifacts are left to the delegate (null is a cache miss) and then kept once downloaded
+        GroupArtifactVersion other = new GroupArtifactVersion("org.example", "other", null);
+        Assertions.assertNull(cache.getMavenMetadata(CENTRAL, other));
+        cache.putMavenMetadata(CENTRAL, other, MavenMetadata.EMPTY);
+        Assertions.assertNotNull(cache.getMavenMetadata(URI.create("https://maven.example.com"), other));
+        Assertions.assertEquals(2, lookups.get());
+    }
+
+    @Test
+    void bundledVersions() {
+        CamelMavenMetadata.Source bundled = CamelMavenMetadata.bundled();
+
+        List<String> versions = bundled.versions("org.apache.camel", "camel-core");
+        Assertions.assertNotNull(versions);
+        Assertions.assertTrue(versions.stream().noneMatch(v -> v.startsWith("@")), versions::toString);
+        //discontinued in Camel 4, not released with the versions of the snapshot
+        Assertions.assertNull(bundled.versions("org.apache.camel", "camel-vertx-kafka"));
+        Assertions.assertNull(bundled.versions("org.example", "other"));
+    }
+
+    @Test
+    void upgradeFromBundledVersions() {
+        rewriteRun(spec -> spec.recipe(new CompositeRecipe(List.of(new UseLocalMavenMetadata(),
+                        new UpgradeDependencyVersion("org.apache.camel", "*", "4.10.x", null, null, null)))),
+                pomXml("""
+                        <project>
+                            <groupId>com.example</groupId>
+                            <artifactId>app</artifactId>
+                            <version>1.0.0</version>
+                            <properties>
+                                <camel.version>4.8.0</camel.version>
+                            </properties>
+                            <dependencies>
+                                <dependency>
+                                    <groupId>org.apache.camel</groupId>
+                                    <artifactId>camel-api</artifactId>
+                                    <version>${camel.version}</version>
+                                </dependency>
+                            </dependencies>
+                        </project>
+                        """, """
+                        <project>
+                            <groupId>com.example</groupId>
+                            <artifactId>app</artifactId>
+                            <version>1.0.0</version>
+                            <properties>
+                                <camel.version>4.10.6</camel.version>
+                            </properties>
+                            <dependencies>
+                                <dependency>
+                                    <groupId>org.apache.camel</groupId>
+                                    <artifactId>camel-api</artifactId>
+                                    <version>${camel.version}</version>
+                                </dependency>
+                            </dependencies>
+                        </project>
+                        """));
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.upgrade;
+
+import org.apache.camel.upgrade.camel47.XmlDsl47Recipe;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.openrewrite.Recipe;
+import org.openrewrite.config.CompositeRecipe;
+import org.openrewrite.properties.ChangePropertyKey;
+import org.openrewrite.test.RewriteTest;
+import org.openrewrite.test.SourceSpecs;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.openrewrite.properties.Assertions.properties;
+import static org.openrewrite.xml.Assertions.xml;
+
+public class CamelMigrationCheckTest implements RewriteTest {
+
+    //language=xml
+    private static final String ROUTES = """
+            <routes xmlns="http://camel.apache.org/schema/spring">
+                <route>
+                    <from uri="direct:start"/>
+                    <loadBalance>
+                        <roundRobin/>
+                        <to uri="mock:x"/>
+                    </loadBalance>
+                </route>
+            </routes>
+            """;
+
+    //language=xml
+    private static final String MARKED = """
+            <routes xmlns="http://camel.apache.org/schema/spring">
+                <route>
+                    <from uri="direct:start"/>
+                    <loadBalance>
+                        <!--~~(org.apache.camel.upgrade.camel47.XmlDsl47Recipe)~~>--><roundRobin/>
+                        <to uri="mock:x"/>
+                    </loadBalance>
+                </route>
+            </routes>
+            """;
+
+    //language=xml
+    private static final String MIGRATED = """
+            <routes xmlns="http://camel.apache.org/schema/spring">
+                <route>
+                    <from uri="direct:start"/>
+                    <to uri="mock:y"/>
+                </route>
+            </routes>
+            """;
+
+    //language=properties
+    private static final String PROPERTIES = """
+            camel.old=value
+            """;
+
+    private List<CamelMigrationCheck.Report.Row> check(Recipe migration, Integer maxHits, SourceSpecs... specs) {
+        List<CamelMigrationCheck.Report.Row> hits = new ArrayList<>();
+        rewriteRun(spec -> spec.recipe(new CamelMigrationCheck(migration, maxHits))
+                        .dataTable(CamelMigrationCheck.Report.Row.class, hits::addAll),
+                specs);
+        return hits;
+    }
+
+    @Test
+    void stopsAfterMaxHits() {
+        List<CamelMigrationCheck.Report.Row> hits = check(new XmlDsl47Recipe(), null,
+                xml(ROUTES, MARKED, spec -> spec.path("routes0.xml")),
+                xml(ROUTES, spec -> spec.path("routes1.xml")),
+                xml(MIGRATED, spec -> spec.path("routes2.xml")));
+
+        Assertions.assertEquals(List.of(new CamelMigrationCheck.Report.Row("routes0.xml",
+                XmlDsl47Recipe.class.getName())), hits);
+    }
+
+    @Test
+    void reportsEachFileOnce() {
+        List<CamelMigrationCheck.Report.Row> hits = check(new XmlDsl47Recipe(), 10,
+                xml(ROUTES, MARKED, spec -> spec.path("routes0.xml")),
+                xml(MIGRATED, spec -> spec.path("routes1.xml")),
+                xml(ROUTES, MARKED, spec -> spec.path("routes2.xml")));
+
+        Assertions.assertEquals(List.of("routes0.xml", "routes2.xml"),
+                hits.stream().map(CamelMigrationCheck.Report.Row::sourcePath).toList());
+    }
+
+    @Test
+    void marksFilesChangedByOtherRecipes() {
+        List<CamelMigrationCheck.Report.Row> hits = check(new CompositeRecipe(List.of(new XmlDsl47Recipe(),
+                        new ChangePropertyKey("camel.old", "camel.new", null, null))), 10,
+                xml(ROUTES, MARKED, spec -> spec.path("routes.xml")),
+                properties(PROPERTIES, """
+                        ~~(org.openrewrite.properties.ChangePropertyKey)~~>camel.old=value
+                        """, spec -> spec.path("application.properties")));
+
+        //files of different languages are not visited in a given order
+        Assertions.assertEquals(Set.of(new CamelMigrationCheck.Report.Row("routes.xml", XmlDsl47Recipe.class.getName()),
+                new CamelMigrationCheck.Report.Row("application.properties", ChangePropertyKey.class.getName())),
+                Set.copyOf(hits));
+    }
+
+    @Test
+    void otherRecipesStopAfterMaxHits() {
+        //the property of the second file is not renamed, the check stopped at the first file
+        List<CamelMigrationCheck.Report.Row> hits = check(new CompositeRecipe(List.of(new XmlDsl47Recipe(),
+                        new ChangePropertyKey("camel.old", "camel.new", null, null))), null,
+                properties(PROPERTIES, """
+                        ~~(org.openrewrite.properties.ChangePropertyKey)~~>camel.old=value
+                        """, spec -> spec.path("application.properties")),
+                properties(PROPERTIES, spec -> spec.path("application-test.properties")));
+
+        Assertions.assertEquals(List.of(new CamelMigrationCheck.Report.Row("application.properties",
+                ChangePropertyKey.class.getName())), hits);
+    }
+}
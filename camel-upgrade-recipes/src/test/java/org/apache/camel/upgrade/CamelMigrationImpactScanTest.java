@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.upgrade;
+
+import org.apache.camel.upgrade.camel47.XmlDsl47Recipe;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.openrewrite.config.CompositeRecipe;
+import org.openrewrite.properties.ChangePropertyKey;
+import org.openrewrite.test.RewriteTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.openrewrite.properties.Assertions.properties;
+import static org.openrewrite.test.SourceSpecs.text;
+import static org.openrewrite.xml.Assertions.xml;
+
+public class CamelMigrationImpactScanTest implements RewriteTest {
+
+    @Test
+    void marksInsteadOfChanges() {
+        List<CamelMigrationImpactScan.Impacts.Row> rows = new ArrayList<>();
+        rewriteRun(spec -> spec.recipe(new CamelMigrationImpactScan(new CompositeRecipe(List.of(new XmlDsl47Recipe(),
+                                new ChangePropertyKey("camel.old", "camel.new", null, null)))))
+                        .dataTable(CamelMigrationImpactScan.Impacts.Row.class, rows::addAll),
+                //language=xml
+                xml("""
+                        <routes xmlns="http://camel.apache.org/schema/spring">
+                            <route>
+                                <from uri="direct:start"/>
+                                <loadBalance>
+                                    <roundRobin/>
+                                    <to uri="mock:x"/>
+                                </loadBalance>
+                            </route>
+                        </routes>
+                        """, """
+                        <routes xmlns="http://camel.apache.org/schema/spring">
+                            <route>
+                                <from uri="direct:start"/>
+                                <loadBalance>
+                                    <!--~~(org.apache.camel.upgrade.camel47.XmlDsl47Recipe)~~>--><roundRobin/>
+                                    <to uri="mock:x"/>
+                                </loadBalance>
+                            </route>
+                        </routes>
+                        """, spec -> spec.path("routes.xml")),
+                properties("""
+                        camel.main.name=test
+                        camel.old=value
+                        """, """
+                        camel.main.name=test
+                        ~~(org.openrewrite.properties.ChangePropertyKey)~~>camel.old=value
+                        """, spec -> spec.path("application.properties")),
+                //not accepted by the xml and properties recipes, despite its content
+                text("""
+                        <loadBalance><roundRobin/></loadBalance>
+                        camel.old=value
+                        """, spec -> spec.path("notes.txt")));
+
+        Assertions.assertEquals(Set.of(
+                new CamelMigrationImpactScan.Impacts.Row("routes.xml", XmlDsl47Recipe.class.getName(), 5, "Tag"),
+                new CamelMigrationImpactScan.Impacts.Row("application.properties",
+                        ChangePropertyKey.class.getName(), 2, "Entry")), Set.copyOf(rows));
+    }
+
+    @Test
+    void linesOfRecipesWithTheSameName() {
+        List<CamelMigrationImpactScan.Impacts.Row> rows = new ArrayList<>();
+        rewriteRun(spec -> spec.recipe(new CamelMigrationImpactScan(new CompositeRecipe(List.of(
+                                new ChangePropertyKey("camel.second", "camel.renamed", null, null),
+                                new ChangePropertyKey("camel.first", "camel.renamed", null, null)))))
+                        .dataTable(CamelMigrationImpactScan.Impacts.Row.class, rows::addAll),
+                properties("""
+                        camel.first=1
+                        camel.main.name=test
+                        camel.second=2
+                        """, """
+                        ~~(org.openrewrite.properties.ChangePropertyKey)~~>camel.first=1
+                        camel.main.name=test
+                        ~~(org.openrewrite.properties.ChangePropertyKey)~~>camel.second=2
+                        """, spec -> spec.path("application.properties")));
+
+        //the markers have the same text, the lines are taken by the marked elements
+        Assertions.assertEquals(List.of(
+                new CamelMigrationImpactScan.Impacts.Row("application.properties", ChangePropertyKey.class.getName(), 3, "Entry"),
+                new CamelMigrationImpactScan.Impacts.Row("application.properties", ChangePropertyKey.class.getName(), 1, "Entry")),
+                rows);
+    }
+}
@@ -0,0 +1,290 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.upgrade;
+
+import org.apache.camel.upgrade.camel419.Pom419TestInfraRecipe;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.openrewrite.maven.AddDependency;
+import org.openrewrite.maven.ChangeDependencyGroupIdAndArtifactId;
+import org.openrewrite.maven.ChangePropertyValue;
+import org.openrewrite.maven.RemoveDependency;
+import org.openrewrite.maven.UpgradeDependencyVersion;
+import org.openrewrite.maven.UpgradePluginVersion;
+import org.openrewrite.test.RewriteTest;
+
+import java.util.List;
+
+import static org.openrewrite.maven.Assertions.pomXml;
+
+public class CamelPomAlignmentTest implements RewriteTest {
+
+    @Test
+    void absorbsSupportedSteps() {
+        CamelPomAlignment alignment = new CamelPomAlignment();
+
+        Assertions.assertTrue(alignment.absorb(new RemoveDependency("org.apache.camel", "camel-kafka", null)));
+        Assertions.assertTrue(alignment.absorb(new ChangeDependencyGroupIdAndArtifactId("org.apache.camel",
+                "camel-fury", "org.apache.camel", "camel-fory", null, null)));
+        Assertions.assertTrue(alignment.absorb(new UpgradeDependencyVersion("org.apache.camel", "*", "4.20.0",
+                null, null, null)));
+        Assertions.assertTrue(alignment.absorb(new UpgradePluginVersion("org.apache.camel", "*", "4.19.0",
+                null, null, null)));
+        Assertions.assertTrue(alignment.absorb(new ChangePropertyValue("camel.version", "4.20.0", null, null)));
+        Assertions.assertTrue(alignment.absorb(new Pom419TestInfraRecipe()));
+        //plugin upgrades do not change the dependencies
+        Assertions.assertTrue(CamelRecipePlan.key(alignment).contains("upgradedGroups=[org.apache.camel=4.20.0]"
+                + ", upgradedPluginGroups=[org.apache.camel=4.19.0], upgradedParentGroups=null"),
+                CamelRecipePlan.key(alignment));
+
+        Assertions.assertFalse(alignment.absorb(new RemoveDependency("org.apache.camel", "camel-*", null)));
+        Assertions.assertFalse(alignment.absorb(new UpgradeDependencyVersion("org.apache.camel", "camel-main",
+                "4.20.0", null, null, null)));
+        Assertions.assertFalse(alignment.absorb(new UpgradeDependencyVersion("org.apache.camel", "*", "4.x",
+                null, null, null)));
+        Assertions.assertFalse(alignment.absorb(new AddDependency("org.apache.camel", "camel-support", "4.20.0",
+                null, null, null, null, null, null, null, null, null)));
+    }
+
+    @Test
+    void rejectsChangesOutOfOrder() {
+        CamelPomAlignment alignment = new CamelPomAlignment();
+        Assertions.assertTrue(alignment.absorb(new ChangeDependencyGroupIdAndArtifactId("org.apache.camel",
+                "camel-a", "org.apache.camel", "camel-b", null, null)));
+        Assertions.assertTrue(alignment.absorb(new RemoveDependency("org.apache.camel", "camel-x", null)));
+
+        //moved and then removed or moved again, resolved by the table
+        Assertions.assertTrue(alignment.absorb(new ChangeDependencyGroupIdAndArtifactId("org.apache.camel",
+                "camel-b", "org.apache.camel", "camel-c", null, null)));
+        Assertions.assertTrue(alignment.absorb(new RemoveDependency("org.apache.camel", "camel-c", null)));
+        //the table would apply them before the previous changes
+        Assertions.assertFalse(alignment.absorb(new RemoveDependency("org.apache.camel", "camel-a", null)));
+        Assertions.assertFalse(alignment.absorb(new ChangeDependencyGroupIdAndArtifactId("org.apache.camel",
+                "camel-a", "org.apache.camel", "camel-d", null, null)));
+        Assertions.assertFalse(alignment.absorb(new ChangeDependencyGroupIdAndArtifactId("org.apache.camel",
+                "camel-d", "org.apache.camel", "camel-b", null, null)));
+        Assertions.assertFalse(alignment.absorb(new ChangeDependencyGroupIdAndArtifactId("org.apache.camel",
+                "camel-d", "org.apache.camel", "camel-x", null, null)));
+    }
+
+    @Test
+    void movesFollowedTransitively() {
+        rewriteRun(spec -> spec.recipe(new CamelPomAlignment(List.of("org.apache.camel:camel-fury"),
+                        List.of("org.apache.camel:camel-langchain-embeddings=org.apache.camel:camel-langchain4j-chat:4.14.0",
+                                "org.apache.camel:camel-langchain-chat=org.apache.camel:camel-langchain-embeddings",
+                                "org.apache.camel:camel-kafka=org.apache.camel:camel-fury"), null, null, null, null, null)),
+                pomXml("""
+                        <project>
+                            <groupId>com.example</groupId>
+                            <artifactId>app</artifactId>
+                            <version>1.0.0</version>
+                            <dependencies>
+                                <dependency>
+                                    <groupId>org.apache.camel</groupId>
+                                    <artifactId>camel-langchain-chat</artifactId>
+                                    <version>4.5.0</version>
+                                </dependency>
+                                <dependency>
+                                    <groupId>org.apache.camel</groupId>
+                                    <artifactId>camel-kafka</artifactId>
+                                    <version>4.0.3</version>
+                                </dependency>
+                            </dependencies>
+                        </project>
+                        """, """
+                        <project>
+                            <groupId>com.example</groupId>
+                            <artifactId>app</artifactId>
+                            <version>1.0.0</version>
+                            <dependencies>
+                                <dependency>
+                                    <groupId>org.apache.camel</groupId>
+                                    <artifactId>camel-langchain4j-chat</artifactId>
+                                    <version>4.14.0</version>
+                                </dependency>
+                            </dependencies>
+                        </project>
+                        """));
+    }
+
+    @Test
+    void alignInOnePass() {
+        rewriteRun(spec -> spec.recipe(new CamelPomAlignment(
+                        List.of("org.apache.camel:camel-kafka"),
+                        List.of("org.apache.camel:camel-langchain-chat=org.apache.camel:camel-langchain4j-chat:4.6.0"),
+                        List.of("org.apache.camel=4.0.3"),
+                        null,
+                        null,
+                        null,
+                        true)),
+                pomXml("""
+                        <project>
+                            <groupId>com.example</groupId>
+                            <artifactId>app</artifactId>
+                            <version>1.0.0</version>
+                            <properties>
+                                <camel.version>3.18.6</camel.version>
+                            </properties>
+                            <dependencyManagement>
+                                <dependencies>
+                                    <dependency>
+                                        <groupId>org.apache.camel</groupId>
+                                        <artifactId>camel-langchain-chat</artifactId>
+                                        <version>4.5.0</version>
+                                    </dependency>
+                                    <dependency>
+                                        <groupId>org.apache.camel</groupId>
+                                        <artifactId>camel-test-infra-kafka</artifactId>
+                                        <version>4.5.0</version>
+                                        <type>test-jar</type>
+                                    </dependency>
+                                </dependencies>
+                            </dependencyManagement>
+                            <dependencies>
+                                <dependency>
+                                    <groupId>org.apache.camel</groupId>
+                                    <artifactId>camel-api</artifactId>
+                                    <version>${camel.version}</version>
+                                </dependency>
+                                <dependency>
+                                    <groupId>org.apache.camel</groupId>
+                                    <artifactId>camel-support</artifactId>
+                                    <version>3.18.6</version>
+                                </dependency>
+                                <dependency>
+                                    <groupId>org.apache.camel</groupId>
+                                    <artifactId>camel-kafka</artifactId>
+                                    <version>4.0.3</version>
+                                </dependency>
+                            </dependencies>
+                        </project>
+                        """, """
+                        <project>
+                            <groupId>com.example</groupId>
+                            <artifactId>app</artifactId>
+                            <version>1.0.0</version>
+                            <properties>
+                                <camel.version>4.0.3</camel.version>
+                            </properties>
+                            <dependencyManagement>
+                                <dependencies>
+                                    <dependency>
+                                        <groupId>org.apache.camel</groupId>
+                                        <artifactId>camel-langchain4j-chat</artifactId>
+                                        <version>4.6.0</version>
+                                    </dependency>
+                                    <dependency>
+                                        <groupId>org.apache.camel</groupId>
+                                        <artifactId>camel-test-infra-kafka</artifactId>
+                                        <version>4.5.0</version>
+                                    </dependency>
+                                </dependencies>
+                            </dependencyManagement>
+                            <dependencies>
+                                <dependency>
+                                    <groupId>org.apache.camel</groupId>
+                                    <artifactId>camel-api</artifactId>
+                                    <version>${camel.version}</version>
+                                </dependency>
+                                <dependency>
+                                    <groupId>org.apache.camel</groupId>
+                                    <artifactId>camel-support</artifactId>
+                                    <version>4.0.3</version>
+                                </dependency>
+                            </dependencies>
+                        </project>
+                        """));
+    }
+
+    @Test
+    void pluginUpgradeKeepsDependencies() {
+        //like UpgradePluginVersion alone, the dependencies of the group keep their versions
+        rewriteRun(spec -> spec.recipe(new CamelPomAlignment(null, null, null, List.of("org.apache.camel=4.0.3"),
+                        null, null, null)),
+                pomXml("""
+                        <project>
+                            <groupId>com.example</groupId>
+                            <artifactId>app</artifactId>
+                            <version>1.0.0</version>
+                            <dependencies>
+                                <dependency>
+                                    <groupId>org.apache.camel</groupId>
+                                    <artifactId>camel-support</artifactId>
+                                    <version>3.18.6</version>
+                                </dependency>
+                            </dependencies>
+                            <build>
+                                <plugins>
+                                    <plugin>
+                                        <groupId>org.apache.camel</groupId>
+                                        <artifactId>camel-maven-plugin</artifactId>
+                                        <version>3.18.6</version>
+                                    </plugin>
+                                </plugins>
+                            </build>
+                        </project>
+                        """, """
+                        <project>
+                            <groupId>com.example</groupId>
+                            <artifactId>app</artifactId>
+                            <version>1.0.0</version>
+                            <dependencies>
+                                <dependency>
+                                    <groupId>org.apache.camel</groupId>
+                                    <artifactId>camel-support</artifactId>
+                                    <version>3.18.6</version>
+                                </dependency>
+                            </dependencies>
+                            <build>
+                                <plugins>
+                                    <plugin>
+                                        <groupId>org.apache.camel</groupId>
+                                        <artifactId>camel-maven-plugin</artifactId>
+                                        <version>4.0.3</version>
+                                    </plugin>
+                                </plugins>
+                            </build>
+                        </project>
+                        """));
+    }
+
+    @Test
+    void emptyDependenciesRemoved() {
+        rewriteRun(spec -> spec.recipe(new CamelPomAlignment(List.of("org.apache.camel:camel-kafka"), null, null,
+                        null, null, null, null)),
+                pomXml("""
+                        <project>
+                            <groupId>com.example</groupId>
+                            <artifactId>app</artifactId>
+                            <version>1.0.0</version>
+                            <dependencies>
+                                <dependency>
+                                    <groupId>org.apache.camel</groupId>
+                                    <artifactId>camel-kafka</artifactId>
+                                    <version>4.0.3</version>
+                                </dependency>
+                            </dependencies>
+                        </project>
+                        """, """
+                        <project>
+                            <groupId>com.example</groupId>
+                            <artifactId>app</artifactId>
+                            <version>1.0.0</version>
+                        </project>
+                        """));
+    }
+}
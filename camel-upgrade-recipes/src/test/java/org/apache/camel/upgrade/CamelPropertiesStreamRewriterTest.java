@@ -0,0 +1,153 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.upgrade;
+
+import org.apache.camel.upgrade.customRecipes.ChangePropertyKeyWithCaseChange;
+import org.apache.camel.upgrade.customRecipes.PropertiesAndYamlKeyUpdate;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.InMemoryExecutionContext;
+import org.openrewrite.Recipe;
+import org.openrewrite.SourceFile;
+import org.openrewrite.Tree;
+import org.openrewrite.properties.ChangePropertyKey;
+import org.openrewrite.properties.PropertiesParser;
+import org.openrewrite.text.PlainText;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+
+/**
+ * Verifies that {@link CamelPropertiesStreamRewriter} is lossless and that recipes give the same results for plain
+ * text properties files as for parsed properties files.
+ */
+public class CamelPropertiesStreamRewriterTest {
+
+    private static final String PROPERTIES = """
+            # camel.springboot.name=Comment
+            ! camel.main.mainRunController=Comment
+            camel.springboot.name = Foo
+            camel.springboot.main-run-controller=Should be ignored!
+              camel.springboot.routeControllerBackoffDelay:5000
+            camel.springboot.streamCaching \\
+                true
+            camel.main.mainRunController=true
+            camel.main.backlogTracing=true
+            another.ignored.property=camel.main.backlogTracing
+            """;
+
+    @Test
+    void losslessWithoutChanges() throws Exception {
+        String properties = "# comment \\\r\n"
+                + "a.b=1\\\r\n"
+                + "   a.c=continued value\r\n"
+                + "\r\n"
+                + "a\\=b : x\r\n"
+                + "a\\\r\n"
+                + " .d 2\r\n"
+                + "\tnoValue";
+        CamelPropertiesStreamRewriter rewriter = new CamelPropertiesStreamRewriter()
+                .onKey(renames(Map.of("a.c", "changed", "a.d", "changed", "noValue", "changed")));
+
+        //a.c is part of the value of a.b, a.d is a key split by the line continuation
+        Assertions.assertEquals(properties.replace("noValue", "changed"), rewriter.rewrite(properties));
+        Assertions.assertSame(properties, new CamelPropertiesStreamRewriter().onKey(renames(Map.of("x", "y"))).rewrite(properties));
+    }
+
+    @Test
+    void rulesInOnePass() {
+        CamelPropertiesStreamRewriter rewriter = new CamelPropertiesStreamRewriter()
+                .onKey(renames(Map.of("a", "b", "x\\:y", "z")))
+                .onKey(key -> key.equals("b") ? "c" : key);
+
+        Assertions.assertEquals("c = 1\nz:2\nc\t3\n# a=4\n", rewriter.rewrite("a = 1\nx\\:y:2\nb\t3\n# a=4\n"));
+    }
+
+    @Test
+    void readerIntoWriter() throws Exception {
+        StringWriter out = new StringWriter();
+
+        Assertions.assertTrue(new CamelPropertiesStreamRewriter()
+                .onKey(renames(Map.of("keyé", "renamed")))
+                .rewrite(new StringReader("été=1\r\nkeyé=é\n"), out));
+        Assertions.assertEquals("été=1\r\nrenamed=é\n", out.toString());
+    }
+
+    @Test
+    void changePropertyKeyWithCaseChange() {
+        Recipe recipe = new ChangePropertyKeyWithCaseChange("camel.springboot(.*)", "camel.main",
+                List.of("camel.springboot.main-run-controller"));
+        assertSameAsLst(recipe, recipe);
+    }
+
+    @Test
+    void propertiesAndYamlKeyUpdate() {
+        //relaxed binding matches camel.main.mainRunController as well
+        assertSameAsLst(new ChangePropertyKey("camel.main.main-run-controller", "camel.springboot.main-run-controller", null, null),
+                new PropertiesAndYamlKeyUpdate("camel.main.main-run-controller", "camel.springboot.main-run-controller"));
+    }
+
+    @Test
+    void keyRenamesInOrder() {
+        Recipe recipe = new CamelPropertiesKeyRenames(List.of("camel.main.main-run-controller=camel.main.run",
+                "camel.main.backlog-tracing=camel.main.main-run-controller",
+                "camel.springboot.stream-caching=camel.main.streamCaching",
+                "camel.main.stream-caching=camel.main.stream-caching-enabled"));
+
+        //relaxed binding, each rename applies to the result of the renames before it, not after it
+        Assertions.assertEquals(PROPERTIES.replace("camel.main.mainRunController=true", "camel.main.run=true")
+                        .replace("camel.main.backlogTracing=true", "camel.main.main-run-controller=true")
+                        .replace("camel.springboot.streamCaching", "camel.main.stream-caching-enabled"),
+                ((PlainText) recipe.getVisitor().visit(plainText("application.properties", PROPERTIES),
+                        new InMemoryExecutionContext())).getText());
+    }
+
+    @Test
+    void onlyPropertiesPlainTextIsAccepted() {
+        ExecutionContext ctx = new InMemoryExecutionContext();
+        Recipe recipe = new PropertiesAndYamlKeyUpdate("a", "b");
+        Assertions.assertTrue(recipe.getVisitor().isAcceptable(plainText("application.properties", PROPERTIES), ctx));
+        Assertions.assertFalse(recipe.getVisitor().isAcceptable(plainText("application.txt", PROPERTIES), ctx));
+
+        PlainText text = plainText("application.txt", PROPERTIES);
+        Assertions.assertSame(text, recipe.getVisitor().visit(text, ctx));
+    }
+
+    private static UnaryOperator<String> renames(Map<String, String> table) {
+        return key -> table.getOrDefault(key, key);
+    }
+
+    private static void assertSameAsLst(Recipe lstRecipe, Recipe recipe) {
+        ExecutionContext ctx = new InMemoryExecutionContext(t -> Assertions.fail(t));
+        SourceFile file = PropertiesParser.builder().build().parse(PROPERTIES).findFirst().orElseThrow();
+
+        String expected = ((SourceFile) lstRecipe.getVisitor().visit(file, ctx)).printAll();
+        String actual = ((PlainText) recipe.getVisitor().visit(plainText("application.properties", PROPERTIES), ctx)).getText();
+
+        Assertions.assertNotEquals(PROPERTIES, expected, "Recipe did not change the file");
+        Assertions.assertEquals(expected, actual);
+    }
+
+    private static PlainText plainText(String path, String text) {
+        return PlainText.builder().id(Tree.randomId()).sourcePath(Paths.get(path)).text(text).build();
+    }
+}
@@ -0,0 +1,299 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.upgrade;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.openrewrite.Recipe;
+import org.openrewrite.config.Environment;
+import org.openrewrite.config.YamlResourceLoader;
+import org.openrewrite.test.RewriteTest;
+import org.openrewrite.test.TypeValidation;
+
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+
+import static org.openrewrite.java.Assertions.java;
+import static org.openrewrite.properties.Assertions.properties;
+import static org.openrewrite.test.SourceSpecs.text;
+
+public class CamelRecipePlanTest implements RewriteTest {
+
+    //language=yaml
+    private static final String RECIPES = """
+            type: specs.openrewrite.org/v1beta/recipe
+            name: org.apache.camel.upgrade.test.Latest
+            displayName: Latest
+            description: Latest.
+            recipeList:
+              - org.apache.camel.upgrade.test.Next
+              - org.openrewrite.properties.ChangePropertyKey:
+                  oldPropertyKey: camel.old
+                  newPropertyKey: camel.new
+              - org.openrewrite.properties.ChangePropertyValue:
+                  propertyKey: camel.new
+                  newValue: latest
+            ---
+            type: specs.openrewrite.org/v1beta/recipe
+            name: org.apache.camel.upgrade.test.Next
+            displayName: Next
+            description: Next.
+            recipeList:
+              - org.openrewrite.properties.ChangePropertyKey:
+                  oldPropertyKey: camel.old
+                  newPropertyKey: camel.new
+              - org.openrewrite.properties.ChangePropertyKey:
+                  oldPropertyKey: camel.other
+                  newPropertyKey: camel.renamed
+            """;
+
+    //language=yaml
+    private static final String POM_RECIPES = """
+            type: specs.openrewrite.org/v1beta/recipe
+            name: org.apache.camel.upgrade.test.Pom
+            displayName: Pom
+            description: Pom.
+            recipeList:
+              - org.openrewrite.maven.RemoveDependency:
+                  groupId: org.apache.camel
+                  artifactId: camel-kafka
+              - org.openrewrite.properties.ChangePropertyKey:
+                  oldPropertyKey: camel.old
+                  newPropertyKey: camel.new
+              - org.openrewrite.maven.UpgradeDependencyVersion:
+                  groupId: org.apache.camel
+                  artifactId: '*'
+                  newVersion: 4.20.0
+              - org.openrewrite.maven.ChangePropertyValue:
+                  key: camel.version
+                  newValue: 4.20.0
+            """;
+
+    //language=yaml
+    private static final String CONFLICTING_POM_RECIPES = """
+            type: specs.openrewrite.org/v1beta/recipe
+            name: org.apache.camel.upgrade.test.ConflictingPom
+            displayName: Conflicting pom
+            description: Conflicting pom.
+            recipeList:
+              - org.openrewrite.maven.ChangeDependencyGroupIdAndArtifactId:
+                  oldGroupId: org.apache.camel
+                  oldArtifactId: camel-a
+                  newGroupId: org.apache.camel
+                  newArtifactId: camel-b
+              - org.openrewrite.maven.UpgradeDependencyVersion:
+                  groupId: org.apache.camel
+                  artifactId: '*'
+                  newVersion: 4.20.0
+              - org.openrewrite.maven.RemoveDependency:
+                  groupId: org.apache.camel
+                  artifactId: camel-a
+              - org.openrewrite.maven.ChangePropertyValue:
+                  key: camel.version
+                  newValue: 4.20.0
+            """;
+
+    //language=yaml
+    private static final String KEY_RECIPES = """
+            type: specs.openrewrite.org/v1beta/recipe
+            name: org.apache.camel.upgrade.test.Keys
+            displayName: Keys
+            description: Keys.
+            recipeList:
+              - org.apache.camel.upgrade.customRecipes.PropertiesAndYamlKeyUpdate:
+                  oldPropertyKey: camel.old
+                  newPropertyKey: camel.new
+              - org.openrewrite.properties.ChangePropertyKey:
+                  oldPropertyKey: camel.old
+                  newPropertyKey: camel.new
+              - org.apache.camel.upgrade.customRecipes.PropertiesAndYamlKeyUpdate:
+                  oldPropertyKey: camel.new
+                  newPropertyKey: camel.latest
+            """;
+
+    private static Recipe activate(String name) {
+        return activate(RECIPES, name);
+    }
+
+    private static Recipe activate(String recipes, String name) {
+        return Environment.builder()
+                .load(new YamlResourceLoader(new ByteArrayInputStream(recipes.getBytes(StandardCharsets.UTF_8)),
+                        URI.create("test.yaml"), new Properties()))
+                .build()
+                .activateRecipes(name);
+    }
+
+    @Test
+    void duplicatesRemovedInOrder() {
+        CamelRecipePlan plan = CamelRecipePlan.compile(activate("org.apache.camel.upgrade.test.Latest"));
+
+        List<String> keys = plan.getRecipe().getRecipeList().stream().map(CamelRecipePlan::key).toList();
+        Assertions.assertEquals(3, keys.size());
+        Assertions.assertTrue(keys.get(0).contains("oldPropertyKey=camel.old"));
+        Assertions.assertTrue(keys.get(1).contains("oldPropertyKey=camel.other"));
+        Assertions.assertTrue(keys.get(2).startsWith("org.openrewrite.properties.ChangePropertyValue"));
+
+        Assertions.assertEquals(1, plan.getRemoved().size());
+        Assertions.assertTrue(plan.getRemoved().get(0).contains("kept at org.apache.camel.upgrade.test.Latest > "
+                + "org.apache.camel.upgrade.test.Next > org.openrewrite.properties.ChangePropertyKey"));
+        Assertions.assertEquals("org.apache.camel.upgrade.test.Latest", plan.getRecipe().getName());
+    }
+
+    @Test
+    void planRunsLikeTheRecipe() {
+        rewriteRun(spec -> spec.recipe(CamelRecipePlan.compile(activate("org.apache.camel.upgrade.test.Latest"))
+                        .getRecipe()),
+                properties("""
+                        camel.old=value
+                        camel.other=other
+                        """, """
+                        camel.new=latest
+                        camel.renamed=other
+                        """));
+    }
+
+    @Test
+    void pomChangesAligned() {
+        List<Recipe> recipes = CamelRecipePlan.compile(activate(POM_RECIPES, "org.apache.camel.upgrade.test.Pom"))
+                .getRecipe().getRecipeList();
+
+        Assertions.assertEquals(2, recipes.size());
+        Assertions.assertEquals("org.openrewrite.properties.ChangePropertyKey", recipes.get(0).getName());
+        Assertions.assertInstanceOf(CamelPomAlignment.class, recipes.get(1));
+        Assertions.assertTrue(CamelRecipePlan.key(recipes.get(1)).contains("upgradedGroups=[org.apache.camel=4.20.0]"),
+                CamelRecipePlan.key(recipes.get(1)));
+    }
+
+    @Test
+    void pomChangesAlignedUntilConflict() {
+        List<Recipe> recipes = CamelRecipePlan.compile(activate(CONFLICTING_POM_RECIPES,
+                "org.apache.camel.upgrade.test.ConflictingPom")).getRecipe().getRecipeList();
+
+        //removal of the moved dependency and the changes after it run by themselves, after the alignment
+        Assertions.assertEquals(List.of(CamelPomAlignment.class.getName(), "org.openrewrite.maven.RemoveDependency",
+                "org.openrewrite.maven.ChangePropertyValue"), recipes.stream().map(Recipe::getName).toList());
+    }
+
+    @Test
+    void keyUpdatesFolded() {
+        Recipe keys = activate(KEY_RECIPES, "org.apache.camel.upgrade.test.Keys");
+        List<Recipe> recipes = CamelRecipePlan.compile(keys).getRecipe().getRecipeList();
+
+        //the properties and yaml recipes of the key updates, without the repeated one, and the renames
+        Assertions.assertEquals(List.of("org.openrewrite.properties.ChangePropertyKey",
+                "org.openrewrite.yaml.ChangePropertyKey", "org.openrewrite.properties.ChangePropertyKey",
+                "org.openrewrite.yaml.ChangePropertyKey", CamelPropertiesKeyRenames.class.getName()),
+                recipes.stream().map(Recipe::getName).toList());
+        Assertions.assertTrue(CamelRecipePlan.key(recipes.get(4)).contains("renames=[camel.old=camel.new, camel.new=camel.latest]"),
+                CamelRecipePlan.key(recipes.get(4)));
+    }
+
+    @Test
+    void foldedKeyUpdatesRunLikeTheRecipe() {
+        rewriteRun(spec -> spec.recipe(CamelRecipePlan.compile(activate(KEY_RECIPES, "org.apache.camel.upgrade.test.Keys"))
+                        .getRecipe()),
+                text("""
+                        camel.old=value
+                        """, """
+                        camel.latest=value
+                        """, spec -> spec.path("application.properties")),
+                properties("""
+                        camel.old=value
+                        """, """
+                        camel.latest=value
+                        """));
+    }
+
+    @Test
+    void latestMigrationHasNoDuplicates() {
+        CamelRecipePlan plan = CamelRecipePlan.compile(Environment.builder()
+                .scanRuntimeClasspath()
+                .build()
+                .activateRecipes("org.apache.camel.upgrade.CamelMigrationRecipe"));
+
+        Set<String> keys = new HashSet<>();
+        for (Recipe recipe : plan.getRecipe().getRecipeList()) {
+            Assertions.assertTrue(keys.add(CamelRecipePlan.key(recipe)), CamelRecipePlan.key(recipe));
+        }
+    }
+
+    @Test
+    void latestMigrationConvergesInOneCycle() {
+        convergesInOneCycle(Environment.builder()
+                .scanRuntimeClasspath()
+                .build()
+                .activateRecipes("org.apache.camel.upgrade.CamelMigrationRecipe"));
+    }
+
+    @Test
+    void compiledMigrationConvergesInOneCycle() {
+        Assertions.assertEquals(
+                CamelRecipePlan.compile(CamelRecipeDelegate.load(null)).getRecipe().getRecipeList().size(),
+                new CamelCompiledMigration().getRecipeList().size());
+        convergesInOneCycle(new CamelCompiledMigration());
+    }
+
+    private void convergesInOneCycle(Recipe migration) {
+        //rules whose matchers still match their own output change the code once, also when the migration is run again
+        //on sources it already migrated
+        //language=java
+        rewriteRun(spec -> spec.recipe(migration)
+                        .parser(CamelTestUtil.parserFromClasspath(CamelTestUtil.CamelVersion.v4_0,
+                                "camel-api", "camel-util", "camel-base"))
+                        .typeValidationOptions(TypeValidation.none())
+                        .expectedCyclesThatMakeChanges(1),
+                java("""
+                        import org.apache.camel.component.properties.PropertiesLookup;
+                        import org.apache.camel.util.StopWatch;
+
+                        public class Migrate {
+                            public void test(PropertiesLookup pl) throws Exception {
+                                pl.lookup("test");
+                                StopWatch sw = new StopWatch(1L);
+                            }
+                        }
+                        """, """
+                        import org.apache.camel.component.properties.PropertiesLookup;
+                        import org.apache.camel.util.StopWatch;
+
+                        public class Migrate {
+                            public void test(PropertiesLookup pl) throws Exception {
+                                pl.lookup("test", null);
+                                StopWatch sw = /*Removed the deprecated constructor from the internal class org.apache.camel.util.StopWatch.
+                        Users of this class are advised to use the default constructor if necessary.Changed exception thrown from IOException to Exception.
+                        */new StopWatch();
+                            }
+                        }
+                        """),
+                java("""
+                        import org.apache.camel.component.properties.PropertiesLookup;
+                        import org.apache.camel.util.StopWatch;
+
+                        public class Migrated {
+                            public void test(PropertiesLookup pl) throws Exception {
+                                pl.lookup("test", null);
+                                StopWatch sw = new StopWatch();
+                            }
+                        }
+                        """));
+    }
+}
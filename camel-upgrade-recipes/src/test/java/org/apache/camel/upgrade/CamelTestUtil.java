@@ -16,16 +16,12 @@
  */
 package org.apache.camel.upgrade;
 
-import org.openrewrite.InMemoryExecutionContext;
 import org.openrewrite.Parser;
-import org.openrewrite.java.JavaParser;
 import org.openrewrite.test.RecipeSpec;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.InputStream;
-import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.util.*;
 
 public class CamelTestUtil {
@@ -113,16 +109,8 @@ public class CamelTestUtil {
     public static Parser.Builder parserFromClasspath(CamelVersion from, String... classpath) {
         List<String> resources = Arrays.stream(classpath).map(cl -> {
               if (cl.startsWith("camel-")) {
-                  String maxVersion = cl + "-" + from.getVersion();
                   //find the highest version lesser or equals the required one
-                  Path path = Paths.get("target", "test-classes", "META-INF", "rewrite", "classpath");
-                  Optional<String> dependency = Arrays.stream(path.toFile().listFiles())
-                    .filter(f -> f.getName().startsWith(cl))
-                    .map(f -> f.getName().substring(0, f.getName().lastIndexOf(".")))
-                    //filter out or higher version the requested
-                    .filter(f -> f.compareTo(maxVersion) <= 0)
-                    .sorted(Comparator.reverseOrder())
-                    .findFirst();
+                  Optional<String> dependency = CamelClasspath.resolve(cl, from.getVersion());
 
                   if (dependency.isEmpty()) {
                       LOGGER.warn("Dependency not found in classpath: {}", cl);
@@ -135,9 +123,7 @@ public class CamelTestUtil {
           .filter(Objects::nonNull)
           .toList();
 
-        return JavaParser.fromJavaVersion()
-          .logCompilationWarningsAndErrors(true)
-          .classpathFromResources(new InMemoryExecutionContext(), resources.toArray(new String[0]));
+        return CamelClasspath.parser(resources);
     }
 
     /**
@@ -0,0 +1,102 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.upgrade;
+
+import org.apache.camel.upgrade.camel47.XmlDsl47Recipe;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.openrewrite.config.CompositeRecipe;
+import org.openrewrite.test.RewriteTest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.openrewrite.test.SourceSpecs.text;
+import static org.openrewrite.xml.Assertions.xml;
+
+public class CamelTimeBudgetTest implements RewriteTest {
+
+    //language=xml
+    private static final String ROUTE = """
+                <route>
+                    <from uri="direct:start"/>
+                    <loadBalance>
+                        <roundRobin/>
+                        <to uri="mock:x"/>
+                    </loadBalance>
+                </route>
+            """;
+
+    //language=xml
+    private static final String MIGRATED_ROUTE = """
+                <route>
+                    <from uri="direct:start"/>
+                    <loadBalance>
+                        <roundRobinLoadBalancer/>
+                        <to uri="mock:x"/>
+                    </loadBalance>
+                </route>
+            """;
+
+    private static String routes(String route, int count) {
+        return "<routes xmlns=\"http://camel.apache.org/schema/spring\">\n" + route.repeat(count) + "</routes>\n";
+    }
+
+    @Test
+    void exceededBudgetSkipsFile() {
+        List<CamelTimeBudget.Report.Row> rows = new ArrayList<>();
+        //large enough for several checks of the deadline, which is exceeded right away
+        rewriteRun(spec -> spec.recipe(new CompositeRecipe(List.of(new CamelTimeBudget(0L), new XmlDsl47Recipe())))
+                        .dataTable(CamelTimeBudget.Report.Row.class, rows::addAll),
+                xml(routes(ROUTE, 500), spec -> spec.path("large.xml")),
+                xml(routes(ROUTE, 1), routes(MIGRATED_ROUTE, 1), spec -> spec.path("small.xml")));
+
+        Assertions.assertEquals(List.of(new CamelTimeBudget.Report.Row("large.xml", XmlDsl47Recipe.class.getName(), 0)),
+                rows);
+    }
+
+    @Test
+    void exceededBudgetSkipsPlainTextFile() {
+        //files excluded from xml parsing are migrated by the streaming rewriter, every token counts as a visited node
+        List<CamelTimeBudget.Report.Row> rows = new ArrayList<>();
+        rewriteRun(spec -> spec.recipe(new CompositeRecipe(List.of(new CamelTimeBudget(0L), new XmlDsl47Recipe())))
+                        .dataTable(CamelTimeBudget.Report.Row.class, rows::addAll),
+                text(routes(ROUTE, 500), spec -> spec.path("large.xml")),
+                text(routes(ROUTE, 1), routes(MIGRATED_ROUTE, 1), spec -> spec.path("small.xml")));
+
+        Assertions.assertEquals(List.of(new CamelTimeBudget.Report.Row("large.xml", XmlDsl47Recipe.class.getName(), 0)),
+                rows);
+    }
+
+    @Test
+    void budgetActivatedAfterTheMigration() {
+        //the budget is known once the files are scanned, before the first visit of the migration
+        List<CamelTimeBudget.Report.Row> rows = new ArrayList<>();
+        rewriteRun(spec -> spec.recipe(new CompositeRecipe(List.of(new XmlDsl47Recipe(), new CamelTimeBudget(0L))))
+                        .dataTable(CamelTimeBudget.Report.Row.class, rows::addAll),
+                xml(routes(ROUTE, 500), spec -> spec.path("large.xml")));
+
+        Assertions.assertEquals(List.of(new CamelTimeBudget.Report.Row("large.xml", XmlDsl47Recipe.class.getName(), 0)),
+                rows);
+    }
+
+    @Test
+    void withinBudget() {
+        rewriteRun(spec -> spec.recipe(new CompositeRecipe(List.of(new CamelTimeBudget(), new XmlDsl47Recipe()))),
+                xml(routes(ROUTE, 500), routes(MIGRATED_ROUTE, 500), spec -> spec.path("large.xml")));
+    }
+}
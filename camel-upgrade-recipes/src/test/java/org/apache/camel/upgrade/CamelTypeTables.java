@@ -0,0 +1,153 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.upgrade;
+
+import org.openrewrite.java.internal.parser.TypeTable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.Properties;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Generator of the type table of the old Camel artifacts used by the tests.
+ * <p>
+ * The build copies the historical Camel jars into {@code META-INF/rewrite/classpath} and runs this generator after the
+ * test classes are compiled (phase {@code process-test-classes}, see the pom), so the type table
+ * ({@code META-INF/rewrite/classpath.tsv.gz}) is in place even if the tests are skipped. The table keeps only the
+ * signatures of the public and protected members of the jars, and {@code JavaParser.Builder#classpathFromResources}
+ * prefers it to the jars, so the parsers attribute the old Camel types without opening the jars. The jars are still
+ * the source of the table, they are not packed into the test-jar while the table is.
+ * </p>
+ */
+public class CamelTypeTables {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CamelTypeTables.class);
+
+    /**
+     * Artifact id and version in the name of a jar, e.g. {@code camel-api-4.0.3.jar}.
+     */
+    static final Pattern JAR_NAME = Pattern.compile("(.+?)-(\\d.*)\\.jar");
+
+    /**
+     * {@code java org.apache.camel.upgrade.CamelTypeTables <classpath directory> <type table>}, the table is written
+     * only if it does not exist or is older than any jar.
+     */
+    public static void main(String[] args) {
+        if (args.length != 2) {
+            throw new IllegalArgumentException("Usage: CamelTypeTables <classpath directory> <type table>");
+        }
+        Path classpath = Paths.get(args[0]);
+        Path typeTable = Paths.get(args[1]);
+        if (!isUpToDate(classpath, typeTable)) {
+            write(classpath, typeTable);
+        }
+    }
+
+    /**
+     * Writes the type table of the jars in the directory. The table is written into a temporary file and moved, so a
+     * reader never sees a partial table.
+     */
+    public static void write(Path classpath, Path typeTable) {
+        List<Path> jars = jars(classpath);
+        try {
+            Path tmp = Files.createTempFile(typeTable.getParent(), "classpath", ".tsv.gz.tmp");
+            try (OutputStream out = Files.newOutputStream(tmp);
+                 TypeTable.Writer writer = TypeTable.newWriter(out)) {
+                for (Path jar : jars) {
+                    String[] gav = gav(jar);
+                    writer.jar(gav[0], gav[1], gav[2]).write(jar);
+                }
+            }
+            Files.move(tmp, typeTable, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write the type table " + typeTable, e);
+        }
+        LOGGER.info("Type table of {} jars written to {}", jars.size(), typeTable);
+    }
+
+    private static boolean isUpToDate(Path classpath, Path typeTable) {
+        if (!Files.exists(typeTable)) {
+            return false;
+        }
+        try {
+            FileTime written = Files.getLastModifiedTime(typeTable);
+            for (Path jar : jars(classpath)) {
+                if (Files.getLastModifiedTime(jar).compareTo(written) > 0) {
+                    return false;
+                }
+            }
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static List<Path> jars(Path classpath) {
+        try (Stream<Path> files = Files.list(classpath)) {
+            return files.filter(f -> f.getFileName().toString().endsWith(".jar"))
+                    .sorted()
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not list " + classpath, e);
+        }
+    }
+
+    /**
+     * Group id, artifact id and version from the maven metadata of the jar, from the name of the jar if missing.
+     * The parser looks the artifacts up by {@code artifactId-version}, the group id is informative.
+     */
+    private static String[] gav(Path jar) throws IOException {
+        try (JarFile jarFile = new JarFile(jar.toFile())) {
+            JarEntry pom = jarFile.stream()
+                    .filter(e -> e.getName().startsWith("META-INF/maven/") && e.getName().endsWith("/pom.properties"))
+                    .findFirst()
+                    .orElse(null);
+            if (pom != null) {
+                Properties properties = new Properties();
+                try (InputStream is = jarFile.getInputStream(pom)) {
+                    properties.load(is);
+                }
+                String artifactId = properties.getProperty("artifactId");
+                String version = properties.getProperty("version");
+                if (artifactId != null && version != null
+                        && jar.getFileName().toString().equals(artifactId + "-" + version + ".jar")) {
+                    return new String[] { properties.getProperty("groupId", "unknown"), artifactId, version };
+                }
+            }
+        }
+        Matcher matcher = JAR_NAME.matcher(jar.getFileName().toString());
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException("Could not determine the artifact of " + jar);
+        }
+        return new String[] { "unknown", matcher.group(1), matcher.group(2) };
+    }
+}
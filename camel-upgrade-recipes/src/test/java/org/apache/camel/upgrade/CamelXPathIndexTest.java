@@ -0,0 +1,110 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.upgrade;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.InMemoryExecutionContext;
+import org.openrewrite.xml.XPathMatcher;
+import org.openrewrite.xml.XmlParser;
+import org.openrewrite.xml.tree.Xml;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Verifies that {@link CamelXPathIndex} gives the same results as {@link XPathMatcher} for the expressions used by
+ * the recipes.
+ */
+public class CamelXPathIndexTest {
+
+    private static final List<String> EXPRESSIONS = List.of(
+            "/routes/route",
+            "/routes/route/description",
+            "//intercept/when",
+            "//marshal/json",
+            "*/bean",
+            "bean/property",
+            "bean",
+            "*/circuitBreaker/resilience4jConfiguration",
+            "*/circuitBreaker/resilience4jConfiguration/timeoutEnabled",
+            "*/route/resequence/stream-config",
+            "//route/to",
+            "routes//to");
+
+    //language=xml
+    private static final String DOCUMENT = """
+            <routes>
+                <bean name="b1"><property key="a" value="b"/></bean>
+                <route>
+                    <description>desc</description>
+                    <from uri="direct:start"/>
+                    <intercept><when><simple>true</simple></when></intercept>
+                    <circuitBreaker>
+                        <resilience4jConfiguration>
+                            <timeoutEnabled>true</timeoutEnabled>
+                        </resilience4jConfiguration>
+                    </circuitBreaker>
+                    <resequence><stream-config timeout="1000"/></resequence>
+                    <marshal><json library="Jackson"/></marshal>
+                    <choice><when><to uri="mock:a"/></when></choice>
+                    <to uri="mock:b"/>
+                </route>
+                <bean name="b2"><description>bean</description></bean>
+            </routes>
+            """;
+
+    @Test
+    void sameResultsAsXPathMatcher() {
+        CamelXPathIndex index = CamelXPathIndex.of(EXPRESSIONS);
+        Xml.Document document = XmlParser.builder().build()
+                .parse(DOCUMENT)
+                .findFirst()
+                .map(Xml.Document.class::cast)
+                .orElseThrow();
+
+        //failures are collected, because the visitor swallows exceptions thrown from the visit methods
+        List<String> mismatches = new ArrayList<>();
+        int[] matched = new int[1];
+        new AbstractCamelXmlVisitor(index) {
+            @Override
+            public Xml.Tag doVisitTag(Xml.Tag tag, ExecutionContext ctx) {
+                for (String expression : EXPRESSIONS) {
+                    boolean expected = new XPathMatcher(expression).matches(getCursor());
+                    if (expected != matchesXPath(expression)) {
+                        mismatches.add("Expression '" + expression + "' on tag '" + RecipesUtil.getProperty(getCursor()) + "'");
+                    }
+                    if (expected) {
+                        matched[0]++;
+                    }
+                }
+                return super.doVisitTag(tag, ctx);
+            }
+        }.visit(document, new InMemoryExecutionContext(t -> Assertions.fail(t)));
+
+        Assertions.assertEquals(List.of(), mismatches);
+        //sanity check that the document exercises the expressions
+        Assertions.assertTrue(matched[0] >= EXPRESSIONS.size());
+    }
+
+    @Test
+    void unsupportedExpression() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> CamelXPathIndex.of("//route[@id='a']"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> CamelXPathIndex.of("/routes/route/@id"));
+    }
+}
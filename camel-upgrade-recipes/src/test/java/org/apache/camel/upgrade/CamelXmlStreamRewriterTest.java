@@ -0,0 +1,178 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.upgrade;
+
+import org.apache.camel.upgrade.camel410.XmlDsl410Recipe;
+import org.apache.camel.upgrade.camel419.XmlDsl419SagaRecipe;
+import org.apache.camel.upgrade.camel43.CamelResequenceEIPXmlRecipe;
+import org.apache.camel.upgrade.camel47.XmlDsl47Recipe;
+import org.apache.camel.upgrade.customRecipes.ReplacePropertyInComponentXml;
+import org.apache.camel.upgrade.customRecipes.ReplacePropertyInDataFormatXml;
+import org.apache.camel.upgrade.customRecipes.internal.ChangeXmlComponentUriRecipe;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.InMemoryExecutionContext;
+import org.openrewrite.Recipe;
+import org.openrewrite.SourceFile;
+import org.openrewrite.Tree;
+import org.openrewrite.text.PlainText;
+import org.openrewrite.xml.XmlParser;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.file.Paths;
+
+/**
+ * Verifies that {@link CamelXmlStreamRewriter} is lossless and that recipes give the same results for plain text xml
+ * files as for parsed xml documents.
+ */
+public class CamelXmlStreamRewriterTest {
+
+    //language=xml
+    private static final String ROUTES = """
+            <?xml version="1.0" encoding="UTF-8"?>
+            <routes xmlns="http://camel.apache.org/schema/spring">
+                <route id="a">
+                    <from uri="direct:start"/>
+                    <intercept>
+                        <when><simple>${body} contains 'x'</simple></when>
+                    </intercept>
+                    <resequence>
+                        <stream-config timeout="1000" deliveryAttemptInterval="10"/>
+                        <simple>${header.seqnum}</simple>
+                    </resequence>
+                    <loadBalance>
+                        <roundRobin/>
+                        <to uri="mock:x"/>
+                    </loadBalance>
+                    <marshal>
+                        <jackson  prettyPrint = 'true' unmarshalType="com.foo.Bar" />
+                    </marshal>
+                    <saga>
+                        <compensation uri="direct:compensation" />
+                        <completion>direct:completion</completion>
+                        <to uri="mock:saga"/>
+                    </saga>
+                    <to uri="pulsar:persistent://tenant/namespace/topic"/>
+                    <to uri="kafka:topic?brokers=localhost:9092"/>
+                </route>
+            </routes>
+            """;
+
+    @Test
+    void losslessWithoutChanges() throws Exception {
+        //language=xml
+        String xml = "<?xml version='1.0'?>\r\n"
+                + "<!DOCTYPE routes [ <!ENTITY e \"<value>\"> ]>\r\n"
+                + "<!-- <route> in a comment -->\r\n"
+                + "<routes a = \"x>y\" b='1'\t>\r\n"
+                + "  <?pi data?>\r\n"
+                + "  <route><![CDATA[ <to uri=\"x\"/> ]]></route>\r\n"
+                + "  <empty/>text &amp; more\r\n"
+                + "</routes>";
+        CamelXmlStreamRewriter rewriter = new CamelXmlStreamRewriter(CamelXPathIndex.of("//saga"))
+                .onTag("//saga", tag -> tag.setName("changed"));
+
+        Assertions.assertSame(xml, rewriter.rewrite(xml));
+        StringWriter out = new StringWriter();
+        Assertions.assertFalse(rewriter.rewrite(new StringReader(xml), out));
+        Assertions.assertEquals(xml, out.toString());
+    }
+
+    @Test
+    void renameKeepsFormatting() {
+        CamelXmlStreamRewriter rewriter = new CamelXmlStreamRewriter(CamelXPathIndex.of("//route/to"))
+                .onTag("//route/to", tag -> {
+                    tag.setName("toD");
+                    tag.setAttribute("uri", tag.getAttribute("uri") + "2");
+                });
+
+        Assertions.assertEquals("<route>\n  <toD  uri = 'a2' ><x/></toD >\n</route>",
+                rewriter.rewrite("<route>\n  <to  uri = 'a' ><x/></to >\n</route>"));
+    }
+
+    @Test
+    void xmlDsl410() {
+        assertSameAsLst(new XmlDsl410Recipe());
+    }
+
+    @Test
+    void xmlDsl47() {
+        assertSameAsLst(new XmlDsl47Recipe());
+    }
+
+    @Test
+    void resequence() {
+        assertSameAsLst(new CamelResequenceEIPXmlRecipe());
+    }
+
+    @Test
+    void saga() {
+        assertSameAsLst(new XmlDsl419SagaRecipe());
+    }
+
+    @Test
+    void dataFormatProperty() {
+        assertSameAsLst(new ReplacePropertyInDataFormatXml("jackson", "prettyPrint", "pretty"));
+    }
+
+    @Test
+    void componentUri() {
+        assertSameAsLst(new ChangeXmlComponentUriRecipe("^pulsar:((persistent|non-persistent)://([^/]+)/([^/]+)/(.+))$",
+                "pulsar:${2}://${3}/${5}"));
+    }
+
+    @Test
+    void componentProperty() {
+        assertSameAsLst(new ReplacePropertyInComponentXml("kafka", "brokers", "bootstrapServers", "kafka:"));
+    }
+
+    @Test
+    void onlyXmlPlainTextIsAccepted() {
+        ExecutionContext ctx = new InMemoryExecutionContext();
+        Assertions.assertTrue(new XmlDsl410Recipe().getVisitor().isAcceptable(plainText("routes.xml", ROUTES), ctx));
+        Assertions.assertFalse(new XmlDsl410Recipe().getVisitor().isAcceptable(plainText("routes.txt", ROUTES), ctx));
+
+        PlainText text = plainText("routes.txt", ROUTES);
+        Assertions.assertSame(text, new XmlDsl410Recipe().getVisitor().visit(text, ctx));
+    }
+
+    @Test
+    void shortProcessingInstruction() {
+        CamelXmlStreamRewriter rewriter = new CamelXmlStreamRewriter(CamelXPathIndex.of("//route/to"))
+                .onTag("//route/to", tag -> tag.setName("toD"));
+
+        Assertions.assertEquals("<?a?><route><toD/><!----></route>",
+                rewriter.rewrite("<?a?><route><to/><!----></route>"));
+    }
+
+    private static void assertSameAsLst(Recipe recipe) {
+        ExecutionContext ctx = new InMemoryExecutionContext(t -> Assertions.fail(t));
+        SourceFile document = XmlParser.builder().build().parse(ROUTES).findFirst().orElseThrow();
+
+        String expected = ((SourceFile) recipe.getVisitor().visit(document, ctx)).printAll();
+        String actual = ((PlainText) recipe.getVisitor().visit(plainText("routes.xml", ROUTES), ctx)).getText();
+
+        Assertions.assertNotEquals(ROUTES, expected, "Recipe did not change the document");
+        Assertions.assertEquals(expected, actual);
+    }
+
+    private static PlainText plainText(String path, String text) {
+        return PlainText.builder().id(Tree.randomId()).sourcePath(Paths.get(path)).text(text).build();
+    }
+}
@@ -339,7 +339,7 @@ public class CamelAPIsTest implements RewriteTest {
     @Test
     void asyncCallback() {
         //language=java
-        rewriteRun(spec -> spec.expectedCyclesThatMakeChanges(2), java(
+        rewriteRun(spec -> spec.expectedCyclesThatMakeChanges(1), java(
           """
             import org.apache.camel.ProducerTemplate;
             import org.apache.camel.Exchange;
@@ -457,7 +457,7 @@ public class CamelAPIsTest implements RewriteTest {
     @Test
     void moreOccurrencesAdapt() {
         //language=java
-        rewriteRun(spec -> spec.expectedCyclesThatMakeChanges(2), java(
+        rewriteRun(spec -> spec.expectedCyclesThatMakeChanges(1), java(
           """
             import org.apache.camel.CamelContext;
             import org.apache.camel.model.ModelCamelContext;
@@ -495,7 +495,7 @@ public class CamelAPIsTest implements RewriteTest {
     @Test
     void adaptStandalone() {
         //language=java
-        rewriteRun(spec -> spec.expectedCyclesThatMakeChanges(2), java(
+        rewriteRun(spec -> spec.expectedCyclesThatMakeChanges(1), java(
           """
             import org.apache.camel.CamelContext;
             import org.apache.camel.model.ModelCamelContext;
@@ -951,7 +951,7 @@ public class CamelAPIsTest implements RewriteTest {
     @Test
     void threadPoolRejectedPolicy() {
         //language=java
-        rewriteRun(spec -> spec.expectedCyclesThatMakeChanges(2), java(
+        rewriteRun(spec -> spec.expectedCyclesThatMakeChanges(1), java(
           """
             import org.apache.camel.util.concurrent.ThreadPoolRejectedPolicy;
 
@@ -989,7 +989,7 @@ public class CamelAPIsTest implements RewriteTest {
     @Test
     void simpleBuilder() {
         //language=java
-        rewriteRun(spec -> spec.expectedCyclesThatMakeChanges(2), java(
+        rewriteRun(spec -> spec.expectedCyclesThatMakeChanges(1), java(
           """
             import org.apache.camel.builder.SimpleBuilder;
             """,
@@ -1073,7 +1073,7 @@ public class CamelAPIsTest implements RewriteTest {
     @Test
     void testarchetypeCatalogAsXml() {
         //language=java
-        rewriteRun(spec -> spec.expectedCyclesThatMakeChanges(2), java(
+        rewriteRun(spec -> spec.expectedCyclesThatMakeChanges(1), java(
           """
             import org.apache.camel.catalog.CamelCatalog;
 
@@ -1103,7 +1103,7 @@ public class CamelAPIsTest implements RewriteTest {
     @Test
     void mainListenerConfigureImpl() {
         //language=java
-        rewriteRun(spec -> spec.expectedCyclesThatMakeChanges(2), java(
+        rewriteRun(spec -> spec.expectedCyclesThatMakeChanges(1), java(
           """
             import org.apache.camel.CamelContext;
             import org.apache.camel.main.MainListener;
@@ -1133,7 +1133,7 @@ public class CamelAPIsTest implements RewriteTest {
     @Test
     void dumpRoutes() {
         //language=java
-        rewriteRun(spec -> spec.expectedCyclesThatMakeChanges(2), java(
+        rewriteRun(spec -> spec.expectedCyclesThatMakeChanges(1), java(
           """
             import org.apache.camel.CamelContext;
 
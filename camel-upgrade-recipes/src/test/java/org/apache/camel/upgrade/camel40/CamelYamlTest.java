@@ -92,17 +92,49 @@ public class CamelYamlTest implements RewriteTest {
                   uri: "log:original"
             """,
           """
-              - from:
+            - from:
+                uri: "direct:start"
+                steps:
+                - filter:
+                    expression:
+                      simple: "${in.header.continue} == true"
+                    steps:
+                      - to:
+                          uri: "log:filtered"
+                - to:
+                    uri: "log:original"
+            """));
+    }
+
+    @Test
+    void stepsToFromOnlyMovedLinesIndented() {
+        //language=yaml
+        rewriteRun(yaml(
+          """
+            - from:
+                  uri: "direct:start"
+              steps:
+                # log first
+                - log: |
+                    multi
+                    line
+                - to:
+                    uri: "log:original"
+            - from:
+                uri: "direct:other"
+            """,
+          """
+            - from:
                   uri: "direct:start"
                   steps:
-                    - filter:
-                        expression:
-                          simple: "${in.header.continue} == true"
-                        steps:
-                          - to:
-                              uri: "log:filtered"
+                    # log first
+                    - log: |
+                        multi
+                        line
                     - to:
                         uri: "log:original"
+            - from:
+                uri: "direct:other"
             """));
     }
 
@@ -125,18 +157,18 @@ public class CamelYamlTest implements RewriteTest {
                               expression: "onException has been triggered in yamlRouteConfiguration"
             """,
           """
-              - route-configuration:
-                  id: "yamlRouteConfiguration"
-                  on-exception:
-                    - on-exception:
-                        handled:
-                          constant: "true"
-                        exception:
-                          - "org.apache.camel.core.it.routeconfigurations.RouteConfigurationsException"
-                        steps:
-                          - set-body:
-                              constant:
-                                expression: "onException has been triggered in yamlRouteConfiguration"
+            - route-configuration:
+                id: "yamlRouteConfiguration"
+                on-exception:
+                - on-exception:
+                    handled:
+                      constant: "true"
+                    exception:
+                      - "org.apache.camel.core.it.routeconfigurations.RouteConfigurationsException"
+                    steps:
+                      - set-body:
+                          constant:
+                              expression: "onException has been triggered in yamlRouteConfiguration"
             """));
     }
 
@@ -186,31 +218,31 @@ public class CamelYamlTest implements RewriteTest {
                               expression: "onException has been triggered in yamlRouteConfiguration"
             """,
           """
-              - route-configuration:
-                  id: "yamlRouteConfiguration1"
-                  on-exception:
-                    - on-exception:
-                        handled:
-                          constant: "true"
-                        exception:
-                          - "org.apache.camel.core.it.routeconfigurations.RouteConfigurationsException"
-                        steps:
-                          - set-body:
-                              constant:
-                                expression: "onException has been triggered in yamlRouteConfiguration"
-              ---
-              - route-configuration:
-                  id: "yamlRouteConfiguration2"
-                  on-exception:
-                    - on-exception:
-                        handled:
-                          constant: "true"
-                        exception:
-                          - "org.apache.camel.core.it.routeconfigurations.RouteConfigurationsException"
-                        steps:
-                          - set-body:
-                              constant:
-                                expression: "onException has been triggered in yamlRouteConfiguration"
+            - route-configuration:
+                id: "yamlRouteConfiguration1"
+                on-exception:
+                - on-exception:
+                    handled:
+                      constant: "true"
+                    exception:
+                      - "org.apache.camel.core.it.routeconfigurations.RouteConfigurationsException"
+                    steps:
+                      - set-body:
+                          constant:
+                              expression: "onException has been triggered in yamlRouteConfiguration"
+            ---
+            - route-configuration:
+                id: "yamlRouteConfiguration2"
+                on-exception:
+                - on-exception:
+                    handled:
+                      constant: "true"
+                    exception:
+                      - "org.apache.camel.core.it.routeconfigurations.RouteConfigurationsException"
+                    steps:
+                      - set-body:
+                          constant:
+                              expression: "onException has been triggered in yamlRouteConfiguration"
             """));
     }
 
@@ -215,7 +215,7 @@ public class CamelUpdate43Test implements RewriteTest {
     @Test
     void throttleEIP() {
         //language=java
-        rewriteRun(java(
+        rewriteRun(spec -> spec.expectedCyclesThatMakeChanges(1), java(
           """
             import org.apache.camel.builder.RouteBuilder;
 
@@ -288,6 +288,36 @@ public class CamelUpdate43Test implements RewriteTest {
                    \s"""));
     }
 
+    @Test
+    void throttleEIPLongChain() {
+        //long Java DSL routes are visited without recursion over the whole chain
+        String steps = "\n                .to(\"seda:b\")".repeat(500);
+        //language=java
+        rewriteRun(spec -> spec.expectedCyclesThatMakeChanges(1), java(
+          """
+            import org.apache.camel.builder.RouteBuilder;
+
+            public class ThrottleEIPTest extends RouteBuilder {
+                @Override
+                void configure() {
+                    from("seda:a")
+                            .throttle(100L).timePeriodMillis(500)%s;
+                }
+            }
+            """.formatted(steps),
+          """
+            import org.apache.camel.builder.RouteBuilder;
+
+            public class ThrottleEIPTest extends RouteBuilder {
+                @Override
+                void configure() {
+                    /* Throttle now uses the number of concurrent requests as the throttling measure instead of the number of requests per period.*/from("seda:a")
+                            .throttle(100L)%s;
+                }
+            }
+            """.formatted(steps)));
+    }
+
     /**
      * <p>
      * The header name for the List<RecordMetadata> metadata has changed from
@@ -105,7 +105,7 @@ public class CamelUpdate44Test implements RewriteTest {
     @Test
     void stopWatchConstructor() {
         //language=java
-        rewriteRun(java(
+        rewriteRun(spec -> spec.expectedCyclesThatMakeChanges(1), java(
           """
             import org.apache.camel.util.StopWatch;
 
@@ -167,7 +167,7 @@ public class CamelUpdate44Test implements RewriteTest {
     @Test
     void propertiesLookup() {
         //language=java
-        rewriteRun(java(
+        rewriteRun(spec -> spec.expectedCyclesThatMakeChanges(1), java(
           """
             import org.apache.camel.component.properties.PropertiesLookup;
 